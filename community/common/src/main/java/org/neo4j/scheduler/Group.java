@@ -34,6 +34,12 @@ public enum Group {
     PAGE_CACHE_EVICTION("PageCacheEviction"),
     /* Page cache background eviction. */
     PAGE_CACHE_PRE_FETCHER("PageCachePreFetcher", ExecutorServiceFactory.cachedWithDiscard(), 4),
+    /* Page cache explicit, asynchronous page fetching. */
+    PAGE_CACHE_PAGE_FETCHER("PageCachePageFetcher"),
+    /* Page cache profiling and warmup from profiles at startup. */
+    PAGE_CACHE_WARMER("PageCacheWarmer"),
+    /* Page cache background flushing of dirty pages. */
+    PAGE_CACHE_FLUSHER("PageCacheFlusher"),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER("FileWatcher", ExecutorServiceFactory.unschedulable()),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.io.pagecache.IOController.DISABLED;
+import static org.neo4j.io.pagecache.impl.muninn.EvictionBouncer.ALWAYS_ALLOW;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+
+class CompressedPageSwapperTest {
+    private static final int PAGE_SIZE = 8192;
+
+    private final SwapperSet swapperSet = new SwapperSet();
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+    private EphemeralFileSystemAbstraction fs;
+    private CompressedPageSwapperFactory factory;
+    private long page;
+
+    @BeforeEach
+    void setUp() {
+        fs = new EphemeralFileSystemAbstraction();
+        var tracer = new DefaultPageCacheTracer();
+        var delegate = new SingleFilePageSwapperFactory(fs, tracer, EmptyMemoryTracker.INSTANCE);
+        factory = new CompressedPageSwapperFactory(delegate, fs, tracer, List.of("*.cold"), 3, memoryTracker);
+        page = UnsafeUtil.allocateMemory(PAGE_SIZE, EmptyMemoryTracker.INSTANCE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        UnsafeUtil.free(page, PAGE_SIZE, EmptyMemoryTracker.INSTANCE);
+        fs.close();
+    }
+
+    @Test
+    void compressibleAndIncompressiblePagesMustRoundTrip() throws IOException {
+        Path file = Path.of("store.cold");
+        try (PageSwapper swapper = createSwapper(file, true)) {
+            assertThat(swapper).isInstanceOf(CompressedPageSwapper.class);
+
+            fillCompressible(7);
+            assertThat(swapper.write(0, page)).isEqualTo(PAGE_SIZE);
+            byte[] random = fillRandom();
+            assertThat(swapper.write(1, page)).isEqualTo(PAGE_SIZE);
+            assertThat(swapper.getLastPageId()).isEqualTo(1);
+
+            clear();
+            assertThat(swapper.read(0, page)).isEqualTo(PAGE_SIZE);
+            assertCompressible(7);
+            clear();
+            assertThat(swapper.read(1, page)).isEqualTo(PAGE_SIZE);
+            assertThat(contents()).isEqualTo(random);
+        }
+    }
+
+    @Test
+    void pagesMustSurviveRewriteAndReopen() throws IOException {
+        Path file = Path.of("store.cold");
+        try (PageSwapper swapper = createSwapper(file, true)) {
+            for (int i = 0; i < 10; i++) {
+                fillCompressible(i);
+                swapper.write(i, page);
+            }
+            fillCompressible(42);
+            swapper.write(3, page);
+            swapper.force();
+        }
+
+        assertThat(fs.getFileSize(file)).isLessThan(10L * PAGE_SIZE);
+        assertThat(fs.fileExists(CompressedPageSwapper.tablePath(file))).isTrue();
+
+        try (PageSwapper swapper = createSwapper(file, false)) {
+            assertThat(swapper).isInstanceOf(CompressedPageSwapper.class);
+            assertThat(swapper.getLastPageId()).isEqualTo(9);
+            for (int i = 0; i < 10; i++) {
+                clear();
+                swapper.read(i, page);
+                assertCompressible(i == 3 ? 42 : i);
+            }
+        }
+    }
+
+    @Test
+    void compressionBuffersMustBeTrackedAndReleasedOnClose() throws IOException {
+        try (PageSwapper swapper = createSwapper(Path.of("store.cold"), true)) {
+            fillCompressible(5);
+            swapper.write(0, page);
+            clear();
+            swapper.read(0, page);
+            assertCompressible(5);
+            assertThat(memoryTracker.usedNativeMemory()).isPositive();
+        }
+        assertThat(memoryTracker.usedNativeMemory()).isZero();
+    }
+
+    @Test
+    void readBeyondEndOfFileMustReturnZeroes() throws IOException {
+        try (PageSwapper swapper = createSwapper(Path.of("store.cold"), true)) {
+            fillCompressible(1);
+            swapper.write(0, page);
+
+            fillCompressible(1);
+            assertThat(swapper.read(5, page)).isZero();
+            assertThat(contents()).containsOnly(0);
+        }
+    }
+
+    @Test
+    void truncateMustDropPages() throws IOException {
+        try (PageSwapper swapper = createSwapper(Path.of("store.cold"), true)) {
+            for (int i = 0; i < 4; i++) {
+                fillCompressible(i);
+                swapper.write(i, page);
+            }
+            swapper.truncate(2L * PAGE_SIZE);
+            assertThat(swapper.getLastPageId()).isEqualTo(1);
+
+            swapper.truncate();
+            assertThat(swapper.getLastPageId()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void nonMatchingAndExistingPlainFilesMustUseDelegate() throws IOException {
+        try (PageSwapper swapper = createSwapper(Path.of("store.hot"), true)) {
+            assertThat(swapper).isInstanceOf(SingleFilePageSwapper.class);
+        }
+
+        Path plain = Path.of("plain.cold");
+        try (var channel = fs.write(plain)) {
+            channel.writeAll(ByteBuffer.allocate(PAGE_SIZE));
+        }
+        try (PageSwapper swapper = createSwapper(plain, false)) {
+            assertThat(swapper).isInstanceOf(SingleFilePageSwapper.class);
+        }
+    }
+
+    @Test
+    void mustNotCreateMissingFileUnlessAsked() {
+        assertThatThrownBy(() -> createSwapper(Path.of("missing.cold"), false))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void closeAndDeleteMustRemoveTranslationTable() throws IOException {
+        Path file = Path.of("store.cold");
+        PageSwapper swapper = createSwapper(file, true);
+        fillCompressible(1);
+        swapper.write(0, page);
+        swapper.closeAndDelete();
+
+        assertThat(fs.fileExists(file)).isFalse();
+        assertThat(fs.fileExists(CompressedPageSwapper.tablePath(file))).isFalse();
+    }
+
+    private PageSwapper createSwapper(Path file, boolean createIfNotExist) throws IOException {
+        return factory.createPageSwapper(
+                file, PAGE_SIZE, null, createIfNotExist, false, DISABLED, ALWAYS_ALLOW, swapperSet);
+    }
+
+    private void fillCompressible(int seed) {
+        for (int i = 0; i < PAGE_SIZE; i += Long.BYTES) {
+            UnsafeUtil.putLong(page + i, seed * 31L + (i / 64));
+        }
+    }
+
+    private void assertCompressible(int seed) {
+        for (int i = 0; i < PAGE_SIZE; i += Long.BYTES) {
+            assertThat(UnsafeUtil.getLong(page + i)).isEqualTo(seed * 31L + (i / 64));
+        }
+    }
+
+    private byte[] fillRandom() {
+        byte[] bytes = new byte[PAGE_SIZE];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UnsafeUtil.putByte(page + i, bytes[i]);
+        }
+        return bytes;
+    }
+
+    private byte[] contents() {
+        byte[] bytes = new byte[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bytes[i] = UnsafeUtil.getByte(page + i);
+        }
+        return bytes;
+    }
+
+    private void clear() {
+        UnsafeUtil.setMemory(page, PAGE_SIZE, (byte) 0);
+    }
+}
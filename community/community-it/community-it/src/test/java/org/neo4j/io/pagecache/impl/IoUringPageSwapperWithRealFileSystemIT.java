@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.test.Race.throwing;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.nativeimpl.IoUring;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.Race;
+
+public class IoUringPageSwapperWithRealFileSystemIT extends SingleFilePageSwapperWithRealFileSystemIT {
+    @Override
+    protected PageSwapperFactory swapperFactory(FileSystemAbstraction fileSystem) {
+        return new IoUringPageSwapperFactory(fileSystem, new DefaultPageCacheTracer(), EmptyMemoryTracker.INSTANCE);
+    }
+
+    @Test
+    void interruptedVectoredWritesMustOnlyWriteToTheirOwnFile() throws Throwable {
+        assumeTrue(IoUring.isAvailable(), IoUring.describe());
+        int filePages = 16;
+        long page = createPage(cachePageSize);
+        putInt(page, 0, 1);
+        PageSwapper swapper = createSwapper(createSwapperFactory(getFs()), getPath(), cachePageSize, NO_CALLBACK, true);
+        Path bystander = testDir.file("bystander");
+
+        var writer = new AtomicReference<Thread>();
+        var done = new AtomicBoolean();
+        var race = new Race();
+        race.addContestant(
+                throwing(() -> {
+                    writer.set(Thread.currentThread());
+                    try {
+                        for (int i = 0; i < 10_000; i++) {
+                            swapper.write(i % filePages, new long[] {page}, new int[] {cachePageSize}, 1, 1);
+                        }
+                    } finally {
+                        done.set(true);
+                        Thread.interrupted();
+                    }
+                }),
+                1);
+        race.addContestant(
+                () -> {
+                    while (!done.get()) {
+                        Thread thread = writer.get();
+                        if (thread != null) {
+                            thread.interrupt();
+                        }
+                    }
+                },
+                1);
+        // Keeps opening another file, to pick up the descriptor of the swapper if an interrupt ever closes it.
+        race.addContestant(
+                throwing(() -> {
+                    while (!done.get()) {
+                        getFs().write(bystander).close();
+                    }
+                }),
+                1);
+        race.go();
+
+        assertThat(getFs().getFileSize(bystander)).isZero();
+        long readPage = createPage(cachePageSize);
+        for (int filePageId = 0; filePageId < filePages; filePageId++) {
+            swapper.read(filePageId, readPage);
+            assertThat(getInt(readPage, 0)).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.pagecache.impl.muninn.FrequencySketch.MAX_FREQUENCY;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.test.Race;
+
+class FrequencySketchTest {
+    @Test
+    void unseenKeyHasNoFrequency() {
+        var sketch = new FrequencySketch(1024);
+        sketch.increment(1);
+
+        assertThat(sketch.frequency(2)).isZero();
+    }
+
+    @Test
+    void incrementKeyUpToMaxFrequency() {
+        var sketch = new FrequencySketch(1024);
+        for (int i = 1; i <= MAX_FREQUENCY; i++) {
+            sketch.increment(42);
+            assertThat(sketch.frequency(42)).isEqualTo(i);
+        }
+
+        sketch.increment(42);
+        assertThat(sketch.frequency(42)).isEqualTo(MAX_FREQUENCY);
+    }
+
+    @Test
+    void halveKeyFrequency() {
+        var sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(42);
+        }
+
+        sketch.halve(42);
+        assertThat(sketch.frequency(42)).isEqualTo(4);
+        sketch.halve(42);
+        sketch.halve(42);
+        sketch.halve(42);
+        assertThat(sketch.frequency(42)).isZero();
+    }
+
+    @Test
+    void ageAllKeysWhenSampleSizeIsReached() {
+        var sketch = new FrequencySketch(64);
+        for (int i = 0; i < MAX_FREQUENCY; i++) {
+            sketch.increment(-1);
+        }
+        assertThat(sketch.frequency(-1)).isEqualTo(MAX_FREQUENCY);
+
+        // Sample size is ten times the expected number of keys.
+        for (int key = 0; key < 640 - MAX_FREQUENCY; key++) {
+            sketch.increment(key);
+        }
+        assertThat(sketch.frequency(-1)).isLessThan(MAX_FREQUENCY);
+    }
+
+    @Test
+    void concurrentIncrementsMustNotOverflowIntoNeighbouringCounters() {
+        // Large enough to never be aged during the race.
+        var sketch = new FrequencySketch(1 << 20);
+        int keys = 64;
+        var race = new Race();
+        race.addContestants(8, () -> {
+            for (int i = 0; i < 100_000; i++) {
+                sketch.increment(i % keys);
+            }
+        });
+        race.goUnchecked();
+
+        for (int key = 0; key < keys; key++) {
+            assertThat(sketch.frequency(key)).isEqualTo(MAX_FREQUENCY);
+        }
+    }
+}
@@ -58,6 +58,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
@@ -66,10 +67,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntSupplier;
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
@@ -120,6 +123,7 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
 import org.neo4j.memory.DefaultScopedMemoryTracker;
 import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.OnDemandJobScheduler;
 import org.neo4j.test.Race;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
@@ -389,6 +393,29 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void concurrentPageFaultsMustNeverGetTheSameFreePage() throws Throwable {
+        int maxPages = 1024;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer())) {
+            Set<Long> pagesInUse = ConcurrentHashMap.newKeySet();
+            var race = new Race();
+            race.addContestants(
+                    8,
+                    Race.throwing(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            long pageRef = pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL);
+                            assertTrue(pagesInUse.add(pageRef));
+                            assertTrue(pagesInUse.remove(pageRef));
+                            pageCache.addFreePageToFreelist(pageRef, EvictionRunEvent.NULL);
+                        }
+                    }));
+            race.go();
+
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(maxPages));
+            assertEquals(1, pageCache.tryGetNumberOfPagesToEvict(maxPages + 1));
+        }
+    }
+
     @Test
     void reuseSwapperIdOnFileClose() throws IOException {
         try (MuninnPageCache pageCache = createPageCache(fs, 50, new DefaultPageCacheTracer())) {
@@ -2590,6 +2617,268 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         });
     }
 
+    @Test
+    void prefetchShouldLoadPagesIntoPageCacheInTheBackground() throws Exception {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer(true);
+        getPageCache(fs, 1000, tracer);
+        Path file = file("a");
+        int pages = 128;
+        generateFile(file, pages);
+
+        try (var pf = map(file, filePageSize)) {
+            long[] toPrefetch = {3, 4, 5, 17, 100};
+            var initialFaults = tracer.faults();
+            pf.prefetch(toPrefetch, NULL_CONTEXT);
+            assertEventually(
+                    tracer::faults, faults -> faults == initialFaults + 5, SHORT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            var faultsAfterPrefetch = tracer.faults();
+            try (var cursor = pf.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                for (long pageId : toPrefetch) {
+                    assertThat(cursor.next(pageId)).isTrue();
+                    int valueInPage;
+                    do {
+                        valueInPage = cursor.getInt();
+                    } while (cursor.shouldRetry());
+                    assertThat(valueInPage).isEqualTo((int) pageId);
+                }
+            }
+            assertThat(tracer.faults()).isEqualTo(faultsAfterPrefetch);
+        }
+    }
+
+    @Test
+    void prefetchShouldIgnorePagesBeyondEndOfFile() throws Exception {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer(true);
+        getPageCache(fs, 1000, tracer);
+        Path file = file("a");
+        int pages = 16;
+        generateFile(file, pages);
+
+        var sizeBefore = fs.getFileSize(file);
+        try (var pf = map(file, filePageSize)) {
+            var initialFaults = tracer.faults();
+            pf.prefetch(new long[] {-1, pages, pages + 10}, NULL_CONTEXT);
+            pf.prefetch(new long[] {pages - 1}, NULL_CONTEXT);
+            assertEventually(
+                    tracer::faults, faults -> faults == initialFaults + 1, SHORT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            assertThat(pf.getLastPageId()).isEqualTo(pages - 1);
+        }
+        assertThat(fs.getFileSize(file)).isEqualTo(sizeBefore);
+    }
+
+    @Test
+    void partitionedPageCacheMustHandOutEveryPageOnce() throws IOException {
+        int maxPages = 4096;
+        try (var pageCache = createPartitionedPageCache(maxPages, 4)) {
+            assertEquals(4, pageCache.getPartitionCount());
+            var pages = LongSets.mutable.empty();
+            for (int i = 0; i < maxPages; i++) {
+                assertTrue(pages.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL)));
+            }
+            assertEquals(12, pageCache.tryGetNumberOfPagesToEvict(12));
+
+            pages.forEach(page -> pageCache.addFreePageToFreelist(page, EvictionRunEvent.NULL));
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(maxPages));
+        }
+    }
+
+    @Test
+    void tinyPageCacheMustNotBePartitioned() {
+        try (var pageCache = createPartitionedPageCache(1024, 4)) {
+            assertEquals(1, pageCache.getPartitionCount());
+        }
+    }
+
+    @Test
+    void partitionedPageCacheMustEvictAndReloadPages() throws IOException {
+        int maxPages = 2048;
+        try (var pageCache = createPartitionedPageCache(maxPages, 2)) {
+            assertEquals(2, pageCache.getPartitionCount());
+            int filePages = maxPages * 3;
+            try (var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+                try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    for (int i = 0; i < filePages; i++) {
+                        assertTrue(cursor.next(i));
+                        cursor.putLong(i);
+                    }
+                }
+                try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    for (int i = 0; i < filePages; i++) {
+                        assertTrue(cursor.next(i));
+                        long value;
+                        do {
+                            value = cursor.getLong(0);
+                        } while (cursor.shouldRetry());
+                        assertEquals(i, value);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void backgroundFlushMustWriteDirtyPagesDownToTargetRatio() throws IOException {
+        int maxPages = 1000;
+        var configuration = MuninnPageCache.config(maxPages)
+                .backgroundFlushDirtyRatio(0.01)
+                .closeAllocatorOnShutdown(true);
+        // The on demand scheduler never runs the flush task, so only this test flushes.
+        try (var pageCache = new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL),
+                        new OnDemandJobScheduler(),
+                        configuration);
+                var pagedFile = (MuninnPagedFile) map(pageCache, file("a"), pageCache.pageSize())) {
+            writeLongs(pagedFile, 0, 100, 0);
+            int targetDirtyPages = (int) (pageCache.maxCachedPages() * 0.01);
+            assertEquals(100, pageCache.pages.getModifiedPageCount());
+            assertEquals(100 - targetDirtyPages, pageCache.flushDirtyPagesAboveTarget());
+            assertEquals(targetDirtyPages, pageCache.pages.getModifiedPageCount());
+            assertEquals(0, pageCache.flushDirtyPagesAboveTarget());
+
+            pagedFile.flushAndForce(FileFlushEvent.NULL);
+            assertEquals(0, pageCache.pages.getModifiedPageCount());
+        }
+    }
+
+    @Test
+    void backgroundFlushMustNotWriteDirtyPagesBelowTargetRatio() throws IOException {
+        var configuration =
+                MuninnPageCache.config(1000).backgroundFlushDirtyRatio(0.5).closeAllocatorOnShutdown(true);
+        try (var pageCache = new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL),
+                        new OnDemandJobScheduler(),
+                        configuration);
+                var pagedFile = (MuninnPagedFile) map(pageCache, file("a"), pageCache.pageSize())) {
+            writeLongs(pagedFile, 0, 100, 0);
+            assertEquals(0, pageCache.flushDirtyPagesAboveTarget());
+            assertEquals(100, pageCache.pages.getModifiedPageCount());
+        }
+    }
+
+    @Test
+    void backgroundFlushMustContinueWhereThePreviousFlushStopped() throws IOException {
+        var configuration =
+                MuninnPageCache.config(1000).backgroundFlushDirtyRatio(0.5).closeAllocatorOnShutdown(true);
+        try (var pageCache = new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL),
+                        new OnDemandJobScheduler(),
+                        configuration);
+                var pagedFile = (MuninnPagedFile) map(pageCache, file("a"), pageCache.pageSize())) {
+            writeLongs(pagedFile, 0, 100, 0);
+            try (var buffer = DISABLED_BUFFER_FACTORY.createBuffer()) {
+                assertEquals(10, pagedFile.flushDirtyPages(FileFlushEvent.NULL, buffer, 10));
+                assertEquals(0, readLongOnDisk(pagedFile, 0));
+                assertThat(readLongOnDisk(pagedFile, 10)).isNotEqualTo(10);
+
+                // Dirtying the first pages again must not make the next flush start over from them.
+                writeLongs(pagedFile, 0, 10, 1000);
+                assertEquals(10, pagedFile.flushDirtyPages(FileFlushEvent.NULL, buffer, 10));
+                assertEquals(0, readLongOnDisk(pagedFile, 0));
+                assertEquals(10, readLongOnDisk(pagedFile, 10));
+                assertEquals(19, readLongOnDisk(pagedFile, 19));
+                assertThat(readLongOnDisk(pagedFile, 20)).isNotEqualTo(20);
+
+                // Flushing the rest wraps around to the first pages.
+                assertEquals(90, pagedFile.flushDirtyPages(FileFlushEvent.NULL, buffer, 1000));
+                assertEquals(1000, readLongOnDisk(pagedFile, 0));
+                assertEquals(99, readLongOnDisk(pagedFile, 99));
+                assertEquals(0, pageCache.pages.getModifiedPageCount());
+            }
+        }
+    }
+
+    private static void writeLongs(PagedFile pagedFile, long firstPageId, int count, long delta) throws IOException {
+        try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (long pageId = firstPageId; pageId < firstPageId + count; pageId++) {
+                assertTrue(cursor.next(pageId));
+                cursor.putLong(pageId + delta);
+            }
+        }
+    }
+
+    /**
+     * @return the first long of the given page as it is in the file, or -1 if the page has not been written yet.
+     */
+    private long readLongOnDisk(PagedFile pagedFile, long filePageId) throws IOException {
+        ByteBuffer buffer = ByteBuffers.allocate(Long.BYTES, ByteOrder.LITTLE_ENDIAN, INSTANCE);
+        try (StoreChannel channel = fs.read(pagedFile.path())) {
+            long position = filePageId * pagedFile.pageSize() + pagedFile.pageReservedBytes();
+            if (position + Long.BYTES > channel.size()) {
+                return -1;
+            }
+            channel.position(position).readAll(buffer);
+        }
+        return buffer.flip().getLong();
+    }
+
+    @Test
+    void backgroundFlushDirtyRatioMustBeBetweenZeroAndOne() {
+        assertThrows(IllegalArgumentException.class, () -> MuninnPageCache.config(1000).backgroundFlushDirtyRatio(1.5));
+        assertThrows(IllegalArgumentException.class, () -> MuninnPageCache.config(1000)
+                .backgroundFlushDirtyRatio(-0.1));
+    }
+
+    @Test
+    void frequencySketchMustKeepHotPagesResidentAcrossLargeScan() throws IOException {
+        int maxPages = 200;
+        int hotPages = 20;
+        var tracer = new DefaultPageCacheTracer();
+        var contextFactory = new CursorContextFactory(tracer, EMPTY_CONTEXT_SUPPLIER);
+        var configuration = MuninnPageCache.config(maxPages)
+                .pageCacheTracer(tracer)
+                .evictionPolicy(EvictionPolicyType.FREQUENCY_SKETCH)
+                .closeAllocatorOnShutdown(true);
+        // The on demand scheduler never runs the eviction thread, so touchPage does its job instead.
+        try (var pageCache = new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, tracer), new OnDemandJobScheduler(), configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            var clockArm = new MutableInt();
+            long nextColdPage = hotPages;
+            for (int round = 0; round < 10; round++) {
+                for (int touch = 0; touch < 4; touch++) {
+                    for (int hotPage = 0; hotPage < hotPages; hotPage++) {
+                        touchPage(pageCache, pagedFile, hotPage, clockArm);
+                    }
+                }
+                for (int i = 0; i < 100; i++) {
+                    touchPage(pageCache, pagedFile, nextColdPage++, clockArm);
+                }
+            }
+            // A scan over three times as many pages as fit in the page cache.
+            for (int i = 0; i < 3 * maxPages; i++) {
+                touchPage(pageCache, pagedFile, nextColdPage++, clockArm);
+            }
+
+            try (var cursorContext = contextFactory.create("frequencySketchMustKeepHotPagesResidentAcrossLargeScan")) {
+                for (int hotPage = 0; hotPage < hotPages; hotPage++) {
+                    try (var cursor = pagedFile.io(hotPage, PF_SHARED_READ_LOCK, cursorContext)) {
+                        assertTrue(cursor.next());
+                    }
+                }
+                assertThat(cursorContext.getCursorTracer().faults()).isZero();
+            }
+        }
+    }
+
+    private static void touchPage(MuninnPageCache pageCache, PagedFile pagedFile, long pageId, MutableInt clockArm)
+            throws IOException {
+        try (var cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            assertTrue(cursor.next());
+        }
+        // Keep a page free, like the eviction thread does, so page faults never evict from a random clock position.
+        while (pageCache.tryGetNumberOfPagesToEvict(1) > 0) {
+            clockArm.setValue(pageCache.evictPages(1, clockArm.intValue(), EvictionRunEvent.NULL));
+        }
+    }
+
+    private MuninnPageCache createPartitionedPageCache(int maxPages, int partitions) {
+        var configuration =
+                MuninnPageCache.config(maxPages).pagePartitions(partitions).closeAllocatorOnShutdown(true);
+        return new MuninnPageCache(
+                createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration);
+    }
+
     @RepeatedTest(50)
     void racePageFileTouchAndEviction() throws IOException {
         assumeTrue(fs.getClass() == EphemeralFileSystemAbstraction.class, "This test is very slow on real file system");
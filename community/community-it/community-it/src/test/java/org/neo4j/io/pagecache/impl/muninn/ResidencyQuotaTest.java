@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.OnDemandJobScheduler;
+
+class ResidencyQuotaTest {
+    @Test
+    void parseQuota() {
+        var quota = ResidencyQuota.parse("indexes:10:40:**/schema/index/**");
+
+        assertThat(quota.name()).isEqualTo("indexes");
+        assertThat(quota.minPercent()).isEqualTo(10);
+        assertThat(quota.maxPercent()).isEqualTo(40);
+        assertThat(quota.matches(Path.of("/data/databases/neo4j/schema/index/range-1.0/1/index-1")))
+                .isTrue();
+        assertThat(quota.matches(Path.of("/data/databases/neo4j/neostore.propertystore.db")))
+                .isFalse();
+    }
+
+    @Test
+    void rejectInvalidQuotas() {
+        assertThatThrownBy(() -> ResidencyQuota.parse("indexes:10:40")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ResidencyQuota.parse("indexes:ten:40:**"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ResidencyQuota.parse("indexes:50:40:**")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ResidencyQuota.parse("indexes:10:101:**"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectReservingTheWholePageCache() {
+        var quotas = List.of(ResidencyQuota.parse("a:60:100:**/a"), ResidencyQuota.parse("b:40:100:**/b"));
+
+        assertThatThrownBy(() -> new ResidencyQuotaEvictionPolicy(ClockEvictionPolicy.INSTANCE, quotas, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void assignFilesToFirstMatchingGroup() {
+        var quotas = List.of(ResidencyQuota.parse("counts:5:10:**/*counts*"), ResidencyQuota.parse("all:0:50:**"));
+        var policy = new ResidencyQuotaEvictionPolicy(ClockEvictionPolicy.INSTANCE, quotas, 100);
+
+        assertThat(policy.groupFor(Path.of("/db/neostore.counts.db")).name()).isEqualTo("counts");
+        assertThat(policy.groupFor(Path.of("/db/neostore.nodestore.db")).name()).isEqualTo("all");
+    }
+
+    @Test
+    void trackGroupReservationAndQuota() {
+        var group = new ResidencyGroup(new ResidencyQuota("indexes", "**", 10, 20), 100);
+        assertThat(group.isWithinReservation()).isTrue();
+
+        for (int i = 0; i < 11; i++) {
+            group.pageLoaded();
+        }
+        assertThat(group.isWithinReservation()).isFalse();
+        assertThat(group.isOverQuota()).isFalse();
+
+        for (int i = 0; i < 10; i++) {
+            group.pageLoaded();
+        }
+        assertThat(group.isOverQuota()).isTrue();
+
+        group.pageUnloaded();
+        assertThat(group.residentPages()).isEqualTo(20);
+        assertThat(group.isOverQuota()).isFalse();
+    }
+
+    @Test
+    void releasePagesThatOutliveTheirFileFromTheGroup() throws IOException {
+        var configuration = MuninnPageCache.config(100)
+                .residencyQuotas(List.of(ResidencyQuota.parse("all:0:50:**")))
+                .closeAllocatorOnShutdown(true);
+        try (var fs = new EphemeralFileSystemAbstraction();
+                var pageCache = new MuninnPageCache(
+                        new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE),
+                        new OnDemandJobScheduler(),
+                        configuration)) {
+            Path file = Path.of("/db/a");
+            fs.mkdirs(file.getParent());
+            ResidencyGroup group;
+            PageCursor pinned;
+            try (var pagedFile = (MuninnPagedFile) pageCache.map(file, pageCache.pageSize(), DEFAULT_DATABASE_NAME)) {
+                group = pagedFile.residencyGroup;
+                try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    for (int i = 0; i < 3; i++) {
+                        assertThat(cursor.next()).isTrue();
+                    }
+                }
+                pinned = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT);
+                assertThat(pinned.next()).isTrue();
+                assertThat(group.residentPages()).isEqualTo(3);
+            }
+            // Unmapping evicts the other pages, but the pinned page lingers in the page cache.
+            assertThat(group.residentPages()).isEqualTo(1);
+
+            pinned.close();
+            pageCache.evictPages(1, 0, EvictionRunEvent.NULL);
+            assertThat(group.residentPages()).isZero();
+        }
+    }
+}
@@ -139,6 +139,16 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.maxPages();
     }
 
+    @Override
+    public long evictionsDeferred() {
+        return delegate.evictionsDeferred();
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return delegate.evictionPolicy();
+    }
+
     @Override
     public long iopqPerformed() {
         return delegate.iopqPerformed();
@@ -239,6 +249,11 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.evictionExceptions(evictionExceptions);
     }
 
+    @Override
+    public void evictionsDeferred(long evictionsDeferred) {
+        delegate.evictionsDeferred(evictionsDeferred);
+    }
+
     @Override
     public void bytesWritten(long bytesWritten) {
         delegate.bytesWritten(bytesWritten);
@@ -264,6 +279,11 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.maxPages(maxPages, pageSize);
     }
 
+    @Override
+    public void evictionPolicy(String evictionPolicy) {
+        delegate.evictionPolicy(evictionPolicy);
+    }
+
     @Override
     public void iopq(long iopq) {
         delegate.iopq(iopq);
@@ -208,6 +208,16 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
         return 0;
     }
 
+    @Override
+    public long evictionsDeferred() {
+        return 0;
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return "";
+    }
+
     @Override
     public long iopqPerformed() {
         return 0;
@@ -282,6 +292,9 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
     @Override
     public void evictionExceptions(long evictionExceptions) {}
 
+    @Override
+    public void evictionsDeferred(long evictionsDeferred) {}
+
     @Override
     public void bytesWritten(long bytesWritten) {}
 
@@ -297,6 +310,9 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
     @Override
     public void maxPages(long maxPages, long pageSize) {}
 
+    @Override
+    public void evictionPolicy(String evictionPolicy) {}
+
     @Override
     public void iopq(long iopq) {}
 
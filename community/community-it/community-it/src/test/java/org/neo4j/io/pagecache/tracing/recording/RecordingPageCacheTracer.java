@@ -219,6 +219,16 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long evictionsDeferred() {
+        return 0;
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return "";
+    }
+
     @Override
     public long iopqPerformed() {
         return 0;
@@ -299,6 +309,9 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     @Override
     public void evictionExceptions(long evictionExceptions) {}
 
+    @Override
+    public void evictionsDeferred(long evictionsDeferred) {}
+
     @Override
     public void bytesWritten(long bytesWritten) {}
 
@@ -314,6 +327,9 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     @Override
     public void maxPages(long maxPages, long pageSize) {}
 
+    @Override
+    public void evictionPolicy(String evictionPolicy) {}
+
     @Override
     public void iopq(long iopq) {}
 
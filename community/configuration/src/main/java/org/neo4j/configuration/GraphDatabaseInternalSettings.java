@@ -50,6 +50,8 @@ import java.util.List;
 import java.util.Set;
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.graphdb.config.Setting;
+import org.neo4j.io.mem.HugePageMode;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicyType;
 
 @ServiceProvider
 public class GraphDatabaseInternalSettings implements SettingsDeclaration {
@@ -95,6 +97,20 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
+    @Internal
+    @Description("Use a lock manager keeping all locks in a pre-allocated table, split into partitions, "
+            + "instead of in one concurrent map per resource type.")
+    public static final Setting<Boolean> lock_manager_partitioned =
+            newBuilder("internal.dbms.lock_manager.partitioned", BOOL, false).build();
+
+    @Internal
+    @Description("Number of partitions of the lock table of the partitioned lock manager, rounded up to a power of two. "
+            + "0 means four times the number of available processors.")
+    public static final Setting<Integer> lock_manager_partitions = newBuilder(
+                    "internal.dbms.lock_manager.partitions", INT, 0)
+            .addConstraint(range(0, 1 << 16))
+            .build();
+
     @Internal
     @Description("Name of the tracer factory to be used. Current implementations are: null, default & verbose.")
     public static final Setting<String> tracer =
@@ -696,6 +712,12 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Boolean> archive_failed_index =
             newBuilder("internal.dbms.index.archive_failed", BOOL, false).build();
 
+    @Internal
+    @Description("Store the keys of newly created range index trees compressed by the prefix shared within each leaf. "
+            + "Existing range index trees keep the format they were created with until they are rebuilt")
+    public static final Setting<Boolean> range_index_prefix_compressed_keys =
+            newBuilder("internal.dbms.index.range.prefix_compressed_keys", BOOL, false).build();
+
     @Internal
     @Description("Forces smaller ID cache, in order to preserve memory.")
     public static final Setting<Boolean> force_small_id_cache = newBuilder(
@@ -744,6 +766,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
+    @Internal
+    @Description("Estimated number of transaction log bytes recovery replays per second. Used by the "
+            + "'recovery_time' check-point policy to translate the volume of transaction logs since the last "
+            + "check-point into an expected recovery time, until a recovery of the database has measured the actual "
+            + "rate.")
+    public static final Setting<Long> check_point_recovery_replay_rate = newBuilder(
+                    "internal.db.checkpoint.recovery_replay_rate", BYTES, mebiBytes(32))
+            .addConstraint(min(kibiBytes(1)))
+            .build();
+
     @Description("Specifies at which file size the checkpoint log will auto-rotate. Minimum accepted value is 1 KiB. ")
     @Internal
     public static final Setting<Long> checkpoint_logical_log_rotation_threshold = newBuilder(
@@ -859,6 +891,17 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.strictly_prioritize_id_freelist", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Maximum number of consecutive ids a thread can lease off of high id at a time when the id cache "
+            + "is empty and `internal.dbms.strictly_prioritize_id_freelist` is `false`. Leased ids are handed out "
+            + "to the leasing thread only, without touching the shared high id. Lease sizes adapt to the allocation "
+            + "rate of each thread, starting at a single id. Ids left in the lease of a thread which stops "
+            + "allocating are put back on the freelist. A value of zero disables leasing.")
+    public static final Setting<Integer> id_generator_thread_lease_max_size = newBuilder(
+                    "internal.dbms.idgenerator.thread_lease_max_size", INT, 64)
+            .addConstraint(range(0, 1024))
+            .build();
+
     @Internal
     @Description("Block/buffer size for index population")
     public static final Setting<Long> index_populator_block_size = newBuilder(
@@ -872,6 +915,14 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Integer> index_populator_merge_factor =
             newBuilder("internal.dbms.index.populator_merge_factor", INT, 8).build();
 
+    @Internal
+    @Description("How full to make each leaf of an index tree when it is bulk loaded after the index population scan. "
+            + "A lower value leaves room for later insertions without splitting leaves, at the cost of a larger index")
+    public static final Setting<Double> index_populator_fill_factor = newBuilder(
+                    "internal.dbms.index.populator_fill_factor", DOUBLE, 1.0)
+            .addConstraint(range(0.1, 1.0))
+            .build();
+
     @Internal
     @Description("Enable/disable logging for the id generator")
     public static final Setting<Boolean> id_generator_log_enabled =
@@ -987,6 +1038,13 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.tx.logs.dedicated.appender", BOOL, Boolean.FALSE)
             .build();
 
+    @Description("Let committing threads serialize their own commands before handing them over to the dedicated "
+            + "transaction appender writer thread, which then only has to order, checksum and force them.")
+    @Internal
+    public static final Setting<Boolean> dedicated_transaction_appender_parallel_serialization = newBuilder(
+                    "internal.dbms.tx.logs.dedicated.appender.parallel_serialization", BOOL, Boolean.TRUE)
+            .build();
+
     @Internal
     @Description("Enable per page file metrics collection in a default page cache and cursor tracer.")
     public static final Setting<Boolean> per_file_metrics_counters =
@@ -997,6 +1055,12 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Boolean> pre_sketch_transaction_logs =
             newBuilder("internal.dbms.tx_log.presketch", BOOL, false).build();
 
+    @Internal
+    @Description("Read sealed transaction log files, i.e. all files but the one currently appended to, through a read-only "
+            + "memory mapping instead of copying their contents into read-ahead buffers.")
+    public static final Setting<Boolean> tx_log_memory_mapped_readers =
+            newBuilder("internal.dbms.tx_log.memory_mapped_readers", BOOL, false).build();
+
     @Internal
     @Description(
             "Enables using format versions that are still under development, which will trigger migration to them on start up. "
@@ -1089,6 +1153,13 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.db.memory.pagecache.warmup.blocking_enabled", BOOL, false)
             .build();
 
+    @Internal
+    @Description("Run the page cache warmer of the database, which periodically profiles the pages in the page cache "
+            + "and reloads them on startup. Tuned by the db.memory.pagecache.warmup settings.")
+    public static final Setting<Boolean> pagecache_warmer_enabled = newBuilder(
+                    "internal.db.memory.pagecache.warmer.enabled", BOOL, false)
+            .build();
+
     @Internal
     @Description("A feature toggle behind which change data capture feature is developed")
     public static final Setting<Boolean> change_data_capture =
@@ -1148,6 +1219,76 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(min(1L))
             .build();
 
+    @Internal
+    @Description("The policy the page cache uses to pick the pages to evict when it needs free pages. "
+            + "`CLOCK` is a clock sweep over page usage stamps. `FREQUENCY_SKETCH` additionally keeps track of how often "
+            + "pages are used, which protects the frequently used pages from being pushed out by large scans.")
+    public static final Setting<EvictionPolicyType> page_cache_eviction_policy = newBuilder(
+                    "internal.dbms.page_cache_eviction_policy",
+                    ofEnum(EvictionPolicyType.class),
+                    EvictionPolicyType.CLOCK)
+            .build();
+
+    @Internal
+    @Description("Residency quotas for groups of mapped files, on the form `name:min:max:glob`, "
+            + "e.g. `indexes:10:40:**/schema/index/**`. Pages of the files matching the glob will not be evicted while "
+            + "the group uses at most `min` percent of the page cache, and are evicted first once the group uses more than "
+            + "`max` percent of the page cache. Files are assigned to the first matching quota.")
+    public static final Setting<List<String>> page_cache_residency_quotas = newBuilder(
+                    "internal.dbms.page_cache_residency_quotas", listOf(STRING), List.of())
+            .build();
+
+    @Internal
+    @Description("Submit the batched page faults, pre-fetches and flushes of the page cache through Linux io_uring. "
+            + "Falls back to regular file channel IO when io_uring is not available.")
+    public static final Setting<Boolean> page_cache_io_uring =
+            newBuilder("internal.dbms.page_cache_io_uring", BOOL, false).build();
+
+    @Internal
+    @Description("Store the pages of the files matching any of these globs compressed on disk, e.g. "
+            + "`neostore.propertystore.db*`. The globs are matched against the file name. Only applies to files that "
+            + "are created while the setting is in effect, existing files keep their format. Each compressed file "
+            + "has a page translation table file next to it, with the `.ptt` suffix, which must be kept together "
+            + "with the file.")
+    public static final Setting<List<String>> page_cache_compressed_files = newBuilder(
+                    "internal.dbms.page_cache_compressed_files", listOf(STRING), List.of())
+            .build();
+
+    @Internal
+    @Description("Zstandard compression level of the pages of compressed files. Lower levels trade compression ratio "
+            + "for less CPU spent on flushing pages, negative levels are the fastest.")
+    public static final Setting<Integer> page_cache_compression_level = newBuilder(
+                    "internal.dbms.page_cache_compression_level", INT, 1)
+            .addConstraint(range(-7, 22))
+            .build();
+
+    @Internal
+    @Description("Split the page cache into one partition per NUMA node. The memory of each partition is placed on its "
+            + "own node, page faults prefer the free pages of the node the faulting thread runs on, and every partition "
+            + "has its own eviction thread. Has no effect on systems with a single NUMA node, or where the NUMA "
+            + "topology is not available.")
+    public static final Setting<Boolean> page_cache_numa_partitioning =
+            newBuilder("internal.dbms.page_cache_numa_partitioning", BOOL, false).build();
+
+    @Internal
+    @Description("Back the page cache memory with huge pages. TRANSPARENT asks the kernel to use transparent huge pages "
+            + "for the page cache memory, while EXPLICIT_2M and EXPLICIT_1G take 2 MiB or 1 GiB huge pages from the pool "
+            + "reserved by the operating system, e.g. through vm.nr_hugepages. The page cache falls back to regular "
+            + "pages once huge pages can not be obtained. Whether huge pages were obtained is logged at startup.")
+    public static final Setting<HugePageMode> page_cache_huge_pages = newBuilder(
+                    "internal.dbms.page_cache_huge_pages", ofEnum(HugePageMode.class), HugePageMode.OFF)
+            .build();
+
+    @Internal
+    @Description("The fraction of the page cache that is allowed to be dirty before a background thread starts writing "
+            + "dirty pages out, in file offset order and coalesced into vectored writes, until the page cache is back "
+            + "at this ratio. This spreads the writes out between checkpoints, so checkpoints mostly only have to "
+            + "force the files. The background flusher is disabled when this is not set.")
+    public static final Setting<Double> page_cache_background_flush_dirty_ratio = newBuilder(
+                    "internal.dbms.page_cache_background_flush_dirty_ratio", DOUBLE, null)
+            .addConstraint(range(0.0, 1.0))
+            .build();
+
     @Internal
     @Description(
             "Whether to allow a system graph upgrade to happen automatically (and the procedures becomes no-ops), or should "
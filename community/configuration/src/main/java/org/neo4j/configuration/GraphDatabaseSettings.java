@@ -432,7 +432,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
         PERIODIC,
         CONTINUOUS,
         VOLUME,
-        VOLUMETRIC
+        VOLUMETRIC,
+        RECOVERY_TIME
     }
 
     @Description("Configures the general policy for when check-points should occur. The default policy is the "
@@ -443,7 +444,11 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             + "check-point process all the time. "
             + "The second is the 'volumetric' check-point policy, which makes a best-effort at check-pointing "
             + "often enough so that the database doesn't get too far behind on deleting old transaction logs in "
-            + "accordance with the 'db.tx_log.rotation.retention_policy' setting.")
+            + "accordance with the 'db.tx_log.rotation.retention_policy' setting. "
+            + "The 'recovery_time' check-point policy triggers a check-point when the estimated time needed to "
+            + "recover from a crash reaches half of 'db.checkpoint.target_recovery_time'. It only decides when to "
+            + "check-point, each check-point it triggers still flushes and forces all dirty pages, like any other "
+            + "check-point.")
     public static final Setting<CheckpointPolicy> check_point_policy = newBuilder(
                     "db.checkpoint", ofEnum(CheckpointPolicy.class), CheckpointPolicy.PERIODIC)
             .build();
@@ -485,6 +490,17 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             .addConstraint(min(ByteUnit.kibiBytes(1)))
             .build();
 
+    @Description("Configures the maximum time recovery should need to replay the transaction logs after a crash, "
+            + "when using the 'recovery_time' check-point policy. The database estimates the replay time of the "
+            + "transaction logs appended since the last check-point and check-points before it exceeds half of "
+            + "this target, so that the logs appended while the check-point is running are covered as well. "
+            + "Each of these check-points is a full check-point, which flushes and forces all dirty pages. "
+            + "A shorter target means shorter recovery times but more frequent full check-points.")
+    public static final Setting<Duration> check_point_target_recovery_time = newBuilder(
+                    "db.checkpoint.target_recovery_time", DURATION, ofMinutes(1))
+            .addConstraint(min(ofSeconds(1)))
+            .build();
+
     @Description("Limit the number of IOs the background checkpoint process will consume per second. "
             + "This setting is advisory, is ignored in Neo4j Community Edition, and is followed to "
             + "best effort in Enterprise Edition. "
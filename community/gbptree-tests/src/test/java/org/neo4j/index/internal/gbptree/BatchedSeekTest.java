@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.DefaultFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectorySupportExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+@ExtendWith({RandomExtension.class, DefaultFileSystemExtension.class, TestDirectorySupportExtension.class})
+class BatchedSeekTest {
+    private static final int PAGE_SIZE = 512;
+    private static final int NUMBER_OF_ENTRIES = 10_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheSupportExtension =
+            new PageCacheSupportExtension(PageCacheConfig.config().withPageSize(PAGE_SIZE));
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private RandomSupport random;
+
+    @Inject
+    private PageCache pageCache;
+
+    private SimpleLongLayout layout;
+    private Path treeFile;
+
+    @BeforeEach
+    void setup() {
+        layout = SimpleLongLayout.longLayout().build();
+        treeFile = testDirectory.file("tree");
+    }
+
+    @Test
+    void shouldFindExactMatchesOfNeighbouringAndDistantKeys() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given every other key in the tree
+            insertEntries(tree, 2);
+            List<MutableLong> keys = new ArrayList<>();
+            MutableLongList expected = LongLists.mutable.empty();
+            for (long id = 0; id < NUMBER_OF_ENTRIES * 2; id += random.nextInt(1, 40)) {
+                keys.add(layout.key(id));
+                if (id % 2 == 0) {
+                    expected.add(id);
+                }
+            }
+
+            // when
+            MutableLongList found = seekBatch(tree, keys, keys);
+
+            // then
+            assertThat(found).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldFindRangesAcrossLeaves() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given
+            insertEntries(tree, 1);
+            List<MutableLong> from = new ArrayList<>();
+            List<MutableLong> to = new ArrayList<>();
+            MutableLongList expected = LongLists.mutable.empty();
+            long start = random.nextInt(10);
+            while (start < NUMBER_OF_ENTRIES + 100) {
+                long end = start + random.nextInt(1, 300);
+                from.add(layout.key(start));
+                to.add(layout.key(end));
+                for (long id = start; id < Math.min(end, NUMBER_OF_ENTRIES); id++) {
+                    expected.add(id);
+                }
+                start = end + random.nextInt(0, 300);
+            }
+
+            // when
+            MutableLongList found = seekBatch(tree, from, to);
+
+            // then
+            assertThat(found).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldRejectOverlappingRanges() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                Seeker<MutableLong, MutableLong> seeker = tree.allocateSeeker(NULL_CONTEXT)) {
+            List<MutableLong> from = List.of(layout.key(0), layout.key(5));
+            List<MutableLong> to = List.of(layout.key(10), layout.key(20));
+
+            assertThatThrownBy(() -> tree.seekBatch(seeker, from, to)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void shouldReuseSeekerForSingleRangeSeekAfterBatch() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                Seeker<MutableLong, MutableLong> seeker = tree.allocateSeeker(NULL_CONTEXT)) {
+            // given
+            insertEntries(tree, 1);
+            List<MutableLong> keys = List.of(layout.key(1), layout.key(2));
+            tree.seekBatch(seeker, keys, keys);
+            while (seeker.next()) {
+                // exhaust the batch
+            }
+
+            // when
+            tree.seek(seeker, layout.key(100), layout.key(103));
+
+            // then
+            MutableLongList found = LongLists.mutable.empty();
+            while (seeker.next()) {
+                found.add(seeker.key().longValue());
+            }
+            assertThat(found).isEqualTo(LongLists.mutable.of(100, 101, 102));
+        }
+    }
+
+    private MutableLongList seekBatch(
+            GBPTree<MutableLong, MutableLong> tree, List<MutableLong> from, List<MutableLong> to) throws IOException {
+        MutableLongList found = LongLists.mutable.empty();
+        try (Seeker<MutableLong, MutableLong> seeker = tree.seekBatch(tree.allocateSeeker(NULL_CONTEXT), from, to)) {
+            while (seeker.next()) {
+                found.add(seeker.key().longValue());
+            }
+        }
+        return found;
+    }
+
+    private GBPTree<MutableLong, MutableLong> instantiateTree() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, treeFile, layout).build();
+    }
+
+    private void insertEntries(GBPTree<MutableLong, MutableLong> tree, int stride) throws IOException {
+        try (Writer<MutableLong, MutableLong> writer = tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+            MutableLong value = layout.value(0);
+            for (long id = 0; id < NUMBER_OF_ENTRIES * stride; id += stride) {
+                writer.put(layout.key(id), value);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.DefaultFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectorySupportExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+@ExtendWith({RandomExtension.class, DefaultFileSystemExtension.class, TestDirectorySupportExtension.class})
+class GBPTreeBulkLoaderTest {
+    private static final int PAGE_SIZE = 512;
+    private static final int NUMBER_OF_ENTRIES = 10_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheSupportExtension =
+            new PageCacheSupportExtension(PageCacheConfig.config().withPageSize(PAGE_SIZE));
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private RandomSupport random;
+
+    @Inject
+    private PageCache pageCache;
+
+    private SimpleLongLayout layout;
+    private Path treeFile;
+
+    @BeforeEach
+    void setup() {
+        layout = SimpleLongLayout.longLayout().build();
+        treeFile = testDirectory.file("tree");
+    }
+
+    @Test
+    void shouldLoadSortedEntries() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // when
+            bulkLoad(tree, randomFillFactor(), 0, NUMBER_OF_ENTRIES);
+
+            // then
+            assertEntries(tree, 0, NUMBER_OF_ENTRIES);
+            assertConsistent(tree);
+        }
+    }
+
+    @Test
+    void shouldLeaveRoomInLeavesAccordingToFillFactor() throws IOException {
+        int fullLeaves;
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            bulkLoad(tree, 1.0, 0, NUMBER_OF_ENTRIES);
+            fullLeaves = countLeaves(tree);
+        }
+        fileSystem.deleteFile(treeFile);
+
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            bulkLoad(tree, 0.5, 0, NUMBER_OF_ENTRIES);
+            assertThat(countLeaves(tree)).isGreaterThan(fullLeaves * 3 / 2);
+            assertConsistent(tree);
+        }
+    }
+
+    @Test
+    void shouldMergeEqualKeys() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // when
+            try (Writer<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1.0, NULL_CONTEXT)) {
+                for (long id = 0; id < NUMBER_OF_ENTRIES; id++) {
+                    bulkLoader.merge(layout.key(id), layout.value(1), GBPTreeBulkLoaderTest::add);
+                    bulkLoader.merge(layout.key(id), layout.value(id), GBPTreeBulkLoaderTest::add);
+                }
+            }
+
+            // then
+            try (Seeker<MutableLong, MutableLong> seeker =
+                    tree.seek(layout.key(0), layout.key(NUMBER_OF_ENTRIES), NULL_CONTEXT)) {
+                for (long id = 0; id < NUMBER_OF_ENTRIES; id++) {
+                    assertThat(seeker.next()).isTrue();
+                    assertThat(seeker.key().longValue()).isEqualTo(id);
+                    assertThat(seeker.value().longValue()).isEqualTo(id + 1);
+                }
+                assertThat(seeker.next()).isFalse();
+            }
+            assertConsistent(tree);
+        }
+    }
+
+    @Test
+    void shouldRejectKeysInDescendingOrder() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree();
+                Writer<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(1.0, NULL_CONTEXT)) {
+            bulkLoader.put(layout.key(10), layout.value(10));
+
+            assertThatThrownBy(() -> bulkLoader.put(layout.key(5), layout.value(5)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void shouldRejectBulkLoadingNonEmptyTree() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                writer.put(layout.key(0), layout.value(0));
+            }
+
+            assertThatThrownBy(() -> tree.bulkLoader(1.0, NULL_CONTEXT)).isInstanceOf(IllegalStateException.class);
+
+            // and the rejected bulk loader should not hold on to the writer lock
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                writer.put(layout.key(1), layout.value(1));
+            }
+        }
+    }
+
+    @Test
+    void shouldAcceptRegularWritesAfterBulkLoad() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            // given every other key
+            try (Writer<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(randomFillFactor(), NULL_CONTEXT)) {
+                for (long id = 0; id < NUMBER_OF_ENTRIES; id += 2) {
+                    bulkLoader.put(layout.key(id), layout.value(id));
+                }
+            }
+
+            // when
+            try (Writer<MutableLong, MutableLong> writer = tree.writer(NULL_CONTEXT)) {
+                for (long id = 1; id < NUMBER_OF_ENTRIES; id += 2) {
+                    writer.put(layout.key(id), layout.value(id));
+                }
+            }
+
+            // then
+            assertEntries(tree, 0, NUMBER_OF_ENTRIES);
+            assertConsistent(tree);
+        }
+    }
+
+    @Test
+    void shouldSurviveCheckpointAndRestart() throws IOException {
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            bulkLoad(tree, 1.0, 0, NUMBER_OF_ENTRIES);
+            tree.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+        }
+
+        try (GBPTree<MutableLong, MutableLong> tree = instantiateTree()) {
+            assertEntries(tree, 0, NUMBER_OF_ENTRIES);
+            assertConsistent(tree);
+        }
+    }
+
+    private double randomFillFactor() {
+        return 0.1 + random.nextDouble() * 0.9;
+    }
+
+    private static ValueMerger.MergeResult add(
+            MutableLong existingKey, MutableLong newKey, MutableLong existingValue, MutableLong newValue) {
+        existingValue.add(newValue.longValue());
+        return ValueMerger.MergeResult.MERGED;
+    }
+
+    private void bulkLoad(GBPTree<MutableLong, MutableLong> tree, double fillFactor, long from, long to)
+            throws IOException {
+        try (Writer<MutableLong, MutableLong> bulkLoader = tree.bulkLoader(fillFactor, NULL_CONTEXT)) {
+            for (long id = from; id < to; id++) {
+                bulkLoader.put(layout.key(id), layout.value(id));
+            }
+        }
+    }
+
+    private void assertEntries(GBPTree<MutableLong, MutableLong> tree, long from, long to) throws IOException {
+        try (Seeker<MutableLong, MutableLong> seeker = tree.seek(layout.key(from), layout.key(to), NULL_CONTEXT)) {
+            for (long id = from; id < to; id++) {
+                assertThat(seeker.next()).isTrue();
+                assertThat(seeker.key().longValue()).isEqualTo(id);
+                assertThat(seeker.value().longValue()).isEqualTo(id);
+            }
+            assertThat(seeker.next()).isFalse();
+        }
+    }
+
+    private static int countLeaves(GBPTree<MutableLong, MutableLong> tree) throws IOException {
+        MutableInt leaves = new MutableInt();
+        tree.visit(
+                new GBPTreeVisitor.Adaptor<>() {
+                    @Override
+                    public void beginNode(long pageId, boolean isLeaf, long generation, int keyCount) {
+                        if (isLeaf) {
+                            leaves.increment();
+                        }
+                    }
+                },
+                NULL_CONTEXT);
+        return leaves.intValue();
+    }
+
+    private static void assertConsistent(GBPTree<MutableLong, MutableLong> tree) {
+        assertThat(tree.consistencyCheck(
+                        new ThrowingConsistencyCheckVisitor(),
+                        true,
+                        NULL_CONTEXT_FACTORY,
+                        1,
+                        ProgressMonitorFactory.NONE))
+                .isTrue();
+    }
+
+    private GBPTree<MutableLong, MutableLong> instantiateTree() {
+        return new GBPTreeBuilder<>(pageCache, fileSystem, treeFile, layout).build();
+    }
+}
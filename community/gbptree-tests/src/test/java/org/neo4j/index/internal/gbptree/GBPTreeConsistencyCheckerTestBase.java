@@ -213,6 +213,61 @@ abstract class GBPTreeConsistencyCheckerTestBase<KEY, VALUE> {
         }
     }
 
+    @Test
+    void shouldFindNoInconsistenciesWhenPartitioningBelowRoot() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index().build()) {
+            treeWithHeight(index, 3);
+
+            // when checking with more threads than there are children of the root
+            boolean consistent = index.consistencyCheck(
+                    new ThrowingConsistencyCheckVisitor(), true, NULL_CONTEXT_FACTORY, 64, ProgressMonitorFactory.NONE);
+
+            // then
+            assertThat(consistent).isTrue();
+        }
+    }
+
+    @Test
+    void shouldDetectMisalignedSiblingsBetweenSubtreesWhenPartitioningBelowRoot() throws IOException {
+        try (GBPTree<KEY, VALUE> index = index().build()) {
+            treeWithHeight(index, 3);
+
+            GBPTreeInspection inspection = inspect(index);
+            long targetNode = randomAmong(inspection.single().leafNodes());
+            index.unsafe(page(targetNode, GBPTreeCorruption.rightSiblingPointToNonExisting()), NULL_CONTEXT);
+
+            MutableBoolean called = new MutableBoolean();
+            index.consistencyCheck(
+                    new GBPTreeConsistencyCheckVisitor.Adaptor() {
+                        @Override
+                        public void siblingsDontPointToEachOther(
+                                long leftNode,
+                                long leftNodeGeneration,
+                                long leftRightSiblingPointerGeneration,
+                                long leftRightSiblingPointer,
+                                long rightLeftSiblingPointer,
+                                long rightLeftSiblingPointerGeneration,
+                                long rightNode,
+                                long rightNodeGeneration,
+                                Path file) {
+                            called.setTrue();
+                        }
+
+                        @Override
+                        public void rightmostNodeHasRightSibling(
+                                long rightSiblingPointer, long rightmostNode, Path file) {
+                            called.setTrue();
+                        }
+                    },
+                    true,
+                    NULL_CONTEXT_FACTORY,
+                    64,
+                    ProgressMonitorFactory.NONE);
+
+            assertCalled(called);
+        }
+    }
+
     @Test
     void shouldDetectIfAnyNodeInTreeHasSuccessor() throws IOException {
         try (GBPTree<KEY, VALUE> index = index().build()) {
@@ -21,6 +21,7 @@ package org.neo4j.index.internal.gbptree;
 
 import static java.lang.Integer.min;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_APPEND_KEEP_ALL_LEFT;
 import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheckStrict;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
@@ -47,6 +48,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
@@ -342,6 +345,39 @@ abstract class GBPTreeParallelWritesIT<KEY, VALUE> {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void shouldAppendIncreasingKeysFromConcurrentWriters(int numWriters) throws IOException {
+        try (var index = new GBPTreeBuilder<>(pageCache, fileSystem, directory.file("index"), layout)
+                .with(openOptions)
+                .build()) {
+            // given all writers contending for the rightmost leaf
+            var nextId = new AtomicLong();
+            var race = new Race();
+            race.addContestants(numWriters, throwing(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    try (var writer = index.writer(W_SPLIT_APPEND_KEEP_ALL_LEFT, NULL_CONTEXT)) {
+                        var id = nextId.getAndIncrement();
+                        writer.put(layout.key(id), layout.value(id));
+                    }
+                }
+            }));
+
+            // when
+            race.goUnchecked();
+
+            // then
+            consistencyCheckStrict(index);
+            try (var seek = allEntriesSeek(index, layout)) {
+                for (long id = 0; id < nextId.get(); id++) {
+                    assertThat(seek.next()).isTrue();
+                    assertThat(layout.compare(seek.key(), layout.key(id))).isZero();
+                }
+                assertThat(seek.next()).isFalse();
+            }
+        }
+    }
+
     private Seeker<KEY, VALUE> allEntriesSeek(GBPTree<KEY, VALUE> index, Layout<KEY, VALUE> layout) throws IOException {
         KEY low = layout.newKey();
         KEY high = layout.newKey();
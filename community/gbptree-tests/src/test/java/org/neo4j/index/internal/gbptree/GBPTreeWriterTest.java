@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_APPEND_KEEP_ALL_LEFT;
 import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_KEEP_ALL_LEFT;
 import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_KEEP_ALL_RIGHT;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
@@ -31,6 +32,7 @@ import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_C
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -115,6 +117,26 @@ class GBPTreeWriterTest {
         }
     }
 
+    @Test
+    void shouldKeepAllLeftWhenSplittingRightmostNodeOnAppend() throws IOException {
+        // when
+        int appendLeaves = countLeavesAfterInserting("append", W_SPLIT_APPEND_KEEP_ALL_LEFT, true);
+        int defaultLeaves = countLeavesAfterInserting("default", 0, true);
+
+        // then appending leaves full leaves behind instead of half-full ones
+        assertThat(appendLeaves).isLessThan(defaultLeaves * 2 / 3);
+    }
+
+    @Test
+    void shouldSplitAsUsualWhenNotAppendingEvenIfAskedToKeepAllLeftOnAppend() throws IOException {
+        // when
+        int appendLeaves = countLeavesAfterInserting("append", W_SPLIT_APPEND_KEEP_ALL_LEFT, false);
+        int defaultLeaves = countLeavesAfterInserting("default", 0, false);
+
+        // then
+        assertThat(appendLeaves).isEqualTo(defaultLeaves);
+    }
+
     @Test
     void trackPageCacheAccessOnMerge() throws IOException {
         var contextFactory = new CursorContextFactory(new DefaultPageCacheTracer(), EMPTY_CONTEXT_SUPPLIER);
@@ -214,6 +236,32 @@ class GBPTreeWriterTest {
         assertThat(cursorTracer.faults()).isEqualTo(0);
     }
 
+    private int countLeavesAfterInserting(String name, int flags, boolean ascending) throws IOException {
+        try (GBPTree<MutableLong, MutableLong> gbpTree =
+                new GBPTreeBuilder<>(pageCache, fileSystem, directory.file(name), layout).build()) {
+            MutableLong value = layout.value(0);
+            for (long i = 0; i < 10_000; i++) {
+                // one writer per insert, like concurrent transactions appending ids would do
+                try (var writer = gbpTree.writer(flags, NULL_CONTEXT)) {
+                    writer.put(layout.key(ascending ? i : 10_000 - i), value);
+                }
+            }
+
+            MutableInt leaves = new MutableInt();
+            gbpTree.visit(
+                    new GBPTreeVisitor.Adaptor<>() {
+                        @Override
+                        public void beginNode(long pageId, boolean isLeaf, long generation, int keyCount) {
+                            if (isLeaf) {
+                                leaves.increment();
+                            }
+                        }
+                    },
+                    NULL_CONTEXT);
+            return leaves.intValue();
+        }
+    }
+
     private static void assertZeroCursor(CursorContext cursorContext) {
         var cursorTracer = cursorContext.getCursorTracer();
         assertThat(cursorTracer.pins()).isZero();
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.Overflow.NO_NEED_DEFRAG;
+import static org.neo4j.index.internal.gbptree.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.DATA_LAYER_FLAG;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.PageCursor;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes, RawBytes> {
+    private static final int PREFIX_SIZE = 40;
+
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes, RawBytes> getLayout() {
+        return layout;
+    }
+
+    @Override
+    protected LeafNodeBehaviour<RawBytes, RawBytes> getLeaf(
+            int pageSize, Layout<RawBytes, RawBytes> layout, OffloadStore<RawBytes, RawBytes> offloadStore) {
+        return new LeafNodeDynamicSizePrefixCompressed<>(pageSize, layout, offloadStore);
+    }
+
+    @Override
+    protected InternalNodeBehaviour<RawBytes> getInternal(
+            int pageSize, Layout<RawBytes, RawBytes> layout, OffloadStore<RawBytes, RawBytes> offloadStore) {
+        return new InternalNodeDynamicSize<>(pageSize, layout, offloadStore);
+    }
+
+    @Override
+    void assertAdditionalHeader(PageCursor cursor, int pageSize) {
+        // When
+        int currentAllocSpace = DynamicSizeUtil.getAllocOffset(cursor);
+
+        // Then
+        assertEquals(
+                pageSize - LeafNodeDynamicSizePrefixCompressed.SIZE_PREFIX_LENGTH,
+                currentAllocSpace,
+                "allocSpace point to prefix length at end of page");
+    }
+
+    @Test
+    void shouldFitMoreKeysSharingPrefix() throws IOException {
+        var uncompressed = new LeafNodeDynamicSize<>(PAGE_SIZE, layout, createOffloadStore());
+        var compressed = getLeaf(PAGE_SIZE, layout, createOffloadStore());
+
+        int uncompressedKeyCount = fillWithKeysSharingPrefix(uncompressed);
+        int compressedKeyCount = fillWithKeysSharingPrefix(compressed);
+
+        assertThat(compressedKeyCount).isGreaterThan(uncompressedKeyCount);
+        assertKeysSharingPrefix(compressed, compressedKeyCount);
+        assertThat(compressed.checkMetaConsistency(cursor)).isEmpty();
+    }
+
+    @Test
+    void shouldShortenPrefixWhenInsertingKeyNotSharingIt() throws IOException {
+        var compressed = getLeaf(PAGE_SIZE, layout, createOffloadStore());
+        int keyCount = 4;
+        cursor.zapPage();
+        compressed.initialize(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        for (int i = 0; i < keyCount; i++) {
+            insert(compressed, keySharingPrefix(i), i, i);
+        }
+        compressed.defragment(cursor);
+
+        RawBytes other = layout.newKey();
+        other.bytes = new byte[PREFIX_SIZE];
+        Arrays.fill(other.bytes, (byte) 'b');
+        assertThat(compressed.overflow(cursor, keyCount, other, emptyValue())).isNotEqualTo(YES);
+        insert(compressed, other, 0, keyCount);
+
+        RawBytes readKey = layout.newKey();
+        compressed.keyAt(cursor, readKey, 0, NULL_CONTEXT);
+        assertArrayEquals(other.bytes, readKey.bytes);
+        for (int i = 0; i < keyCount; i++) {
+            compressed.keyAt(cursor, readKey, i + 1, NULL_CONTEXT);
+            assertArrayEquals(keySharingPrefix(i).bytes, readKey.bytes);
+        }
+        assertThat(compressed.checkMetaConsistency(cursor)).isEmpty();
+    }
+
+    private int fillWithKeysSharingPrefix(LeafNodeBehaviour<RawBytes, RawBytes> leaf) throws IOException {
+        cursor.zapPage();
+        leaf.initialize(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        int keyCount = 0;
+        while (true) {
+            RawBytes key = keySharingPrefix(keyCount);
+            Overflow overflow = leaf.overflow(cursor, keyCount, key, emptyValue());
+            if (overflow == YES) {
+                // Prefix is calculated when the leaf is rewritten
+                leaf.defragment(cursor);
+                overflow = leaf.overflow(cursor, keyCount, key, emptyValue());
+                if (overflow == YES) {
+                    return keyCount;
+                }
+            }
+            if (overflow == NO_NEED_DEFRAG) {
+                leaf.defragment(cursor);
+            }
+            insert(leaf, key, keyCount, keyCount);
+            keyCount++;
+        }
+    }
+
+    private void assertKeysSharingPrefix(LeafNodeBehaviour<RawBytes, RawBytes> leaf, int keyCount) {
+        RawBytes readKey = layout.newKey();
+        for (int i = 0; i < keyCount; i++) {
+            leaf.keyAt(cursor, readKey, i, NULL_CONTEXT);
+            assertArrayEquals(keySharingPrefix(i).bytes, readKey.bytes);
+        }
+    }
+
+    private void insert(LeafNodeBehaviour<RawBytes, RawBytes> leaf, RawBytes key, int pos, int keyCount)
+            throws IOException {
+        leaf.insertKeyValueAt(
+                cursor, key, emptyValue(), pos, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+        TreeNodeUtil.setKeyCount(cursor, keyCount + 1);
+    }
+
+    private RawBytes keySharingPrefix(int i) {
+        RawBytes key = layout.newKey();
+        key.bytes = ByteBuffer.allocate(PREFIX_SIZE + Integer.BYTES)
+                .put(new byte[PREFIX_SIZE])
+                .putInt(i)
+                .array();
+        Arrays.fill(key.bytes, 0, PREFIX_SIZE, (byte) 'a');
+        return key;
+    }
+
+    private RawBytes emptyValue() {
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        return value;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id.indexed;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.neo4j.internal.id.indexed.IndexedIdGenerator.NO_ID;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.internal.id.IdValidator;
+
+/**
+ * A range of consecutive ids leased off of high id by a single thread. Ids of a lease are handed out to the owning
+ * thread only, so allocating them needs no coordination with other threads. The size of the next lease adapts to how
+ * quickly the previous one got exhausted, so that threads allocating at a high rate rarely touch high id and threads
+ * allocating at a low rate hold on to few ids which they may never use.
+ * <p>
+ * Ids not yet handed out can be {@link #release() released} by any thread, e.g. to put them back on the freelist
+ * when the owning thread has stopped allocating, which is why access to the range is synchronized.
+ */
+class IdLease {
+    /**
+     * A lease exhausted quicker than this doubles the size of the next lease.
+     */
+    static final long GROW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * A lease exhausted slower than this halves the size of the next lease.
+     */
+    static final long SHRINK_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final int maxSize;
+    private int size = 1;
+    private long nextId;
+    private long endId;
+    private long leasedAtNanos;
+    private boolean leased;
+    private boolean takenSinceIdleCheck;
+
+    IdLease(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the next id of this lease, or {@link IndexedIdGenerator#NO_ID} if it's exhausted or released.
+     */
+    synchronized long take() {
+        while (nextId < endId) {
+            long id = nextId++;
+            if (!IdValidator.isReservedId(id)) {
+                takenSinceIdleCheck = true;
+                return id;
+            }
+        }
+        return NO_ID;
+    }
+
+    /**
+     * @return number of ids to lease next, given how long the current lease lasted.
+     */
+    int nextSize(long nowNanos) {
+        if (leased) {
+            long lifetimeNanos = nowNanos - leasedAtNanos;
+            if (lifetimeNanos < GROW_THRESHOLD_NANOS) {
+                size = min(size * 2, maxSize);
+            } else if (lifetimeNanos > SHRINK_THRESHOLD_NANOS) {
+                size = max(size / 2, 1);
+            }
+        }
+        return size;
+    }
+
+    synchronized void lease(long firstId, int numberOfIds, long nowNanos) {
+        nextId = firstId;
+        endId = firstId + numberOfIds;
+        leasedAtNanos = nowNanos;
+        leased = true;
+        takenSinceIdleCheck = true;
+    }
+
+    /**
+     * Ends this lease, the owning thread will lease a new range on its next allocation.
+     * @return the ids of this lease which were not yet handed out, in ascending order.
+     */
+    synchronized long[] release() {
+        if (nextId >= endId) {
+            return NO_IDS;
+        }
+        LongArrayList ids = new LongArrayList((int) (endId - nextId));
+        for (long id = nextId; id < endId; id++) {
+            if (!IdValidator.isReservedId(id)) {
+                ids.add(id);
+            }
+        }
+        nextId = endId;
+        return ids.toArray();
+    }
+
+    /**
+     * Ends this lease if no id has been taken from it since the previous call to this method.
+     * @return the ids of this lease which were not yet handed out if it was idle, otherwise {@code null}.
+     */
+    synchronized long[] releaseIfIdle() {
+        if (takenSinceIdleCheck) {
+            takenSinceIdleCheck = false;
+            return null;
+        }
+        return release();
+    }
+
+    synchronized boolean hasRemaining() {
+        return nextId < endId;
+    }
+}
@@ -41,11 +41,16 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.collection.PrimitiveLongResourceCollections;
@@ -182,6 +187,16 @@ public class IndexedIdGenerator implements IdGenerator {
 
     public static final Monitor NO_MONITOR = new Monitor.Adapter();
 
+    /**
+     * Statistics about how well the id cache serves allocations.
+     *
+     * @param hits number of allocations served from the id cache.
+     * @param misses number of allocations which found the id cache empty and were served from high id instead.
+     * @param refills number of times free ids were loaded into the id cache.
+     * @param refillTimeNanos total time spent loading free ids into the id cache.
+     */
+    public record CacheStatistics(long hits, long misses, long refills, long refillTimeNanos) {}
+
     /**
      * Represents the absence of an id in the id cache.
      */
@@ -234,9 +249,37 @@ public class IndexedIdGenerator implements IdGenerator {
     private final int idsPerEntry;
 
     /**
-     * Cache low-watermark when to trigger {@link FreeIdScanner} for refill.
+     * Cache low-watermark when to trigger {@link FreeIdScanner} for refill. Adapts to the allocation rate
+     * between {@link #minCacheRefillThreshold} and {@link #maxCacheRefillThreshold}.
      */
-    private final int cacheOptimisticRefillThreshold;
+    private volatile int cacheRefillThreshold;
+
+    private final int minCacheRefillThreshold;
+    private final int maxCacheRefillThreshold;
+    private final int cacheRefillThresholdStep;
+
+    /**
+     * Whether or not an allocation found the cache empty while there were free ids to load into it since the last
+     * refill, i.e. whether or not the last refill came too late.
+     */
+    private volatile boolean missedSinceRefill;
+
+    /**
+     * Ranges of ids leased off of high id by each thread, or {@code null} if leasing is disabled.
+     * See {@link #nextIdFromLease()}.
+     */
+    private final ThreadLocal<IdLease> leases;
+
+    /**
+     * Leases which may hold ids not yet handed out. Their remaining ids are put back on the freelist when the cache
+     * is cleared or when the owning thread stops allocating from them, so that they don't get lost.
+     */
+    private final Set<IdLease> activeLeases = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheRefills = new LongAdder();
+    private final LongAdder cacheRefillTimeNanos = new LongAdder();
 
     /**
      * Note about contention: Calls to commitMarker() should be worksync'ed externally and will therefore not contend.
@@ -393,7 +436,14 @@ public class IndexedIdGenerator implements IdGenerator {
         monitor.opened(highestWrittenId.get(), highId.get());
 
         this.strictlyPrioritizeFreelist = config.get(GraphDatabaseInternalSettings.strictly_prioritize_id_freelist);
-        this.cacheOptimisticRefillThreshold = strictlyPrioritizeFreelist ? 0 : cacheCapacity / 4;
+        this.minCacheRefillThreshold = strictlyPrioritizeFreelist ? 0 : cacheCapacity / 4;
+        this.maxCacheRefillThreshold = strictlyPrioritizeFreelist ? 0 : cacheCapacity * 3 / 4;
+        this.cacheRefillThresholdStep = cacheCapacity / 8;
+        this.cacheRefillThreshold = minCacheRefillThreshold;
+        int leaseMaxSize = config.get(GraphDatabaseInternalSettings.id_generator_thread_lease_max_size);
+        this.leases = strictlyPrioritizeFreelist || readOnly || leaseMaxSize == 0
+                ? null
+                : ThreadLocal.withInitial(() -> new IdLease(leaseMaxSize));
         this.scanner = new FreeIdScanner(
                 idsPerEntry,
                 tree,
@@ -450,6 +500,7 @@ public class IndexedIdGenerator implements IdGenerator {
             checkRefillCache(cursorContext);
             long id = cache.takeOrDefault(NO_ID);
             if (id != NO_ID) {
+                cacheHits.increment();
                 monitor.allocatedFromReused(id, 1);
                 return id;
             }
@@ -457,6 +508,7 @@ public class IndexedIdGenerator implements IdGenerator {
             // free ID or there are no more to be found. The loop will not be busy-wait given the blocking
             // nature of the scan in this scenario.
         } while (strictlyPrioritizeFreelist && scanner.hasMoreFreeIds(true));
+        cacheMissed();
 
         // There was no ID in the cache. This could be that either there are no free IDs in here (the typical case),
         // or a benign race where the cache ran out of IDs and it's very soon filled with more IDs from an ongoing
@@ -464,6 +516,9 @@ public class IndexedIdGenerator implements IdGenerator {
         // ongoing scan to find IDs (fast as it may be, although it can be I/O bound) so we allocate from highId
         // instead. This make highId slide a little even if there actually are free ids available,
         // but this should be a fairly rare event.
+        if (leases != null && started) {
+            return nextIdFromLease();
+        }
         long id;
         do {
             id = highId.getAndIncrement();
@@ -473,6 +528,25 @@ public class IndexedIdGenerator implements IdGenerator {
         return id;
     }
 
+    /**
+     * Allocates an id from the range of ids leased off of high id by the calling thread, leasing a new range if the
+     * current one is exhausted. This keeps concurrent allocations from contending on high id.
+     */
+    private long nextIdFromLease() {
+        IdLease lease = leases.get();
+        long id;
+        while ((id = lease.take()) == NO_ID) {
+            long now = System.nanoTime();
+            int numberOfIds = lease.nextSize(now);
+            long firstId = highId.getAndAdd(numberOfIds);
+            assertIdWithinMaxCapacity(idType, firstId + numberOfIds - 1, maxId);
+            lease.lease(firstId, numberOfIds, now);
+            activeLeases.add(lease);
+        }
+        monitor.allocatedFromHigh(id, 1);
+        return id;
+    }
+
     @Override
     public PageIdRange nextPageRange(CursorContext cursorContext, int idsPerPage) {
         checkRefillCache(cursorContext);
@@ -529,9 +603,11 @@ public class IndexedIdGenerator implements IdGenerator {
             checkRefillCache(cursorContext);
             long id = cache.takeOrDefault(NO_ID, numberOfIds, scanner::queueWastedCachedId);
             if (id != NO_ID) {
+                cacheHits.increment();
                 monitor.allocatedFromReused(id, numberOfIds);
                 return id;
             }
+            cacheMissed();
         }
 
         long readHighId;
@@ -647,6 +723,11 @@ public class IndexedIdGenerator implements IdGenerator {
         do {
             expect = highId.get();
         } while (newHighId > expect && !highId.compareAndSet(expect, newHighId));
+        if (newHighId > expect) {
+            // Ids up to the new high id may have been allocated elsewhere, including ids in leases,
+            // so neither hand them out nor put them on the freelist
+            releaseLeases(IdLease::release);
+        }
     }
 
     @Override
@@ -692,23 +773,92 @@ public class IndexedIdGenerator implements IdGenerator {
     public void maintenance(CursorContext cursorContext) {
         if (started && !cache.isFull() && !readOnly) {
             // We're just helping other allocation requests and avoiding unwanted sliding of highId here
-            scanner.tryLoadFreeIdsIntoCache(true, true, cursorContext);
+            long startNanos = System.nanoTime();
+            if (scanner.tryLoadFreeIdsIntoCache(true, true, cursorContext)) {
+                cacheRefilled(startNanos);
+            }
+        }
+        if (started && !activeLeases.isEmpty()) {
+            // Leases of threads which stopped allocating, or died, would otherwise hold on to their ids forever
+            markUnallocated(releaseLeases(IdLease::releaseIfIdle), cursorContext);
+        }
+    }
+
+    /**
+     * Ends active leases.
+     * @param release ends a lease and returns its remaining ids, or {@code null} if the lease should stay active.
+     * @return the ids the ended leases had not yet handed out.
+     */
+    private LongList releaseLeases(Function<IdLease, long[]> release) {
+        MutableLongList releasedIds = LongLists.mutable.empty();
+        for (IdLease lease : activeLeases) {
+            long[] ids = release.apply(lease);
+            if (ids != null) {
+                activeLeases.remove(lease);
+                if (lease.hasRemaining()) {
+                    // The owning thread leased a new range in the meantime
+                    activeLeases.add(lease);
+                }
+                releasedIds.addAll(ids);
+            }
+        }
+        return releasedIds;
+    }
+
+    private void markUnallocated(LongList ids, CursorContext cursorContext) {
+        if (ids.notEmpty()) {
+            try (var marker = lockAndInstantiateMarker(true, cursorContext)) {
+                ids.forEach(marker::markUnallocated);
+            }
         }
     }
 
     private void checkRefillCache(CursorContext cursorContext) {
-        if (cache.size() <= cacheOptimisticRefillThreshold) {
+        if (cache.size() <= cacheRefillThreshold) {
             // We're just helping other allocation requests and avoiding unwanted sliding of highId here
-            scanner.tryLoadFreeIdsIntoCache(strictlyPrioritizeFreelist, false, cursorContext);
+            long startNanos = System.nanoTime();
+            if (scanner.tryLoadFreeIdsIntoCache(strictlyPrioritizeFreelist, false, cursorContext)) {
+                cacheRefilled(startNanos);
+            }
+        }
+    }
+
+    private void cacheRefilled(long startNanos) {
+        cacheRefills.increment();
+        cacheRefillTimeNanos.add(System.nanoTime() - startNanos);
+        if (!missedSinceRefill && cacheRefillThreshold > minCacheRefillThreshold) {
+            // Refills keep up with allocations, so slowly go back to refilling later
+            cacheRefillThreshold = Math.max(cacheRefillThreshold - cacheRefillThresholdStep, minCacheRefillThreshold);
+        }
+        missedSinceRefill = false;
+    }
+
+    private void cacheMissed() {
+        cacheMisses.increment();
+        if (!missedSinceRefill && scanner.hasMoreFreeIds(false)) {
+            // The cache ran dry while there were free ids to load into it, so the refill came too late.
+            // Allocations outpace refills, so trigger them earlier from now on.
+            missedSinceRefill = true;
+            cacheRefillThreshold = Math.min(cacheRefillThreshold + cacheRefillThresholdStep, maxCacheRefillThreshold);
         }
     }
 
+    /**
+     * @return statistics about how well the id cache serves allocations.
+     */
+    public CacheStatistics cacheStatistics() {
+        return new CacheStatistics(cacheHits.sum(), cacheMisses.sum(), cacheRefills.sum(), cacheRefillTimeNanos.sum());
+    }
+
     @Override
     public void clearCache(CursorContext cursorContext) {
         if (!readOnly) {
             // Make the scanner clear it because it needs to coordinate with the scan lock
             monitor.clearingCache();
             scanner.clearCache(cursorContext);
+            if (!activeLeases.isEmpty()) {
+                markUnallocated(releaseLeases(IdLease::release), cursorContext);
+            }
             monitor.clearedCache();
         }
     }
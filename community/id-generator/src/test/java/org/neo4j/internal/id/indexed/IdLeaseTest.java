@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id.indexed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.id.indexed.IdLease.GROW_THRESHOLD_NANOS;
+import static org.neo4j.internal.id.indexed.IdLease.SHRINK_THRESHOLD_NANOS;
+import static org.neo4j.internal.id.indexed.IndexedIdGenerator.NO_ID;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.id.IdValidator;
+
+class IdLeaseTest {
+    @Test
+    void shouldHandOutLeasedIdsInOrder() {
+        // given
+        IdLease lease = new IdLease(8);
+        assertThat(lease.take()).isEqualTo(NO_ID);
+
+        // when
+        lease.lease(10, 3, 0);
+
+        // then
+        assertThat(lease.take()).isEqualTo(10);
+        assertThat(lease.take()).isEqualTo(11);
+        assertThat(lease.take()).isEqualTo(12);
+        assertThat(lease.take()).isEqualTo(NO_ID);
+    }
+
+    @Test
+    void shouldSkipReservedId() {
+        // given
+        IdLease lease = new IdLease(8);
+        long reservedId = IdValidator.INTEGER_MINUS_ONE;
+
+        // when
+        lease.lease(reservedId - 1, 3, 0);
+
+        // then
+        assertThat(lease.take()).isEqualTo(reservedId - 1);
+        assertThat(lease.take()).isEqualTo(reservedId + 1);
+        assertThat(lease.take()).isEqualTo(NO_ID);
+    }
+
+    @Test
+    void shouldReleaseIdsNotYetHandedOut() {
+        // given
+        IdLease lease = new IdLease(8);
+        lease.lease(10, 3, 0);
+        assertThat(lease.take()).isEqualTo(10);
+
+        // when
+        long[] releasedIds = lease.release();
+
+        // then
+        assertThat(releasedIds).containsExactly(11, 12);
+        assertThat(lease.hasRemaining()).isFalse();
+        assertThat(lease.take()).isEqualTo(NO_ID);
+        assertThat(lease.release()).isEmpty();
+    }
+
+    @Test
+    void shouldNotReleaseReservedId() {
+        // given
+        IdLease lease = new IdLease(8);
+        long reservedId = IdValidator.INTEGER_MINUS_ONE;
+        lease.lease(reservedId - 1, 3, 0);
+
+        // when/then
+        assertThat(lease.release()).containsExactly(reservedId - 1, reservedId + 1);
+    }
+
+    @Test
+    void shouldOnlyReleaseIdleLease() {
+        // given
+        IdLease lease = new IdLease(8);
+        lease.lease(10, 3, 0);
+
+        // when/then
+        assertThat(lease.releaseIfIdle()).isNull();
+        assertThat(lease.take()).isEqualTo(10);
+        assertThat(lease.releaseIfIdle()).isNull();
+        assertThat(lease.releaseIfIdle()).containsExactly(11, 12);
+        assertThat(lease.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void shouldGrowLeasesExhaustedQuicklyUpToMaxSize() {
+        // given
+        IdLease lease = new IdLease(8);
+        long now = 0;
+
+        // when/then
+        for (int expectedSize : new int[] {1, 2, 4, 8, 8}) {
+            int size = lease.nextSize(now);
+            assertThat(size).isEqualTo(expectedSize);
+            lease.lease(0, size, now);
+            now += GROW_THRESHOLD_NANOS - 1;
+        }
+    }
+
+    @Test
+    void shouldShrinkLeasesExhaustedSlowlyDownToSingleId() {
+        // given
+        IdLease lease = new IdLease(8);
+        long now = 0;
+        for (int expectedSize : new int[] {1, 2, 4, 8}) {
+            int size = lease.nextSize(now);
+            assertThat(size).isEqualTo(expectedSize);
+            lease.lease(0, size, now);
+        }
+
+        // when/then
+        for (int expectedSize : new int[] {4, 2, 1, 1}) {
+            now += SHRINK_THRESHOLD_NANOS + 1;
+            int size = lease.nextSize(now);
+            assertThat(size).isEqualTo(expectedSize);
+            lease.lease(0, size, now);
+        }
+    }
+}
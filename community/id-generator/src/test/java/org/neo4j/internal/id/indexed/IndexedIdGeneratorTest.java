@@ -1436,6 +1436,132 @@ class IndexedIdGeneratorTest {
         assertThat(idGenerator.getUnusedIdCount()).isEqualTo(1);
     }
 
+    @Test
+    void shouldLeaseUniqueIdsPerThreadWhenNotStrict() {
+        // given
+        open(Config.defaults(strictly_prioritize_id_freelist, false), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+
+        // when
+        Race race = new Race();
+        int threads = 4;
+        int allocationsPerThread = 1_000;
+        LongList[] allocatedIds = new LongList[threads];
+        for (int i = 0; i < threads; i++) {
+            LongArrayList list = new LongArrayList(allocationsPerThread);
+            allocatedIds[i] = list;
+            race.addContestant(
+                    () -> {
+                        for (int j = 0; j < allocationsPerThread; j++) {
+                            list.add(idGenerator.nextId(NULL_CONTEXT));
+                        }
+                    },
+                    1);
+        }
+        race.goUnchecked();
+
+        // then
+        BitSet seenIds = new BitSet();
+        for (LongList ids : allocatedIds) {
+            assertEquals(allocationsPerThread, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                long id = ids.get(i);
+                assertThat(id).isLessThan(idGenerator.getHighId());
+                assertFalse(seenIds.get((int) id), "Id " + id + " allocated more than once");
+                seenIds.set((int) id);
+                if (i > 0) {
+                    // Each thread allocates ascending ids from its leases
+                    assertThat(id).isGreaterThan(ids.get(i - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldNotLeaseIdsWhenStrictlyPrioritizingFreelist() {
+        // given
+        open(Config.defaults(strictly_prioritize_id_freelist, true), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(i);
+        }
+
+        // then
+        assertThat(idGenerator.getHighId()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldDiscardLeasedIdsWhenHighIdIsSet() {
+        // given
+        open(Config.defaults(strictly_prioritize_id_freelist, false), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        for (int i = 0; i < 100; i++) {
+            idGenerator.nextId(NULL_CONTEXT);
+        }
+
+        // when
+        long newHighId = idGenerator.getHighId() + 10;
+        idGenerator.setHighId(newHighId);
+
+        // then
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isGreaterThanOrEqualTo(newHighId);
+    }
+
+    @Test
+    void shouldReuseLeasedIdsWhenCacheIsClearedMidLease() {
+        // given
+        open(Config.defaults(strictly_prioritize_id_freelist, false), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        LongList leasedIds = allocateUntilLeaseHasIdsLeft();
+
+        // when
+        idGenerator.clearCache(NULL_CONTEXT);
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // then
+        assertThat(allocate(leasedIds.size())).containsExactly(leasedIds.toArray());
+    }
+
+    @Test
+    void shouldReuseIdsOfIdleLease() {
+        // given
+        open(Config.defaults(strictly_prioritize_id_freelist, false), NO_MONITOR, false, SINGLE_IDS);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        LongList leasedIds = allocateUntilLeaseHasIdsLeft();
+
+        // when
+        idGenerator.maintenance(NULL_CONTEXT);
+        idGenerator.maintenance(NULL_CONTEXT);
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // then
+        assertThat(allocate(leasedIds.size())).containsExactly(leasedIds.toArray());
+    }
+
+    @Test
+    void shouldTrackCacheStatistics() throws IOException {
+        // given
+        open();
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long id = idGenerator.nextId(NULL_CONTEXT);
+        markUsed(id);
+        markDeleted(id);
+        markFree(id);
+
+        // when
+        idGenerator.maintenance(NULL_CONTEXT);
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(id);
+
+        // then
+        IndexedIdGenerator.CacheStatistics statistics = idGenerator.cacheStatistics();
+        assertThat(statistics.hits()).isEqualTo(1);
+        assertThat(statistics.misses()).isEqualTo(1);
+        assertThat(statistics.refills()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.refillTimeNanos()).isGreaterThan(0);
+    }
+
     private void assertOperationThrowInReadOnlyMode(Function<IndexedIdGenerator, Executable> operation)
             throws IOException {
         Path file = directory.file("existing");
@@ -1627,6 +1753,32 @@ class IndexedIdGeneratorTest {
         }
     }
 
+    /**
+     * @return ids leased by this thread, but not yet allocated.
+     */
+    private LongList allocateUntilLeaseHasIdsLeft() {
+        BitSet allocatedIds = new BitSet();
+        for (int i = 0; i < 1_000 && allocatedIds.cardinality() == idGenerator.getHighId(); i++) {
+            allocatedIds.set((int) idGenerator.nextId(NULL_CONTEXT));
+        }
+        MutableLongList leasedIds = LongLists.mutable.empty();
+        for (long id = 0; id < idGenerator.getHighId(); id++) {
+            if (!allocatedIds.get((int) id)) {
+                leasedIds.add(id);
+            }
+        }
+        assertThat(leasedIds.isEmpty()).isFalse();
+        return leasedIds;
+    }
+
+    private long[] allocate(int count) {
+        MutableLongList ids = LongLists.mutable.empty();
+        for (int i = 0; i < count; i++) {
+            ids.add(idGenerator.nextId(NULL_CONTEXT));
+        }
+        return ids.toSortedArray();
+    }
+
     private void markUnallocated(long id) {
         markUnallocated(id, 1);
     }
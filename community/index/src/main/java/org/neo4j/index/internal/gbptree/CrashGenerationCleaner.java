@@ -91,6 +91,12 @@ class CrashGenerationCleaner {
         return min(MAX_BATCH_SIZE, max(MIN_BATCH_SIZE, pagesToClean / (100L * threads)));
     }
 
+    private static int workers(long pagesToClean, long batchSize) {
+        // No point in starting more workers than there are batches, small trees are cleaned by a single worker
+        long batches = (pagesToClean + batchSize - 1) / batchSize;
+        return (int) max(1, min(NUMBER_OF_WORKERS, batches));
+    }
+
     // === Methods about the execution and threading ===
 
     public void clean(CleanupJob.Executor executor) {
@@ -100,8 +106,8 @@ class CrashGenerationCleaner {
 
         Stopwatch startTime = Stopwatch.start();
         long pagesToClean = highTreeNodeId - lowTreeNodeId;
-        int threads = NUMBER_OF_WORKERS;
-        long batchSize = batchSize(pagesToClean, threads);
+        long batchSize = batchSize(pagesToClean, NUMBER_OF_WORKERS);
+        int threads = workers(pagesToClean, batchSize);
         AtomicLong nextId = new AtomicLong(lowTreeNodeId);
         AtomicBoolean stopFlag = new AtomicBoolean();
         LongAdder cleanedPointers = new LongAdder();
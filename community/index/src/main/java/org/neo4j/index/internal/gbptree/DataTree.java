@@ -31,6 +31,12 @@ public interface DataTree<KEY, VALUE> extends Seeker.Factory<KEY, VALUE> {
     int W_BATCHED_SINGLE_THREADED = 0x1;
     int W_SPLIT_KEEP_ALL_LEFT = 0x2;
     int W_SPLIT_KEEP_ALL_RIGHT = 0x4;
+    /**
+     * Keeps everything in the left node when splitting the rightmost node on a level because of an insertion after its last key,
+     * other splits are made as usual. Suitable for writers appending increasing keys, e.g. ids, possibly from many threads
+     * concurrently, since the nodes left behind will not receive any more keys and this halves the number of splits.
+     */
+    int W_SPLIT_APPEND_KEEP_ALL_LEFT = 0x8;
 
     /**
      * Defaults to parallel writer, i.e. no special flags set.
@@ -54,6 +60,23 @@ public interface DataTree<KEY, VALUE> extends Seeker.Factory<KEY, VALUE> {
      */
     Writer<KEY, VALUE> writer(int flags, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Returns a {@link Writer} which builds this tree bottom-up from entries given in ascending key order, which is a lot cheaper
+     * than inserting them one by one from the root. Leaves are filled up to {@code fillFactor} of their capacity, which leaves room
+     * for later insertions without splitting. Equal keys are merged using the {@link ValueMerger} given to
+     * {@link Writer#merge(Object, Object, ValueMerger)}, but {@link Writer#remove(Object) removals} are not supported.
+     * The loaded entries replace the current root when the returned writer is {@link Writer#close() closed}.
+     * <p>
+     * Just like a writer with {@link #W_BATCHED_SINGLE_THREADED} the returned writer is the only allowed writer until it gets closed.
+     *
+     * @param fillFactor how full to make each leaf, in the range (0, 1].
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Writer} for bulk loading this tree. The returned writer must be {@link Writer#close() closed} after usage.
+     * @throws IllegalStateException if this tree isn't empty or if another writer is active.
+     * @throws IllegalArgumentException if keys are not added in ascending order.
+     */
+    Writer<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException;
+
     /**
      * Calculates an estimate of number of keys in this tree in O(log(n)) time. The number is only an estimate and may make its decision on a
      * concurrently changing tree, but should usually be correct within a couple of percents margin.
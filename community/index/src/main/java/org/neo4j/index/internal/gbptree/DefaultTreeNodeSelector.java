@@ -19,6 +19,8 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import java.nio.file.OpenOption;
+import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.common.DependencyResolver;
 
 /**
@@ -99,6 +101,42 @@ public class DefaultTreeNodeSelector {
         }
     };
 
+    /**
+     * Creates instances for dynamic size node behaviours where keys in leaves are compressed by a common prefix per node.
+     */
+    private static final TreeNodeSelector.Factory DYNAMIC_PREFIX_COMPRESSED = new TreeNodeSelector.Factory() {
+        static final byte FORMAT_IDENTIFIER = 4;
+        static final byte FORMAT_VERSION = 0;
+
+        @Override
+        public <KEY, VALUE> LeafNodeBehaviour<KEY, VALUE> createLeafBehaviour(
+                int payloadSize,
+                Layout<KEY, VALUE> layout,
+                OffloadStore<KEY, VALUE> offloadStore,
+                DependencyResolver dependencyResolver) {
+            return new LeafNodeDynamicSizePrefixCompressed<>(payloadSize, layout, offloadStore);
+        }
+
+        @Override
+        public <KEY, VALUE> InternalNodeBehaviour<KEY> createInternalBehaviour(
+                int payloadSize,
+                Layout<KEY, VALUE> layout,
+                OffloadStore<KEY, VALUE> offloadStore,
+                DependencyResolver dependencyResolver) {
+            return new InternalNodeDynamicSize<>(payloadSize, layout, offloadStore);
+        }
+
+        @Override
+        public byte formatIdentifier() {
+            return FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion() {
+            return FORMAT_VERSION;
+        }
+    };
+
     /**
      * Returns {@link TreeNodeSelector} that selects a format based on the given {@link Layout}.
      *
@@ -108,4 +146,32 @@ public class DefaultTreeNodeSelector {
         // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
         return (Layout<?, ?> layout) -> layout.fixedSize() ? FIXED : DYNAMIC;
     }
+
+    /**
+     * Returns {@link TreeNodeSelector} that selects a format based on the given {@link Layout} and open options.
+     * Dynamic size layouts get prefix compressed leaves if {@link GBPTreeOpenOptions#PREFIX_COMPRESSED_KEYS} is given.
+     *
+     * @param openOptions options the tree is opened with.
+     * @return a {@link TreeNodeSelector} capable of instantiating the selected format.
+     */
+    public static TreeNodeSelector selector(ImmutableSet<OpenOption> openOptions) {
+        if (!openOptions.contains(GBPTreeOpenOptions.PREFIX_COMPRESSED_KEYS)) {
+            return selector();
+        }
+        return (Layout<?, ?> layout) -> layout.fixedSize() ? FIXED : DYNAMIC_PREFIX_COMPRESSED;
+    }
+
+    /**
+     * Returns the given open options with {@link GBPTreeOpenOptions#PREFIX_COMPRESSED_KEYS} added or removed to match
+     * the data format of an existing tree, so that it is opened in the format it was created with.
+     *
+     * @param openOptions options the tree is opened with.
+     * @param meta meta data of the existing tree.
+     * @return open options that select the stored format.
+     */
+    static ImmutableSet<OpenOption> withStoredKeyCompression(ImmutableSet<OpenOption> openOptions, Meta meta) {
+        return meta.getDataFormatIdentifier() == DYNAMIC_PREFIX_COMPRESSED.formatIdentifier()
+                ? openOptions.newWith(GBPTreeOpenOptions.PREFIX_COMPRESSED_KEYS)
+                : openOptions.newWithout(GBPTreeOpenOptions.PREFIX_COMPRESSED_KEYS);
+    }
 }
@@ -161,6 +161,12 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.seek(seeker, fromInclusive, toExclusive);
     }
 
+    @Override
+    public Seeker<KEY, VALUE> seekBatch(Seeker<KEY, VALUE> seeker, List<KEY> fromInclusive, List<KEY> toExclusive)
+            throws IOException {
+        return access.seekBatch(seeker, fromInclusive, toExclusive);
+    }
+
     @Override
     public List<KEY> partitionedSeek(
             KEY fromInclusive, KEY toExclusive, int desiredNumberOfPartitions, CursorContext cursorContext)
@@ -173,6 +179,11 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.writer(flags, cursorContext);
     }
 
+    @Override
+    public Writer<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+        return access.bulkLoader(fillFactor, cursorContext);
+    }
+
     @Override
     public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
         return access.estimateNumberOfEntriesInTree(cursorContext);
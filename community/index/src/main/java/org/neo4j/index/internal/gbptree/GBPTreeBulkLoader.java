@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.CursorCreator.bind;
+import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
+import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
+import static org.neo4j.index.internal.gbptree.PointerChecking.checkOutOfBounds;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * {@link Writer} which builds a tree bottom-up from entries given in ascending key order, instead of descending from the root
+ * for every entry like {@link GBPTreeWriter} does. Leaves are filled up to a configurable fill factor and linked as they are
+ * completed. The splitter between two leaves is appended to the rightmost internal node on the level above, which in turn
+ * starts a new node and pushes its splitter further up when full. The tree is always structurally sound, but the root
+ * is only exchanged for the new one in {@link #close()}.
+ * <p>
+ * Bulk loading requires an empty tree. As long as no entry has been added the tree is left untouched.
+ * Equal keys are merged with the existing entry using the given {@link ValueMerger}, much like {@link GBPTreeWriter} would.
+ * Only {@link #put(Object, Object)} and {@link #merge(Object, Object, ValueMerger)} are supported.
+ */
+class GBPTreeBulkLoader<K, V> implements Writer<K, V> {
+    private final Layout<K, V> layout;
+    private final PagedFile pagedFile;
+    private final LeafNodeBehaviour<K, V> leafNode;
+    private final InternalNodeBehaviour<K> internalNode;
+    private final TreeRootExchange rootExchange;
+    private final ReadWriteLock checkpointLock;
+    private final ReadWriteLock writerLock;
+    private final FreeListIdProvider freeList;
+    private final Consumer<Throwable> exceptionMessageAppender;
+    private final LongSupplier generationSupplier;
+    private final byte layerType;
+    private final double fillFactor;
+    private final K readKey;
+    private final K splitter;
+    private final ValueHolder<V> readValue;
+    private final List<InternalLevel> levels = new ArrayList<>();
+    private boolean writerLockAcquired;
+    private CursorContext cursorContext;
+    private Root previousRoot;
+    private PageCursor leafCursor;
+    private long firstLeafId;
+    private int keyCount;
+    private int leafCapacity;
+
+    // Loader can't live past a checkpoint because of the mutex with checkpoint,
+    // therefore safe to locally cache these generation fields from the volatile generation in the tree
+    private long stableGeneration;
+    private long unstableGeneration;
+
+    GBPTreeBulkLoader(
+            Layout<K, V> layout,
+            PagedFile pagedFile,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            TreeRootExchange rootExchange,
+            ReadWriteLock checkpointLock,
+            ReadWriteLock writerLock,
+            FreeListIdProvider freeList,
+            Consumer<Throwable> exceptionMessageAppender,
+            LongSupplier generationSupplier,
+            byte layerType,
+            double fillFactor) {
+        if (fillFactor <= 0 || fillFactor > 1) {
+            throw new IllegalArgumentException("Fill factor must be in range (0, 1], but was " + fillFactor);
+        }
+        this.layout = layout;
+        this.pagedFile = pagedFile;
+        this.leafNode = leafNode;
+        this.internalNode = internalNode;
+        this.rootExchange = rootExchange;
+        this.checkpointLock = checkpointLock;
+        this.writerLock = writerLock;
+        this.freeList = freeList;
+        this.exceptionMessageAppender = exceptionMessageAppender;
+        this.generationSupplier = generationSupplier;
+        this.layerType = layerType;
+        this.fillFactor = fillFactor;
+        this.readKey = layout.newKey();
+        this.splitter = layout.newKey();
+        this.readValue = new ValueHolder<>(layout.newValue());
+    }
+
+    /**
+     * Acquires the same locks as a {@link DataTree#W_BATCHED_SINGLE_THREADED batched} writer and verifies that the tree is empty.
+     *
+     * @param cursorContext underlying page cursor context
+     * @throws IOException on {@link PageCursor} error.
+     * @throws IllegalStateException if another writer is active or if the tree isn't empty.
+     */
+    void initialize(CursorContext cursorContext) throws IOException {
+        acquireLockForWriter();
+        boolean success = false;
+        try {
+            writerLockAcquired = true;
+            this.cursorContext = cursorContext;
+            long generation = generationSupplier.getAsLong();
+            stableGeneration = stableGeneration(generation);
+            unstableGeneration = unstableGeneration(generation);
+            previousRoot = rootExchange.getRoot(cursorContext);
+            try (PageCursor cursor = pagedFile.io(0L /*Ignored*/, PF_SHARED_WRITE_LOCK, cursorContext)) {
+                previousRoot.goTo(cursor);
+                if (!TreeNodeUtil.isLeaf(cursor) || TreeNodeUtil.keyCount(cursor) != 0) {
+                    throw appendTreeInformation(new IllegalStateException("Bulk loading requires an empty tree"));
+                }
+            }
+            success = true;
+        } catch (Throwable e) {
+            exceptionMessageAppender.accept(e);
+            throw e;
+        } finally {
+            if (!success) {
+                close();
+            }
+        }
+    }
+
+    private void acquireLockForWriter() {
+        checkpointLock.readLock().lock();
+        if (!writerLock.writeLock().tryLock()) {
+            checkpointLock.readLock().unlock();
+            throw appendTreeInformation(
+                    new IllegalStateException(
+                            "Bulk loader requires exclusive write access, but another writer is already active"));
+        }
+    }
+
+    private <T extends Exception> T appendTreeInformation(T exception) {
+        exceptionMessageAppender.accept(exception);
+        return exception;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        merge(key, value, ValueMergers.overwrite());
+    }
+
+    @Override
+    public void merge(K key, V value, ValueMerger<K, V> valueMerger) {
+        try {
+            if (leafCursor != null && keyCount > 0) {
+                leafNode.keyAt(leafCursor, readKey, keyCount - 1, cursorContext);
+                int comparison = layout.compare(readKey, key);
+                if (comparison > 0) {
+                    throw appendTreeInformation(new IllegalArgumentException(format(
+                            "Bulk loaded keys must be added in ascending order, but got %s after %s", key, readKey)));
+                }
+                if (comparison == 0) {
+                    mergeWithLast(key, value, valueMerger);
+                    return;
+                }
+            }
+            append(key, value);
+        } catch (IOException e) {
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        }
+        checkOutOfBounds(leafCursor);
+    }
+
+    private void mergeWithLast(K key, V value, ValueMerger<K, V> valueMerger) throws IOException {
+        int pos = keyCount - 1;
+        leafNode.valueAt(leafCursor, readValue, pos, cursorContext);
+        var mergeResult = ValueMerger.MergeResult.REPLACED;
+        if (readValue.defined) {
+            mergeResult = valueMerger.merge(readKey, key, readValue.value, value);
+        }
+        switch (mergeResult) {
+            case UNCHANGED -> {}
+            case REPLACED, MERGED -> {
+                var mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue.value;
+                if (!leafNode.setValueAt(
+                        leafCursor, mergedValue, pos, cursorContext, stableGeneration, unstableGeneration)) {
+                    // Value differs in size, remove the entry and append it again, possibly into a new leaf
+                    removeLast();
+                    append(key, mergedValue);
+                }
+            }
+            case REMOVED -> removeLast();
+            default -> throw new UnsupportedOperationException("Unexpected merge result " + mergeResult);
+        }
+    }
+
+    private void removeLast() throws IOException {
+        keyCount = leafNode.removeKeyValueAt(
+                leafCursor, keyCount - 1, keyCount, stableGeneration, unstableGeneration, cursorContext);
+        TreeNodeUtil.setKeyCount(leafCursor, keyCount);
+    }
+
+    private void append(K key, V value) throws IOException {
+        leafNode.validateKeyValueSize(key, value);
+        if (leafCursor == null) {
+            leafCursor = pagedFile.io(0L /*Ignored*/, PF_SHARED_WRITE_LOCK, cursorContext);
+            firstLeafId = freeList.acquireNewId(stableGeneration, unstableGeneration, bind(leafCursor));
+            TreeNodeUtil.goTo(leafCursor, "first leaf", firstLeafId);
+            initializeLeaf();
+        } else if (keyCount > 0 && !fitsInLeaf(key, value)) {
+            leafNode.keyAt(leafCursor, readKey, keyCount - 1, cursorContext);
+            layout.minimalSplitter(readKey, key, splitter);
+            long leftLeafId = leafCursor.getCurrentPageId();
+            long rightLeafId = goToNewSibling(leafCursor, "new leaf");
+            initializeLeaf();
+            TreeNodeUtil.setLeftSibling(leafCursor, leftLeafId, stableGeneration, unstableGeneration);
+            addToLevel(0, splitter, rightLeafId, leftLeafId);
+        }
+        leafNode.insertKeyValueAt(
+                leafCursor, key, value, keyCount, keyCount, stableGeneration, unstableGeneration, cursorContext);
+        keyCount++;
+        TreeNodeUtil.setKeyCount(leafCursor, keyCount);
+    }
+
+    private void initializeLeaf() {
+        leafNode.initialize(leafCursor, layerType, stableGeneration, unstableGeneration);
+        keyCount = 0;
+        leafCapacity = leafNode.availableSpace(leafCursor, 0);
+    }
+
+    private boolean fitsInLeaf(K key, V value) {
+        int usedSpace = leafCapacity - leafNode.availableSpace(leafCursor, keyCount);
+        if (usedSpace + leafNode.totalSpaceOfKeyValue(key, value) > fillFactor * leafCapacity) {
+            return false;
+        }
+        Overflow overflow = leafNode.overflow(leafCursor, keyCount, key, value);
+        if (overflow == Overflow.YES) {
+            // Some formats, e.g. prefix compressed keys, can make room for more entries when rewritten
+            leafNode.defragment(leafCursor);
+            overflow = leafNode.overflow(leafCursor, keyCount, key, value);
+        }
+        if (overflow == Overflow.NO_NEED_DEFRAG) {
+            leafNode.defragment(leafCursor);
+        }
+        return overflow != Overflow.YES;
+    }
+
+    /**
+     * Appends {@code key} and {@code rightChild} to the rightmost node on the given internal level. If the node is full a new node
+     * is started with {@code rightChild} as its first child and {@code key} is instead pushed to the level above.
+     *
+     * @param level internal level, where 0 is the level right above the leaves.
+     * @param key splitter between {@code rightChild} and its left sibling.
+     * @param rightChild child to the right of {@code key}.
+     * @param leftChild left sibling of {@code rightChild}, used as first child if this level doesn't exist yet.
+     */
+    private void addToLevel(int level, K key, long rightChild, long leftChild) throws IOException {
+        if (level == levels.size()) {
+            PageCursor cursor = pagedFile.io(0L /*Ignored*/, PF_SHARED_WRITE_LOCK, cursorContext);
+            levels.add(new InternalLevel(cursor));
+            long nodeId = freeList.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
+            TreeNodeUtil.goTo(cursor, "new internal level", nodeId);
+            initializeInternal(cursor, leftChild);
+        }
+
+        InternalLevel current = levels.get(level);
+        PageCursor cursor = current.cursor;
+        Overflow overflow = internalNode.overflow(cursor, current.keyCount, key);
+        if (overflow == Overflow.NO_NEED_DEFRAG) {
+            internalNode.defragment(cursor);
+        }
+        if (overflow == Overflow.YES) {
+            long leftNodeId = cursor.getCurrentPageId();
+            long rightNodeId = goToNewSibling(cursor, "new internal node");
+            initializeInternal(cursor, rightChild);
+            TreeNodeUtil.setLeftSibling(cursor, leftNodeId, stableGeneration, unstableGeneration);
+            current.keyCount = 0;
+            addToLevel(level + 1, key, rightNodeId, leftNodeId);
+        } else {
+            internalNode.insertKeyAndRightChildAt(
+                    cursor,
+                    key,
+                    rightChild,
+                    current.keyCount,
+                    current.keyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            current.keyCount++;
+            TreeNodeUtil.setKeyCount(cursor, current.keyCount);
+        }
+        checkOutOfBounds(cursor);
+    }
+
+    private void initializeInternal(PageCursor cursor, long firstChild) {
+        internalNode.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+        internalNode.setChildAt(cursor, firstChild, 0, stableGeneration, unstableGeneration);
+    }
+
+    /**
+     * Acquires a new node, links it as right sibling of the node {@code cursor} is currently at and moves {@code cursor} to it.
+     */
+    private long goToNewSibling(PageCursor cursor, String messageOnError) throws IOException {
+        long newId = freeList.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
+        TreeNodeUtil.setRightSibling(cursor, newId, stableGeneration, unstableGeneration);
+        TreeNodeUtil.goTo(cursor, messageOnError, newId);
+        return newId;
+    }
+
+    @Override
+    public void mergeIfExists(K key, V value, ValueMerger<K, V> valueMerger) {
+        throw unsupported("mergeIfExists");
+    }
+
+    @Override
+    public V remove(K key) {
+        throw unsupported("remove");
+    }
+
+    @Override
+    public int aggregate(K fromInclusive, K toExclusive, ValueAggregator<V> aggregator) {
+        throw unsupported("aggregate");
+    }
+
+    @Override
+    public void updateCeilingValue(K searchKey, K upperBound, Function<V, V> updateFunction) {
+        throw unsupported("updateCeilingValue");
+    }
+
+    private UnsupportedOperationException unsupported(String operation) {
+        return appendTreeInformation(
+                new UnsupportedOperationException(operation + " is not supported when bulk loading a tree"));
+    }
+
+    /**
+     * Exchanges the root of the tree for the root of the loaded tree, if any entries were added, and releases the previous
+     * (empty) root.
+     */
+    @Override
+    public void close() {
+        if (!writerLockAcquired) {
+            throw appendTreeInformation(new IllegalStateException(
+                    format("Tried to close bulk loader, but it is already closed. %s", this)));
+        }
+        try {
+            if (leafCursor != null) {
+                // The top level always consists of a single node, which is the new root
+                long newRootId = levels.isEmpty()
+                        ? firstLeafId
+                        : levels.get(levels.size() - 1).cursor.getCurrentPageId();
+                rootExchange.setRoot(new Root(newRootId, unstableGeneration), cursorContext);
+                freeList.releaseId(stableGeneration, unstableGeneration, previousRoot.id(), bind(leafCursor));
+            }
+        } catch (IOException e) {
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            closeCursors();
+            writerLock.writeLock().unlock();
+            checkpointLock.readLock().unlock();
+            writerLockAcquired = false;
+        }
+    }
+
+    private void closeCursors() {
+        for (InternalLevel level : levels) {
+            level.cursor.close();
+        }
+        levels.clear();
+        if (leafCursor != null) {
+            leafCursor.close();
+            leafCursor = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format(
+                "%s[fillFactor:%.2f, levels:%d, leafKeyCount:%d]",
+                getClass().getSimpleName(), fillFactor, levels.size(), keyCount);
+    }
+
+    private static class InternalLevel {
+        private final PageCursor cursor;
+        private int keyCount;
+
+        InternalLevel(PageCursor cursor) {
+            this.cursor = cursor;
+        }
+    }
+}
@@ -67,6 +67,11 @@ import org.neo4j.util.concurrent.Futures;
  */
 class GBPTreeConsistencyChecker<KEY> {
     private static final String TAG_CHECK = "check gbptree consistency";
+    /**
+     * Number of subtrees to aim for per thread when partitioning a tree for checking it in parallel.
+     * Subtrees can differ quite a lot in size, so having more of them than threads evens out the work.
+     */
+    private static final int SUBTREES_PER_THREAD = 4;
 
     private final LeafNodeBehaviour<KEY, ?> leafNode;
     private final InternalNodeBehaviour<KEY> internalNode;
@@ -123,6 +128,7 @@ class GBPTreeConsistencyChecker<KEY> {
             long rootGeneration = root.goTo(cursor);
             KeyRange<KEY> openRange = new KeyRange<>(-1, -1, comparator, null, null, layout, null);
             var rightmostPerLevel = new RightmostInChainShard(file, true);
+            var shards = numThreads > 1 ? new SubtreeShards(partitionParentLevel(cursor)) : null;
             checkSubtree(
                     cursor,
                     openRange,
@@ -134,12 +140,33 @@ class GBPTreeConsistencyChecker<KEY> {
                     state.threadLocalSeenIds(),
                     context,
                     rightmostPerLevel,
+                    shards,
                     progress,
                     monitor);
             rightmostPerLevel.assertLast(visitor);
+            if (shards != null) {
+                shards.awaitAndCheckSeams(visitor);
+            }
         }
     }
 
+    /**
+     * Decides on which level the tree is partitioned into subtrees that are checked in parallel,
+     * like {@link KeyPartitioning} does for partitioned seeks. The children of the root are used if there are
+     * enough of them to keep all threads busy, otherwise the children of the nodes one level further down.
+     *
+     * @param cursor {@link PageCursor} placed at the root.
+     * @return the level of the nodes whose children are checked as separate subtrees.
+     */
+    private int partitionParentLevel(PageCursor cursor) throws IOException {
+        int rootKeyCount;
+        do {
+            rootKeyCount = TreeNodeUtil.keyCount(cursor);
+        } while (cursor.shouldRetry());
+        checkAfterShouldRetry(cursor);
+        return rootKeyCount + 1 >= numThreads * SUBTREES_PER_THREAD ? 0 : 1;
+    }
+
     private static void addToSeenList(
             Path file, BitSet target, long id, long lastId, GBPTreeConsistencyCheckVisitor visitor) {
         int index = toIntExact(id);
@@ -163,6 +190,7 @@ class GBPTreeConsistencyChecker<KEY> {
             BitSet seenIds,
             CursorContext cursorContext,
             RightmostInChainShard rightmostPerLevel,
+            SubtreeShards shards,
             ProgressListener progress,
             Monitor monitor)
             throws IOException {
@@ -291,10 +319,8 @@ class GBPTreeConsistencyChecker<KEY> {
             return;
         }
 
-        if (level == 0 && numThreads > 1) {
-            // Let's parallelize checking the children in the root, one child is one task
-            var futures = new ArrayList<Future<?>>();
-            var rightmostPerLevelFromShards = new ArrayList<RightmostInChainShard>();
+        if (shards != null && level == shards.parentLevel) {
+            // Let's parallelize checking the children of the nodes on this level, one child is one task
             visitChildren(
                     cursor,
                     range,
@@ -306,9 +332,8 @@ class GBPTreeConsistencyChecker<KEY> {
                     (pos, treeNodeId, generation, childRange) -> {
                         // Add the RightmostInChain in child order, i.e. when visiting and not when checking (which is
                         // done by another thread)
-                        var shardRightmostPerLevel = new RightmostInChainShard(file, pos == 0);
-                        rightmostPerLevelFromShards.add(shardRightmostPerLevel);
-                        futures.add(state.executor.submit(() -> {
+                        var shardRightmostPerLevel = shards.newShard(file);
+                        shards.add(state.executor.submit(() -> {
                             try (var shardContext = contextFactory.create(TAG_CHECK);
                                     var shardCursor = cursorFactory.apply(shardContext);
                                     var shardProgress = progress.threadLocalReporter()) {
@@ -322,16 +347,15 @@ class GBPTreeConsistencyChecker<KEY> {
                                         level + 1,
                                         visitor,
                                         state.threadLocalSeenIds(),
-                                        cursorContext,
+                                        shardContext,
                                         shardRightmostPerLevel,
+                                        null,
                                         shardProgress,
                                         monitor);
                                 return null;
                             }
                         }));
                     });
-            awaitAllFutures(futures);
-            checkRightmostInChainSeams(visitor, rightmostPerLevelFromShards);
         } else {
             visitChildren(
                     cursor,
@@ -354,6 +378,7 @@ class GBPTreeConsistencyChecker<KEY> {
                                 seenIds,
                                 cursorContext,
                                 rightmostPerLevel,
+                                shards,
                                 progress,
                                 monitor);
                         goTo(cursor, "parent", pageId);
@@ -730,7 +755,8 @@ class GBPTreeConsistencyChecker<KEY> {
                     new ArrayBlockingQueue<>(numSpawnedThreads * 2),
                     new NamedThreadFactory("GBPTreeConsistencyChecker"),
                     new ThreadPoolExecutor.CallerRunsPolicy());
-            this.progress = progressMonitorFactory.singlePart("Check GBPTree consistency", lastId);
+            this.progress =
+                    progressMonitorFactory.singlePart("Check GBPTree consistency of " + file.getFileName(), lastId);
 
             IdProvider.IdProviderVisitor freelistSeenIdsVisitor =
                     new FreelistSeenIdsVisitor(file, mainSeenIds, lastId, visitor, progress);
@@ -826,6 +852,34 @@ class GBPTreeConsistencyChecker<KEY> {
         }
     }
 
+    /**
+     * Subtrees of one tree that are checked in parallel, in the left-to-right order they were submitted in.
+     */
+    private static class SubtreeShards {
+        private final int parentLevel;
+        private final List<Future<?>> futures = new ArrayList<>();
+        private final List<RightmostInChainShard> rightmostPerLevelFromShards = new ArrayList<>();
+
+        SubtreeShards(int parentLevel) {
+            this.parentLevel = parentLevel;
+        }
+
+        private RightmostInChainShard newShard(Path file) {
+            var shard = new RightmostInChainShard(file, rightmostPerLevelFromShards.isEmpty());
+            rightmostPerLevelFromShards.add(shard);
+            return shard;
+        }
+
+        private void add(Future<?> future) {
+            futures.add(future);
+        }
+
+        private void awaitAndCheckSeams(GBPTreeConsistencyCheckVisitor visitor) throws IOException {
+            awaitAllFutures(futures);
+            checkRightmostInChainSeams(visitor, rightmostPerLevelFromShards);
+        }
+    }
+
     @FunctionalInterface
     interface Monitor {
         void dataKeysSeen(int keyCount);
@@ -26,5 +26,7 @@ import java.nio.file.OpenOption;
  */
 public enum GBPTreeOpenOptions implements OpenOption {
     // do not flush index file on close
-    NO_FLUSH_ON_CLOSE
+    NO_FLUSH_ON_CLOSE,
+    // compress keys in leaves of dynamic size trees by a prefix common to the keys in each leaf
+    PREFIX_COMPRESSED_KEYS
 }
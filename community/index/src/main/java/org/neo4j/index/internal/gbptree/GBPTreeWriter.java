@@ -64,6 +64,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
     private PageCursor cursor;
     private CursorContext cursorContext;
     private double ratioToKeepInLeftOnSplit;
+    private boolean keepAllLeftOnAppend;
     private Root root;
 
     // Writer can't live past a checkpoint because of the mutex with checkpoint,
@@ -124,10 +125,12 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
      * </ul>
      *
      * @param ratioToKeepInLeftOnSplit Decide how much to keep in left node on split, 0=keep nothing, 0.5=split 50-50, 1=keep everything.
+     * @param keepAllLeftOnAppend Keep everything in left node when splitting the rightmost node because of an insertion after its last key.
      * @param cursorContext underlying page cursor context
      * @throws IOException if fail to open {@link PageCursor}
      */
-    void initialize(double ratioToKeepInLeftOnSplit, CursorContext cursorContext) throws IOException {
+    void initialize(double ratioToKeepInLeftOnSplit, boolean keepAllLeftOnAppend, CursorContext cursorContext)
+            throws IOException {
         if (writerLockAcquired) {
             throw appendTreeInformation(
                     new IllegalStateException(format("This writer has already been initialized %s", this)));
@@ -144,6 +147,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
             stableGeneration = stableGeneration(generation);
             unstableGeneration = unstableGeneration(generation);
             this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
+            this.keepAllLeftOnAppend = keepAllLeftOnAppend;
             root = rootExchange.getRoot(cursorContext);
             success = true;
         } catch (Throwable e) {
@@ -274,7 +278,7 @@ class GBPTreeWriter<K, V> implements Writer<K, V> {
         }
 
         assert assertNoSuccessor(cursor, stableGeneration, unstableGeneration);
-        treeLogic.initialize(cursor, ratioToKeepInLeftOnSplit, structureWriteLog);
+        treeLogic.initialize(cursor, ratioToKeepInLeftOnSplit, keepAllLeftOnAppend, structureWriteLog);
         int keyCount = keyCount(cursor);
         var isInternal = isInternal(cursor);
         return coordination.arrivedAtChild(
@@ -121,6 +121,7 @@ class InternalTreeLogic<KEY, VALUE> {
 
     private int currentLevel = -1;
     private double ratioToKeepInLeftOnSplit;
+    private boolean keepAllLeftOnAppend;
 
     /**
      * Keeps information about one level in a path down the tree where the {@link PageCursor} is currently at.
@@ -194,12 +195,28 @@ class InternalTreeLogic<KEY, VALUE> {
      */
     protected void initialize(
             PageCursor cursorAtRoot, double ratioToKeepInLeftOnSplit, StructureWriteLog.Session structureWriteLog) {
+        initialize(cursorAtRoot, ratioToKeepInLeftOnSplit, false, structureWriteLog);
+    }
+
+    /**
+     * Prepare for starting over with new updates.
+     * @param cursorAtRoot {@link PageCursor} pointing at root of tree.
+     * @param ratioToKeepInLeftOnSplit Decide how much to keep in left node on split, 0=keep nothing, 0.5=split 50-50, 1=keep everything.
+     * @param keepAllLeftOnAppend whether to keep everything in left node when splitting the rightmost node on a level because of
+     * an insertion after its last key, regardless of {@code ratioToKeepInLeftOnSplit}.
+     */
+    protected void initialize(
+            PageCursor cursorAtRoot,
+            double ratioToKeepInLeftOnSplit,
+            boolean keepAllLeftOnAppend,
+            StructureWriteLog.Session structureWriteLog) {
         currentLevel = 0;
         Level<KEY> level = levels[currentLevel];
         level.treeNodeId = cursorAtRoot.getCurrentPageId();
         level.lowerIsOpenEnded = true;
         level.upperIsOpenEnded = true;
         this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
+        this.keepAllLeftOnAppend = keepAllLeftOnAppend;
         this.structureWriteLog = structureWriteLog;
     }
 
@@ -594,7 +611,7 @@ class InternalTreeLogic<KEY, VALUE> {
                     stableGeneration,
                     unstableGeneration,
                     structurePropagation.rightKey,
-                    ratioToKeepInLeftOnSplit,
+                    splitRatio(pos, keyCount, oldRight),
                     cursorContext);
         }
 
@@ -610,6 +627,26 @@ class InternalTreeLogic<KEY, VALUE> {
         TreeNodeUtil.setRightSibling(cursor, newRight, stableGeneration, unstableGeneration);
     }
 
+    /**
+     * Inserting after the last key of the rightmost node on a level is what appending workloads, e.g. monotonically
+     * increasing ids, do all the time. Splitting such a node in the middle would leave a half-full node behind which
+     * will never receive any more keys, so if asked to, everything is kept in the left node and the new right node
+     * starts out with only the new key. Besides leaving full nodes behind this halves the number of splits, which is
+     * where concurrent writers appending to the rightmost leaf have to coordinate with the parent. The split itself
+     * doesn't need to move any keys either.
+     *
+     * @param pos position where the new key is to be inserted.
+     * @param keyCount number of keys in the node to split.
+     * @param rightSibling right sibling pointer of the node to split.
+     * @return the ratio to keep in the left node for this split.
+     */
+    private double splitRatio(int pos, int keyCount, long rightSibling) {
+        if (keepAllLeftOnAppend && pos == keyCount && !TreeNodeUtil.isNode(rightSibling)) {
+            return 1;
+        }
+        return ratioToKeepInLeftOnSplit;
+    }
+
     /**
      * Leaves cursor at same page as when called. No guarantees on offset.
      * <p>
@@ -901,22 +938,16 @@ class InternalTreeLogic<KEY, VALUE> {
 
         // Position where newKey / newValue is to be inserted
         int pos = positionOf(KeySearch.search(cursor, leafNode, newKey, readKey, keyCount, cursorContext));
+        long oldRight = TreeNodeUtil.rightSibling(cursor, stableGeneration, unstableGeneration);
+        double splitRatio = splitRatio(pos, keyCount, oldRight);
         // Position where to split
         int middlePos = leafNode.findSplitter(
-                cursor,
-                keyCount,
-                newKey,
-                newValue,
-                pos,
-                structurePropagation.rightKey,
-                ratioToKeepInLeftOnSplit,
-                cursorContext);
+                cursor, keyCount, newKey, newValue, pos, structurePropagation.rightKey, splitRatio, cursorContext);
         if (!coordination.beforeSplittingLeaf(internalNode.totalSpaceOfKeyChild(structurePropagation.rightKey))) {
             return false;
         }
 
         long current = cursor.getCurrentPageId();
-        long oldRight = TreeNodeUtil.rightSibling(cursor, stableGeneration, unstableGeneration);
         checkRightSiblingPointer(oldRight, true, cursor, stableGeneration, unstableGeneration);
         long newRight = idProvider.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
 
@@ -978,7 +1009,7 @@ class InternalTreeLogic<KEY, VALUE> {
                     newValue,
                     structurePropagation.rightKey,
                     middlePos,
-                    ratioToKeepInLeftOnSplit,
+                    splitRatio,
                     stableGeneration,
                     unstableGeneration,
                     cursorContext);
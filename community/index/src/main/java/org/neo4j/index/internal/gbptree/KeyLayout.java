@@ -99,6 +99,17 @@ public interface KeyLayout<KEY> extends Comparator<KEY> {
         copyKey(right, into);
     }
 
+    /**
+     * Number of leading bytes of a written key that are unlikely to be shared with neighbouring keys, e.g. an entity id
+     * that is written before the value that keys are sorted on. Tree nodes compressing keys by a common prefix look for
+     * that prefix after these bytes.
+     *
+     * @return offset into a written key where a prefix common to neighbouring keys may start.
+     */
+    default int prefixCompressionOffset() {
+        return 0;
+    }
+
     /**
      * Used as verification when loading an index after creation, to verify that the same layout is used,
      * as the one it was initially created with.
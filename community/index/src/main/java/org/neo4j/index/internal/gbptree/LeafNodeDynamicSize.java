@@ -86,8 +86,8 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
     private final int inlineKeyValueSizeCap;
     private final int keyValueSizeCap;
 
-    private final int totalSpace;
-    private final int halfSpace;
+    final int totalSpace;
+    final int halfSpace;
     final OffloadStore<KEY, VALUE> offloadStore;
     private final int maxKeyCount;
 
@@ -158,7 +158,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
                 readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
                 return;
             }
-            layout.readKey(cursor, intoKey, keySize);
+            readInlineKey(cursor, intoKey, keySize);
             layout.readValue(cursor, intoValue.value, valueSize);
         }
     }
@@ -237,7 +237,9 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
 
         // Update dead space
         int deadSpace = getDeadSpace(cursor);
-        setDeadSpace(cursor, deadSpace + keySize + valueSize + getOverhead(keySize, valueSize, offload));
+        setDeadSpace(
+                cursor,
+                deadSpace + inlineKeySize(cursor, keySize) + valueSize + getOverhead(keySize, valueSize, offload));
 
         // Remove from offset array
         TreeNodeUtil.removeSlotAt(cursor, pos, keyCount, keyPosOffsetLeaf(0), DynamicSizeUtil.OFFSET_SIZE);
@@ -272,7 +274,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
 
             int keySize = extractKeySize(keyValueSize);
             int valueSize = extractValueSize(keyValueSize);
-            addedDeadSpace += keySize + valueSize + getOverhead(keySize, valueSize, offload);
+            addedDeadSpace += inlineKeySize(cursor, keySize) + valueSize + getOverhead(keySize, valueSize, offload);
         }
         // Update dead space
         setDeadSpace(cursor, getDeadSpace(cursor) + addedDeadSpace);
@@ -305,7 +307,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
                 readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
                 return into;
             }
-            progressCursor(cursor, keySize);
+            progressCursor(cursor, inlineKeySize(cursor, keySize));
             layout.readValue(cursor, into.value, valueSize);
         }
         return into;
@@ -328,13 +330,36 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         int newValueSize = layout.valueSize(value);
         if (oldValueSize == newValueSize) {
             // Fine we can just overwrite
-            progressCursor(cursor, keySize);
+            progressCursor(cursor, inlineKeySize(cursor, keySize));
             layout.writeValue(cursor, value);
             return true;
         }
         return false;
     }
 
+    /**
+     * Reads an inlined key, cursor is placed right after the key-value size header and is expected to be placed right
+     * after the key bytes when this method returns.
+     */
+    protected void readInlineKey(PageCursor cursor, KEY into, int keySize) {
+        layout.readKey(cursor, into, keySize);
+    }
+
+    /**
+     * @return number of bytes a key of the given size occupies inline in this leaf.
+     */
+    protected int inlineKeySize(PageCursor cursor, int keySize) {
+        return keySize;
+    }
+
+    /**
+     * @return offset where the key-value area of this leaf ends. Everything between this offset and payload size is
+     * node wide data that is not part of any key-value entry.
+     */
+    protected int dataEnd(PageCursor cursor) {
+        return payloadSize;
+    }
+
     static void progressCursor(PageCursor cursor, int delta) {
         cursor.setOffset(cursor.getOffset() + delta);
     }
@@ -678,7 +703,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
      * @param ratioToKeepInLeftOnSplit What ratio of keys to try and keep in left node, 1=keep as much as possible, 0=move as much as possible to right
      * @return the pos where to split.
      */
-    private int splitPosInLeaf(
+    protected int splitPosInLeaf(
             PageCursor cursor,
             int insertPos,
             KEY newKey,
@@ -754,7 +779,10 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         int keySize = extractKeySize(keyValueSize);
         int valueSize = extractValueSize(keyValueSize);
         boolean offload = extractOffload(keyValueSize);
-        return DynamicSizeUtil.OFFSET_SIZE + getOverhead(keySize, valueSize, offload) + keySize + valueSize;
+        return DynamicSizeUtil.OFFSET_SIZE
+                + getOverhead(keySize, valueSize, offload)
+                + inlineKeySize(cursor, keySize)
+                + valueSize;
     }
 
     void placeCursorAtActualKey(PageCursor cursor, int pos) {
@@ -802,8 +830,9 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         KEY readKey = layout.newKey();
         VALUE readValue = layout.newValue();
         StringJoiner keys = new StringJoiner(" ");
+        int dataEnd = dataEnd(cursor);
         cursor.setOffset(allocOffset);
-        while (cursor.getOffset() < cursor.getPagedFile().payloadSize()) {
+        while (cursor.getOffset() < dataEnd) {
             StringJoiner singleKey = new StringJoiner("|");
             singleKey.add(Integer.toString(cursor.getOffset()));
             long keyValueSize = readKeyValueSize(cursor);
@@ -825,7 +854,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
                 long offloadId = readOffloadId(cursor);
                 singleKey.add(Long.toString(offloadId));
             } else {
-                layout.readKey(cursor, readKey, keySize);
+                readInlineKey(cursor, readKey, keySize);
                 layout.readValue(cursor, readValue, valueSize);
                 singleKey.add(Integer.toString(keySize));
                 if (includeValue) {
@@ -903,7 +932,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
             }
         }
 
-        if (allocOffset < payloadSize && allocOffset >= 0) {
+        if (allocOffset < dataEnd(cursor) && allocOffset >= 0) {
             // Verify allocOffset point at start of key
             cursor.setOffset(allocOffset);
             long keyValueAtAllocOffset = readKeyValueSize(cursor);
@@ -946,22 +975,28 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         int offsetArrayEnd = keyPosOffsetLeaf(keyCount);
         int offsetArraySize = offsetArrayEnd - offsetArrayStart;
 
+        // Node wide data after the keys
+        int dataEnd = dataEnd(cursor);
+        int nodeDataSize = payloadSize - dataEnd;
+
         // Alive keys
         int aliveKeySize = 0;
         int nextKeyOffset = DynamicSizeUtil.getAllocOffset(cursor);
-        while (nextKeyOffset < payloadSize) {
+        while (nextKeyOffset < dataEnd) {
             cursor.setOffset(nextKeyOffset);
             long keyValueSize = readKeyValueSize(cursor);
             int keySize = extractKeySize(keyValueSize);
             int valueSize = extractValueSize(keyValueSize);
             boolean offload = extractOffload(keyValueSize);
             boolean tombstone = extractTombstone(keyValueSize);
+            int inlineKeySize = inlineKeySize(cursor, keySize);
             if (!tombstone) {
-                aliveKeySize += getOverhead(keySize, valueSize, offload) + keySize + valueSize;
+                aliveKeySize += getOverhead(keySize, valueSize, offload) + inlineKeySize + valueSize;
             }
-            nextKeyOffset = cursor.getOffset() + (offload ? DynamicSizeUtil.SIZE_OFFLOAD_ID : keySize + valueSize);
+            nextKeyOffset =
+                    cursor.getOffset() + (offload ? DynamicSizeUtil.SIZE_OFFLOAD_ID : inlineKeySize + valueSize);
         }
-        return offsetArraySize + aliveKeySize;
+        return offsetArraySize + aliveKeySize + nodeDataSize;
     }
 
     private String readAllocSpace(PageCursor cursor, int allocOffset) {
@@ -989,7 +1024,7 @@ class LeafNodeDynamicSize<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
         return offsetArray.toString();
     }
 
-    private boolean canInline(int entrySize) {
+    boolean canInline(int entrySize) {
         return entrySize <= inlineKeyValueSizeCap;
     }
 }
@@ -0,0 +1,597 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.HEADER_LENGTH_DYNAMIC;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.OFFSET_SIZE;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getAllocOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getAllocSpace;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getDeadSpace;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadId;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadMarker;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readOffloadId;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.setAllocOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.setDeadSpace;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.NO_OFFLOAD_ID;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.isUnreliableKeyValueSize;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.readUnreliableKeyValueSize;
+import static org.neo4j.io.pagecache.PageCursorUtil.getUnsignedShort;
+import static org.neo4j.io.pagecache.PageCursorUtil.putUnsignedShort;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Same layout as {@link LeafNodeDynamicSize}, but inlined keys are compressed by a prefix common to all inlined keys
+ * in the leaf. The prefix is written once, at the end of the leaf, and is looked for after the first
+ * {@link Layout#prefixCompressionOffset()} bytes of each key. Keys that are offloaded are not compressed.
+ *
+ * LEAF
+ * [HEADER 86B]|[KEY_OFFSETS]##########[KEYS_VALUES][PREFIX][PREFIXLENGTH]
+ *                                                          ^ payloadSize - 2
+ * ---
+ *
+ * Key-value size of an entry holds the size of the whole key, the key bytes stored in the entry are the
+ * {@link Layout#prefixCompressionOffset()} first bytes followed by the bytes after the prefix.
+ *
+ * The prefix is calculated from the keys in the leaf every time the leaf is rewritten as a whole, i.e. on defragment,
+ * split, rebalance and merge. Inserting a key that does not share the whole prefix rewrites the leaf with a
+ * shorter prefix.
+ */
+class LeafNodeDynamicSizePrefixCompressed<KEY, VALUE> extends LeafNodeDynamicSize<KEY, VALUE> {
+    static final int SIZE_PREFIX_LENGTH = 2;
+
+    private final int prefixOffset;
+    private final int prefixLengthOffset;
+
+    LeafNodeDynamicSizePrefixCompressed(
+            int payloadSize, Layout<KEY, VALUE> layout, OffloadStore<KEY, VALUE> offloadStore) {
+        super(payloadSize, layout, offloadStore);
+        this.prefixOffset = layout.prefixCompressionOffset();
+        this.prefixLengthOffset = payloadSize - SIZE_PREFIX_LENGTH;
+    }
+
+    @Override
+    public void initialize(PageCursor cursor, byte layerType, long stableGeneration, long unstableGeneration) {
+        super.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+        putUnsignedShort(cursor, prefixLengthOffset, 0);
+        setAllocOffset(cursor, prefixLengthOffset);
+    }
+
+    @Override
+    public KEY keyAt(PageCursor cursor, KEY into, int pos, CursorContext cursorContext) {
+        placeCursorAtActualKey(cursor, pos);
+        long keyValueSize = readKeyValueSize(cursor);
+        if (extractOffload(keyValueSize)) {
+            long offloadId = readOffloadId(cursor);
+            try {
+                offloadStore.readKey(offloadId, into, cursorContext);
+            } catch (IOException e) {
+                cursor.setCursorException("Failed to read key from offload, cause: " + e.getMessage());
+            }
+            return into;
+        }
+        int keySize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+        if (isUnreliableKeyValueSize(keySize, valueSize, keyValueSizeCap())) {
+            readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
+            return into;
+        }
+        readInlineKey(cursor, into, keySize);
+        return into;
+    }
+
+    @Override
+    protected void readInlineKey(PageCursor cursor, KEY into, int keySize) {
+        int prefixLength = prefixLength(cursor);
+        if (prefixLength == 0) {
+            layout.readKey(cursor, into, keySize);
+            return;
+        }
+        if (prefixLength > keySize - prefixOffset) {
+            cursor.setCursorException(
+                    format("Read unreliable key prefix length, prefixLength=%d, keySize=%d", prefixLength, keySize));
+            return;
+        }
+
+        // Put the key back together in a separate buffer and read it from there
+        byte[] key = new byte[keySize];
+        cursor.getBytes(key, 0, prefixOffset);
+        int suffixOffset = cursor.getOffset();
+        cursor.setOffset(prefixLengthOffset - prefixLength);
+        cursor.getBytes(key, prefixOffset, prefixLength);
+        cursor.setOffset(suffixOffset);
+        cursor.getBytes(key, prefixOffset + prefixLength, keySize - prefixOffset - prefixLength);
+
+        PageCursor keyCursor = wrap(key, cursor);
+        try {
+            layout.readKey(keyCursor, into, keySize);
+            keyCursor.checkAndClearCursorException();
+        } catch (CursorException e) {
+            cursor.setCursorException(e.getMessage());
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            cursor.setCursorException("Failed to read prefix compressed key, cause: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected int inlineKeySize(PageCursor cursor, int keySize) {
+        // Offloaded entries have key size 0 and no key bytes inline
+        return Math.max(keySize - prefixLength(cursor), 0);
+    }
+
+    @Override
+    protected int dataEnd(PageCursor cursor) {
+        return prefixLengthOffset - prefixLength(cursor);
+    }
+
+    @Override
+    public void insertKeyValueAt(
+            PageCursor cursor,
+            KEY key,
+            VALUE value,
+            int pos,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        int keySize = layout.keySize(key);
+        int valueSize = layout.valueSize(value);
+        if (!canInline(keySize + valueSize)) {
+            // Offloaded keys are not part of the prefix
+            super.insertKeyValueAt(
+                    cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext);
+            return;
+        }
+
+        byte[] keyBytes = writeKey(cursor, key, keySize);
+        int prefixLength = prefixLength(cursor);
+        if (sharedPrefixLength(cursor, prefixLength, keyBytes) < prefixLength) {
+            // Rewrite the whole leaf with a prefix that is shared with the new key as well
+            List<Entry> entries = readEntries(cursor, keyCount);
+            entries.add(pos, new Entry(keyBytes, writeValue(cursor, value, valueSize), NO_OFFLOAD_ID));
+            writeEntries(cursor, entries);
+            return;
+        }
+
+        // Write key and value
+        int newKeyValueOffset =
+                getAllocOffset(cursor) - getOverhead(keySize, valueSize, false) - keySize + prefixLength - valueSize;
+        cursor.setOffset(newKeyValueOffset);
+        putKeyValueSize(cursor, keySize, valueSize);
+        putKey(cursor, keyBytes, prefixLength);
+        layout.writeValue(cursor, value);
+
+        // Update alloc space
+        setAllocOffset(cursor, newKeyValueOffset);
+
+        // Write to offset array
+        TreeNodeUtil.insertSlotsAt(cursor, pos, 1, keyCount, keyPosOffsetLeaf(0), OFFSET_SIZE);
+        cursor.setOffset(keyPosOffsetLeaf(pos));
+        putUnsignedShort(cursor, newKeyValueOffset);
+    }
+
+    @Override
+    public Overflow overflow(PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue) {
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        if (!canInline(keySize + valueSize)) {
+            return super.overflow(cursor, currentKeyCount, newKey, newValue);
+        }
+
+        int prefixLength = prefixLength(cursor);
+        int sharedPrefixLength = sharedPrefixLength(cursor, prefixLength, writeKey(cursor, newKey, keySize));
+        int neededSpace =
+                OFFSET_SIZE + getOverhead(keySize, valueSize, false) + keySize - sharedPrefixLength + valueSize;
+        if (sharedPrefixLength < prefixLength) {
+            // A shorter prefix grows every inlined key in the leaf, but also takes less space itself
+            neededSpace += (prefixLength - sharedPrefixLength) * (inlinedKeyCount(cursor, currentKeyCount) - 1);
+        }
+        int deadSpace = getDeadSpace(cursor);
+        int allocSpace = getAllocSpace(cursor, keyPosOffsetLeaf(currentKeyCount));
+        return DynamicSizeUtil.calculateOverflow(neededSpace, deadSpace, allocSpace);
+    }
+
+    @Override
+    public void defragment(PageCursor cursor) {
+        writeEntries(cursor, readEntries(cursor, TreeNodeUtil.keyCount(cursor)));
+    }
+
+    @Override
+    public int canRebalance(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        List<Entry> entries = readEntries(leftCursor, leftKeyCount);
+        entries.addAll(readEntries(rightCursor, rightKeyCount));
+        int keyCount = entries.size();
+        int[] leftSpace = spaceFromLeft(entries);
+        int[] rightSpace = spaceFromRight(entries);
+        if (leftSpace[keyCount] <= totalSpace) {
+            // We can merge
+            return -1;
+        }
+
+        // Find how many keys to move from left to right to divide the space as equally as possible
+        int splitPos = leftKeyCount;
+        int bestDelta = Math.abs(leftSpace[splitPos] - rightSpace[splitPos]);
+        for (int pos = leftKeyCount - 1; pos > 0; pos--) {
+            int delta = Math.abs(leftSpace[pos] - rightSpace[pos]);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                splitPos = pos;
+            }
+        }
+        boolean canRebalance = splitPos < leftKeyCount
+                && rightSpace[splitPos] <= totalSpace
+                && leftSpace[splitPos] > halfSpace
+                && rightSpace[splitPos] > halfSpace;
+        return canRebalance ? leftKeyCount - splitPos : 0;
+    }
+
+    @Override
+    public boolean canMerge(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        List<Entry> entries = readEntries(leftCursor, leftKeyCount);
+        entries.addAll(readEntries(rightCursor, rightKeyCount));
+        return spaceFromLeft(entries)[entries.size()] <= totalSpace;
+    }
+
+    @Override
+    protected int splitPosInLeaf(
+            PageCursor cursor,
+            int insertPos,
+            KEY newKey,
+            VALUE newValue,
+            int keyCountAfterInsert,
+            double ratioToKeepInLeftOnSplit) {
+        List<Entry> entries = readEntries(cursor, keyCountAfterInsert - 1);
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        entries.add(
+                insertPos,
+                canInline(keySize + valueSize)
+                        ? new Entry(
+                                writeKey(cursor, newKey, keySize),
+                                writeValue(cursor, newValue, valueSize),
+                                NO_OFFLOAD_ID)
+                        : new Entry(null, null, NO_OFFLOAD_ID));
+
+        // Each side of the split gets its own prefix, so look at all possible positions and pick the one
+        // where both sides fit and left side comes closest to the target
+        int[] leftSpace = spaceFromLeft(entries);
+        int[] rightSpace = spaceFromRight(entries);
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeftOnSplit);
+        int splitPos = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for (int pos = 1; pos < keyCountAfterInsert; pos++) {
+            if (leftSpace[pos] <= totalSpace && rightSpace[pos] <= totalSpace) {
+                int delta = Math.abs(leftSpace[pos] - targetLeftSpace);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    splitPos = pos;
+                }
+            }
+        }
+        if (splitPos == -1) {
+            throw new IllegalStateException(format(
+                    "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, max space allowed:%d",
+                    leftSpace[keyCountAfterInsert], totalSpace * 2));
+        }
+        return splitPos;
+    }
+
+    @Override
+    public void doSplit(
+            PageCursor leftCursor,
+            int leftKeyCount,
+            PageCursor rightCursor,
+            int insertPos,
+            KEY newKey,
+            VALUE newValue,
+            KEY newSplitter,
+            int splitPos,
+            double ratioToKeepInLeftOnSplit,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        List<Entry> entries = readEntries(leftCursor, leftKeyCount);
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        Entry newEntry;
+        if (canInline(keySize + valueSize)) {
+            newEntry = new Entry(
+                    writeKey(leftCursor, newKey, keySize),
+                    writeValue(leftCursor, newValue, valueSize),
+                    NO_OFFLOAD_ID);
+        } else {
+            long offloadId =
+                    offloadStore.writeKeyValue(newKey, newValue, stableGeneration, unstableGeneration, cursorContext);
+            newEntry = new Entry(null, null, offloadId);
+        }
+        entries.add(insertPos, newEntry);
+
+        writeEntries(rightCursor, entries.subList(splitPos, entries.size()));
+        writeEntries(leftCursor, entries.subList(0, splitPos));
+    }
+
+    @Override
+    public void moveKeyValuesFromLeftToRight(
+            PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount, int fromPosInLeftNode) {
+        List<Entry> leftEntries = readEntries(leftCursor, leftKeyCount);
+        List<Entry> rightEntries = new ArrayList<>(leftEntries.subList(fromPosInLeftNode, leftKeyCount));
+        rightEntries.addAll(readEntries(rightCursor, rightKeyCount));
+
+        writeEntries(rightCursor, rightEntries);
+        writeEntries(leftCursor, leftEntries.subList(0, fromPosInLeftNode));
+    }
+
+    @Override
+    public void copyKeyValuesFromLeftToRight(
+            PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        List<Entry> entries = readEntries(leftCursor, leftKeyCount);
+        entries.addAll(readEntries(rightCursor, rightKeyCount));
+        writeEntries(rightCursor, entries);
+    }
+
+    @Override
+    public String checkMetaConsistency(PageCursor cursor) {
+        int prefixLength = prefixLength(cursor);
+        if (prefixLength > inlineKeyValueSizeCap()) {
+            return format(
+                    "Meta data for tree node is inconsistent, id=%d: Unreasonable prefix length, prefixLength=%d",
+                    cursor.getCurrentPageId(), prefixLength);
+        }
+        return super.checkMetaConsistency(cursor);
+    }
+
+    @Override
+    public String toString() {
+        return "TreeNodeDynamicSizePrefixCompressed[pageSize:" + payloadSize + ", keyValueSizeCap:" + keyValueSizeCap()
+                + ", inlineKeyValueSizeCap:" + inlineKeyValueSizeCap() + ", prefixOffset:" + prefixOffset + "]";
+    }
+
+    private int prefixLength(PageCursor cursor) {
+        return getUnsignedShort(cursor, prefixLengthOffset);
+    }
+
+    /**
+     * @return number of bytes, from the start of the prefix of this leaf, that the given key shares with it.
+     */
+    private int sharedPrefixLength(PageCursor cursor, int prefixLength, byte[] key) {
+        int maxLength = Math.min(prefixLength, key.length - prefixOffset);
+        int prefixStart = prefixLengthOffset - prefixLength;
+        int length = 0;
+        while (length < maxLength && cursor.getByte(prefixStart + length) == key[prefixOffset + length]) {
+            length++;
+        }
+        return length;
+    }
+
+    private int inlinedKeyCount(PageCursor cursor, int keyCount) {
+        int count = 0;
+        for (int pos = 0; pos < keyCount; pos++) {
+            placeCursorAtActualKey(cursor, pos);
+            if (!extractOffload(readKeyValueSize(cursor))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void putKey(PageCursor cursor, byte[] key, int prefixLength) {
+        int headLength = Math.min(prefixOffset, key.length);
+        cursor.putBytes(key, 0, headLength);
+        cursor.putBytes(key, headLength + prefixLength, key.length - headLength - prefixLength);
+    }
+
+    /**
+     * Reads the first {@code keyCount} entries with their keys put back together.
+     */
+    private List<Entry> readEntries(PageCursor cursor, int keyCount) {
+        int prefixLength = prefixLength(cursor);
+        byte[] prefix = new byte[prefixLength];
+        cursor.setOffset(prefixLengthOffset - prefixLength);
+        cursor.getBytes(prefix);
+
+        List<Entry> entries = new ArrayList<>(keyCount + 1);
+        for (int pos = 0; pos < keyCount; pos++) {
+            placeCursorAtActualKey(cursor, pos);
+            long keyValueSize = readKeyValueSize(cursor);
+            if (extractOffload(keyValueSize)) {
+                entries.add(new Entry(null, null, readOffloadId(cursor)));
+                continue;
+            }
+            int keySize = extractKeySize(keyValueSize);
+            int headLength = Math.min(prefixOffset, keySize);
+            byte[] key = new byte[keySize];
+            cursor.getBytes(key, 0, headLength);
+            System.arraycopy(prefix, 0, key, headLength, prefixLength);
+            cursor.getBytes(key, headLength + prefixLength, keySize - headLength - prefixLength);
+            byte[] value = new byte[extractValueSize(keyValueSize)];
+            cursor.getBytes(value);
+            entries.add(new Entry(key, value, NO_OFFLOAD_ID));
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrites all data of this leaf with the given entries, compressed by the longest prefix they all share.
+     * Sets key count, leaves no dead space.
+     */
+    private void writeEntries(PageCursor cursor, List<Entry> entries) {
+        int keyCount = entries.size();
+        PrefixAccumulator accumulator = new PrefixAccumulator();
+        entries.forEach(accumulator::add);
+        if (accumulator.space() > totalSpace) {
+            throw new IllegalStateException(format(
+                    "Entries do not fit in leaf, space needed:%d, max space allowed:%d",
+                    accumulator.space(), totalSpace));
+        }
+
+        // Clear everything after the header
+        cursor.setOffset(HEADER_LENGTH_DYNAMIC);
+        cursor.putBytes(payloadSize - HEADER_LENGTH_DYNAMIC, (byte) 0);
+
+        // Prefix
+        int prefixLength = accumulator.prefixLength;
+        int allocOffset = prefixLengthOffset - prefixLength;
+        putUnsignedShort(cursor, prefixLengthOffset, prefixLength);
+        if (prefixLength > 0) {
+            cursor.setOffset(allocOffset);
+            cursor.putBytes(accumulator.prefixSource, prefixOffset, prefixLength);
+        }
+
+        // Keys and values
+        for (int pos = keyCount - 1; pos >= 0; pos--) {
+            Entry entry = entries.get(pos);
+            if (entry.key() == null) {
+                allocOffset -= getOverhead(0, 0, true);
+                cursor.setOffset(allocOffset);
+                putOffloadMarker(cursor);
+                putOffloadId(cursor, entry.offloadId());
+            } else {
+                int keySize = entry.key().length;
+                int valueSize = entry.value().length;
+                allocOffset -= getOverhead(keySize, valueSize, false) + keySize - prefixLength + valueSize;
+                cursor.setOffset(allocOffset);
+                putKeyValueSize(cursor, keySize, valueSize);
+                putKey(cursor, entry.key(), prefixLength);
+                cursor.putBytes(entry.value());
+            }
+            cursor.setOffset(keyPosOffsetLeaf(pos));
+            putUnsignedShort(cursor, allocOffset);
+        }
+
+        setAllocOffset(cursor, allocOffset);
+        setDeadSpace(cursor, 0);
+        TreeNodeUtil.setKeyCount(cursor, keyCount);
+    }
+
+    /**
+     * @return space, including offset array and prefix, that entries [0, pos) would occupy in a leaf of their own,
+     * for every pos from 0 to number of entries.
+     */
+    private int[] spaceFromLeft(List<Entry> entries) {
+        int keyCount = entries.size();
+        int[] space = new int[keyCount + 1];
+        PrefixAccumulator accumulator = new PrefixAccumulator();
+        space[0] = accumulator.space();
+        for (int pos = 0; pos < keyCount; pos++) {
+            accumulator.add(entries.get(pos));
+            space[pos + 1] = accumulator.space();
+        }
+        return space;
+    }
+
+    /**
+     * @return space, including offset array and prefix, that entries [pos, number of entries) would occupy in a leaf
+     * of their own, for every pos from 0 to number of entries.
+     */
+    private int[] spaceFromRight(List<Entry> entries) {
+        int keyCount = entries.size();
+        int[] space = new int[keyCount + 1];
+        PrefixAccumulator accumulator = new PrefixAccumulator();
+        space[keyCount] = accumulator.space();
+        for (int pos = keyCount - 1; pos >= 0; pos--) {
+            accumulator.add(entries.get(pos));
+            space[pos] = accumulator.space();
+        }
+        return space;
+    }
+
+    private int sharedPrefixLength(byte[] prefixSource, byte[] key, int maxLength) {
+        int length = Math.min(maxLength, key.length - prefixOffset);
+        if (length <= 0) {
+            return 0;
+        }
+        int mismatch = Arrays.mismatch(
+                prefixSource, prefixOffset, prefixOffset + length, key, prefixOffset, prefixOffset + length);
+        return mismatch == -1 ? length : mismatch;
+    }
+
+    private byte[] writeKey(PageCursor cursor, KEY key, int keySize) {
+        byte[] bytes = new byte[keySize];
+        layout.writeKey(wrap(bytes, cursor), key);
+        return bytes;
+    }
+
+    private byte[] writeValue(PageCursor cursor, VALUE value, int valueSize) {
+        byte[] bytes = new byte[valueSize];
+        layout.writeValue(wrap(bytes, cursor), value);
+        return bytes;
+    }
+
+    private static PageCursor wrap(byte[] bytes, PageCursor cursor) {
+        return new ByteArrayPageCursor(ByteBuffer.wrap(bytes).order(cursor.getByteOrder()));
+    }
+
+    /**
+     * Entry read from, or to be written to, a leaf. Key and value are {@code null} for offloaded entries.
+     */
+    private record Entry(byte[] key, byte[] value, long offloadId) {
+        int space() {
+            return key == null
+                    ? OFFSET_SIZE + getOverhead(0, 0, true)
+                    : OFFSET_SIZE + getOverhead(key.length, value.length, false) + key.length + value.length;
+        }
+    }
+
+    /**
+     * Keeps track of the space a growing group of entries would occupy in a leaf of their own.
+     */
+    private class PrefixAccumulator {
+        private byte[] prefixSource;
+        private int prefixLength;
+        private int inlinedKeyCount;
+        private int entrySpace;
+
+        void add(Entry entry) {
+            entrySpace += entry.space();
+            if (entry.key() != null) {
+                if (prefixSource == null) {
+                    prefixSource = entry.key();
+                    prefixLength = Math.max(prefixSource.length - prefixOffset, 0);
+                } else {
+                    prefixLength = sharedPrefixLength(prefixSource, entry.key(), prefixLength);
+                }
+                inlinedKeyCount++;
+            }
+        }
+
+        int space() {
+            // Every inlined key is shorter by the prefix, which is written once
+            return entrySpace - prefixLength * (inlinedKeyCount - 1) + SIZE_PREFIX_LENGTH;
+        }
+    }
+}
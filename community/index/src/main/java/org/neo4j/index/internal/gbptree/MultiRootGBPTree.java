@@ -613,7 +613,12 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
             this.payloadSize = pagedFile.payloadSize();
             this.freeList = new FreeListIdProvider(pagedFile.payloadSize());
             TreeNodeLatchService latchService = new TreeNodeLatchService();
-            var treeNodeSelector = treeNodeLayoutFactory.createSelector(engineOpenOptions);
+            // The key compression option only decides the format of new trees, existing trees keep their format
+            var selectorOpenOptions = created
+                    ? engineOpenOptions
+                    : DefaultTreeNodeSelector.withStoredKeyCompression(
+                            engineOpenOptions, RootLayerSupport.readMeta(pagedFile, cursorContext));
+            var treeNodeSelector = treeNodeLayoutFactory.createSelector(selectorOpenOptions);
             this.rootLayerSupport = new RootLayerSupport(
                     pagedFile,
                     generationSupplier,
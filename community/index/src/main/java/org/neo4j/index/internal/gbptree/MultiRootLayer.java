@@ -24,7 +24,6 @@ import static java.lang.Math.abs;
 import static org.neo4j.index.internal.gbptree.CursorCreator.bind;
 import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
 import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
-import static org.neo4j.index.internal.gbptree.InternalTreeLogic.DEFAULT_SPLIT_RATIO;
 import static org.neo4j.index.internal.gbptree.SeekCursor.DEFAULT_MAX_READ_AHEAD;
 import static org.neo4j.index.internal.gbptree.SeekCursor.LEAF_LEVEL;
 import static org.neo4j.index.internal.gbptree.TreeNodeUtil.DATA_LAYER_FLAG;
@@ -137,7 +136,7 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                 rootLayout,
                 rootLeafNode,
                 rootInternalNode,
-                DEFAULT_SPLIT_RATIO,
+                0,
                 cursorContext,
                 this,
                 ROOT_LAYER_FLAG)) {
@@ -168,7 +167,7 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                 rootLayout,
                 rootLeafNode,
                 rootInternalNode,
-                DEFAULT_SPLIT_RATIO,
+                0,
                 cursorContext,
                 this,
                 ROOT_LAYER_FLAG)) {
@@ -579,7 +578,7 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     rootLayout,
                     rootLeafNode,
                     rootInternalNode,
-                    DEFAULT_SPLIT_RATIO,
+                    0,
                     context,
                     MultiRootLayer.this,
                     DATA_LAYER_FLAG)) {
@@ -609,12 +608,20 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     dataLayout,
                     dataLeafNode,
                     dataInternalNode,
-                    splitRatio(flags),
+                    flags,
                     cursorContext,
                     rootMappingInteraction,
                     DATA_LAYER_FLAG);
         }
 
+        @Override
+        public Writer<DATA_KEY, DATA_VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) {
+            // Exchanging the root of a data tree requires a writer in the root layer, which can't co-exist with a
+            // writer having exclusive access to the tree
+            throw new UnsupportedOperationException(
+                    "Bulk loading is not supported for data trees in a multi-root tree");
+        }
+
         @Override
         public Seeker<DATA_KEY, DATA_VALUE> allocateSeeker(CursorContext cursorContext) throws IOException {
             return support.internalAllocateSeeker(dataLayout, cursorContext, dataLeafNode, dataInternalNode);
@@ -633,6 +640,19 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     SeekCursor.NO_MONITOR);
         }
 
+        @Override
+        public Seeker<DATA_KEY, DATA_VALUE> seekBatch(
+                Seeker<DATA_KEY, DATA_VALUE> seeker, List<DATA_KEY> fromInclusive, List<DATA_KEY> toExclusive)
+                throws IOException {
+            return support.initializeBatchSeeker(
+                    seeker,
+                    rootMappingInteraction,
+                    fromInclusive,
+                    toExclusive,
+                    DEFAULT_MAX_READ_AHEAD,
+                    SeekCursor.NO_MONITOR);
+        }
+
         @Override
         public List<DATA_KEY> partitionedSeek(
                 DATA_KEY fromInclusive, DATA_KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -212,6 +212,14 @@ abstract class RootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> implements TreeRootExch
         return DEFAULT_SPLIT_RATIO;
     }
 
+    /**
+     * @param flags flags, typically provided by the user to the writer.
+     * @return whether splits caused by appending to the rightmost node on a level should keep everything in the left node.
+     */
+    static boolean keepAllLeftOnAppend(int flags) {
+        return (flags & DataTree.W_SPLIT_APPEND_KEEP_ALL_LEFT) != 0;
+    }
+
     @FunctionalInterface
     public interface TreeRootsVisitor<ROOT_KEY> {
         /**
@@ -102,7 +102,14 @@ class RootLayerSupport {
             throws IOException {
         PageCursor cursor = pagedFile.io(0L /*ignored*/, PF_SHARED_READ_LOCK, cursorContext);
         return new SeekCursor<>(
-                cursor, layout, leafNode, internalNode, generationSupplier, exceptionDecorator, cursorContext);
+                cursor,
+                pagedFile,
+                layout,
+                leafNode,
+                internalNode,
+                generationSupplier,
+                exceptionDecorator,
+                cursorContext);
     }
 
     <K, V> Seeker<K, V> initializeSeeker(
@@ -125,6 +132,24 @@ class RootLayerSupport {
                         monitor);
     }
 
+    <K, V> Seeker<K, V> initializeBatchSeeker(
+            Seeker<K, V> seeker,
+            RootSupplier rootSupplier,
+            List<K> fromInclusive,
+            List<K> toExclusive,
+            int readAheadLength,
+            Monitor monitor)
+            throws IOException {
+        return ((SeekCursor<K, V>) seeker)
+                .initializeBatch(
+                        (cursor, context) -> rootSupplier.getRoot(context).goTo(cursor),
+                        new TripCountingRootCatchup(rootSupplier),
+                        fromInclusive,
+                        toExclusive,
+                        readAheadLength,
+                        monitor);
+    }
+
     /**
      * We want to create a given number of partitions of the range given by <code>fromInclusive</code> and <code>toExclusive</code>.
      * We want the number of entries in each partition to be as equal as possible. We let the number of leaves in each partition
@@ -223,7 +248,7 @@ class RootLayerSupport {
             Layout<K, V> layout,
             LeafNodeBehaviour<K, V> leafNode,
             InternalNodeBehaviour<K> internalNode,
-            double ratioToKeepInLeftOnSplit,
+            int flags,
             CursorContext cursorContext,
             TreeRootExchange rootChangeMonitor,
             byte layerType)
@@ -232,7 +257,7 @@ class RootLayerSupport {
                 new LatchCrabbingCoordination(latchService, leafNode.underflowThreshold(), DEFAULT_RESET_FREQUENCY);
         GBPTreeWriter<K, V> writer =
                 newWriter(layout, rootChangeMonitor, leafNode, internalNode, traversalMonitor, true, layerType);
-        return initializeWriter(writer, ratioToKeepInLeftOnSplit, cursorContext);
+        return initializeWriter(writer, flags, cursorContext);
     }
 
     <K, V> GBPTreeWriter<K, V> newWriter(
@@ -262,18 +287,48 @@ class RootLayerSupport {
                 structureWriteLog.newSession());
     }
 
-    <K, V> GBPTreeWriter<K, V> initializeWriter(
-            GBPTreeWriter<K, V> writer, double ratioToKeepInLeftOnSplit, CursorContext cursorContext)
+    <K, V> GBPTreeWriter<K, V> initializeWriter(GBPTreeWriter<K, V> writer, int flags, CursorContext cursorContext)
             throws IOException {
         if (readOnly) {
             throw new IllegalStateException(String.format("'%s' is read-only", pagedFile.path()));
         }
         cleanCheck.apply();
-        writer.initialize(ratioToKeepInLeftOnSplit, cursorContext);
+        writer.initialize(RootLayer.splitRatio(flags), RootLayer.keepAllLeftOnAppend(flags), cursorContext);
         changesSinceLastCheckpoint.set(true);
         return writer;
     }
 
+    <K, V> Writer<K, V> newBulkLoader(
+            Layout<K, V> layout,
+            TreeRootExchange rootExchange,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            byte layerType,
+            double fillFactor,
+            CursorContext cursorContext)
+            throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(String.format("'%s' is read-only", pagedFile.path()));
+        }
+        cleanCheck.apply();
+        GBPTreeBulkLoader<K, V> bulkLoader = new GBPTreeBulkLoader<>(
+                layout,
+                pagedFile,
+                leafNode,
+                internalNode,
+                rootExchange,
+                checkpointLock,
+                writerLock,
+                freeList,
+                exceptionDecorator,
+                generationSupplier,
+                layerType,
+                fillFactor);
+        bulkLoader.initialize(cursorContext);
+        changesSinceLastCheckpoint.set(true);
+        return bulkLoader;
+    }
+
     <K, V> OffloadStoreImpl<K, V> buildOffload(Layout<K, V> layout) {
         OffloadIdValidator idValidator = id -> id >= IdSpace.MIN_TREE_NODE_ID && id <= pagedFile.getLastPageId();
         return new OffloadStoreImpl<>(layout, freeList, pagedFile::io, idValidator, payloadSize);
@@ -423,6 +478,12 @@ class RootLayerSupport {
                     return initializeSeeker(seeker, rootSupplier, fromInclusive, toExclusive, 1, LEAF_LEVEL, monitor);
                 }
 
+                @Override
+                public Seeker<K, V> seekBatch(Seeker<K, V> seeker, List<K> fromInclusive, List<K> toExclusive)
+                        throws IOException {
+                    return initializeBatchSeeker(seeker, rootSupplier, fromInclusive, toExclusive, 1, monitor);
+                }
+
                 @Override
                 public List<K> partitionedSeek(
                         K fromInclusive, K toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -23,10 +23,13 @@ import static org.neo4j.index.internal.gbptree.PointerChecking.checkOutOfBounds;
 import static org.neo4j.io.IOUtils.closeAllSilently;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.util.Preconditions;
 
 /**
@@ -168,6 +171,12 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
     static final int DEFAULT_MAX_READ_AHEAD = 20;
     static final int LEAF_LEVEL = Integer.MAX_VALUE;
 
+    /**
+     * Whether or not range seeks should ask the page cache to asynchronously load the next sibling leaf
+     * while the keys of the current leaf are being consumed.
+     */
+    private static final boolean PREFETCH_SIBLINGS = FeatureToggles.flag(SeekCursor.class, "prefetchSiblings", true);
+
     /**
      * Cursor for reading from tree nodes and also will be moved around when following pointers.
      */
@@ -178,6 +187,27 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
      */
     private final CursorContext cursorContext;
 
+    /**
+     * File to issue sibling prefetch hints to, or {@code null} if prefetching is disabled for this seeker.
+     */
+    private final PagedFile prefetchFile;
+
+    /**
+     * Reusable array of page ids handed to {@link PagedFile#prefetch(long[], CursorContext)}.
+     */
+    private final long[] prefetchIds = new long[1];
+
+    /**
+     * Id of the leaf from which the most recent sibling prefetch was issued, so that each leaf only issues one.
+     */
+    private long lastPrefetchOrigin = -1;
+
+    /**
+     * Set when the most recently read batch stopped because a key outside the seek range was encountered,
+     * which means that there is no point in prefetching the next sibling.
+     */
+    private boolean rangeEndsInNode;
+
     /**
      * Key instances to use for reading keys from current node.
      */
@@ -254,6 +284,32 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
      */
     private RootCatchup rootCatchup;
 
+    /**
+     * Moves the {@link PageCursor} to the current root, used when starting a new seek from the root.
+     */
+    private RootInitializer rootInitializer;
+
+    /**
+     * Max number of keys/values read from a leaf in one batch, provided when initializing this seek.
+     */
+    private int maxReadAhead;
+
+    /**
+     * Start keys of the ranges of a batched seek, or {@code null} if only a single range is sought.
+     * See {@link #initializeBatch(RootInitializer, RootCatchup, List, List, int, Monitor)}.
+     */
+    private List<KEY> batchFromInclusive;
+
+    /**
+     * End keys of the ranges of a batched seek, or {@code null} if only a single range is sought.
+     */
+    private List<KEY> batchToExclusive;
+
+    /**
+     * Index of the range in {@link #batchFromInclusive} and {@link #batchToExclusive} currently sought.
+     */
+    private int batchIndex;
+
     /**
      * What level of the tree to search, {@link #LEAF_LEVEL} indicate always seek the leaves.
      */
@@ -449,7 +505,20 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             LongSupplier generationSupplier,
             Consumer<Throwable> exceptionDecorator,
             CursorContext cursorContext) {
+        this(cursor, null, layout, leafNode, internalNode, generationSupplier, exceptionDecorator, cursorContext);
+    }
+
+    SeekCursor(
+            PageCursor cursor,
+            PagedFile prefetchFile,
+            Layout<KEY, VALUE> layout,
+            LeafNodeBehaviour<KEY, VALUE> leafNode,
+            InternalNodeBehaviour<KEY> internalNode,
+            LongSupplier generationSupplier,
+            Consumer<Throwable> exceptionDecorator,
+            CursorContext cursorContext) {
         this.cursor = cursor;
+        this.prefetchFile = PREFETCH_SIBLINGS ? prefetchFile : null;
         this.cursorContext = cursorContext;
         this.layout = layout;
         this.exceptionDecorator = exceptionDecorator;
@@ -462,7 +531,6 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.maxKeyCount = Math.max(leafNode.maxKeyCount(), internalNode.maxKeyCount());
     }
 
-    @SuppressWarnings("unchecked")
     SeekCursor<KEY, VALUE> initialize(
             RootInitializer rootInitializer,
             RootCatchup rootCatchup,
@@ -473,7 +541,69 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             Monitor monitor)
             throws IOException {
         Preconditions.checkState(!closed, "Seeker already closed");
+        this.rootInitializer = rootInitializer;
         this.rootCatchup = rootCatchup;
+        this.maxReadAhead = maxReadAhead;
+        this.searchLevel = searchLevel;
+        this.monitor = monitor;
+        this.batchFromInclusive = null;
+        this.batchToExclusive = null;
+        this.batchIndex = 0;
+        startFromRoot(fromInclusive, toExclusive);
+        return this;
+    }
+
+    /**
+     * Initializes this cursor to seek a batch of forward key ranges, sorted in ascending order and not overlapping.
+     * Hits of all ranges are returned by {@link #next()} in order. Once a range is exhausted the next range continues
+     * from the leaf where the previous one ended if its start key is within that leaf, otherwise the next range is
+     * sought from the root. Neighbouring ranges falling into the same leaf therefore only pay for a single traversal.
+     */
+    SeekCursor<KEY, VALUE> initializeBatch(
+            RootInitializer rootInitializer,
+            RootCatchup rootCatchup,
+            List<KEY> fromInclusive,
+            List<KEY> toExclusive,
+            int maxReadAhead,
+            Monitor monitor)
+            throws IOException {
+        Preconditions.checkArgument(
+                fromInclusive.size() == toExclusive.size(),
+                "Expected same number of range starts and ends, got %d and %d",
+                fromInclusive.size(),
+                toExclusive.size());
+        Preconditions.checkArgument(!fromInclusive.isEmpty(), "Expected at least one range to seek");
+        for (int i = 0; i < fromInclusive.size(); i++) {
+            int rangeCompare = layout.compare(fromInclusive.get(i), toExclusive.get(i));
+            Preconditions.checkArgument(rangeCompare <= 0, "Batched seek only supports forward seeking");
+            if (i > 0) {
+                int previousCompare = layout.compare(fromInclusive.get(i), toExclusive.get(i - 1));
+                boolean previousExactMatch = layout.compare(fromInclusive.get(i - 1), toExclusive.get(i - 1)) == 0;
+                Preconditions.checkArgument(
+                        previousCompare > 0 || (previousCompare == 0 && !previousExactMatch),
+                        "Ranges of a batched seek must be sorted and not overlap, range %d overlaps range %d",
+                        i,
+                        i - 1);
+            }
+        }
+        initialize(
+                rootInitializer,
+                rootCatchup,
+                fromInclusive.get(0),
+                toExclusive.get(0),
+                maxReadAhead,
+                LEAF_LEVEL,
+                monitor);
+        this.batchFromInclusive = fromInclusive;
+        this.batchToExclusive = toExclusive;
+        return this;
+    }
+
+    /**
+     * Traverses from the root down to where the range starting at {@code fromInclusive} starts, with all seek state
+     * reset.
+     */
+    private void startFromRoot(KEY fromInclusive, KEY toExclusive) throws IOException {
         this.lastFollowedPointerGeneration = rootInitializer.goToRoot(cursor, cursorContext);
         long generation = generationSupplier.getAsLong();
         this.stableGeneration = Generation.stableGeneration(generation);
@@ -490,15 +620,7 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
         this.first = true;
         this.seekForward = layout.compare(fromInclusive, toExclusive) <= 0;
         this.stride = seekForward ? 1 : -1;
-        this.searchLevel = searchLevel;
-        this.monitor = monitor;
-        int batchSize = exactMatch ? 1 : maxReadAhead;
-        if (mutableKeys == null || batchSize > mutableKeys.length) {
-            this.mutableKeys = (KEY[]) new Object[batchSize];
-            this.mutableValues = new ValueHolder[batchSize];
-            this.mutableKeys[0] = layout.newKey();
-            this.mutableValues[0] = new ValueHolder<>(layout.newValue());
-        }
+        ensureReadAheadCapacity();
         this.ended = false;
         this.pos = 0;
         this.keyCount = 0;
@@ -520,7 +642,69 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             closeAllSilently(this);
             throw e;
         }
-        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ensureReadAheadCapacity() {
+        int batchSize = exactMatch ? 1 : maxReadAhead;
+        if (mutableKeys == null || batchSize > mutableKeys.length) {
+            this.mutableKeys = (KEY[]) new Object[batchSize];
+            this.mutableValues = new ValueHolder[batchSize];
+            this.mutableKeys[0] = layout.newKey();
+            this.mutableValues[0] = new ValueHolder<>(layout.newValue());
+        }
+    }
+
+    /**
+     * Moves on to the next range of a batched seek. If the start of that range is within the leaf that the
+     * {@link PageCursor} is currently placed on, the seek continues from there and the next call to
+     * {@link #next()} searches for the start key in that leaf, the same way it would after a concurrent write.
+     * Otherwise the range is sought from the root.
+     */
+    private void continueWithRange(KEY fromInclusive, KEY toExclusive) throws IOException {
+        if (!startsInCurrentLeaf(fromInclusive)) {
+            startFromRoot(fromInclusive, toExclusive);
+            return;
+        }
+
+        this.fromInclusive = fromInclusive;
+        this.toExclusive = toExclusive;
+        this.exactMatch = layout.compare(fromInclusive, toExclusive) == 0;
+        ensureReadAheadCapacity();
+        this.first = true;
+        this.ended = false;
+        this.cachedIndex = 0;
+        this.cachedLength = 0;
+        this.resultOnTrack = false;
+        this.verifyExpectedFirstAfterGoToNext = false;
+        this.concurrentWriteHappened = true;
+    }
+
+    /**
+     * @return {@code true} if the {@link PageCursor} is placed on a leaf whose first key is not after
+     * {@code fromInclusive} and whose last key is not before it, otherwise {@code false}.
+     */
+    private boolean startsInCurrentLeaf(KEY fromInclusive) throws IOException {
+        boolean inLeaf;
+        do {
+            inLeaf = false;
+            try {
+                if (!readHeader() || isInternal || keyCount == 0) {
+                    continue;
+                }
+                leafNode.keyAt(cursor, mutableKeys[0], 0, cursorContext);
+                if (layout.compare(mutableKeys[0], fromInclusive) > 0) {
+                    continue;
+                }
+                leafNode.keyAt(cursor, mutableKeys[0], keyCount - 1, cursorContext);
+                inLeaf = layout.compare(mutableKeys[0], fromInclusive) >= 0;
+            } catch (Exception e) {
+                cursor.setCursorException(e.getMessage());
+            }
+        } while (cursor.shouldRetry());
+        checkOutOfBoundsAndClosed();
+        cursor.checkAndClearCursorException();
+        return inLeaf && endedUpOnExpectedNode();
     }
 
     /**
@@ -630,6 +814,17 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
 
     @Override
     public boolean next() throws IOException {
+        while (!nextInRange()) {
+            if (batchFromInclusive == null || batchIndex + 1 >= batchFromInclusive.size()) {
+                return false;
+            }
+            batchIndex++;
+            continueWithRange(batchFromInclusive.get(batchIndex), batchToExclusive.get(batchIndex));
+        }
+        return true;
+    }
+
+    private boolean nextInRange() throws IOException {
         try {
             while (!ended) {
                 pos += stride;
@@ -703,6 +898,7 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
                 cachedIndex = 0;
                 cachedLength = 0;
                 resultOnTrack = false;
+                rangeEndsInNode = false;
 
                 // Where we are
                 if (concurrentWriteHappened || forceReadHeader || !seekForward) {
@@ -763,6 +959,7 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
                         }
                     } else {
                         // OK so we read too far, abort this ahead-reading
+                        rangeEndsInNode = true;
                         break;
                     }
                 }
@@ -805,9 +1002,31 @@ class SeekCursor<KEY, VALUE> implements Seeker<KEY, VALUE> {
             return false;
         }
 
+        prefetchNextSibling();
         return true;
     }
 
+    /**
+     * Hints the page cache to start loading the next sibling of the current leaf, if the seek range is expected
+     * to continue into it. This is done once per visited leaf and the sibling pointer is read outside of any
+     * {@link PageCursor#shouldRetry()} loop, which is fine since a prefetch of a bogus page id is harmless.
+     */
+    private void prefetchNextSibling() {
+        if (prefetchFile == null || isInternal || exactMatch || rangeEndsInNode) {
+            return;
+        }
+        long currentPageId = cursor.getCurrentPageId();
+        if (currentPageId == lastPrefetchOrigin) {
+            return;
+        }
+        lastPrefetchOrigin = currentPageId;
+        long sibling = readNextSibling();
+        if (GenerationSafePointerPair.isSuccess(sibling) && TreeNodeUtil.isNode(sibling)) {
+            prefetchIds[0] = GenerationSafePointerPair.pointer(sibling);
+            prefetchFile.prefetch(prefetchIds, cursorContext);
+        }
+    }
+
     /**
      * Check out of bounds for cursor. If out of bounds, check if seeker has been closed and throw exception accordingly
      */
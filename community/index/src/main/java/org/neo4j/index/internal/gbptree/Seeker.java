@@ -104,6 +104,24 @@ public interface Seeker<KEY, VALUE> extends Closeable {
          */
         Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, KEY fromInclusive, KEY toExclusive) throws IOException;
 
+        /**
+         * Seeks hits in this tree for a batch of key ranges, where range {@code i} is given by {@code fromInclusive.get(i)}
+         * and {@code toExclusive.get(i)}. The ranges must be forward ranges, sorted in ascending order and not
+         * overlapping. Hits of all ranges are iterated over, in order, using the returned {@link Seeker}.
+         * <p>
+         * This is cheaper than seeking each range separately when many ranges are close to each other,
+         * since the seek of a range continues from the leaf where the previous range ended if the range starts
+         * within that leaf, and only traverses the tree from the root again otherwise.
+         *
+         * @param seeker {@link Seeker} instance to use to do this seek. This instance is also returned for convenience.
+         * @param fromInclusive lower bounds of the ranges to seek (inclusive).
+         * @param toExclusive higher bounds of the ranges to seek (exclusive).
+         * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+         * @throws IOException on error reading from index.
+         */
+        Seeker<KEY, VALUE> seekBatch(Seeker<KEY, VALUE> seeker, List<KEY> fromInclusive, List<KEY> toExclusive)
+                throws IOException;
+
         /**
          * Partitions the provided key range into {@code numberOfPartitions} partitions and instantiates a {@link Seeker} for each.
          * Caller can seek through the partitions in parallel. Caller is responsible for closing the returned {@link Seeker seekers}.
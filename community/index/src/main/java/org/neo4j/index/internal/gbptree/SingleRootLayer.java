@@ -206,6 +206,18 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
                     SeekCursor.NO_MONITOR);
         }
 
+        @Override
+        public Seeker<KEY, VALUE> seekBatch(Seeker<KEY, VALUE> seeker, List<KEY> fromInclusive, List<KEY> toExclusive)
+                throws IOException {
+            return support.initializeBatchSeeker(
+                    seeker,
+                    SingleRootLayer.this,
+                    fromInclusive,
+                    toExclusive,
+                    SeekCursor.DEFAULT_MAX_READ_AHEAD,
+                    SeekCursor.NO_MONITOR);
+        }
+
         @Override
         public List<KEY> partitionedSeek(
                 KEY fromInclusive, KEY toExclusive, int numberOfPartitions, CursorContext cursorContext)
@@ -223,21 +235,32 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
 
         @Override
         public Writer<KEY, VALUE> writer(int flags, CursorContext cursorContext) throws IOException {
-            double splitRatio = splitRatio(flags);
             if ((flags & DataTree.W_BATCHED_SINGLE_THREADED) != 0) {
-                return support.initializeWriter(batchedWriter, splitRatio, cursorContext);
+                return support.initializeWriter(batchedWriter, flags, cursorContext);
             } else {
                 return support.internalParallelWriter(
                         layout,
                         leafNode,
                         internalNode,
-                        splitRatio,
+                        flags,
                         cursorContext,
                         SingleRootLayer.this,
                         DATA_LAYER_FLAG);
             }
         }
 
+        @Override
+        public Writer<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+            return support.newBulkLoader(
+                    layout,
+                    SingleRootLayer.this,
+                    leafNode,
+                    internalNode,
+                    DATA_LAYER_FLAG,
+                    fillFactor,
+                    cursorContext);
+        }
+
         @Override
         public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
             return support.estimateNumberOfEntriesInTree(
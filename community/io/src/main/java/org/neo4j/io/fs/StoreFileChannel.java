@@ -30,6 +30,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import org.neo4j.function.ThrowingFunction;
@@ -193,6 +194,15 @@ public class StoreFileChannel implements StoreChannel {
         }
     }
 
+    /**
+     * Maps a region of the file of this channel directly into memory.
+     *
+     * @see FileChannel#map(FileChannel.MapMode, long, long)
+     */
+    public MappedByteBuffer map(FileChannel.MapMode mode, long position, long size) throws IOException {
+        return channel.map(mode, position, size);
+    }
+
     @Override
     public StoreFileChannel position(long newPosition) throws IOException {
         channel.position(newPosition);
@@ -23,6 +23,7 @@ import static org.neo4j.io.ByteUnit.gibiBytes;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 
 import java.lang.ref.Cleaner;
+import org.neo4j.internal.nativeimpl.HugePages;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.util.Preconditions;
@@ -50,8 +51,24 @@ public final class GrabAllocator implements MemoryAllocator {
      * @param memoryTracker     memory usage tracker
      */
     GrabAllocator(long expectedMaxMemory, Long grabSize, MemoryTracker memoryTracker) {
+        this(expectedMaxMemory, grabSize, HugePageMode.OFF, memoryTracker);
+    }
+
+    /**
+     * Create a new GrabAllocator that backs its grabs with huge pages of the given kind, for as long as they can be
+     * obtained. Grabs are rounded up to the huge page size, as long as that does not exceed the memory still expected
+     * to be allocated. Grabs that would, and all grabs once huge pages can no longer be obtained, are allocated with
+     * malloc.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate.
+     * @param grabSize          the grab size, or {@code null} to calculate it from the expected max memory.
+     * @param hugePages         the kind of huge pages to back the grabs with.
+     * @param memoryTracker     memory usage tracker
+     */
+    GrabAllocator(long expectedMaxMemory, Long grabSize, HugePageMode hugePages, MemoryTracker memoryTracker) {
         Preconditions.requirePositive(expectedMaxMemory);
-        this.grabs = new Grabs(expectedMaxMemory, calculateGrabSize(grabSize, expectedMaxMemory), memoryTracker);
+        this.grabs = new Grabs(
+                expectedMaxMemory, calculateGrabSize(grabSize, expectedMaxMemory), hugePages, memoryTracker);
         this.cleanable = globalCleaner.register(this, new GrabsDeallocator(grabs));
     }
 
@@ -85,6 +102,11 @@ public final class GrabAllocator implements MemoryAllocator {
         return grabs.availableMemory();
     }
 
+    @Override
+    public synchronized long hugePageMemory() {
+        return grabs.hugePageMemory;
+    }
+
     @Override
     public synchronized long allocateAligned(long bytes, long alignment) {
         return grabs.allocateAligned(bytes, alignment);
@@ -99,19 +121,22 @@ public final class GrabAllocator implements MemoryAllocator {
         public final Grab next;
         private final long address;
         private final long limit;
+        private final boolean mapped;
         private long nextPointer;
 
         Grab(Grab next, long size, MemoryTracker memoryTracker) {
             this.next = next;
             this.address = UnsafeUtil.allocateMemory(size, memoryTracker);
             this.limit = address + size;
+            this.mapped = false;
             nextPointer = address;
         }
 
-        Grab(Grab next, long address, long limit, long nextPointer) {
+        Grab(Grab next, long address, long limit, long nextPointer, boolean mapped) {
             this.next = next;
             this.address = address;
             this.limit = limit;
+            this.mapped = mapped;
             this.nextPointer = nextPointer;
         }
 
@@ -133,7 +158,12 @@ public final class GrabAllocator implements MemoryAllocator {
         }
 
         void free(MemoryTracker memoryTracker) {
-            UnsafeUtil.free(address, limit - address, memoryTracker);
+            if (mapped) {
+                HugePages.unmap(address, limit - address);
+                memoryTracker.releaseNative(limit - address);
+            } else {
+                UnsafeUtil.free(address, limit - address, memoryTracker);
+            }
         }
 
         boolean canAllocate(long bytes, long alignment) {
@@ -141,7 +171,7 @@ public final class GrabAllocator implements MemoryAllocator {
         }
 
         Grab setNext(Grab grab) {
-            return new Grab(grab, address, limit, nextPointer);
+            return new Grab(grab, address, limit, nextPointer, mapped);
         }
 
         @Override
@@ -156,15 +186,43 @@ public final class GrabAllocator implements MemoryAllocator {
     private static final class Grabs {
         private final long grabSize;
         private final MemoryTracker memoryTracker;
+        private HugePageMode hugePages;
+        private long hugePageMemory;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs(long expectedMaxMemory, long grabSize, MemoryTracker memoryTracker) {
+        Grabs(long expectedMaxMemory, long grabSize, HugePageMode hugePages, MemoryTracker memoryTracker) {
             this.expectedMaxMemory = expectedMaxMemory;
             this.grabSize = grabSize;
+            this.hugePages = hugePages;
             this.memoryTracker = memoryTracker;
         }
 
+        private static long roundUpToHugePages(long size, HugePageMode hugePages) {
+            long hugePageSize = hugePages.pageSize();
+            if (hugePageSize == 0) {
+                return size;
+            }
+            return (size + hugePageSize - 1) / hugePageSize * hugePageSize;
+        }
+
+        private Grab newGrab(Grab next, long size) {
+            long mappedSize = roundUpToHugePages(size, hugePages);
+            // Rounding up must not take more memory than requested, e.g. a whole 1GiB page for a small page cache
+            if (hugePages != HugePageMode.OFF && mappedSize <= expectedMaxMemory) {
+                memoryTracker.allocateNative(mappedSize);
+                long address = hugePages.map(mappedSize);
+                if (address != 0) {
+                    hugePageMemory += mappedSize;
+                    return new Grab(next, address, address + mappedSize, address, true);
+                }
+                memoryTracker.releaseNative(mappedSize);
+                // The reserved huge pages are exhausted, or were never there. Don't keep asking for them.
+                hugePages = HugePageMode.OFF;
+            }
+            return new Grab(next, size, memoryTracker);
+        }
+
         long usedMemory() {
             long sum = 0;
             Grab grab = head;
@@ -202,16 +260,16 @@ public final class GrabAllocator implements MemoryAllocator {
             if (sizeWithAlignment > grabSize) {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab(nextGrab, sizeWithAlignment, memoryTracker);
+                Grab allocationGrab = newGrab(nextGrab, sizeWithAlignment);
                 long allocation = allocationGrab.allocate(bytes, alignment);
                 head = head == null ? allocationGrab : head.setNext(allocationGrab);
-                expectedMaxMemory -= sizeWithAlignment;
+                expectedMaxMemory -= allocationGrab.limit - allocationGrab.address;
                 return allocation;
             }
 
             if (head == null || !head.canAllocate(bytes, alignment)) {
-                head = new Grab(head, grabSize, memoryTracker);
-                expectedMaxMemory -= grabSize;
+                head = newGrab(head, grabSize);
+                expectedMaxMemory -= head.limit - head.address;
             }
             return head.allocate(bytes, alignment);
         }
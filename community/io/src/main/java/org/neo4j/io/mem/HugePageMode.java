@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import static org.neo4j.io.ByteUnit.gibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+import org.neo4j.internal.nativeimpl.HugePages;
+
+/**
+ * The kind of pages that a {@link GrabAllocator} backs its grabs with.
+ */
+public enum HugePageMode {
+    /**
+     * Regular pages, allocated with malloc.
+     */
+    OFF(0),
+    /**
+     * Regular pages that the kernel is advised to back with transparent huge pages.
+     */
+    TRANSPARENT(HugePages.TRANSPARENT_HUGE_PAGE_SIZE),
+    /**
+     * Explicit 2 MiB huge pages, from the pool reserved by the administrator.
+     */
+    EXPLICIT_2M(mebiBytes(2)),
+    /**
+     * Explicit 1 GiB huge pages, from the pool reserved by the administrator.
+     */
+    EXPLICIT_1G(gibiBytes(1));
+
+    private final long pageSize;
+
+    HugePageMode(long pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return the size of the huge pages, which grabs are rounded up to, or 0 if huge pages are not used.
+     */
+    public long pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Map the given amount of memory with huge pages of this kind.
+     * @param size size in bytes, must be a multiple of {@link #pageSize()}.
+     * @return the address of the mapping, or 0 if it could not be obtained.
+     */
+    long map(long size) {
+        return switch (this) {
+            case OFF -> 0;
+            case TRANSPARENT -> HugePages.mapTransparent(size);
+            case EXPLICIT_2M, EXPLICIT_1G -> HugePages.mapExplicit(size, pageSize);
+        };
+    }
+}
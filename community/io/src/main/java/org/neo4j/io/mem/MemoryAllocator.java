@@ -33,6 +33,11 @@ public interface MemoryAllocator {
         return new GrabAllocator(expectedMemory, grabSize, memoryTracker);
     }
 
+    static MemoryAllocator createAllocator(
+            long expectedMemory, Long grabSize, HugePageMode hugePages, MemoryTracker memoryTracker) {
+        return new GrabAllocator(expectedMemory, grabSize, hugePages, memoryTracker);
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -43,6 +48,13 @@ public interface MemoryAllocator {
      */
     long availableMemory();
 
+    /**
+     * @return The amount of allocated memory, in bytes, that is backed by huge pages.
+     */
+    default long hugePageMemory() {
+        return 0;
+    }
+
     /**
      * Allocate a contiguous, aligned region of memory of the given size in bytes.
      * @param bytes the number of bytes to allocate.
@@ -428,6 +428,9 @@ public class ByteArrayPageCursor extends PageCursor {
             return 0;
         }
 
+        @Override
+        public void prefetch(long[] pageIds, CursorContext cursorContext) {}
+
         @Override
         public boolean preAllocateSupported() {
             return false;
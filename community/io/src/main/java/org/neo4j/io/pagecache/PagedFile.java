@@ -249,6 +249,18 @@ public interface PagedFile extends AutoCloseable {
      */
     int touch(long pageId, int count, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Ask for the given pages to be loaded into the page cache in the background, without pinning them.
+     * This is a hint for pages that the caller expects to access soon, such as child or sibling nodes of a tree,
+     * or the next record of a chain, so that the page faults can overlap with the work the caller does until then.
+     * Pages that are already in the page cache, or that are beyond the end of the file, are ignored.
+     * No guarantees are made that the pages are loaded, or that they are still loaded when they are eventually accessed.
+     *
+     * @param pageIds ids of the pages to load. The array is not retained, and can be reused by the caller.
+     * @param cursorContext context of the caller.
+     */
+    void prefetch(long[] pageIds, CursorContext cursorContext);
+
     /**
      * Returns {@code true} when a pre-allocation request is supported for this concrete file.
      * This generally depends on the operating system and JVM implementation file channel, so if the operation
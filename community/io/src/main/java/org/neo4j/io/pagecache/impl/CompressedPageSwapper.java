@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.io.fs.DefaultFileSystemAbstraction.WRITE_OPTIONS;
+import static org.neo4j.io.pagecache.impl.CompressedPageTable.BLOCK_SIZE;
+import static org.neo4j.io.pagecache.impl.CompressedPageTable.blockOffset;
+import static org.neo4j.io.pagecache.impl.CompressedPageTable.blocksFor;
+import static org.neo4j.io.pagecache.impl.CompressedPageTable.readFully;
+import static org.neo4j.io.pagecache.impl.CompressedPageTable.storedLength;
+
+import com.github.luben.zstd.Zstd;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.commons.lang3.SystemUtils;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.NativeScopedBuffer;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.EvictionBouncer;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A PageSwapper that stores each page of a file individually compressed with Zstandard, so that cold store files
+ * take up less space on disk and in the OS page cache, and fewer bytes need to be read to fault in a page, at the
+ * cost of compressing pages on flush and decompressing them on page fault.
+ * <p>
+ * Pages do not have fixed positions in the file, instead a {@link CompressedPageTable page translation table},
+ * persisted in a file next to the data file, keeps track of where each page is stored. Pages that do not compress
+ * well enough to save at least one block are stored as they are.
+ */
+public class CompressedPageSwapper implements PageSwapper {
+    private final FileSystemAbstraction fs;
+    private final Path path;
+    private final int filePageSize;
+    private final int compressionLevel;
+    private final IOController ioController;
+    private final int swapperId;
+    private final PageFileSwapperTracer fileSwapperTracer;
+    private final EvictionBouncer evictionBouncer;
+    private final StoreChannel channel;
+    private final CompressedPageTable table;
+    private final MemoryTracker memoryTracker;
+    private final int compressionBufferSize;
+    // Compression buffers not currently in use, there are at most as many as there are concurrent reads and writes.
+    private final ConcurrentLinkedQueue<NativeScopedBuffer> compressionBuffers = new ConcurrentLinkedQueue<>();
+    private volatile PageEvictionCallback onEviction;
+    private FileLock fileLock;
+
+    // Only changed under synchronized(this).
+    private volatile boolean closed;
+
+    CompressedPageSwapper(
+            Path path,
+            FileSystemAbstraction fs,
+            int filePageSize,
+            int compressionLevel,
+            PageEvictionCallback onEviction,
+            IOController ioController,
+            SwapperSet swapperSet,
+            PageFileSwapperTracer fileSwapperTracer,
+            EvictionBouncer evictionBouncer,
+            MemoryTracker memoryTracker)
+            throws IOException {
+        this.fs = fs;
+        this.path = path;
+        this.filePageSize = filePageSize;
+        this.compressionLevel = compressionLevel;
+        this.onEviction = onEviction;
+        this.ioController = ioController;
+        this.fileSwapperTracer = fileSwapperTracer;
+        this.evictionBouncer = evictionBouncer;
+        this.memoryTracker = memoryTracker;
+        this.channel = fs.open(path, WRITE_OPTIONS);
+        try {
+            channel.tryMakeUninterruptible();
+            acquireLock();
+            this.table = CompressedPageTable.open(fs, path, channel, filePageSize);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException ce) {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+        this.compressionBufferSize = blocksFor(Math.max(Zstd.compressBound(filePageSize), filePageSize)) * BLOCK_SIZE;
+        this.swapperId = swapperSet.allocate(this);
+    }
+
+    static boolean isCompressed(FileSystemAbstraction fs, Path path) {
+        return fs.fileExists(CompressedPageTable.tablePath(path));
+    }
+
+    static Path tablePath(Path path) {
+        return CompressedPageTable.tablePath(path);
+    }
+
+    private void acquireLock() throws IOException {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            return;
+        }
+        try {
+            fileLock = channel.tryLock();
+            if (fileLock == null) {
+                throw new FileLockException(path);
+            }
+        } catch (OverlappingFileLockException e) {
+            throw new FileLockException(path, e);
+        }
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress) throws IOException {
+        return read(filePageId, bufferAddress, filePageSize);
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        checkPageId(filePageId);
+        long pageCount = table.pageCount();
+        long bytesRead = 0;
+        for (int offset = 0; offset < bufferLength; offset += filePageSize) {
+            long pageId = filePageId + offset / filePageSize;
+            int length = Math.min(filePageSize, bufferLength - offset);
+            readPage(pageId, bufferAddress + offset, length);
+            if (pageId < pageCount) {
+                bytesRead += length;
+            }
+        }
+        return bytesRead;
+    }
+
+    private void readPage(long pageId, long address, int length) throws IOException {
+        long entry = table.lookup(pageId);
+        if (entry == 0) {
+            UnsafeUtil.setMemory(address, length, MuninnPageCache.ZERO_BYTE);
+            return;
+        }
+        long fileOffset = blockOffset(entry) * BLOCK_SIZE;
+        int storedLength = storedLength(entry);
+        if (storedLength == filePageSize) {
+            ByteBuffer target = wrap(address, length);
+            readFully(channel, target, fileOffset);
+        } else {
+            NativeScopedBuffer buffer = acquireCompressionBuffer();
+            try {
+                ByteBuffer compressed = buffer.getBuffer();
+                compressed.clear().limit(storedLength);
+                readFully(channel, compressed, fileOffset);
+                ByteBuffer target = wrap(address, filePageSize);
+                long result = Zstd.decompressDirectByteBuffer(target, 0, filePageSize, compressed, 0, storedLength);
+                if (Zstd.isError(result) || result != filePageSize) {
+                    throw new IOException("Failed to decompress page " + pageId + " of " + path + ": "
+                            + (Zstd.isError(result)
+                                    ? Zstd.getErrorName(result)
+                                    : "decompressed to " + result + " bytes"));
+                }
+            } finally {
+                releaseCompressionBuffer(buffer);
+            }
+        }
+        ioController.reportIO(1);
+    }
+
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long bytesRead = 0;
+        long filePageId = startFilePageId;
+        for (int i = 0; i < length; i++) {
+            bytesRead += read(filePageId, bufferAddresses[i], bufferLengths[i]);
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress) throws IOException {
+        return write(filePageId, bufferAddress, filePageSize);
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        checkPageId(filePageId);
+        for (int offset = 0; offset < bufferLength; offset += filePageSize) {
+            writePage(filePageId + offset / filePageSize, bufferAddress + offset);
+        }
+        return bufferLength;
+    }
+
+    private void writePage(long pageId, long address) throws IOException {
+        NativeScopedBuffer buffer = acquireCompressionBuffer();
+        try {
+            writePage(pageId, address, buffer.getBuffer());
+        } finally {
+            releaseCompressionBuffer(buffer);
+        }
+    }
+
+    private void writePage(long pageId, long address, ByteBuffer compressed) throws IOException {
+        ByteBuffer page = wrap(address, filePageSize);
+        compressed.clear();
+        long result = Zstd.compressDirectByteBuffer(
+                compressed, 0, compressed.capacity(), page, 0, filePageSize, compressionLevel);
+
+        ByteBuffer source;
+        int storedLength;
+        if (Zstd.isError(result) || blocksFor(result) >= blocksFor(filePageSize)) {
+            // Not worth it, store the page as it is.
+            source = page;
+            storedLength = filePageSize;
+        } else {
+            source = compressed.limit((int) result);
+            storedLength = (int) result;
+        }
+
+        long block = table.allocate(storedLength);
+        try {
+            channel.writeAll(source, block * BLOCK_SIZE);
+        } catch (IOException | RuntimeException e) {
+            table.release(block, storedLength);
+            throw e;
+        }
+        table.commit(pageId, CompressedPageTable.entry(block, storedLength));
+        ioController.reportIO(1);
+    }
+
+    @Override
+    public long write(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages)
+            throws IOException {
+        long bytesWritten = 0;
+        long filePageId = startFilePageId;
+        for (int i = 0; i < length; i++) {
+            bytesWritten += write(filePageId, bufferAddresses[i], bufferLengths[i]);
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytesWritten;
+    }
+
+    private NativeScopedBuffer acquireCompressionBuffer() {
+        NativeScopedBuffer buffer = compressionBuffers.poll();
+        return buffer != null
+                ? buffer
+                : new NativeScopedBuffer(compressionBufferSize, ByteOrder.LITTLE_ENDIAN, memoryTracker);
+    }
+
+    private void releaseCompressionBuffer(NativeScopedBuffer buffer) {
+        compressionBuffers.offer(buffer);
+        if (closed) {
+            // Raced with close, which may already have freed the other buffers.
+            freeCompressionBuffers();
+        }
+    }
+
+    private void freeCompressionBuffers() {
+        NativeScopedBuffer buffer;
+        while ((buffer = compressionBuffers.poll()) != null) {
+            buffer.close();
+        }
+    }
+
+    private static ByteBuffer wrap(long address, int length) throws IOException {
+        try {
+            return UnsafeUtil.newDirectByteBuffer(address, length);
+        } catch (Throwable e) {
+            throw new IOException("Failed to wrap pointer in ByteBuffer.", e);
+        }
+    }
+
+    private void checkPageId(long filePageId) throws IOException {
+        if (filePageId < 0) {
+            throw new IOException("Negative page id " + filePageId + " for " + path);
+        }
+    }
+
+    @Override
+    public void evicted(long filePageId) {
+        PageEvictionCallback callback = this.onEviction;
+        if (callback != null) {
+            callback.onEvict(filePageId);
+        }
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // Page writes are only reachable through the table once it is persisted.
+            table.force(channel);
+        } finally {
+            try {
+                table.close();
+            } finally {
+                channel.close();
+                onEviction = null;
+                freeCompressionBuffers();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void closeAndDelete() throws IOException {
+        close();
+        fs.deleteFile(path);
+        fs.deleteFile(CompressedPageTable.tablePath(path));
+    }
+
+    @Override
+    public void force() throws IOException {
+        table.force(channel);
+    }
+
+    @Override
+    public long getLastPageId() {
+        long pageCount = table.pageCount();
+        return pageCount == 0 ? PageCursor.UNBOUND_PAGE_ID : pageCount - 1;
+    }
+
+    @Override
+    public void truncate() throws IOException {
+        truncate(0);
+    }
+
+    @Override
+    public void truncate(long size) throws IOException {
+        table.truncate((size + filePageSize - 1) / filePageSize);
+    }
+
+    @Override
+    public boolean canAllocate() {
+        // Pages are not stored at fixed positions, so there is nothing to preallocate.
+        return false;
+    }
+
+    @Override
+    public void allocate(long newFileSize) {}
+
+    @Override
+    public int swapperId() {
+        return swapperId;
+    }
+
+    @Override
+    public PageFileSwapperTracer fileSwapperTracer() {
+        return fileSwapperTracer;
+    }
+
+    @Override
+    public boolean isPageFlushable(long pageRef) {
+        return evictionBouncer.allowPageFlush(pageRef);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedPageSwapper{" + "filePageSize=" + filePageSize + ", file=" + path + '}';
+    }
+}
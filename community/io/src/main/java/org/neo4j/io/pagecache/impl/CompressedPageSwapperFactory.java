@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionBouncer;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A factory that creates {@link CompressedPageSwapper}s for the files that are opted in to compression, and delegates
+ * to another factory for all other files.
+ * <p>
+ * A file is opted in by its name matching any of the given globs, but only if it is created as compressed: an
+ * existing, non-empty file without a page translation table is always left in its plain format. Conversely, a file
+ * that has a page translation table is always opened as compressed, regardless of the globs.
+ * <p>
+ * Compression is not used together with direct IO, and requires direct access to the memory of the page buffers.
+ *
+ * @see CompressedPageSwapper
+ */
+public class CompressedPageSwapperFactory implements PageSwapperFactory {
+    private final PageSwapperFactory delegate;
+    private final FileSystemAbstraction fs;
+    private final PageCacheTracer pageCacheTracer;
+    private final List<PathMatcher> compressedFiles;
+    private final int compressionLevel;
+    private final MemoryTracker memoryTracker;
+
+    public CompressedPageSwapperFactory(
+            PageSwapperFactory delegate,
+            FileSystemAbstraction fs,
+            PageCacheTracer pageCacheTracer,
+            List<String> compressedFileGlobs,
+            int compressionLevel,
+            MemoryTracker memoryTracker) {
+        this.delegate = delegate;
+        this.fs = fs;
+        this.pageCacheTracer = pageCacheTracer;
+        this.compressedFiles = compressedFileGlobs.stream()
+                .map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+                .toList();
+        this.compressionLevel = compressionLevel;
+        this.memoryTracker = memoryTracker;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper(
+            Path file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist,
+            boolean useDirectIO,
+            IOController ioController,
+            EvictionBouncer evictionBouncer,
+            SwapperSet swappers)
+            throws IOException {
+        if (useCompression(file, filePageSize, createIfNotExist, useDirectIO)) {
+            return new CompressedPageSwapper(
+                    file,
+                    fs,
+                    filePageSize,
+                    compressionLevel,
+                    onEviction,
+                    ioController,
+                    swappers,
+                    pageCacheTracer.createFileSwapperTracer(),
+                    evictionBouncer,
+                    memoryTracker);
+        }
+        return delegate.createPageSwapper(
+                file,
+                filePageSize,
+                onEviction,
+                createIfNotExist,
+                useDirectIO,
+                ioController,
+                evictionBouncer,
+                swappers);
+    }
+
+    private boolean useCompression(Path file, int filePageSize, boolean createIfNotExist, boolean useDirectIO)
+            throws IOException {
+        boolean exists = fs.fileExists(file);
+        if (!createIfNotExist && !exists) {
+            throw new NoSuchFileException(file.toString(), null, "Cannot map non-existing file");
+        }
+        boolean empty = !exists || fs.getFileSize(file) == 0;
+        if (CompressedPageSwapper.isCompressed(fs, file)) {
+            if (!empty) {
+                return true;
+            }
+            // The data file has been deleted or emptied behind our back, so the table is of no use anymore.
+            fs.deleteFile(CompressedPageSwapper.tablePath(file));
+        }
+        return empty
+                && !useDirectIO
+                && filePageSize <= CompressedPageTable.MAX_PAGE_SIZE
+                && UnsafeUtil.unsafeByteBufferAccessAvailable()
+                && matches(file);
+    }
+
+    private boolean matches(Path file) {
+        Path fileName = file.getFileName();
+        for (PathMatcher matcher : compressedFiles) {
+            if (matcher.matches(fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
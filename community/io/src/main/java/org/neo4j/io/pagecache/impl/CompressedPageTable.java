@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.io.fs.DefaultFileSystemAbstraction.WRITE_OPTIONS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+/**
+ * The page translation table of a {@link CompressedPageSwapper}, which maps each file page to the extent of the data
+ * file that holds its compressed contents, and keeps track of the free space of the data file.
+ * <p>
+ * The data file is divided into blocks of {@value #BLOCK_SIZE} bytes, where the first block holds a header, and a page
+ * occupies the smallest number of consecutive blocks its compressed contents fit in. Pages are never overwritten in
+ * place, a rewritten page goes to a new extent, so that the table persisted on disk always points to page contents
+ * that have been forced. The table is only persisted by {@link #force(StoreChannel)}, after forcing the data file, and
+ * extents that the persisted table points to are not reused until the table has been persisted without them.
+ * <p>
+ * Table entries are {@code (blockOffset << 20) | storedLength}, where an entry of {@code 0} means the page has never
+ * been written, and a stored length equal to the page size means the page is stored uncompressed.
+ */
+final class CompressedPageTable implements Closeable {
+    static final String TABLE_SUFFIX = ".ptt";
+    static final int BLOCK_SIZE = 512;
+    private static final long MAGIC = 0x4E454F4350414745L; // NEOCPAGE
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int LENGTH_BITS = 20;
+    static final int MAX_PAGE_SIZE = (1 << LENGTH_BITS) - 1;
+    private static final long LENGTH_MASK = MAX_PAGE_SIZE;
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final StoreChannel tableChannel;
+    private final int pageSize;
+    private final long fileId;
+    // Free extents of the data file, indexed by the number of blocks they span.
+    private final LongArrayList[] freeExtents;
+    private final Object forceLock = new Object();
+
+    // Guarded by synchronized(this).
+    private long[][] entries = new long[0][];
+    private long pageCount;
+    private long persistedPageCount;
+    private long highWaterBlock;
+    // Pages whose entries have changed since the table was last persisted.
+    private MutableLongSet dirtyPages = new LongHashSet();
+    // Persisted entries that have been replaced, and can be reused once the table has been persisted again.
+    private LongArrayList pendingFree = new LongArrayList();
+
+    private CompressedPageTable(StoreChannel tableChannel, int pageSize, long fileId) {
+        this.tableChannel = tableChannel;
+        this.pageSize = pageSize;
+        this.fileId = fileId;
+        this.freeExtents = new LongArrayList[blocksFor(pageSize) + 1];
+        for (int i = 0; i < freeExtents.length; i++) {
+            freeExtents[i] = new LongArrayList();
+        }
+        this.highWaterBlock = 1;
+    }
+
+    static Path tablePath(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + TABLE_SUFFIX);
+    }
+
+    /**
+     * Opens the table of the given data file, or initializes both the data file and the table if the data file is
+     * empty.
+     */
+    static CompressedPageTable open(FileSystemAbstraction fs, Path dataFile, StoreChannel dataChannel, int pageSize)
+            throws IOException {
+        Path tableFile = tablePath(dataFile);
+        StoreChannel tableChannel = fs.open(tableFile, WRITE_OPTIONS);
+        try {
+            tableChannel.tryMakeUninterruptible();
+            if (dataChannel.size() == 0) {
+                long fileId = ThreadLocalRandom.current().nextLong();
+                var table = new CompressedPageTable(tableChannel, pageSize, fileId);
+                tableChannel.truncate(0);
+                ByteBuffer header = table.header();
+                dataChannel.writeAll(header, 0);
+                header.flip();
+                tableChannel.writeAll(header, 0);
+                dataChannel.force(false);
+                tableChannel.force(false);
+                return table;
+            }
+
+            ByteBuffer dataHeader = readHeader(dataChannel, dataFile);
+            ByteBuffer tableHeader = readHeader(tableChannel, tableFile);
+            long fileId = dataHeader.getLong(16);
+            if (dataHeader.getInt(12) != pageSize
+                    || tableHeader.getInt(12) != pageSize
+                    || tableHeader.getLong(16) != fileId) {
+                throw new IOException("Page translation table " + tableFile + " does not belong to " + dataFile
+                        + " with page size " + pageSize);
+            }
+            var table = new CompressedPageTable(tableChannel, pageSize, fileId);
+            table.load(tableHeader.getLong(24));
+            return table;
+        } catch (IOException | RuntimeException e) {
+            try {
+                tableChannel.close();
+            } catch (IOException ce) {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+    }
+
+    private static ByteBuffer readHeader(StoreChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Compressed page file " + file + " is too small to hold a header");
+        }
+        readFully(channel, header, 0);
+        if (header.getLong(0) != MAGIC || header.getInt(8) != FORMAT_VERSION) {
+            throw new IOException("Compressed page file " + file + " has an unrecognized header");
+        }
+        return header;
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(pageSize).putLong(fileId).putLong(persistedPageCount);
+        return header.flip();
+    }
+
+    private synchronized void load(long storedPageCount) throws IOException {
+        long tableEntries = (tableChannel.size() - HEADER_SIZE) / Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        LongArrayList extents = new LongArrayList();
+        long maxPageId = -1;
+        for (long first = 0; first < tableEntries; first += CHUNK_SIZE) {
+            int count = (int) Math.min(CHUNK_SIZE, tableEntries - first);
+            buffer.clear().limit(count * Long.BYTES);
+            readFully(tableChannel, buffer, HEADER_SIZE + first * Long.BYTES);
+            for (int i = 0; i < count; i++) {
+                long entry = buffer.getLong(i * Long.BYTES);
+                if (entry != 0) {
+                    long pageId = first + i;
+                    setEntry(pageId, entry);
+                    extents.add(entry);
+                    maxPageId = pageId;
+                }
+            }
+        }
+        pageCount = Math.max(storedPageCount, maxPageId + 1);
+        persistedPageCount = pageCount;
+
+        // Everything between the extents in use is free space.
+        long[] sorted = extents.toArray();
+        Arrays.sort(sorted);
+        long nextBlock = 1;
+        for (long entry : sorted) {
+            long block = blockOffset(entry);
+            if (block > nextBlock) {
+                releaseRange(nextBlock, block - nextBlock);
+            }
+            nextBlock = Math.max(nextBlock, block + blocksFor(storedLength(entry)));
+        }
+        highWaterBlock = nextBlock;
+    }
+
+    private void releaseRange(long block, long blocks) {
+        int maxBlocks = freeExtents.length - 1;
+        while (blocks > 0) {
+            int size = (int) Math.min(blocks, maxBlocks);
+            freeExtents[size].add(block);
+            block += size;
+            blocks -= size;
+        }
+    }
+
+    synchronized long lookup(long pageId) {
+        int chunk = (int) (pageId >>> CHUNK_SHIFT);
+        return chunk < entries.length ? entries[chunk][(int) (pageId & CHUNK_MASK)] : 0;
+    }
+
+    synchronized long pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Reserves room in the data file for a page with the given stored length.
+     *
+     * @return the first block of the reserved extent.
+     */
+    synchronized long allocate(int storedLength) {
+        int blocks = blocksFor(storedLength);
+        LongArrayList free = freeExtents[blocks];
+        if (!free.isEmpty()) {
+            return free.removeAtIndex(free.size() - 1);
+        }
+        long block = highWaterBlock;
+        highWaterBlock += blocks;
+        return block;
+    }
+
+    /**
+     * Gives back an extent that was {@link #allocate(int) allocated}, but never {@link #commit(long, long) committed}.
+     */
+    synchronized void release(long block, int storedLength) {
+        freeExtents[blocksFor(storedLength)].add(block);
+    }
+
+    /**
+     * Points the given page to a new extent, with contents that have been completely written to the data file.
+     */
+    synchronized void commit(long pageId, long entry) {
+        int chunk = (int) (pageId >>> CHUNK_SHIFT);
+        long previous = chunk < entries.length ? entries[chunk][(int) (pageId & CHUNK_MASK)] : 0;
+        setEntry(pageId, entry);
+        if (entry != 0 && pageId >= pageCount) {
+            pageCount = pageId + 1;
+        }
+        if (previous != 0) {
+            if (dirtyPages.add(pageId)) {
+                // The persisted table may still point to the previous extent.
+                pendingFree.add(previous);
+            } else {
+                // The previous extent was written after the table was last persisted, so nothing points to it.
+                freeExtents[blocksFor(storedLength(previous))].add(blockOffset(previous));
+            }
+        } else {
+            dirtyPages.add(pageId);
+        }
+    }
+
+    synchronized void truncate(long newPageCount) {
+        for (long pageId = newPageCount; pageId < pageCount; pageId++) {
+            if (lookup(pageId) != 0) {
+                commit(pageId, 0);
+            }
+        }
+        pageCount = newPageCount;
+    }
+
+    private void setEntry(long pageId, long entry) {
+        int chunk = (int) (pageId >>> CHUNK_SHIFT);
+        if (chunk >= entries.length) {
+            if (entry == 0) {
+                return;
+            }
+            int oldLength = entries.length;
+            entries = Arrays.copyOf(entries, Math.max(chunk + 1, oldLength * 2));
+            for (int i = oldLength; i < entries.length; i++) {
+                entries[i] = new long[CHUNK_SIZE];
+            }
+        }
+        entries[chunk][(int) (pageId & CHUNK_MASK)] = entry;
+    }
+
+    /**
+     * Forces the data file, and then persists and forces the changes to the table since it was last persisted.
+     */
+    void force(StoreChannel dataChannel) throws IOException {
+        synchronized (forceLock) {
+            long[] pages;
+            long[] pageEntries;
+            LongArrayList toFree;
+            long pageCountToPersist;
+            synchronized (this) {
+                pages = dirtyPages.toSortedArray();
+                pageEntries = new long[pages.length];
+                for (int i = 0; i < pages.length; i++) {
+                    pageEntries[i] = lookup(pages[i]);
+                }
+                pageCountToPersist = pageCount;
+                if (pages.length > 0 || pageCountToPersist != persistedPageCount) {
+                    dirtyPages = new LongHashSet();
+                    toFree = pendingFree;
+                    pendingFree = new LongArrayList();
+                } else {
+                    toFree = null;
+                }
+            }
+
+            // Never force while holding the monitor, lookups and allocations of page faults and flushes need it
+            dataChannel.force(false);
+            if (toFree == null) {
+                // The table has not changed since it was last persisted
+                return;
+            }
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < pages.length; i++) {
+                entry.clear();
+                entry.putLong(0, pageEntries[i]);
+                tableChannel.writeAll(entry, HEADER_SIZE + pages[i] * Long.BYTES);
+            }
+            if (pageCountToPersist < persistedPageCount) {
+                tableChannel.truncate(HEADER_SIZE + pageCountToPersist * Long.BYTES);
+            }
+            persistedPageCount = pageCountToPersist;
+            tableChannel.writeAll(header(), 0);
+            tableChannel.force(false);
+
+            synchronized (this) {
+                for (int i = 0; i < toFree.size(); i++) {
+                    long previous = toFree.get(i);
+                    freeExtents[blocksFor(storedLength(previous))].add(blockOffset(previous));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tableChannel.close();
+    }
+
+    static long entry(long blockOffset, int storedLength) {
+        return (blockOffset << LENGTH_BITS) | storedLength;
+    }
+
+    static long blockOffset(long entry) {
+        return entry >>> LENGTH_BITS;
+    }
+
+    static int storedLength(long entry) {
+        return (int) (entry & LENGTH_MASK);
+    }
+
+    static int blocksFor(long length) {
+        return (int) ((length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+
+    static void readFully(StoreChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) {
+                throw new IOException("Unexpected end of compressed page file at offset " + position);
+            }
+            position += read;
+        }
+    }
+}
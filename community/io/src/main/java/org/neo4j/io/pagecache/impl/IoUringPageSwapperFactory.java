@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A factory for SingleFilePageSwapper instances that submit their vectored reads and writes - batched page faults,
+ * pre-fetching and flushes - through Linux io_uring. Each buffer becomes its own positioned operation, and the whole
+ * batch is submitted with a single system call and executed concurrently by the kernel, instead of being serialized
+ * on the position lock of the file channel.
+ * <p>
+ * When io_uring is not available, or the file system does not expose file descriptors, the swappers fall back to
+ * the file channel based IO of {@link SingleFilePageSwapperFactory}.
+ */
+public class IoUringPageSwapperFactory extends SingleFilePageSwapperFactory {
+    public IoUringPageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        super(fs, pageCacheTracer, memoryTracker, IoUringRings.shared());
+    }
+
+    /**
+     * @return {@code true} if the swappers created by this factory use io_uring, {@code false} if they fall back to
+     * file channel based IO.
+     */
+    public boolean isIoUringAvailable() {
+        return ioUring() != null;
+    }
+
+    /**
+     * @return details about io_uring availability.
+     */
+    public String describeIoUring() {
+        return IoUringRings.describe();
+    }
+}
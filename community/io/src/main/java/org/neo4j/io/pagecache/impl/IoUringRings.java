@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import java.io.IOException;
+import org.neo4j.internal.nativeimpl.IoUring;
+
+/**
+ * A set of {@link IoUring} instances shared by all the page swappers in the process. Every ring can hold operations
+ * against any file, so we keep a small number of rings, and stripe the swapping threads over them, rather than
+ * setting up rings per file. The rings are created on first use and live for the remainder of the process.
+ */
+final class IoUringRings {
+    private static final int RING_ENTRIES = getInteger(IoUringRings.class, "ringEntries", 64);
+    private static final int RINGS = getInteger(
+            IoUringRings.class, "rings", Math.min(Runtime.getRuntime().availableProcessors(), 16));
+
+    private static volatile IoUringRings shared;
+    private static volatile Throwable sharedFailure;
+
+    private final IoUring[] rings;
+
+    private IoUringRings(IoUring[] rings) {
+        this.rings = rings;
+    }
+
+    /**
+     * @return the shared rings, or {@code null} if io_uring is not available.
+     */
+    static IoUringRings shared() {
+        IoUringRings rings = shared;
+        if (rings == null && sharedFailure == null && IoUring.isAvailable()) {
+            synchronized (IoUringRings.class) {
+                rings = shared;
+                if (rings == null && sharedFailure == null) {
+                    try {
+                        shared = rings = create(Math.max(RINGS, 1));
+                    } catch (IOException e) {
+                        sharedFailure = e;
+                    }
+                }
+            }
+        }
+        return rings;
+    }
+
+    static String describe() {
+        Throwable failure = sharedFailure;
+        return failure == null ? IoUring.describe() : "Failed to set up io_uring: " + failure.getMessage();
+    }
+
+    private static IoUringRings create(int count) throws IOException {
+        IoUring[] rings = new IoUring[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                rings[i] = IoUring.create(RING_ENTRIES);
+            }
+        } catch (IOException e) {
+            for (IoUring ring : rings) {
+                if (ring != null) {
+                    ring.close();
+                }
+            }
+            throw e;
+        }
+        return new IoUringRings(rings);
+    }
+
+    void read(int fd, long[] bufferAddresses, int[] bufferLengths, long[] fileOffsets, int length, int[] results)
+            throws IOException {
+        ring().submitAndWait(IoUring.IORING_OP_READ, fd, bufferAddresses, bufferLengths, fileOffsets, length, results);
+    }
+
+    void write(int fd, long[] bufferAddresses, int[] bufferLengths, long[] fileOffsets, int length, int[] results)
+            throws IOException {
+        ring().submitAndWait(IoUring.IORING_OP_WRITE, fd, bufferAddresses, bufferLengths, fileOffsets, length, results);
+    }
+
+    private IoUring ring() {
+        return rings[(int) (Thread.currentThread().getId() % rings.length)];
+    }
+}
@@ -35,6 +35,8 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.commons.lang3.SystemUtils;
 import org.neo4j.internal.nativeimpl.NativeAccess;
 import org.neo4j.internal.nativeimpl.NativeAccessFactory;
@@ -74,6 +76,12 @@ public class SingleFilePageSwapper implements PageSwapper {
     private final BlockSwapper blockSwapper;
     private final NativeAccess nativeAccess;
     private final EvictionBouncer evictionBouncer;
+    // Rings to submit vectored IO through, or null to use the vectored IO of the file channel.
+    private final IoUringRings ioUring;
+    // The kernel uses the file descriptor of the channel for io_uring operations, after we have read it from the
+    // channel. The operations hold the read lock until they complete, and tryReopen() and close() take the write lock,
+    // so we never close or replace the channel while the kernel might still write through its descriptor.
+    private final ReadWriteLock channelLock = new ReentrantReadWriteLock();
 
     // Guarded by synchronized(this). See tryReopen() and close().
     private boolean closed;
@@ -103,7 +111,8 @@ public class SingleFilePageSwapper implements PageSwapper {
             PageFileSwapperTracer fileSwapperTracer,
             BlockSwapper blockSwapper,
             NativeAccessFactory nativeAccessFactory,
-            EvictionBouncer evictionBouncer)
+            EvictionBouncer evictionBouncer,
+            IoUringRings ioUring)
             throws IOException {
         this.fs = fs;
         this.path = path;
@@ -137,6 +146,7 @@ public class SingleFilePageSwapper implements PageSwapper {
         this.blockSwapper = blockSwapper;
         this.nativeAccess = nativeAccessFactory.create(path);
         this.evictionBouncer = evictionBouncer;
+        this.ioUring = ioUring;
     }
 
     private StoreChannel createStoreChannel() throws IOException {
@@ -242,6 +252,9 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (canDoIoUring()) {
+                        return readPositionedVectoredIoUring(startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return readPositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -284,6 +297,92 @@ public class SingleFilePageSwapper implements PageSwapper {
         return bytesRead;
     }
 
+    private boolean canDoIoUring() {
+        return ioUring != null && channel.getFileDescriptor() != INVALID_FILE_DESCRIPTOR;
+    }
+
+    private long readPositionedVectoredIoUring(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long[] fileOffsets = computeFileOffsets(startFilePageId, bufferLengths, length);
+        int[] results = new int[length];
+        channelLock.readLock().lock();
+        try {
+            ioUring.read(openFileDescriptor(), bufferAddresses, bufferLengths, fileOffsets, length, results);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+        ioController.reportIO(1);
+        long bytesRead = 0;
+        for (int i = 0; i < length; i++) {
+            int read = checkIoUringResult(results[i], "read", fileOffsets[i]);
+            if (read < bufferLengths[i]) {
+                // Short read, either because we are at the end of the file, or because the read was cut short.
+                // The block swapper reads whatever is left, and zero-fills the rest of the buffer.
+                read += swapIn(bufferAddresses[i] + read, fileOffsets[i] + read, bufferLengths[i] - read);
+            }
+            bytesRead += read;
+        }
+        return bytesRead;
+    }
+
+    private long writePositionedVectoredIoUring(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long[] fileOffsets = computeFileOffsets(startFilePageId, bufferLengths, length);
+        increaseFileSizeTo(fileOffsets[length - 1] + bufferLengths[length - 1]);
+        int[] results = new int[length];
+        // we do not report external io to ioController here, for the same reason as lockPositionWriteVector
+        channelLock.readLock().lock();
+        try {
+            ioUring.write(openFileDescriptor(), bufferAddresses, bufferLengths, fileOffsets, length, results);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+        long bytesWritten = 0;
+        for (int i = 0; i < length; i++) {
+            int written = checkIoUringResult(results[i], "write", fileOffsets[i]);
+            if (written < bufferLengths[i]) {
+                written += swapOut(
+                        bufferAddresses[i] + written, fileOffsets[i] + written, bufferLengths[i] - written, false);
+            }
+            bytesWritten += written;
+        }
+        return bytesWritten;
+    }
+
+    /**
+     * @return the file descriptor of the channel, which stays valid for as long as the read lock of the
+     * {@link #channelLock} is held.
+     */
+    private int openFileDescriptor() throws ClosedChannelException {
+        if (!channel.isOpen()) {
+            // Closed by an interrupt, and the descriptor may already belong to another file. Let the caller reopen.
+            throw new ClosedChannelException();
+        }
+        return channel.getFileDescriptor();
+    }
+
+    private long[] computeFileOffsets(long startFilePageId, int[] bufferLengths, int length) {
+        long[] fileOffsets = new long[length];
+        long fileOffset = pageIdToPosition(startFilePageId);
+        for (int i = 0; i < length; i++) {
+            fileOffsets[i] = fileOffset;
+            fileOffset += bufferLengths[i];
+        }
+        return fileOffsets;
+    }
+
+    private int checkIoUringResult(int result, String operation, long fileOffset) throws IOException {
+        if (result >= 0) {
+            return result;
+        }
+        if (!channel.isOpen()) {
+            // The channel was closed underneath us, most likely by an interrupt. Let the caller reopen and retry.
+            throw new ClosedChannelException();
+        }
+        throw new IOException("Failed to " + operation + " " + path + " at offset " + fileOffset + " through io_uring, "
+                + "error number " + -result + ".");
+    }
+
     private static long countBuffersLengths(int[] bufferLengths, int length) {
         long bytesToRead = 0;
         for (int i = 0; i < length; i++) {
@@ -355,6 +454,9 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (canDoIoUring()) {
+                        return writePositionedVectoredIoUring(startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return writePositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -480,33 +582,40 @@ public class SingleFilePageSwapper implements PageSwapper {
      * ClosedChannelException, and the CCE is then rethrown.
      */
     private synchronized void tryReopen(ClosedChannelException closedException) throws ClosedChannelException {
-        if (channel.isOpen()) {
-            // Someone got ahead of us, presumably. Nothing to do.
-            return;
-        }
+        channelLock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                // Someone got ahead of us, presumably. Nothing to do.
+                return;
+            }
 
-        if (closed) {
-            // We've been explicitly closed, so we shouldn't reopen the
-            // channel.
-            throw closedException;
-        }
+            if (closed) {
+                // We've been explicitly closed, so we shouldn't reopen the
+                // channel.
+                throw closedException;
+            }
 
-        try {
-            channel = createStoreChannel();
-            // The closing of a FileChannel also releases all associated file locks.
-            acquireLock();
-        } catch (IOException e) {
-            closedException.addSuppressed(e);
-            throw closedException;
+            try {
+                channel = createStoreChannel();
+                // The closing of a FileChannel also releases all associated file locks.
+                acquireLock();
+            } catch (IOException e) {
+                closedException.addSuppressed(e);
+                throw closedException;
+            }
+        } finally {
+            channelLock.writeLock().unlock();
         }
     }
 
     @Override
     public synchronized void close() throws IOException {
         closed = true;
+        channelLock.writeLock().lock();
         try {
             channel.close();
         } finally {
+            channelLock.writeLock().unlock();
             // Eagerly relinquish our reference to the onEviction callback, because even though
             // we've closed the PagedFile at this point, there are likely still pages in the cache that are bound to
             // this swapper, and will stay bound, until the eviction threads eventually gets around to kicking them out.
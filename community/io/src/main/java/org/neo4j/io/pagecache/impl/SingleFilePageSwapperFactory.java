@@ -45,12 +45,22 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
     private final FileSystemAbstraction fs;
     private final PageCacheTracer pageCacheTracer;
     private final BlockSwapper blockSwapper;
+    private final IoUringRings ioUring;
 
     public SingleFilePageSwapperFactory(
             FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        this(fs, pageCacheTracer, memoryTracker, null);
+    }
+
+    SingleFilePageSwapperFactory(
+            FileSystemAbstraction fs,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            IoUringRings ioUring) {
         this.fs = fs;
         this.pageCacheTracer = pageCacheTracer;
         this.blockSwapper = createBlockSwapper(memoryTracker);
+        this.ioUring = ioUring;
     }
 
     @Override
@@ -78,7 +88,12 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
                 pageCacheTracer.createFileSwapperTracer(),
                 blockSwapper,
                 nativeAccessFactory(),
-                evictionBouncer);
+                evictionBouncer,
+                ioUring);
+    }
+
+    IoUringRings ioUring() {
+        return ioUring;
     }
 
     private static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
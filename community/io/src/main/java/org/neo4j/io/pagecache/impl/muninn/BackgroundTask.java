@@ -32,8 +32,7 @@ abstract class BackgroundTask implements Runnable {
     @Override
     public void run() {
         int pageCacheId = pageCache.getPageCacheId();
-        String taskName = getClass().getSimpleName();
-        String threadName = "MuninnPageCache[" + pageCacheId + "]-" + taskName;
+        String threadName = "MuninnPageCache[" + pageCacheId + "]-" + taskName();
         Thread thread = Thread.currentThread();
         String previousName = thread.getName();
         try {
@@ -44,5 +43,9 @@ abstract class BackgroundTask implements Runnable {
         }
     }
 
+    protected String taskName() {
+        return getClass().getSimpleName();
+    }
+
     protected abstract void run(MuninnPageCache pageCache);
 }
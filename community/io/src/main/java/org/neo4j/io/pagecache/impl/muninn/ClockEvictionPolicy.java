@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The classic clock, or "second chance", policy. Every pass of the clock arm decrements the usage stamp of the page,
+ * and the page becomes an eviction candidate once its usage stamp reaches zero.
+ */
+final class ClockEvictionPolicy implements EvictionPolicy {
+    static final ClockEvictionPolicy INSTANCE = new ClockEvictionPolicy();
+
+    private ClockEvictionPolicy() {}
+
+    @Override
+    public String name() {
+        return EvictionPolicyType.CLOCK.name();
+    }
+
+    @Override
+    public void pageFaulted(long pageRef) {}
+
+    @Override
+    public boolean isEvictionCandidate(long pageRef) {
+        return PageList.decrementUsage(pageRef);
+    }
+}
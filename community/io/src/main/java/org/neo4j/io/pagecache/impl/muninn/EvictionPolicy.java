@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The eviction policy decides which of the loaded pages the clock arm is allowed to evict.
+ * <p>
+ * Both the background eviction thread and the cooperative eviction in page faulting threads sweep the {@link PageList} with a
+ * clock arm. For every loaded page the arm passes, the policy is asked if the page is a candidate for eviction. Implementations
+ * must be thread safe, but are allowed to be benignly racy since they only influence which pages we would rather keep.
+ * <p>
+ * Implementations must never hold on to a page indefinitely, otherwise cooperative eviction could run into a live-lock.
+ */
+interface EvictionPolicy {
+    /**
+     * @return the name of this policy, as reported to the {@link org.neo4j.io.pagecache.tracing.PageCacheTracer}.
+     */
+    String name();
+
+    /**
+     * A page has been faulted into the given page, and is now bound to its swapper and file page.
+     * Called while the faulting thread still holds the exclusive lock on the page.
+     *
+     * @param pageRef the page that has been faulted in.
+     */
+    void pageFaulted(long pageRef);
+
+    /**
+     * The clock arm is passing over the given loaded page.
+     *
+     * @param pageRef the page the clock arm is currently pointing at.
+     * @return {@code true} if the page should be evicted, {@code false} if it should be kept for now.
+     */
+    boolean isEvictionCandidate(long pageRef);
+}
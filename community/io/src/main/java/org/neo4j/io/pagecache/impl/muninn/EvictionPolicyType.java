@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * The available page eviction policies of the {@link MuninnPageCache}.
+ */
+public enum EvictionPolicyType {
+    /**
+     * Clock sweep over the page usage stamps.
+     * Cheap, but a single large scan can push the entire working set out of the cache.
+     */
+    CLOCK {
+        @Override
+        EvictionPolicy createPolicy(int pageCount, PageCacheTracer pageCacheTracer) {
+            return ClockEvictionPolicy.INSTANCE;
+        }
+    },
+    /**
+     * Clock sweep where pages that a frequency sketch has seen being used often are given additional chances before they
+     * are evicted. Pages that are only touched once, like the ones read by large scans or backups, are evicted first.
+     */
+    FREQUENCY_SKETCH {
+        @Override
+        EvictionPolicy createPolicy(int pageCount, PageCacheTracer pageCacheTracer) {
+            return new FrequencySketchEvictionPolicy(pageCount, pageCacheTracer);
+        }
+    };
+
+    abstract EvictionPolicy createPolicy(int pageCount, PageCacheTracer pageCacheTracer);
+}
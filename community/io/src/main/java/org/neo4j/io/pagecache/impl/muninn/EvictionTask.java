@@ -20,19 +20,28 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm for one partition of the page cache. Only one is expected for each
+ * partition.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(PagePartition)
  */
 final class EvictionTask extends BackgroundTask {
-    EvictionTask(MuninnPageCache pageCache) {
+    private final PagePartition partition;
+
+    EvictionTask(MuninnPageCache pageCache, PagePartition partition) {
         super(pageCache);
+        this.partition = partition;
+    }
+
+    @Override
+    protected String taskName() {
+        return partition.index == 0 ? super.taskName() : super.taskName() + "-" + partition.index;
     }
 
     @Override
     protected void run(MuninnPageCache pageCache) {
-        pageCache.continuouslySweepPages();
+        pageCache.continuouslySweepPages(partition);
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One stripe of the freelist of a {@link PagePartition}.
+ * <p>
+ * The head of the freelist is a thread-safe linked-list of {@link FreePage} objects, or an {@link AtomicInteger}, or
+ * null, see {@code MuninnPageCache.partitions}. Initially, the head is an AtomicInteger that counts through the range
+ * of pages given to this stripe. Page faulting threads each have their own home stripe, so they mostly do not contend
+ * on the same head, and the eviction thread refills the stripes with batches of evicted pages.
+ */
+final class FreeList {
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            HEAD = l.findVarHandle(FreeList.class, "head", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final int firstPageId;
+    final int endPageId;
+
+    @SuppressWarnings("unused") // accessed via VarHandle.
+    private volatile Object head;
+
+    FreeList(int firstPageId, int endPageId) {
+        this.firstPageId = firstPageId;
+        this.endPageId = endPageId;
+        setHead(new AtomicInteger(firstPageId));
+    }
+
+    /**
+     * @return the number of free pages in this freelist, as of the given head.
+     */
+    int freeCount(Object head) {
+        if (head == null) {
+            return 0;
+        } else if (head.getClass() == FreePage.class) {
+            return ((FreePage) head).count;
+        } else if (head.getClass() == AtomicInteger.class) {
+            return Math.max(0, endPageId - ((AtomicInteger) head).get());
+        }
+        return 0;
+    }
+
+    int freeCount() {
+        return freeCount(getHead());
+    }
+
+    Object getHead() {
+        return HEAD.getVolatile(this);
+    }
+
+    boolean compareAndSetHead(Object expected, Object update) {
+        return HEAD.compareAndSet(this, expected, update);
+    }
+
+    void setHead(Object newHead) {
+        HEAD.setVolatile(this, newHead);
+    }
+}
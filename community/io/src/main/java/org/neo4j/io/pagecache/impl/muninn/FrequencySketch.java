@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.internal.helpers.Numbers.ceilingPowerOfTwo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A count-min sketch of 4-bit counters, used to approximate how often a key has been seen recently.
+ * <p>
+ * Each key maps to four counters in four different longs of the table, and its frequency is the minimum of those
+ * counters. To make the sketch favour recent history, all counters are halved once the number of recorded increments
+ * reaches the sample size.
+ * <p>
+ * Page faults update the sketch from many threads at once, and 16 counters share each long. The counters are therefore
+ * updated with compare-and-set, so that concurrent increments never carry over from one counter into its neighbour. The
+ * number of recorded increments is updated racily, lost updates only delay the halving a little.
+ */
+final class FrequencySketch {
+    static final int MAX_FREQUENCY = 15;
+    private static final int MAX_TABLE_SIZE = 1 << 21;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long HALVE_MASK = 0x7777_7777_7777_7777L;
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long[] SEEDS = {
+        0x9E37_79B9_7F4A_7C15L, 0xC2B2_AE3D_27D4_EB4FL, 0x1656_67B1_9E37_79F9L, 0xD6E8_FEB8_6659_FD93L
+    };
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int expectedKeys) {
+        // 16 counters per expected key, so that the counters of unrelated keys don't saturate before they are halved.
+        int tableSize = (int) Math.min(MAX_TABLE_SIZE, ceilingPowerOfTwo(Math.max(64, expectedKeys)));
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(expectedKeys, 64));
+    }
+
+    /**
+     * @return the approximate number of times the given key has been recorded, at most {@link #MAX_FREQUENCY}.
+     */
+    int frequency(long key) {
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            frequency = Math.min(frequency, counter((long) TABLE.getOpaque(table, index(hash)), shift(hash)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record one more occurrence of the given key.
+     */
+    void increment(long key) {
+        boolean incremented = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            if (incrementCounter(index(hash), shift(hash))) {
+                incremented = true;
+            }
+        }
+        if (incremented && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve the counters of the given key. Used when a key has been given credit for its frequency, so it has to earn
+     * it again.
+     */
+    void halve(long key) {
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            int index = index(hash);
+            int shift = shift(hash);
+            long value;
+            long halved;
+            do {
+                value = (long) TABLE.getOpaque(table, index);
+                halved = (value & ~(COUNTER_MASK << shift)) | ((counter(value, shift) >>> 1) << shift);
+            } while (!TABLE.weakCompareAndSet(table, index, value, halved));
+        }
+    }
+
+    /**
+     * @return {@code true} if the counter was incremented, or {@code false} if it already was at
+     * {@link #MAX_FREQUENCY}.
+     */
+    private boolean incrementCounter(int index, int shift) {
+        long value;
+        do {
+            value = (long) TABLE.getOpaque(table, index);
+            if (counter(value, shift) == MAX_FREQUENCY) {
+                return false;
+            }
+        } while (!TABLE.weakCompareAndSet(table, index, value, value + (1L << shift)));
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            long value;
+            do {
+                value = (long) TABLE.getOpaque(table, i);
+            } while (!TABLE.weakCompareAndSet(table, i, value, (value >>> 1) & HALVE_MASK));
+        }
+        size /= 2;
+    }
+
+    private static long hash(long key, int seedIndex) {
+        long hash = (key + SEEDS[seedIndex]) * SEEDS[seedIndex];
+        return hash ^ (hash >>> 29);
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private static int shift(long hash) {
+        // One of the 16 4-bit counters in the long.
+        return (int) (hash & 15) << 2;
+    }
+
+    private static int counter(long value, int shift) {
+        return (int) ((value >>> shift) & COUNTER_MASK);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * A scan resistant eviction policy, that combines the clock sweep with a {@link FrequencySketch} of the file pages that have
+ * been in use recently.
+ * <p>
+ * The sketch is fed by page faults, and by the clock arm whenever it finds a page that has been used again since the arm
+ * last passed it. When the usage stamp of a page reaches zero, the page is only evicted if the sketch does not consider it
+ * to be frequently used. Otherwise, it is given another pass of the clock arm, and its frequency in the sketch is halved, so
+ * every page can only be spared a small number of times before it has to prove that it is still in use. This keeps the
+ * policy free from live-locks, while pages that are only touched by a single large scan are evicted on the first pass.
+ */
+final class FrequencySketchEvictionPolicy implements EvictionPolicy {
+    // Pages with a higher estimated frequency than this are spared when their usage stamp reaches zero.
+    private static final int protectionThreshold =
+            getInteger(FrequencySketchEvictionPolicy.class, "protectionThreshold", 2);
+
+    private final FrequencySketch sketch;
+    private final PageCacheTracer pageCacheTracer;
+
+    FrequencySketchEvictionPolicy(int pageCount, PageCacheTracer pageCacheTracer) {
+        this.sketch = new FrequencySketch(pageCount);
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    @Override
+    public String name() {
+        return EvictionPolicyType.FREQUENCY_SKETCH.name();
+    }
+
+    @Override
+    public void pageFaulted(long pageRef) {
+        sketch.increment(key(pageRef));
+    }
+
+    @Override
+    public boolean isEvictionCandidate(long pageRef) {
+        if (PageList.getUsage(pageRef) > 1) {
+            // The page has been used again since the clock arm last passed it.
+            sketch.increment(key(pageRef));
+        }
+        if (!PageList.decrementUsage(pageRef)) {
+            return false;
+        }
+        long key = key(pageRef);
+        if (sketch.frequency(key) > protectionThreshold) {
+            sketch.halve(key);
+            PageList.incrementUsage(pageRef);
+            pageCacheTracer.evictionsDeferred(1);
+            return false;
+        }
+        return true;
+    }
+
+    private static long key(long pageRef) {
+        // 40 bits of file page id and 21 bits of swapper id fit in a long.
+        return (PageList.getFilePageId(pageRef) << 21) | PageList.getSwapperId(pageRef);
+    }
+}
@@ -27,12 +27,12 @@ import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
 import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.util.FeatureToggles.flag;
 import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.FeatureToggles.getLong;
 import static org.neo4j.util.Preconditions.requireNonNegative;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.VarHandle;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -47,6 +47,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 import org.eclipse.collections.api.set.ImmutableSet;
+import org.neo4j.internal.nativeimpl.Numa;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOController;
@@ -55,6 +56,7 @@ import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
@@ -159,6 +161,38 @@ public class MuninnPageCache implements PageCache {
     // tryGetNumberOfAvailablePages.
     private static final int UNKNOWN_PAGES_TO_EVICT = -1;
 
+    // The page cache is never split into partitions smaller than this many pages.
+    private static final int MIN_PAGES_PER_PARTITION = 1024;
+
+    // How many page faults a thread does before it checks which NUMA node it is running on again.
+    private static final int HOME_PARTITION_REFRESH_INTERVAL = 1024;
+
+    // The freelist of the page cache is split into about this many stripes, so page faulting threads do not all
+    // contend on the same freelist head.
+    private static final int freeListStripes =
+            getInteger(MuninnPageCache.class, "freeListStripes", Runtime.getRuntime().availableProcessors());
+
+    // A freelist stripe is never given fewer than this many pages.
+    private static final int MIN_PAGES_PER_STRIPE = 64;
+
+    // The eviction thread adds the pages it evicts to the freelist in batches of at most this many pages.
+    private static final int FREE_PAGE_BATCH_SIZE = 16;
+
+    // Assigns the home freelist stripes of the page faulting threads round-robin.
+    private static final AtomicInteger nextHomeStripe = new AtomicInteger();
+
+    // The background flusher writes at most this many pages per pass, so dirty pages trickle out instead of going out
+    // in bursts that saturate the disk.
+    private static final int backgroundFlushPagesPerPass =
+            getInteger(MuninnPageCache.class, "backgroundFlushPagesPerPass", 4096);
+
+    // The background flusher pauses this long between passes while the page cache is above its target dirty ratio,
+    // and backs off up to the max pause while it is below.
+    private static final long backgroundFlushMinPauseMillis =
+            getLong(MuninnPageCache.class, "backgroundFlushMinPauseMillis", 10);
+    private static final long backgroundFlushMaxPauseMillis =
+            getLong(MuninnPageCache.class, "backgroundFlushMaxPauseMillis", 1000);
+
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
@@ -171,36 +205,50 @@ public class MuninnPageCache implements PageCache {
     private final boolean enableEvictionThread;
     private final MemoryAllocator memoryAllocator;
     private final boolean closeAllocatorOnShutdown;
+    private final EvictionPolicy evictionPolicy;
+    // Only set when residency quotas are configured, in which case it is also the eviction policy.
+    private final ResidencyQuotaEvictionPolicy residencyQuotas;
+    private final PageFetcher pageFetcher;
+    // The fraction of the pages that may be dirty before the background flusher starts writing them out, or negative
+    // if there is no background flusher.
+    private final double backgroundFlushDirtyRatio;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings("unused") // accessed via VarHandle.
-    private volatile Object freelist;
-
-    private static final VarHandle FREE_LIST;
+    // The pages are split into one or more partitions, each with its own freelist and eviction thread, and the
+    // freelist of a partition is split into stripes.
+    // Each freelist stripe is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the stripe is an AtomicInteger that counts through its share of the pages of the partition, at
+    // which point all of those pages have been put in use. Once this happens, the stripe is set to null to allow the
+    // background eviction thread to start its work. From that point on, the stripe will operate as a concurrent
+    // stack of FreePage objects. The eviction thread pushes batches of newly freed FreePage objects onto the stripe
+    // with the fewest free pages, and page faulting threads pops FreePage objects from the stack. The FreePage
+    // objects are single-use, to avoid running into the ABA-problem.
+    // Page faulting threads start looking for free pages in their home stripe of their home partition, then in the
+    // other stripes of that partition, and only take pages from the other partitions when their own partition has no
+    // free pages left.
+    private final PagePartition[] partitions;
+    // True if the partitions correspond to the NUMA nodes, in which case the home partition of a thread is the
+    // partition of the node it is running on.
+    private final boolean numaPartitioned;
+    private final ThreadLocal<HomePartition> homePartition = ThreadLocal.withInitial(HomePartition::new);
+    // Used instead of the thread local when there is nothing to choose between.
+    private final HomePartition onlyPartition = new HomePartition();
 
     private final ConcurrentHashMap<String, MuninnPagedFile> mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
+    // The eviction threads are unparked when we've run out of free pages to grab. To avoid contention on the locks
+    // protecting the threads scheduling meta-data in the OS kernel, every partition keeps track of whether its
+    // eviction thread is parked, without someone having signalled it to wake up, see PagePartition.unparkEvictor.
     private volatile IOException evictorException;
 
+    private volatile Thread flushThread;
+    // Used by the background flusher, to rotate the file that each pass starts with.
+    private final AtomicInteger nextFileToFlush = new AtomicInteger();
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -210,15 +258,6 @@ public class MuninnPageCache implements PageCache {
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
-    static {
-        try {
-            MethodHandles.Lookup l = MethodHandles.lookup();
-            FREE_LIST = l.findVarHandle(MuninnPageCache.class, "freelist", Object.class);
-        } catch (ReflectiveOperationException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-    }
-
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -240,6 +279,10 @@ public class MuninnPageCache implements PageCache {
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
         private final boolean closeAllocatorOnShutdown;
+        private final EvictionPolicyType evictionPolicy;
+        private final List<ResidencyQuota> residencyQuotas;
+        private final int pagePartitions;
+        private final double backgroundFlushDirtyRatio;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -252,7 +295,11 @@ public class MuninnPageCache implements PageCache {
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
                 int reservedPageSize,
-                boolean closeAllocatorOnShutdown) {
+                boolean closeAllocatorOnShutdown,
+                EvictionPolicyType evictionPolicy,
+                List<ResidencyQuota> residencyQuotas,
+                int pagePartitions,
+                double backgroundFlushDirtyRatio) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -264,6 +311,10 @@ public class MuninnPageCache implements PageCache {
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
             this.closeAllocatorOnShutdown = closeAllocatorOnShutdown;
+            this.evictionPolicy = evictionPolicy;
+            this.residencyQuotas = residencyQuotas;
+            this.pagePartitions = pagePartitions;
+            this.backgroundFlushDirtyRatio = backgroundFlushDirtyRatio;
         }
 
         /**
@@ -281,7 +332,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -299,7 +354,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -317,7 +376,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -335,7 +398,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -353,7 +420,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -371,7 +442,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -389,7 +464,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageBytes,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -407,7 +486,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -425,7 +508,11 @@ public class MuninnPageCache implements PageCache {
                     false,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -443,7 +530,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
 
         /**
@@ -462,7 +553,107 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
+        }
+
+        /**
+         * @param evictionPolicy the policy that decides which pages to evict when the page cache needs free pages.
+         */
+        public Configuration evictionPolicy(EvictionPolicyType evictionPolicy) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    requireNonNull(evictionPolicy),
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
+        }
+
+        /**
+         * @param residencyQuotas minimum and maximum shares of the page cache for groups of mapped files.
+         */
+        public Configuration residencyQuotas(List<ResidencyQuota> residencyQuotas) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    List.copyOf(residencyQuotas),
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
+        }
+
+        /**
+         * @param pagePartitions the number of partitions to split the page cache into, each with its own freelist and
+         * eviction thread. When this is the number of NUMA nodes, the memory of each partition is placed on its own
+         * node, and page faulting threads prefer the free pages of the node they are running on.
+         */
+        public Configuration pagePartitions(int pagePartitions) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    requirePositive(pagePartitions),
+                    backgroundFlushDirtyRatio);
+        }
+
+        /**
+         * @param backgroundFlushDirtyRatio the fraction of the page cache that is allowed to be dirty, before a
+         * background thread starts writing dirty pages out in file offset order. The background flusher is disabled
+         * unless this is set.
+         */
+        public Configuration backgroundFlushDirtyRatio(double backgroundFlushDirtyRatio) {
+            if (!(backgroundFlushDirtyRatio >= 0 && backgroundFlushDirtyRatio <= 1)) {
+                throw new IllegalArgumentException(
+                        "Background flush dirty ratio must be between 0 and 1, but was " + backgroundFlushDirtyRatio);
+            }
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    residencyQuotas,
+                    pagePartitions,
+                    backgroundFlushDirtyRatio);
         }
     }
 
@@ -490,7 +681,11 @@ public class MuninnPageCache implements PageCache {
                 true,
                 true,
                 RESERVED_BYTES,
-                false);
+                false,
+                EvictionPolicyType.CLOCK,
+                List.of(),
+                1,
+                -1);
     }
 
     /**
@@ -504,6 +699,7 @@ public class MuninnPageCache implements PageCache {
         verifyCachePageSizeIsPowerOfTwo(configuration.pageSize);
         requireNonNull(jobScheduler);
         int maxPages = calculatePageCount(configuration.memoryAllocator, configuration.pageSize);
+        int partitionCount = calculatePartitionCount(maxPages, configuration.pagePartitions);
 
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
@@ -514,24 +710,39 @@ public class MuninnPageCache implements PageCache {
         this.printExceptionsOnClose = true;
         this.bufferFactory = configuration.bufferFactory;
         this.victimPage = VictimPageReference.getVictimPage(cachePageSize, configuration.memoryTracker);
+        this.numaPartitioned = partitionCount > 1 && Numa.isAvailable() && partitionCount == Numa.nodeCount();
         this.pages = new PageList(
                 maxPages,
                 cachePageSize,
                 configuration.memoryAllocator,
                 new SwapperSet(),
                 victimPage,
-                getBufferAlignment(cachePageSize));
+                getBufferAlignment(cachePageSize),
+                numaPartitioned && cachePageSize >= UnsafeUtil.pageSize() ? partitionCount : 1);
+        int stripesPerPartition = Math.max(1, (freeListStripes + partitionCount - 1) / partitionCount);
+        this.partitions = PagePartition.partition(
+                maxPages,
+                partitionCount,
+                MuninnPageCache::calculatePagesToKeepFree,
+                pages -> Math.max(1, Math.min(stripesPerPartition, pages / MIN_PAGES_PER_STRIPE)));
         this.scheduler = jobScheduler;
+        this.pageFetcher = new PageFetcher(jobScheduler);
         this.clock = configuration.clock;
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
         this.memoryAllocator = configuration.memoryAllocator;
         this.closeAllocatorOnShutdown = configuration.closeAllocatorOnShutdown;
-        setFreelistHead(new AtomicInteger());
-
-        // Expose the total number of pages
+        this.backgroundFlushDirtyRatio = configuration.backgroundFlushDirtyRatio;
+        EvictionPolicy policy = configuration.evictionPolicy.createPolicy(maxPages, pageCacheTracer);
+        this.residencyQuotas = configuration.residencyQuotas.isEmpty()
+                ? null
+                : new ResidencyQuotaEvictionPolicy(policy, configuration.residencyQuotas, maxPages);
+        this.evictionPolicy = residencyQuotas != null ? residencyQuotas : policy;
+
+        // Expose the total number of pages and how we pick the pages to evict
         pageCacheTracer.maxPages(maxPages, cachePageSize);
+        pageCacheTracer.evictionPolicy(evictionPolicy.name());
         this.mappedFiles = new ConcurrentHashMap<>();
     }
 
@@ -552,6 +763,11 @@ public class MuninnPageCache implements PageCache {
         return Math.max(lowerBound, Math.min(freePages, 100_000));
     }
 
+    private static int calculatePartitionCount(int maxPages, int pagePartitions) {
+        // Tiny partitions would mostly be stealing free pages from each other.
+        return Math.max(1, Math.min(pagePartitions, maxPages / MIN_PAGES_PER_PARTITION));
+    }
+
     private static void verifyHacks() {
         // Make sure that we have access to theUnsafe.
         UnsafeUtil.assertHasUnsafe();
@@ -657,6 +873,7 @@ public class MuninnPageCache implements PageCache {
         }
 
         // there was no existing mapping
+        var residencyGroup = residencyQuotas != null ? residencyQuotas.groupFor(path) : null;
         var pagedFile = new MuninnPagedFile(
                 path,
                 this,
@@ -674,7 +891,11 @@ public class MuninnPageCache implements PageCache {
                 multiVersioned,
                 multiVersioned ? pageReservedBytes : 0,
                 versionStorage,
-                littleEndian);
+                littleEndian,
+                residencyGroup);
+        if (residencyGroup != null) {
+            residencyQuotas.bind(pagedFile.swapperId, residencyGroup);
+        }
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose(deleteOnClose);
         mappedFiles.put(filePath, pagedFile);
@@ -718,8 +939,19 @@ public class MuninnPageCache implements PageCache {
 
         try {
             if (enableEvictionThread) {
-                var monitoringParams = systemJob("Eviction of pages from the page cache");
-                scheduler.schedule(Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this));
+                for (PagePartition partition : partitions) {
+                    var monitoringParams = systemJob(partitions.length == 1
+                            ? "Eviction of pages from the page cache"
+                            : "Eviction of pages from page cache partition " + partition.index);
+                    scheduler.schedule(
+                            Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this, partition));
+                }
+            }
+            if (backgroundFlushDirtyRatio >= 0) {
+                scheduler.schedule(
+                        Group.PAGE_CACHE_FLUSHER,
+                        systemJob("Background flushing of dirty pages from the page cache"),
+                        new FlushTask(this));
             }
         } catch (Exception e) {
             IOException exception = new IOException(e);
@@ -739,6 +971,9 @@ public class MuninnPageCache implements PageCache {
             if (current != null) {
                 pageCacheTracer.unmappedFile(file.swapperId, file);
                 flushAndCloseWithoutFail(file);
+                if (residencyQuotas != null) {
+                    residencyQuotas.unbind(file.swapperId);
+                }
             }
         }
     }
@@ -836,8 +1071,12 @@ public class MuninnPageCache implements PageCache {
 
         closed = true;
 
-        interrupt(evictionThread);
-        evictionThread = null;
+        for (PagePartition partition : partitions) {
+            interrupt(partition.evictionThread);
+            partition.evictionThread = null;
+        }
+        interrupt(flushThread);
+        flushThread = null;
         if (closeAllocatorOnShutdown) {
             memoryAllocator.close();
         }
@@ -888,13 +1127,53 @@ public class MuninnPageCache implements PageCache {
     }
 
     long grabFreeAndExclusivelyLockedPage(PageFaultEvent faultEvent) throws IOException {
-        // Review the comment on the freelist field before making changes to
+        // Review the comment on the partitions field before making changes to
         // this part of the code.
-        // Whatever the case, we're going to the head-pointer of the freelist,
-        // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
+        // We first go to the freelist stripes of our home partition, see
+        // tryGrabFreePage. If they are empty, then we wake up the eviction
+        // thread of our home partition, and look for free pages in the other
+        // partitions. If they are all empty as well, then we do our own
+        // eviction to get a free page, starting the clock arm in our home
+        // partition.
+        HomePartition home = homePartition();
+        PagePartition partition = partitions[home.index];
+        for (; ; ) {
+            assertHealthy();
+            long pageRef = tryGrabFreePage(partition, home.stripe, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+            partition.unparkEvictor();
+            for (int i = 1; i < partitions.length; i++) {
+                pageRef = tryGrabFreePage(partitions[(home.index + i) % partitions.length], home.stripe, faultEvent);
+                if (pageRef != 0) {
+                    return pageRef;
+                }
+            }
+            FreeList homeStripe = partition.stripes[home.stripe % partition.stripes.length];
+            pageRef = cooperativelyEvict(partition, homeStripe, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+        }
+    }
+
+    private long tryGrabFreePage(PagePartition partition, int homeStripe, PageFaultEvent faultEvent) {
+        FreeList[] stripes = partition.stripes;
+        for (int i = 0; i < stripes.length; i++) {
+            long pageRef = tryGrabFreePage(stripes[(homeStripe + i) % stripes.length], faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
+    private long tryGrabFreePage(FreeList stripe, PageFaultEvent faultEvent) {
+        // Whatever the case, we're going to the head-pointer of the freelist
+        // stripe, and in doing so, we can discover a number of things.
+        // We can discover an AtomicInteger, in which case we try to CAS it to
+        // the next page id, and if this succeeds then we've grabbed that page.
         // We can discover a FreePage object, in which case we'll do a similar
         // dance by attempting to CAS the freelist to the FreePage objects next
         // pointer, and again, if we succeed then we've grabbed the MuninnPage
@@ -902,31 +1181,23 @@ public class MuninnPageCache implements PageCache {
         // We can discover a null-pointer, in which case the freelist has just
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // going to wait around for that to happen, and return 0 instead.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
         for (; ; ) {
-            assertHealthy();
-            current = getFreelistHead();
+            Object current = stripe.getHead();
             if (current == null) {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict(faultEvent);
-                if (pageRef != 0) {
-                    return pageRef;
-                }
+                return 0;
             } else if (current instanceof AtomicInteger counter) {
-                int pageCount = pages.getPageCount();
                 int pageId = counter.get();
-                if (pageId < pageCount && counter.compareAndSet(pageId, pageId + 1)) {
-                    faultEvent.freeListSize(pageCount - counter.get());
+                if (pageId < stripe.endPageId && counter.compareAndSet(pageId, pageId + 1)) {
+                    faultEvent.freeListSize(stripe.endPageId - counter.get());
                     return pages.deref(pageId);
                 }
-                if (pageId >= pageCount) {
-                    compareAndSetFreelistHead(current, null);
+                if (pageId >= stripe.endPageId) {
+                    stripe.compareAndSetHead(current, null);
                 }
             } else if (current instanceof FreePage freePage) {
                 if (freePage == shutdownSignal) {
@@ -934,33 +1205,48 @@ public class MuninnPageCache implements PageCache {
                 }
 
                 Object nextPage = freePage.next;
-                if (compareAndSetFreelistHead(freePage, nextPage)) {
-                    faultEvent.freeListSize(getFreeListSize(pages, nextPage));
+                if (stripe.compareAndSetHead(freePage, nextPage)) {
+                    faultEvent.freeListSize(stripe.freeCount(nextPage));
                     return freePage.pageRef;
                 }
             }
         }
     }
 
-    private static int getFreeListSize(PageList pageList, Object next) {
-        if (next instanceof FreePage) {
-            return ((FreePage) next).count;
-        } else if (next instanceof AtomicInteger) {
-            return pageList.getPageCount() - ((AtomicInteger) next).get();
-        } else {
-            return 0;
+    private HomePartition homePartition() {
+        PagePartition[] partitions = this.partitions;
+        if (partitions.length == 1 && partitions[0].stripes.length == 1) {
+            return onlyPartition;
+        }
+        HomePartition home = homePartition.get();
+        if (partitions.length > 1 && home.faultsUntilRefresh-- == 0) {
+            home.faultsUntilRefresh = HOME_PARTITION_REFRESH_INTERVAL;
+            home.index = numaPartitioned
+                    ? Numa.currentNode() % partitions.length
+                    : (int) (Thread.currentThread().getId() % partitions.length);
+        }
+        return home;
+    }
+
+    private PagePartition partitionOf(long pageRef) {
+        PagePartition[] partitions = this.partitions;
+        if (partitions.length == 1) {
+            return partitions[0];
         }
+        return partitions[PagePartition.partitionOf(pages.toId(pageRef), pages.getPageCount(), partitions.length)];
     }
 
-    private long cooperativelyEvict(PageFaultEvent faultEvent) throws IOException {
+    private long cooperativelyEvict(PagePartition home, FreeList homeStripe, PageFaultEvent faultEvent)
+            throws IOException {
         int iterations = 0;
         int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt(pageCount);
+        // Prefer evicting the pages of our home partition, but sweep all of the pages if we have to.
+        int clockArm = home.firstPageId + ThreadLocalRandom.current().nextInt(home.pageCount());
         boolean evicted = false;
         long pageRef;
         do {
             assertHealthy();
-            if (getFreelistHead() != null) {
+            if (homeStripe.getHead() != null) {
                 return 0;
             }
 
@@ -973,7 +1259,7 @@ public class MuninnPageCache implements PageCache {
             }
 
             pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
+            if (PageList.isLoaded(pageRef) && evictionPolicy.isEvictionCandidate(pageRef)) {
                 evicted = pages.tryEvict(pageRef, faultEvent);
             }
             clockArm++;
@@ -995,111 +1281,165 @@ public class MuninnPageCache implements PageCache {
                         + "your database.");
     }
 
-    private void unparkEvictor() {
-        if (evictorParked) {
-            evictorParked = false;
-            LockSupport.unpark(evictionThread);
-        }
-    }
-
-    private void parkEvictor(long parkNanos) {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos(this, parkNanos);
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead() {
-        return FREE_LIST.getVolatile(this);
-    }
-
-    private boolean compareAndSetFreelistHead(Object expected, Object update) {
-        return FREE_LIST.compareAndSet(this, expected, update);
-    }
-
-    private void setFreelistHead(Object newFreelistHead) {
-        FREE_LIST.setVolatile(this, newFreelistHead);
-    }
-
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
+     * Scan through all the pages of the given partition, one by one, and decrement their usage stamps.
+     * If a usage reaches zero, and the {@link EvictionPolicy} agrees that the page
+     * can go, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages() {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+    void continuouslySweepPages(PagePartition partition) {
+        partition.evictionThread = Thread.currentThread();
+        int clockArm = partition.firstPageId;
 
         while (!closed) {
-            int pageCountToEvict = parkUntilEvictionRequired(keepFree);
+            int pageCountToEvict = parkUntilEvictionRequired(partition);
             try (EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions(pageCountToEvict)) {
-                clockArm = evictPages(pageCountToEvict, clockArm, evictionRunEvent);
+                clockArm = evictPages(
+                        pageCountToEvict, clockArm, partition.firstPageId, partition.endPageId, evictionRunEvent);
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead(shutdownSignal);
+        for (FreeList stripe : partition.stripes) {
+            stripe.setHead(shutdownSignal);
+        }
     }
 
-    private int parkUntilEvictionRequired(int keepFree) {
+    private int parkUntilEvictionRequired(PagePartition partition) {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos(10);
         for (; ; ) {
-            parkEvictor(parkNanos);
+            partition.parkEvictor(parkNanos);
             if (Thread.interrupted() || closed) {
                 return 0;
             }
 
-            int numberOfPagesToEvict = tryGetNumberOfPagesToEvict(keepFree);
+            int numberOfPagesToEvict = tryGetNumberOfPagesToEvict(partition, partition.keepFree);
             if (numberOfPagesToEvict != UNKNOWN_PAGES_TO_EVICT) {
                 return numberOfPagesToEvict;
             }
         }
     }
 
+    /**
+     * Continuously write out dirty pages, while the page cache is above its target dirty ratio, so checkpoints mostly
+     * only have to force the files. Runs until the page cache is closed, or the thread is interrupted.
+     */
+    void continuouslyFlushDirtyPages() {
+        flushThread = Thread.currentThread();
+        long pauseMillis = backgroundFlushMaxPauseMillis;
+        while (!closed) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+            if (Thread.interrupted() || closed) {
+                return;
+            }
+
+            long pagesFlushed;
+            try {
+                pagesFlushed = flushDirtyPagesAboveTarget();
+            } catch (IOException e) {
+                // The pages stay dirty, and the next checkpoint will write them and report the failure.
+                pagesFlushed = 0;
+            }
+            // Keep trickling pages out while above the target, and back off while below it.
+            pauseMillis = pagesFlushed > 0
+                    ? backgroundFlushMinPauseMillis
+                    : Math.min(pauseMillis * 2, backgroundFlushMaxPauseMillis);
+        }
+    }
+
+    /**
+     * Write out dirty pages, in file offset order, until the number of dirty pages is down to the target dirty ratio,
+     * or the pass has written {@link #backgroundFlushPagesPerPass} pages. The files are not forced.
+     *
+     * @return the number of pages that were written.
+     */
     @VisibleForTesting
-    int tryGetNumberOfPagesToEvict(int keepFree) {
-        Object freelistHead = getFreelistHead();
-
-        if (freelistHead == null) {
-            return keepFree;
-        } else if (freelistHead.getClass() == FreePage.class) {
-            int availablePages = ((FreePage) freelistHead).count;
-            if (availablePages < keepFree) {
-                return keepFree - availablePages;
+    long flushDirtyPagesAboveTarget() throws IOException {
+        List<MuninnPagedFile> files = new ArrayList<>(mappedFiles.values());
+        if (files.isEmpty()) {
+            return 0;
+        }
+        long excessPages = pages.getModifiedPageCount() - (long) (pages.getPageCount() * backgroundFlushDirtyRatio);
+        if (excessPages <= 0) {
+            return 0;
+        }
+
+        long pagesToFlush = Math.min(excessPages, backgroundFlushPagesPerPass);
+        long pagesFlushed = 0;
+        // Rotate the file we start with, so the files at the end of the list are not starved.
+        int firstFile = Math.floorMod(nextFileToFlush.getAndIncrement(), files.size());
+        for (int i = 0; i < files.size() && pagesFlushed < pagesToFlush; i++) {
+            MuninnPagedFile file = files.get((firstFile + i) % files.size());
+            try (FileFlushEvent flushEvent = pageCacheTracer.beginFileFlush(file.swapper);
+                    var buffer = bufferFactory.createBuffer()) {
+                pagesFlushed += file.flushDirtyPages(flushEvent, buffer, pagesToFlush - pagesFlushed);
             }
-        } else if (freelistHead.getClass() == AtomicInteger.class) {
-            AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
-            if (count < keepFree) {
-                return count < 0 ? keepFree : (int) (keepFree - count);
+        }
+        return pagesFlushed;
+    }
+
+    @VisibleForTesting
+    int tryGetNumberOfPagesToEvict(int keepFree) {
+        if (partitions.length == 1) {
+            return tryGetNumberOfPagesToEvict(partitions[0], keepFree);
+        }
+        // Every partition is asked to keep its share of the free pages.
+        int pageCount = pages.getPageCount();
+        int pagesToEvict = UNKNOWN_PAGES_TO_EVICT;
+        for (PagePartition partition : partitions) {
+            int share = (int) ((long) keepFree * partition.pageCount() / pageCount);
+            int partitionPagesToEvict = tryGetNumberOfPagesToEvict(partition, share);
+            if (partitionPagesToEvict != UNKNOWN_PAGES_TO_EVICT) {
+                pagesToEvict = Math.max(pagesToEvict, 0) + partitionPagesToEvict;
             }
         }
-        return UNKNOWN_PAGES_TO_EVICT;
+        return pagesToEvict;
+    }
+
+    private static int tryGetNumberOfPagesToEvict(PagePartition partition, int keepFree) {
+        int freeCount = partition.freeCount();
+        return freeCount < keepFree ? keepFree - freeCount : UNKNOWN_PAGES_TO_EVICT;
     }
 
     int evictPages(int pageEvictionAttempts, int clockArm, EvictionRunEvent evictionRunEvent) {
+        return evictPages(pageEvictionAttempts, clockArm, 0, pages.getPageCount(), evictionRunEvent);
+    }
+
+    private int evictPages(
+            int pageEvictionAttempts, int clockArm, int firstPageId, int endPageId, EvictionRunEvent evictionRunEvent) {
+        // The evicted pages are collected into batches, which are added to the freelist with a single CAS.
+        long[] batch = new long[FREE_PAGE_BATCH_SIZE];
+        int batchSize = 0;
+        PagePartition batchPartition = null;
         while (pageEvictionAttempts > 0 && !closed) {
-            if (clockArm == pages.getPageCount()) {
-                clockArm = 0;
+            if (clockArm == endPageId) {
+                clockArm = firstPageId;
             }
 
             if (closed) {
                 // The page cache has been shut down.
-                return 0;
+                clockArm = 0;
+                break;
             }
 
             long pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
+            if (PageList.isLoaded(pageRef) && evictionPolicy.isEvictionCandidate(pageRef)) {
                 try {
                     pageEvictionAttempts--;
                     if (pages.tryEvict(pageRef, evictionRunEvent)) {
                         clearEvictorException();
-                        addFreePageToFreelist(pageRef, evictionRunEvent);
+                        PagePartition partition = partitionOf(pageRef);
+                        if (batchSize == FREE_PAGE_BATCH_SIZE || (batchSize > 0 && partition != batchPartition)) {
+                            addFreePagesToFreelist(batchPartition, batch, batchSize, evictionRunEvent);
+                            batchSize = 0;
+                        }
+                        batchPartition = partition;
+                        batch[batchSize++] = pageRef;
                     }
                 } catch (IOException e) {
                     evictorException = e;
@@ -1113,6 +1453,9 @@ public class MuninnPageCache implements PageCache {
             clockArm++;
         }
 
+        if (batchSize > 0) {
+            addFreePagesToFreelist(batchPartition, batch, batchSize, evictionRunEvent);
+        }
         return clockArm;
     }
 
@@ -1141,17 +1484,35 @@ public class MuninnPageCache implements PageCache {
     }
 
     void addFreePageToFreelist(long pageRef, EvictionRunEvent evictions) {
+        addFreePagesToFreelist(partitionOf(pageRef), new long[] {pageRef}, 1, evictions);
+    }
+
+    /**
+     * Push the given pages, which must all belong to the given partition, onto the freelist stripe of the partition
+     * that has the fewest free pages.
+     */
+    private static void addFreePagesToFreelist(
+            PagePartition partition, long[] pageRefs, int count, EvictionRunEvent evictions) {
+        FreeList stripe = partition.emptiestStripe();
+        FreePage[] freePages = new FreePage[count];
+        for (int i = 0; i < count; i++) {
+            freePages[i] = new FreePage(pageRefs[i]);
+        }
+        FreePage top = freePages[count - 1];
+        int endPageId = stripe.endPageId;
         Object current;
-        FreePage freePage = new FreePage(pageRef);
-        int pageCount = pages.getPageCount();
         do {
-            current = getFreelistHead();
-            if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > pageCount) {
+            current = stripe.getHead();
+            if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > endPageId) {
                 current = null;
             }
-            freePage.setNext(pageCount, current);
-        } while (!compareAndSetFreelistHead(current, freePage));
-        evictions.freeListSize(freePage.count);
+            Object next = current;
+            for (FreePage freePage : freePages) {
+                freePage.setNext(endPageId, next);
+                next = freePage;
+            }
+        } while (!stripe.compareAndSetHead(current, top));
+        evictions.freeListSize(top.count);
     }
 
     void clearEvictorException() {
@@ -1191,6 +1552,10 @@ public class MuninnPageCache implements PageCache {
         });
     }
 
+    void pageFaulted(long pageRef) {
+        evictionPolicy.pageFaulted(pageRef);
+    }
+
     void startPreFetching(MuninnPageCursor cursor, CursorFactory cursorFactory) {
         PreFetcher preFetcher = new PreFetcher(cursor, cursorFactory, clock);
         var pagedFile = cursor.pagedFile;
@@ -1199,8 +1564,24 @@ public class MuninnPageCache implements PageCache {
         cursor.preFetcher = scheduler.schedule(Group.PAGE_CACHE_PRE_FETCHER, monitoringParams, preFetcher);
     }
 
+    void prefetch(MuninnPagedFile pagedFile, long[] pageIds, CursorContext cursorContext) {
+        pageFetcher.fetch(pagedFile, pageIds, cursorContext);
+    }
+
     @VisibleForTesting
     int getKeepFree() {
         return keepFree;
     }
+
+    @VisibleForTesting
+    int getPartitionCount() {
+        return partitions.length;
+    }
+
+    private static final class HomePartition {
+        // The stripe index is taken modulo the number of stripes of whichever partition the thread looks in.
+        final int stripe = nextHomeStripe.getAndIncrement() & Integer.MAX_VALUE;
+        int index;
+        int faultsUntilRefresh;
+    }
 }
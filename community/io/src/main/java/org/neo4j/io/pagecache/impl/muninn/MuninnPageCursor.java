@@ -421,6 +421,7 @@ public abstract class MuninnPageCursor extends PageCursor {
                 assertCursorOpenFileMappedAndGetIdOfLastPage();
                 pagedFile.initBuffer(pageRef);
                 PageList.fault(pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent);
+                pagedFile.pageFaulted(pageRef);
             } catch (Throwable throwable) {
                 try {
                     // Make sure to unlock the page, so the eviction thread can pick up our trash.
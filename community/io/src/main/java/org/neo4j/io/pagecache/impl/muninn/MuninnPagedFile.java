@@ -30,6 +30,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
+import java.util.Arrays;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
@@ -93,6 +94,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     private final CursorFactory cursorFactory;
     final String databaseName;
     private final IOController ioController;
+    // The residency quota group this file belongs to, or null if it does not belong to any.
+    final ResidencyGroup residencyGroup;
     // If store files should be automatically pre-allocated,
     // this flag does not influence explicit preAllocate() operation.
     private final boolean automaticallyPreallocateStoreFiles;
@@ -102,6 +105,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     // Used to trace the causes of any exceptions from getLastPageId.
     private volatile Exception closeStackTrace;
 
+    // The file page id where the next background flush continues, see flushDirtyPages.
+    private volatile long backgroundFlushFilePageId;
+
     // max modifier transaction id among evicted pages for this file
     @SuppressWarnings("unused") // accessed with VarHandle
     private volatile long highestEvictedTransactionId;
@@ -154,6 +160,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
      * @param multiVersioned if file is mutli versioned
      * @param versionStorage page file old versioned pages storage
      * @param littleEndian page file endianess
+     * @param residencyGroup residency quota group of the file, or {@code null} if it does not belong to any group
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile(
@@ -173,7 +180,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             boolean multiVersioned,
             int reservedBytes,
             VersionStorage versionStorage,
-            boolean littleEndian)
+            boolean littleEndian,
+            ResidencyGroup residencyGroup)
             throws IOException {
         super(pageCache.pages);
         this.pageCache = pageCache;
@@ -189,6 +197,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         this.databaseName = requireNonNull(databaseName);
         this.ioController = requireNonNull(ioController);
         this.automaticallyPreallocateStoreFiles = preallocateStoreFiles;
+        this.residencyGroup = residencyGroup;
 
         // The translation table is an array of arrays of integers that are either UNMAPPED_TTE, or the id of a page in
         // the page list. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -231,6 +240,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
 
         initialiseLastPageId(lastPageId);
         this.swapperId = swapper.swapperId();
+        if (residencyGroup != null) {
+            getSwappers().bindResidencyGroup(swapperId, residencyGroup);
+        }
     }
 
     @Override
@@ -423,7 +435,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                         if (isBoundTo(pageRef, swapperId, filePageId) && isModified(pageRef)) {
                             // The page is still bound to the expected file and file page id after we locked it,
                             // so we didn't race with eviction and faulting, and the page is dirty.
-                            explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef);
+                            if (explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef)) {
+                                pageCleaned();
+                            }
                             unlockExclusive(pageRef);
                             continue chunkLoop;
                         }
@@ -458,7 +472,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                         if (isBoundTo(pageRef, swapperId, filePageId)) {
                             // The page is still bound to the expected file and file page id after we locked it,
                             // so we didn't race with eviction and faulting, and the page is dirty.
-                            explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef);
+                            if (explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef)) {
+                                pageCleaned();
+                            }
                             // here we are doing a shortcut and add truncated pages directly to free list
                             // by doing mass targeted evictions of affected pages that we know are affected
                             // and page in a free list. Page should be locked exclusively in the free list.
@@ -466,6 +482,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                             // see MuninnPageCursor#pageFault
                             translationTableSetVolatile(chunk, chunkIndex, UNMAPPED_TTE);
                             clearBinding(pageRef);
+                            pageUnloaded();
                             pageCache.addFreePageToFreelist(pageRef, EvictionRunEvent.NULL);
                             continue chunkLoop;
                         }
@@ -497,21 +514,65 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
     }
 
+    /**
+     * Write out up to the given number of dirty pages, in file page id order, without forcing the file.
+     * Used by the background flusher, so that checkpoints find fewer dirty pages to write.
+     * <p>
+     * Each call continues from the file page id where the previous call ran out of pages to write, and wraps around
+     * at the end of the file, so the pages at high file offsets get written as often as the ones at low offsets.
+     *
+     * @return the number of pages that were written.
+     */
+    long flushDirtyPages(FileFlushEvent flushEvent, NativeIOBuffer ioBuffer, long maxPages) throws IOException {
+        try {
+            long startFilePageId = backgroundFlushFilePageId;
+            long pagesFlushed =
+                    flushModifiedPages(flushEvent, false, ioController, ioBuffer, startFilePageId, maxPages);
+            if (pagesFlushed < maxPages && startFilePageId > 0) {
+                pagesFlushed +=
+                        flushModifiedPages(flushEvent, false, ioController, ioBuffer, 0, maxPages - pagesFlushed);
+            }
+            return pagesFlushed;
+        } catch (ClosedChannelException e) {
+            if (getRefCount() > 0) {
+                e.addSuppressed(closeStackTrace);
+                throw e;
+            }
+            // The file was unmapped while we were flushing it, and unmapping flushes the remaining dirty pages.
+            return 0;
+        }
+    }
+
     private void doFlushAndForceInternal(
             FileFlushEvent flushes, boolean forClosing, IOController limiter, NativeIOBuffer ioBuffer)
             throws IOException {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
+        flushModifiedPages(flushes, forClosing, limiter, ioBuffer, 0, Long.MAX_VALUE);
+        swapper.force();
+    }
+
+    private long flushModifiedPages(
+            FileFlushEvent flushes,
+            boolean forClosing,
+            IOController limiter,
+            NativeIOBuffer ioBuffer,
+            long startFilePageId,
+            long maxPages)
+            throws IOException {
+        long pagesFlushed = 0;
         long[] pages = new long[TRANSLATION_TABLE_CHUNK_SIZE];
         long[] flushStamps = forClosing ? null : new long[TRANSLATION_TABLE_CHUNK_SIZE];
         long[] bufferAddresses = new long[TRANSLATION_TABLE_CHUNK_SIZE];
         int[] bufferLengths = new int[TRANSLATION_TABLE_CHUNK_SIZE];
-        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
+        // Start one page early because we increment at the *start* of the chunk-loop iteration.
+        long filePageId = startFilePageId - 1;
         int[][] tt = this.translationTable;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
 
         flushes.startFlush(tt);
 
-        for (int[] chunk : tt) {
+        for (int chunkId = computeChunkId(startFilePageId); chunkId < tt.length; chunkId++) {
+            int[] chunk = tt[chunkId];
             var chunkEvent = flushes.startChunk(chunk);
             long notModifiedPages = 0;
             long flushPerChunk = 0;
@@ -536,7 +597,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             }
 
             chunkLoop:
-            for (int i = 0; i < chunk.length; i++) {
+            for (int i = computeChunkIndex(filePageId + 1); i < chunk.length; i++) {
                 filePageId++;
                 int chunkIndex = computeChunkIndex(filePageId);
 
@@ -578,7 +639,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                                 UnsafeUtil.copyMemory(address, bufferAddresses[0] + bufferLengths[0], filePageSize);
                                 bufferLengths[0] += filePageSize;
                                 numberOfBuffers = 1;
-                                if (!ioBuffer.hasMoreCapacity(bufferLengths[0], filePageSize)) {
+                                if (!ioBuffer.hasMoreCapacity(bufferLengths[0], filePageSize)
+                                        || pagesFlushed + pagesGrabbed >= maxPages) {
                                     break; // continue to flush
                                 } else {
                                     continue chunkLoop; // go to next page
@@ -598,6 +660,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                                     buffersPerChunk++;
                                 }
                                 nextSequentialAddress = address + filePageSize;
+                                if (pagesFlushed + pagesGrabbed >= maxPages) {
+                                    break; // continue to flush, we have grabbed as many pages as we may write
+                                }
                                 continue chunkLoop; // go to next page
                             }
                         } else {
@@ -627,6 +692,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                             forClosing);
                     flushes.reportIO(numberOfBuffers);
                     limiter.maybeLimitIO(numberOfBuffers, flushes);
+                    pagesFlushed += pagesGrabbed;
                     pagesGrabbed = 0;
                     nextSequentialAddress = -1;
                     numberOfBuffers = 0;
@@ -635,6 +701,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                     fillingDirtyBuffer = false;
                     flushPerChunk++;
                     bufferLengths[0] = 0;
+                    if (pagesFlushed >= maxPages) {
+                        break;
+                    }
                 }
             }
             if (pagesGrabbed > 0) {
@@ -650,12 +719,18 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                         forClosing);
                 flushes.reportIO(numberOfBuffers);
                 limiter.maybeLimitIO(numberOfBuffers, flushes);
+                pagesFlushed += pagesGrabbed;
                 flushPerChunk++;
             }
             chunkEvent.chunkFlushed(notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk);
+            if (pagesFlushed >= maxPages) {
+                // Let the next background flush continue after the last page we looked at.
+                backgroundFlushFilePageId = filePageId + 1;
+                return pagesFlushed;
+            }
         }
-
-        swapper.force();
+        backgroundFlushFilePageId = 0;
+        return pagesFlushed;
     }
 
     private void vectoredFlush(
@@ -693,14 +768,16 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                 if (forClosing) {
                     for (int i = 0; i < pagesToFlush; i++) {
                         long pageRef = pages[i];
-                        if (successful) {
-                            explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef);
+                        if (successful && explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef)) {
+                            pageCleaned();
                         }
                         unlockExclusive(pageRef);
                     }
                 } else {
                     for (int i = 0; i < pagesToFlush; i++) {
-                        unlockFlush(pages[i], flushStamps[i], successful);
+                        if (unlockFlush(pages[i], flushStamps[i], successful)) {
+                            pageCleaned();
+                        }
                     }
                 }
             }
@@ -879,6 +956,26 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             setHighestEvictedTransactionId(getAndResetLastModifiedTransactionId(pageRef));
         }
         translationTableSetVolatile(chunk, chunkIndex, UNMAPPED_TTE);
+        // The residency group is told by the page list, which also sees the pages evicted after the file is unmapped.
+        swapper.fileSwapperTracer().residencyChanged(-1);
+    }
+
+    /**
+     * A page of this file has been faulted into the given page, while holding the exclusive lock on the page.
+     */
+    void pageFaulted(long pageRef) {
+        if (residencyGroup != null) {
+            residencyGroup.pageLoaded();
+        }
+        swapper.fileSwapperTracer().residencyChanged(1);
+        pageCache.pageFaulted(pageRef);
+    }
+
+    private void pageUnloaded() {
+        if (residencyGroup != null) {
+            residencyGroup.pageUnloaded();
+        }
+        swapper.fileSwapperTracer().residencyChanged(-1);
     }
 
     private void setHighestEvictedTransactionId(long modifiedTransactionId) {
@@ -1040,6 +1137,39 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return touched;
     }
 
+    @Override
+    public void prefetch(long[] pageIds, CursorContext cursorContext) {
+        long lastPageId;
+        try {
+            lastPageId = getLastPageId();
+        } catch (FileIsNotMappedException e) {
+            return;
+        }
+        // Only bother the page fetcher with the pages that are not already in memory.
+        long[] missing = null;
+        int missingCount = 0;
+        int[][] tt = this.translationTable;
+        for (long pageId : pageIds) {
+            if (pageId < 0 || pageId > lastPageId) {
+                continue;
+            }
+            int chunkId = computeChunkId(pageId);
+            if (chunkId < tt.length
+                    && translationTableGetVolatile(tt[chunkId], computeChunkIndex(pageId)) != UNMAPPED_TTE) {
+                continue;
+            }
+            if (missing == null) {
+                missing = new long[pageIds.length];
+            }
+            missing[missingCount++] = pageId;
+        }
+        if (missingCount > 0) {
+            long[] fetch = Arrays.copyOf(missing, missingCount);
+            Arrays.sort(fetch);
+            pageCache.prefetch(this, fetch, cursorContext);
+        }
+    }
+
     @Override
     public boolean preAllocateSupported() {
         return swapper.canAllocate();
@@ -1102,6 +1232,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             faultEvent.addBytesRead(bytesRead);
             for (int i = 0; i < numberOfPages; i++) {
                 setSwapperId(pageRefs[i], swapperId); // Page now considered isBoundTo( swapper, filePageId )
+                pageFaulted(pageRefs[i]);
                 // Put the page in the translation table before we undo the exclusive lock, as we could otherwise race
                 // with
                 // eviction, and the onEvict callback expects to find a MuninnPage object in the table.
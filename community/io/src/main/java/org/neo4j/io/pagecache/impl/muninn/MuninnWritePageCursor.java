@@ -86,7 +86,9 @@ final class MuninnWritePageCursor extends MuninnPageCursor {
             try {
                 success = pagedFile.flushLockedPage(pageRef, loadPlainCurrentPageId());
             } finally {
-                PageList.unlockFlush(pageRef, flushStamp, success);
+                if (PageList.unlockFlush(pageRef, flushStamp, success)) {
+                    pagedFile.pageCleaned();
+                }
             }
         }
     }
@@ -133,13 +135,21 @@ final class MuninnWritePageCursor extends MuninnPageCursor {
                                     + threadId + " already holds write lock on page " + pageRef);
                 }
             }
-            var writeLock = PageList.tryWriteLock(pageRef, true);
+            var writeLock = tryWriteLock(pageRef, true);
             if (LOCKED_PAGES != null && writeLock) {
                 LOCKED_PAGES.put(pageRef, Thread.currentThread().getId());
             }
             return writeLock;
         }
-        return PageList.tryWriteLock(pageRef, false);
+        return tryWriteLock(pageRef, false);
+    }
+
+    private boolean tryWriteLock(long pageRef, boolean multiVersioned) {
+        int writeLock = PageList.tryWriteLockAndRaiseModified(pageRef, multiVersioned);
+        if (writeLock == OffHeapPageLock.WRITE_LOCKED_AND_MODIFIED) {
+            pagedFile.pageModified();
+        }
+        return writeLock != OffHeapPageLock.WRITE_LOCK_FAILED;
     }
 
     private boolean isPinnedByLinkedFriends(long pageRef) {
@@ -219,7 +229,9 @@ final class MuninnWritePageCursor extends MuninnPageCursor {
 
     @Override
     protected void convertPageFaultLock(long pageRef) {
-        PageList.unlockExclusiveAndTakeWriteLock(pageRef);
+        if (PageList.unlockExclusiveAndTakeWriteLock(pageRef)) {
+            pagedFile.pageModified();
+        }
         if (LOCKED_PAGES != null && multiVersioned) {
             LOCKED_PAGES.put(pageRef, Thread.currentThread().getId());
         }
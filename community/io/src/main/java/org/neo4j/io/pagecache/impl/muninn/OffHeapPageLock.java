@@ -106,6 +106,11 @@ public final class OffHeapPageLock {
     // Unlocked mask:
     private static final long UNL_MASK = 0b11011111_11111111_11110000_00000000_00000000_00000000_00000000_00000000L;
 
+    // Outcomes of tryWriteLockAndRaiseModified:
+    public static final int WRITE_LOCK_FAILED = 0;
+    public static final int WRITE_LOCKED = 1;
+    public static final int WRITE_LOCKED_AND_MODIFIED = 2;
+
     private OffHeapPageLock() {
         // The static version keeps all state externally.
     }
@@ -173,6 +178,17 @@ public final class OffHeapPageLock {
      * @return {@code true} if the write lock was taken, {@code false} otherwise.
      */
     public static boolean tryWriteLock(long address, boolean multiVersioned) {
+        return tryWriteLockAndRaiseModified(address, multiVersioned) != WRITE_LOCK_FAILED;
+    }
+
+    /**
+     * Like {@link #tryWriteLock(long, boolean)}, but also tell if taking the write lock is what raised the
+     * <em>modified</em> bit.
+     *
+     * @return {@link #WRITE_LOCK_FAILED} if the write lock was not taken, {@link #WRITE_LOCKED_AND_MODIFIED} if it was
+     * taken and the modified bit was not raised before, and {@link #WRITE_LOCKED} otherwise.
+     */
+    public static int tryWriteLockAndRaiseModified(long address, boolean multiVersioned) {
         long s;
         long n;
         final long cntMask = multiVersioned ? MULTI_VERSIONED_CNT_MASK : CNT_MASK;
@@ -182,12 +198,13 @@ public final class OffHeapPageLock {
             boolean writeCountOverflow = (s & cntMask) == cntMask;
 
             if (unwritablyLocked || writeCountOverflow) {
-                return failWriteLock(s, !multiVersioned && writeCountOverflow);
+                failWriteLock(s, !multiVersioned && writeCountOverflow);
+                return WRITE_LOCK_FAILED;
             }
 
             n = s + CNT_UNIT | MOD_MASK;
             if (compareAndSetState(address, s, n)) {
-                return true;
+                return (s & MOD_MASK) == 0 ? WRITE_LOCKED_AND_MODIFIED : WRITE_LOCKED;
             }
         }
     }
@@ -279,11 +296,14 @@ public final class OffHeapPageLock {
 
     /**
      * Atomically unlock the currently held exclusive lock, and take a write lock.
+     *
+     * @return {@code true} if this raised the <em>modified</em> bit, {@code false} if it was already raised.
      */
-    public static void unlockExclusiveAndTakeWriteLock(long address) {
+    public static boolean unlockExclusiveAndTakeWriteLock(long address) {
         long s = initiateExclusiveLockRelease(address);
         long n = (nextSeq(s) - EXL_MASK + CNT_UNIT) | MOD_MASK;
         unconditionallySetState(address, n);
+        return (s & MOD_MASK) == 0;
     }
 
     private static long initiateExclusiveLockRelease(long address) {
@@ -304,15 +324,16 @@ public final class OffHeapPageLock {
      * <p>
      * If the <em>modified</em> flag is currently not raised, then this method does nothing.
      *
+     * @return {@code true} if the <em>modified</em> flag was lowered, {@code false} if it was not raised.
      * @throws IllegalStateException if the lock at the given address is not in the exclusively locked state.
      */
-    public static void explicitlyMarkPageUnmodifiedUnderExclusiveLock(long address) {
+    public static boolean explicitlyMarkPageUnmodifiedUnderExclusiveLock(long address) {
         long s = getState(address);
         if ((s & EXL_MASK) != EXL_MASK) {
             throw new IllegalStateException("Page must be exclusively locked to explicitly lower modified bit");
         }
-        s = s & (~MOD_MASK);
-        unconditionallySetState(address, s);
+        unconditionallySetState(address, s & (~MOD_MASK));
+        return (s & MOD_MASK) == MOD_MASK;
     }
 
     /**
@@ -340,8 +361,11 @@ public final class OffHeapPageLock {
 
     /**
      * Unlock the currently held flush lock.
+     *
+     * @return {@code true} if the <em>modified</em> flag was lowered, because the flush was successful and had no
+     * overlapping writers, {@code false} otherwise.
      */
-    public static void unlockFlush(long address, long stamp, boolean success) {
+    public static boolean unlockFlush(long address, long stamp, boolean success) {
         long s;
         long n;
         do {
@@ -356,6 +380,7 @@ public final class OffHeapPageLock {
                 n = n & (~MOD_MASK);
             }
         } while (!compareAndSetState(address, s, n));
+        return (s & MOD_MASK) != (n & MOD_MASK);
     }
 
     private static void throwUnmatchedUnlockFlush(long s) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Loads pages requested through {@link org.neo4j.io.pagecache.PagedFile#prefetch(long[], CursorContext)} in the
+ * background, so the page faults overlap with whatever the requesting thread is doing in the meantime.
+ * <p>
+ * Requests are queued, and drained by a bounded number of worker jobs that are only scheduled while there are
+ * requests to process. Prefetching is a hint, so when the queue is full, new requests are simply dropped, and any
+ * failure to load a page is ignored; the thread that eventually pins the page will fault it in, or see the failure.
+ */
+final class PageFetcher {
+    private static final String TRACER_PAGE_FETCHER_TAG = "Page-fetcher";
+    private static final int MAX_QUEUED_REQUESTS = getInteger(PageFetcher.class, "maxQueuedRequests", 1024);
+    private static final int MAX_WORKERS = getInteger(
+            PageFetcher.class, "maxWorkers", Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() / 2, 8)));
+    private static final JobMonitoringParams MONITORING_PARAMS = systemJob("Fetching of pages into the page cache");
+
+    private final JobScheduler scheduler;
+    private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+    private final AtomicInteger workers = new AtomicInteger();
+
+    PageFetcher(JobScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param pagedFile the file to load pages from.
+     * @param pageIds ids of the pages to load, sorted, owned by the fetcher from now on.
+     * @param cursorContext context of the requesting thread, used to create a related context for the fetching.
+     */
+    void fetch(MuninnPagedFile pagedFile, long[] pageIds, CursorContext cursorContext) {
+        if (queuedRequests.incrementAndGet() > MAX_QUEUED_REQUESTS) {
+            queuedRequests.decrementAndGet();
+            return;
+        }
+        requests.offer(new Request(pagedFile, pageIds, cursorContext.createRelatedContext(TRACER_PAGE_FETCHER_TAG)));
+        if (tryAddWorker()) {
+            try {
+                scheduler.schedule(Group.PAGE_CACHE_PAGE_FETCHER, MONITORING_PARAMS, this::drain);
+            } catch (RuntimeException e) {
+                // The scheduler is shutting down, so nobody is going to need the pages anyway.
+                workers.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean tryAddWorker() {
+        int current;
+        do {
+            current = workers.get();
+            if (current >= MAX_WORKERS) {
+                return false;
+            }
+        } while (!workers.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void drain() {
+        do {
+            Request request;
+            while ((request = requests.poll()) != null) {
+                queuedRequests.decrementAndGet();
+                request.fetch();
+            }
+            workers.decrementAndGet();
+            // A request may have been queued after our last poll, but before we stopped counting as a worker.
+        } while (!requests.isEmpty() && tryAddWorker());
+    }
+
+    private record Request(MuninnPagedFile pagedFile, long[] pageIds, CursorContext cursorContext) {
+        void fetch() {
+            try (cursorContext) {
+                int start = 0;
+                while (start < pageIds.length) {
+                    // Load consecutive page ids with a single vectored page fault.
+                    int end = start + 1;
+                    while (end < pageIds.length && pageIds[end] == pageIds[end - 1] + 1) {
+                        end++;
+                    }
+                    pagedFile.touch(pageIds[start], end - start, cursorContext);
+                    start = end;
+                }
+            } catch (IOException ignored) {
+                // Either the file got unmapped in the meantime, or the read failed. This was only a hint, and
+                // any real access to the pages will deal with the problem.
+            }
+        }
+    }
+}
@@ -24,6 +24,8 @@ import static org.neo4j.util.FeatureToggles.flag;
 
 import java.io.IOException;
 import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.internal.nativeimpl.Numa;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageCursor;
@@ -88,6 +90,9 @@ class PageList implements PageReferenceTranslator {
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final int numaNodes;
+    // The number of pages with their modified bit raised, used by the background flusher.
+    private final LongAdder modifiedPages;
 
     PageList(
             int pageCount,
@@ -96,6 +101,22 @@ class PageList implements PageReferenceTranslator {
             SwapperSet swappers,
             long victimPageAddress,
             long bufferAlignment) {
+        this(pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment, 1);
+    }
+
+    /**
+     * @param numaNodes the number of NUMA nodes the pages are spread over. When more than one, the pages are split
+     * into as many partitions as there are nodes, see {@link PagePartition}, and the memory of each page is placed on
+     * the node of its partition.
+     */
+    PageList(
+            int pageCount,
+            int cachePageSize,
+            MemoryAllocator memoryAllocator,
+            SwapperSet swappers,
+            long victimPageAddress,
+            long bufferAlignment,
+            int numaNodes) {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
         this.memoryAllocator = memoryAllocator;
@@ -104,6 +125,8 @@ class PageList implements PageReferenceTranslator {
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned(bytes, Long.BYTES);
         this.bufferAlignment = bufferAlignment;
+        this.numaNodes = numaNodes;
+        this.modifiedPages = new LongAdder();
         clearMemory(baseAddress, pageCount);
     }
 
@@ -123,6 +146,8 @@ class PageList implements PageReferenceTranslator {
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.numaNodes = pageList.numaNodes;
+        this.modifiedPages = pageList.modifiedPages;
     }
 
     private static void clearMemory(long baseAddress, long pageCount) {
@@ -255,20 +280,47 @@ class PageList implements PageReferenceTranslator {
         return OffHeapPageLock.unlockExclusive(offLock(pageRef));
     }
 
-    static void unlockExclusiveAndTakeWriteLock(long pageRef) {
-        OffHeapPageLock.unlockExclusiveAndTakeWriteLock(offLock(pageRef));
+    static int tryWriteLockAndRaiseModified(long pageRef, boolean multiVersioned) {
+        return OffHeapPageLock.tryWriteLockAndRaiseModified(offLock(pageRef), multiVersioned);
+    }
+
+    static boolean unlockExclusiveAndTakeWriteLock(long pageRef) {
+        return OffHeapPageLock.unlockExclusiveAndTakeWriteLock(offLock(pageRef));
     }
 
     static long tryFlushLock(long pageRef) {
         return OffHeapPageLock.tryFlushLock(offLock(pageRef));
     }
 
-    static void unlockFlush(long pageRef, long stamp, boolean success) {
-        OffHeapPageLock.unlockFlush(offLock(pageRef), stamp, success);
+    static boolean unlockFlush(long pageRef, long stamp, boolean success) {
+        return OffHeapPageLock.unlockFlush(offLock(pageRef), stamp, success);
     }
 
-    static void explicitlyMarkPageUnmodifiedUnderExclusiveLock(long pageRef) {
-        OffHeapPageLock.explicitlyMarkPageUnmodifiedUnderExclusiveLock(offLock(pageRef));
+    static boolean explicitlyMarkPageUnmodifiedUnderExclusiveLock(long pageRef) {
+        return OffHeapPageLock.explicitlyMarkPageUnmodifiedUnderExclusiveLock(offLock(pageRef));
+    }
+
+    /**
+     * A page had its modified bit raised, as reported by the lock method that raised it.
+     */
+    void pageModified() {
+        modifiedPages.increment();
+    }
+
+    /**
+     * A page had its modified bit lowered, as reported by the lock method that lowered it.
+     */
+    void pageCleaned() {
+        modifiedPages.decrement();
+    }
+
+    /**
+     * @return the number of pages that currently have their modified bit raised. The count is maintained by the
+     * callers of the lock methods that raise and lower the bit, so it is only exact when there are no concurrent
+     * writers or flushers.
+     */
+    long getModifiedPageCount() {
+        return modifiedPages.sum();
     }
 
     int getCachePageSize() {
@@ -283,6 +335,11 @@ class PageList implements PageReferenceTranslator {
         var address = getAddress(pageRef);
         if (address == 0L) {
             address = memoryAllocator.allocateAligned(getCachePageSize(), bufferAlignment);
+            if (numaNodes > 1) {
+                // The buffer has not been touched yet, so this decides which node its memory will be placed on.
+                int node = PagePartition.partitionOf(toId(pageRef), pageCount, numaNodes);
+                Numa.preferNode(address, getCachePageSize(), node);
+            }
             UnsafeUtil.putLong(offAddress(pageRef), address);
         }
         return address;
@@ -463,11 +520,15 @@ class PageList implements PageReferenceTranslator {
                 if (isModified(pageRef)) {
                     if (swapper.isPageFlushable(pageRef)) {
                         flushModifiedPage(pageRef, evictionEvent, filePageId, swapper, this);
-                    } else {
-                        explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef);
+                    } else if (explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef)) {
+                        pageCleaned();
                     }
                 }
                 swapper.evicted(filePageId);
+                if (swapperMapping.residencyGroup != null) {
+                    // Not done by the eviction callback, since that is gone once the file is unmapped.
+                    swapperMapping.residencyGroup.pageUnloaded();
+                }
             }
         }
         clearBinding(pageRef);
@@ -484,7 +545,9 @@ class PageList implements PageReferenceTranslator {
             try {
                 long address = getAddress(pageRef);
                 long bytesWritten = swapper.write(filePageId, address);
-                explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef);
+                if (explicitlyMarkPageUnmodifiedUnderExclusiveLock(pageRef)) {
+                    pageReferenceTranslator.pageCleaned();
+                }
                 flushEvent.addBytesWritten(bytesWritten);
                 flushEvent.addPagesFlushed(1);
             } catch (IOException e) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A contiguous range of the pages in the {@link PageList}, with its own striped freelist and its own eviction thread.
+ * <p>
+ * On NUMA systems the page cache is split into one partition per node, and the memory of the pages in a partition is
+ * placed on that node. Page faulting threads take their free pages from the partition of the node they are running
+ * on, and only fall back to the other partitions when their own partition has run out of free pages.
+ * <p>
+ * The freelist of the partition is split into stripes, see {@link FreeList}, that each initially own an equal share of
+ * the pages of the partition.
+ */
+final class PagePartition {
+    final int index;
+    final int firstPageId;
+    final int endPageId;
+    final int keepFree;
+    final FreeList[] stripes;
+
+    // The thread that runs the eviction algorithm for this partition.
+    volatile Thread evictionThread;
+    // See unparkEvictor, this is a weak guard against unparking the eviction thread too often.
+    private volatile boolean evictorParked;
+
+    PagePartition(int index, int firstPageId, int endPageId, int keepFree, int stripeCount) {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.endPageId = endPageId;
+        this.keepFree = keepFree;
+        int pageCount = endPageId - firstPageId;
+        this.stripes = new FreeList[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new FreeList(
+                    firstPageId + firstPageId(i, pageCount, stripeCount),
+                    firstPageId + firstPageId(i + 1, pageCount, stripeCount));
+        }
+    }
+
+    /**
+     * Split the given number of pages into the given number of partitions of, as far as possible, equal size.
+     * @param keepFree computes the number of pages to keep free in a partition, from the size of the partition.
+     * @param stripeCount computes the number of freelist stripes of a partition, from the size of the partition.
+     */
+    static PagePartition[] partition(
+            int pageCount, int partitionCount, IntUnaryOperator keepFree, IntUnaryOperator stripeCount) {
+        PagePartition[] partitions = new PagePartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int first = firstPageId(i, pageCount, partitionCount);
+            int end = firstPageId(i + 1, pageCount, partitionCount);
+            partitions[i] = new PagePartition(
+                    i, first, end, keepFree.applyAsInt(end - first), stripeCount.applyAsInt(end - first));
+        }
+        return partitions;
+    }
+
+    /**
+     * @return the index of the partition the given page belongs to. The inverse of {@link #firstPageId(int, int, int)}.
+     */
+    static int partitionOf(int pageId, int pageCount, int partitionCount) {
+        return (int) ((long) pageId * partitionCount / pageCount);
+    }
+
+    private static int firstPageId(int partition, int pageCount, int partitionCount) {
+        return (int) (((long) partition * pageCount + partitionCount - 1) / partitionCount);
+    }
+
+    int pageCount() {
+        return endPageId - firstPageId;
+    }
+
+    /**
+     * @return the number of free pages in all the stripes of the freelist of this partition.
+     */
+    int freeCount() {
+        int freeCount = 0;
+        for (FreeList stripe : stripes) {
+            freeCount += stripe.freeCount();
+        }
+        return freeCount;
+    }
+
+    /**
+     * @return the stripe with the fewest free pages, which is the one the eviction thread should refill next.
+     */
+    FreeList emptiestStripe() {
+        FreeList emptiest = stripes[0];
+        int fewest = emptiest.freeCount();
+        for (int i = 1; i < stripes.length && fewest > 0; i++) {
+            int freeCount = stripes[i].freeCount();
+            if (freeCount < fewest) {
+                emptiest = stripes[i];
+                fewest = freeCount;
+            }
+        }
+        return emptiest;
+    }
+
+    void unparkEvictor() {
+        if (evictorParked) {
+            evictorParked = false;
+            LockSupport.unpark(evictionThread);
+        }
+    }
+
+    void parkEvictor(long parkNanos) {
+        // Only called from the background eviction thread of this partition!
+        evictorParked = true;
+        LockSupport.parkNanos(this, parkNanos);
+        evictorParked = false;
+    }
+
+    @Override
+    public String toString() {
+        return "PagePartition[" + index + ", pages:" + firstPageId + "-" + endPageId + ", stripes:" + stripes.length
+                + "]";
+    }
+}
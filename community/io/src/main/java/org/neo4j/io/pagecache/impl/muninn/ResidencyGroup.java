@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The runtime state of a {@link ResidencyQuota}: the quota translated to page counts, and the number of pages
+ * the files of the group currently have loaded in the page cache.
+ */
+final class ResidencyGroup {
+    private final String name;
+    private final long minPages;
+    private final long maxPages;
+    private final AtomicLong residentPages = new AtomicLong();
+
+    ResidencyGroup(ResidencyQuota quota, int pageCount) {
+        this.name = quota.name();
+        this.minPages = (long) pageCount * quota.minPercent() / 100;
+        this.maxPages = (long) pageCount * quota.maxPercent() / 100;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void pageLoaded() {
+        residentPages.incrementAndGet();
+    }
+
+    void pageUnloaded() {
+        residentPages.decrementAndGet();
+    }
+
+    long residentPages() {
+        return residentPages.get();
+    }
+
+    /**
+     * @return {@code true} if the group does not have more pages loaded than its reservation, so none of them may be evicted.
+     */
+    boolean isWithinReservation() {
+        return residentPages.get() <= minPages;
+    }
+
+    /**
+     * @return {@code true} if the group occupies more pages than its maximum share, so its pages should be evicted first.
+     */
+    boolean isOverQuota() {
+        return residentPages.get() > maxPages;
+    }
+
+    @Override
+    public String toString() {
+        return "ResidencyGroup[" + name + ", resident=" + residentPages.get() + ", min=" + minPages + ", max=" + maxPages
+                + "]";
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+/**
+ * A residency quota gives a group of mapped files, such as "indexes" or "property store", a minimum share of the page cache
+ * that eviction will not take away from them, and a maximum share of the page cache they are allowed to occupy.
+ * <p>
+ * Files are assigned to the first quota whose glob matches their path, when they are mapped. Files that do not match any
+ * quota compete for the remaining pages as usual. Shares are given in percent of the total number of pages in the cache.
+ */
+public final class ResidencyQuota {
+    private static final String SEPARATOR = ":";
+
+    private final String name;
+    private final String glob;
+    private final int minPercent;
+    private final int maxPercent;
+    private final PathMatcher matcher;
+
+    /**
+     * @param name name of the group of files, used for monitoring.
+     * @param glob glob matched against the path of the mapped files, see {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     * @param minPercent share of the page cache, in percent, that is reserved for the pages of the matching files.
+     * @param maxPercent largest share of the page cache, in percent, that the matching files are allowed to occupy.
+     */
+    public ResidencyQuota(String name, String glob, int minPercent, int maxPercent) {
+        if (minPercent < 0 || maxPercent > 100 || minPercent > maxPercent) {
+            throw new IllegalArgumentException("Invalid residency quota '" + name + "', expected 0 <= min (" + minPercent
+                    + ") <= max (" + maxPercent + ") <= 100.");
+        }
+        this.name = requireNonNull(name);
+        this.glob = requireNonNull(glob);
+        this.minPercent = minPercent;
+        this.maxPercent = maxPercent;
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    }
+
+    /**
+     * Parse a quota on the form {@code name:min:max:glob}, e.g. {@code indexes:10:40:**}{@code /schema/index/**}.
+     * The glob comes last, so it is allowed to contain the separator.
+     */
+    public static ResidencyQuota parse(String quota) {
+        String[] parts = quota.split(SEPARATOR, 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException(
+                    "Invalid residency quota '" + quota + "', expected the format 'name:min:max:glob'.");
+        }
+        try {
+            return new ResidencyQuota(
+                    parts[0].trim(), parts[3].trim(), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Invalid residency quota '" + quota + "', min and max must be whole percentages.", e);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int minPercent() {
+        return minPercent;
+    }
+
+    public int maxPercent() {
+        return maxPercent;
+    }
+
+    boolean matches(Path path) {
+        return matcher.matches(path);
+    }
+
+    @Override
+    public String toString() {
+        return name + SEPARATOR + minPercent + SEPARATOR + maxPercent + SEPARATOR + glob;
+    }
+}
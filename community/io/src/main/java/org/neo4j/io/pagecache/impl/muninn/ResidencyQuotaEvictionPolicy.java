@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Eviction policy that enforces the {@link ResidencyQuota}s of the page cache on top of another policy.
+ * <p>
+ * Pages of groups that are within their reservation are never eviction candidates, and pages of groups that occupy
+ * more than their maximum share are always eviction candidates. Everything else is decided by the wrapped policy.
+ * Since the sum of all reservations is less than the whole page cache, there are always pages that are not protected.
+ */
+final class ResidencyQuotaEvictionPolicy implements EvictionPolicy {
+    private static final ResidencyGroup[] NO_GROUPS = new ResidencyGroup[0];
+
+    private final EvictionPolicy delegate;
+    private final ResidencyGroup[] groups;
+    private final ResidencyQuota[] quotas;
+    // Groups of the mapped files, indexed by swapper id. Copy-on-write, since files are rarely mapped and unmapped.
+    private volatile ResidencyGroup[] groupsBySwapperId = NO_GROUPS;
+
+    ResidencyQuotaEvictionPolicy(EvictionPolicy delegate, List<ResidencyQuota> quotas, int pageCount) {
+        int reservedPercent = quotas.stream().mapToInt(ResidencyQuota::minPercent).sum();
+        if (reservedPercent >= 100) {
+            throw new IllegalArgumentException("The residency quotas " + quotas + " reserve " + reservedPercent
+                    + "% of the page cache, but must leave some of it unreserved.");
+        }
+        this.delegate = delegate;
+        this.quotas = quotas.toArray(new ResidencyQuota[0]);
+        this.groups = new ResidencyGroup[this.quotas.length];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new ResidencyGroup(this.quotas[i], pageCount);
+        }
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public void pageFaulted(long pageRef) {
+        delegate.pageFaulted(pageRef);
+    }
+
+    @Override
+    public boolean isEvictionCandidate(long pageRef) {
+        ResidencyGroup group = groupOf(PageList.getSwapperId(pageRef));
+        if (group != null) {
+            if (group.isWithinReservation()) {
+                return false;
+            }
+            if (group.isOverQuota()) {
+                return true;
+            }
+        }
+        return delegate.isEvictionCandidate(pageRef);
+    }
+
+    /**
+     * @return the group of the first quota that matches the given path, or {@code null} if no quota matches.
+     */
+    ResidencyGroup groupFor(Path path) {
+        for (int i = 0; i < quotas.length; i++) {
+            if (quotas[i].matches(path)) {
+                return groups[i];
+            }
+        }
+        return null;
+    }
+
+    synchronized void bind(int swapperId, ResidencyGroup group) {
+        ResidencyGroup[] current = groupsBySwapperId;
+        if (swapperId >= current.length) {
+            current = Arrays.copyOf(current, Math.max(swapperId + 1, current.length * 2));
+        } else {
+            current = current.clone();
+        }
+        current[swapperId] = group;
+        groupsBySwapperId = current;
+    }
+
+    synchronized void unbind(int swapperId) {
+        ResidencyGroup[] current = groupsBySwapperId;
+        if (swapperId < current.length && current[swapperId] != null) {
+            current = current.clone();
+            current[swapperId] = null;
+            groupsBySwapperId = current;
+        }
+    }
+
+    private ResidencyGroup groupOf(int swapperId) {
+        ResidencyGroup[] current = groupsBySwapperId;
+        return swapperId < current.length ? current[swapperId] : null;
+    }
+}
@@ -58,10 +58,17 @@ public final class SwapperSet {
     static final class SwapperMapping {
         public final int id;
         public final PageSwapper swapper;
+        // The residency group of the file, or null. Pages can outlive their swapper, so they leave the group on eviction.
+        final ResidencyGroup residencyGroup;
 
         private SwapperMapping(int id, PageSwapper swapper) {
+            this(id, swapper, null);
+        }
+
+        private SwapperMapping(int id, PageSwapper swapper, ResidencyGroup residencyGroup) {
             this.id = id;
             this.swapper = swapper;
+            this.residencyGroup = residencyGroup;
         }
     }
 
@@ -99,6 +106,17 @@ public final class SwapperSet {
         return id;
     }
 
+    /**
+     * Make the given residency group accountable for the pages bound to the given swapper id, until they are evicted.
+     */
+    synchronized void bindResidencyGroup(int id, ResidencyGroup residencyGroup) {
+        requirePositive(id);
+        SwapperMapping[] swapperMappings = this.swapperMappings;
+        SwapperMapping current = swapperMappings[id];
+        swapperMappings[id] = new SwapperMapping(id, current.swapper, residencyGroup);
+        this.swapperMappings = swapperMappings;
+    }
+
     /**
      * Free the given swapper id.
      */
@@ -65,6 +65,16 @@ public interface PageCacheCounters {
      */
     long cooperativeEvictions();
 
+    /**
+     * @return The number of times the eviction policy decided to keep a page that the clock arm would otherwise have evicted.
+     */
+    long evictionsDeferred();
+
+    /**
+     * @return The name of the eviction policy used by the page cache, so the hit ratio can be attributed to it.
+     */
+    String evictionPolicy();
+
     /**
      * @return The number of page pins observed thus far.
      */
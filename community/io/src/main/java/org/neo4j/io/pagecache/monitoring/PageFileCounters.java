@@ -99,4 +99,9 @@ public interface PageFileCounters {
      * @return The number of page evictions that have thrown exceptions thus far.
      */
     long evictionExceptions();
+
+    /**
+     * @return The number of pages of the file that are currently loaded in the page cache.
+     */
+    long residentPages();
 }
@@ -40,6 +40,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder noPinFaults = new LongAdder();
     protected final LongAdder evictions = new LongAdder();
     protected final LongAdder cooperativeEvictions = new LongAdder();
+    protected final LongAdder evictionsDeferred = new LongAdder();
     protected final LongAdder pins = new LongAdder();
     protected final LongAdder unpins = new LongAdder();
     protected final LongAdder hits = new LongAdder();
@@ -62,6 +63,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder copiedPages = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected volatile String evictionPolicy = "";
 
     private final boolean tracePageFileIndividually;
 
@@ -162,6 +164,16 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return cooperativeEvictions.sum();
     }
 
+    @Override
+    public long evictionsDeferred() {
+        return evictionsDeferred.sum();
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return evictionPolicy;
+    }
+
     @Override
     public long pins() {
         return pins.sum();
@@ -377,6 +389,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.cooperativeEvictions.add(evictions);
     }
 
+    @Override
+    public void evictionsDeferred(long evictionsDeferred) {
+        this.evictionsDeferred.add(evictionsDeferred);
+    }
+
     @Override
     public void evictionExceptions(long evictionExceptions) {
         this.evictionExceptions.add(evictionExceptions);
@@ -402,6 +419,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.maxPages.set(maxPages);
     }
 
+    @Override
+    public void evictionPolicy(String evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+    }
+
     private class PageCacheFlushEvent implements FlushEvent {
         private PageFileSwapperTracer swapperTracer;
         private long pagesFlushed;
@@ -37,6 +37,7 @@ public class DefaultPageFileSwapperTracer implements PageFileSwapperTracer {
     private final LongAdder evictionExceptions = new LongAdder();
     private final LongAdder flushes = new LongAdder();
     private final LongAdder merges = new LongAdder();
+    private final LongAdder residentPages = new LongAdder();
 
     /**
      * Report number of observed pins
@@ -153,6 +154,15 @@ public class DefaultPageFileSwapperTracer implements PageFileSwapperTracer {
         this.merges.add(merges);
     }
 
+    /**
+     * Report change in number of pages of the file that are loaded in the page cache
+     * @param pages number of pages loaded, or negative number of pages unloaded
+     */
+    @Override
+    public void residencyChanged(long pages) {
+        this.residentPages.add(pages);
+    }
+
     @Override
     public long faults() {
         return faults.sum();
@@ -227,4 +237,9 @@ public class DefaultPageFileSwapperTracer implements PageFileSwapperTracer {
     public long evictionExceptions() {
         return evictionExceptions.sum();
     }
+
+    @Override
+    public long residentPages() {
+        return residentPages.sum();
+    }
 }
@@ -115,6 +115,16 @@ public interface PageCacheTracer extends PageCacheCounters {
             return 0;
         }
 
+        @Override
+        public long evictionsDeferred() {
+            return 0;
+        }
+
+        @Override
+        public String evictionPolicy() {
+            return "";
+        }
+
         @Override
         public long pins() {
             return 0;
@@ -261,6 +271,9 @@ public interface PageCacheTracer extends PageCacheCounters {
         @Override
         public void cooperativeEvictions(long evictions) {}
 
+        @Override
+        public void evictionsDeferred(long evictionsDeferred) {}
+
         @Override
         public void evictionExceptions(long evictionExceptions) {}
 
@@ -279,6 +292,9 @@ public interface PageCacheTracer extends PageCacheCounters {
         @Override
         public void maxPages(long maxPages, long pageSize) {}
 
+        @Override
+        public void evictionPolicy(String evictionPolicy) {}
+
         @Override
         public void iopq(long iopq) {}
 
@@ -431,6 +447,12 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     void cooperativeEvictions(long evictions);
 
+    /**
+     * Report number of pages the eviction policy decided to keep, even though their usage stamp had reached zero
+     * @param evictionsDeferred number of deferred evictions
+     */
+    void evictionsDeferred(long evictionsDeferred);
+
     /**
      * Report number of eviction exceptions
      * @param evictionExceptions number of eviction exceptions
@@ -462,6 +484,12 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     void maxPages(long maxPages, long pageSize);
 
+    /**
+     * Sets the name of the eviction policy used by the page cache.
+     * @param evictionPolicy name of the eviction policy
+     */
+    void evictionPolicy(String evictionPolicy);
+
     /**
      * Report number of performed iopq.
      * @param iopq number of performed io operations per quantum of time.
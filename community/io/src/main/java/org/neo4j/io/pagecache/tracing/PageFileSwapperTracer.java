@@ -118,6 +118,12 @@ public interface PageFileSwapperTracer extends PageFileCounters {
      */
     void merges(long merges);
 
+    /**
+     * Report change in number of pages of the file that are loaded in the page cache
+     * @param pages number of pages loaded, or negative number of pages unloaded
+     */
+    void residencyChanged(long pages);
+
     class NullPageFileSwapperTracer implements PageFileSwapperTracer {
         @Override
         public void pins(long pins) {}
@@ -164,6 +170,9 @@ public interface PageFileSwapperTracer extends PageFileCounters {
         @Override
         public void merges(long merges) {}
 
+        @Override
+        public void residencyChanged(long pages) {}
+
         @Override
         public long faults() {
             return 0;
@@ -238,5 +247,10 @@ public interface PageFileSwapperTracer extends PageFileCounters {
         public long evictionExceptions() {
             return 0;
         }
+
+        @Override
+        public long residentPages() {
+            return 0;
+        }
     }
 }
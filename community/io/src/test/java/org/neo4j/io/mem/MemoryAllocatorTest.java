@@ -216,6 +216,40 @@ class MemoryAllocatorTest {
         UnsafeUtil.getLong(address + ONE_PAGE - Long.BYTES); // End of allocation.
     }
 
+    @Test
+    void mustNotRoundGrabsUpToHugePagesLargerThanRequestedMemory() {
+        closeAllocator();
+        var memoryTracker = new LocalMemoryTracker();
+        allocator = MemoryAllocator.createAllocator(EIGHT_PAGES, null, HugePageMode.EXPLICIT_1G, memoryTracker);
+
+        long address = allocator.allocateAligned(ONE_PAGE, UnsafeUtil.pageSize());
+        UnsafeUtil.putLong(address, 42);
+        UnsafeUtil.putLong(address + ONE_PAGE - Long.BYTES, 42);
+
+        assertThat(allocator.hugePageMemory()).isZero();
+        assertThat(memoryTracker.usedNativeMemory()).isLessThan(gibiBytes(1));
+    }
+
+    @Test
+    void mustFallBackToRegularMemoryWhenHugePagesCannotBeObtained() {
+        closeAllocator();
+        var memoryTracker = new LocalMemoryTracker();
+        long expectedMaxMemory = ByteUnit.mebiBytes(16);
+        allocator = MemoryAllocator.createAllocator(expectedMaxMemory, null, HugePageMode.EXPLICIT_2M, memoryTracker);
+
+        // Without any huge pages reserved on this machine every grab is allocated with malloc, otherwise some are
+        for (long allocated = 0; allocated < expectedMaxMemory; allocated += ONE_PAGE) {
+            long address = allocator.allocateAligned(ONE_PAGE, UnsafeUtil.pageSize());
+            UnsafeUtil.putLong(address, allocated);
+            UnsafeUtil.putLong(address + ONE_PAGE - Long.BYTES, allocated);
+            assertThat(UnsafeUtil.getLong(address)).isEqualTo(allocated);
+        }
+
+        assertThat(allocator.usedMemory()).isGreaterThanOrEqualTo(expectedMaxMemory);
+        assertThat(allocator.hugePageMemory()).isLessThanOrEqualTo(memoryTracker.usedNativeMemory());
+        assertThat(memoryTracker.usedNativeMemory()).isLessThanOrEqualTo(expectedMaxMemory + ByteUnit.mebiBytes(2));
+    }
+
     @Test
     void grabSizeCalculus() {
         assertThat(GrabAllocator.calculateGrabSize(null, 0)).isEqualTo(kibiBytes(512));
@@ -279,6 +279,19 @@ public interface KernelTransaction extends AssertOpen, AutoCloseable {
      */
     String statusDetails();
 
+    /**
+     * Requests the state of this transaction to be kept in off-heap memory, e.g. for transactions writing a large
+     * number of entities that would otherwise put a lot of pressure on the garbage collector. The memory is accounted
+     * for by the memory tracker of this transaction just like its heap memory.
+     * Must be invoked before this transaction writes anything. Transactions that can not allocate off-heap memory keep
+     * their state on heap.
+     * <p>
+     * Only the collections the transaction state allocates through its collections factory move off-heap, like the
+     * diff sets of entities, labels and index updates and the property values of changed entities. The per entity
+     * state objects with their maps, and the maps of index updates keyed by value tuples, stay on heap.
+     */
+    default void useOffHeapTransactionState() {}
+
     enum Type {
         /**
          * An IMPLICIT transaction is automatically opened together with a query and does not allow multiple queries to be executed in it. The transaction
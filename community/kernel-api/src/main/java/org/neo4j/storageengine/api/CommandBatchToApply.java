@@ -22,6 +22,8 @@ package org.neo4j.storageengine.api;
 import org.neo4j.common.Subject;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 
 /**
@@ -63,6 +65,14 @@ public interface CommandBatchToApply extends CommandStream, AutoCloseable {
      */
     StoreCursors storeCursors();
 
+    /**
+     * Memory tracker of the transaction that produced the commands, charged for memory used on its behalf while
+     * the commands are appended to the transaction log.
+     */
+    default MemoryTracker memoryTracker() {
+        return EmptyMemoryTracker.INSTANCE;
+    }
+
     /**
      * @return next group of commands in this batch.
      */
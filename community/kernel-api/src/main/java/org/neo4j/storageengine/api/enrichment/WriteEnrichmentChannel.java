@@ -320,10 +320,11 @@ public class WriteEnrichmentChannel implements WritableChannel {
     @Override
     public WriteEnrichmentChannel put(byte[] value, int offset, int length) {
         var pos = offset;
-        while (pos < length) {
+        final var end = offset + length;
+        while (pos < end) {
             // get the tail buffer and add as much of the bytes as we can
             final var buffer = ensureCapacityForWrite(1);
-            final var available = Math.min(length - pos, buffer.remaining());
+            final var available = Math.min(end - pos, buffer.remaining());
             buffer.put(value, pos, available);
             pos += available;
         }
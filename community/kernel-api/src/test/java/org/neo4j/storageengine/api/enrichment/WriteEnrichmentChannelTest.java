@@ -30,6 +30,7 @@ import java.io.UncheckedIOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 import org.eclipse.collections.api.factory.Lists;
@@ -128,6 +129,27 @@ class WriteEnrichmentChannelTest {
         }
     }
 
+    @Test
+    void putWithOffset() throws IOException {
+        final var bytes = random.nextBytes(new byte[(CHUNK_SIZE * 2) + random.nextInt(1, CHUNK_SIZE)]);
+        final var offset = random.nextInt(1, CHUNK_SIZE);
+        final var length = bytes.length - offset - random.nextInt(0, CHUNK_SIZE / 2);
+
+        try (var channel = channel()) {
+            channel.put(bytes, offset, length);
+            assertThat(channel.size()).isEqualTo(length);
+
+            try (var buffer = new BufferBackedChannel(length)) {
+                channel.flip().serialize(buffer);
+                buffer.flip();
+
+                final var written = new byte[length];
+                buffer.get(written, length);
+                assertThat(written).isEqualTo(Arrays.copyOfRange(bytes, offset, offset + length));
+            }
+        }
+    }
+
     @Test
     void positionCrossingChunks() {
         final var bytesSize = CHUNK_SIZE - 2;
@@ -85,6 +85,7 @@ import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.TransactionCommitmentFactory;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionWriteEvent;
+import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
 import org.neo4j.kernel.internal.event.DatabaseTransactionEventListeners;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.logging.NullLogProvider;
@@ -128,6 +129,8 @@ class KernelTransactionTestBase {
     protected final Pool<KernelTransactionImplementation> txPool = mock(Pool.class);
     protected final LockManager.Client locksClient = mock(LockManager.Client.class);
     protected CollectionsFactory collectionsFactory;
+    // Used by transactions that ask for off-heap state, when set.
+    protected CollectionsFactory offHeapCollectionsFactory;
 
     private final ProcedureView procedureView = mock(ProcedureView.class);
 
@@ -238,7 +241,17 @@ class KernelTransactionTestBase {
                 storageEngine,
                 any -> CanWrite.INSTANCE,
                 new CursorContextFactory(pageCacheTracer, EMPTY_CONTEXT_SUPPLIER),
-                () -> collectionsFactory,
+                new CollectionsFactorySupplier() {
+                    @Override
+                    public CollectionsFactory create() {
+                        return collectionsFactory;
+                    }
+
+                    @Override
+                    public CollectionsFactory createOffHeap() {
+                        return offHeapCollectionsFactory != null ? offHeapCollectionsFactory : collectionsFactory;
+                    }
+                },
                 new StandardConstraintSemantics(),
                 mock(SchemaState.class),
                 mockedTokenHolders(),
@@ -42,6 +42,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.configuration.GraphDatabaseSettings.memory_transaction_max_size;
@@ -75,6 +76,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.neo4j.collection.factory.CollectionsFactory;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.dbms.identity.ServerId;
@@ -103,6 +105,8 @@ import org.neo4j.kernel.database.DatabaseIdFactory;
 import org.neo4j.kernel.impl.api.state.TxState;
 import org.neo4j.kernel.impl.api.transaction.trace.TransactionInitializationTrace;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
+import org.neo4j.kernel.impl.util.collection.CachingOffHeapBlockAllocator;
+import org.neo4j.kernel.impl.util.collection.OffHeapCollectionsFactory;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.memory.MemoryLimitExceededException;
 import org.neo4j.memory.MemoryTracker;
@@ -980,6 +984,51 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase {
         verify(txPool, times(1)).dispose(transaction);
     }
 
+    @Test
+    void shouldNotSwitchToOffHeapTransactionStateOnceWriting() {
+        KernelTransactionImplementation transaction = newTransaction(AUTH_DISABLED);
+        transaction.txState().nodeDoCreate(5);
+
+        assertThatThrownBy(transaction::useOffHeapTransactionState).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldKeepTransactionStateOnHeapByDefault() throws Exception {
+        offHeapCollectionsFactory = new OffHeapCollectionsFactory(new CachingOffHeapBlockAllocator());
+        try (KernelTransactionImplementation transaction = newTransaction(AUTH_DISABLED)) {
+            transaction.txState().nodeDoCreate(5);
+
+            assertThat(transaction.memoryTracker().usedNativeMemory()).isZero();
+            transaction.rollback();
+        }
+    }
+
+    @Test
+    void shouldKeepTransactionStateOffHeapWhenRequested() throws Exception {
+        offHeapCollectionsFactory = new OffHeapCollectionsFactory(new CachingOffHeapBlockAllocator());
+        try (KernelTransactionImplementation transaction = newTransaction(AUTH_DISABLED)) {
+            transaction.useOffHeapTransactionState();
+            transaction.txState().nodeDoCreate(5);
+
+            assertThat(transaction.memoryTracker().usedNativeMemory()).isPositive();
+            transaction.rollback();
+        }
+    }
+
+    @Test
+    void shouldUseDefaultCollectionsFactoryWhenAlreadyOffHeap() throws Exception {
+        collectionsFactory = new OffHeapCollectionsFactory(new CachingOffHeapBlockAllocator());
+        offHeapCollectionsFactory = mock(CollectionsFactory.class);
+        try (KernelTransactionImplementation transaction = newTransaction(AUTH_DISABLED)) {
+            transaction.useOffHeapTransactionState();
+            transaction.txState().nodeDoCreate(5);
+
+            assertThat(transaction.memoryTracker().usedNativeMemory()).isPositive();
+            transaction.rollback();
+        }
+        verifyNoInteractions(offHeapCollectionsFactory);
+    }
+
     private static LoginContext loginContext(boolean isWriteTx) {
         return isWriteTx ? AnonymousContext.write() : AnonymousContext.read();
     }
@@ -83,7 +83,7 @@ abstract class IndexProviderTests {
     private TestDirectory testDirectory;
 
     @Inject
-    private FileSystemAbstraction fs;
+    FileSystemAbstraction fs;
 
     @Inject
     private DatabaseLayout databaseLayout;
@@ -410,6 +410,10 @@ abstract class IndexProviderTests {
     }
 
     private IndexProvider newProvider(DatabaseReadOnlyChecker readOnlyChecker) {
+        return newProvider(factory, readOnlyChecker);
+    }
+
+    private IndexProvider newProvider(ProviderFactory factory, DatabaseReadOnlyChecker readOnlyChecker) {
         return factory.create(
                 pageCache,
                 fs,
@@ -426,6 +430,10 @@ abstract class IndexProviderTests {
         return newProvider(writable());
     }
 
+    IndexProvider newProvider(ProviderFactory factory) {
+        return newProvider(factory, writable());
+    }
+
     private IndexProvider newReadOnlyProvider() {
         return newProvider(readOnly());
     }
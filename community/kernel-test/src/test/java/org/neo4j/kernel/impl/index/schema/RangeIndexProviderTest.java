@@ -19,38 +19,54 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.internal.kernel.api.PropertyIndexQuery.exists;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
 import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
 import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
 import static org.neo4j.internal.schema.SchemaDescriptors.fulltext;
+import static org.neo4j.io.memory.ByteBufferFactory.heapBufferFactory;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 import static org.neo4j.kernel.impl.api.index.TestIndexProviderDescriptor.PROVIDER_DESCRIPTOR;
+import static org.neo4j.kernel.impl.index.schema.IndexUsageTracker.NO_USAGE_TRACKER;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.collections.api.factory.Sets;
 import org.junit.jupiter.api.Test;
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
+import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.schema.SimpleEntityValueClient;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 class RangeIndexProviderTest extends IndexProviderTests {
-    private static final ProviderFactory factory =
-            (pageCache,
+    private static final ProviderFactory factory = factory(Config.defaults());
+
+    private static ProviderFactory factory(Config config) {
+        return (pageCache,
                     fs,
                     dir,
                     monitors,
@@ -64,8 +80,9 @@ class RangeIndexProviderTest extends IndexProviderTests {
                         .withMonitors(monitors)
                         .withReadOnlyChecker(readOnlyChecker)
                         .build();
-                return new RangeIndexProvider(context, dir, collector, Config.defaults());
+                return new RangeIndexProvider(context, dir, collector, config);
             };
+    }
 
     RangeIndexProviderTest() {
         super(factory);
@@ -94,6 +111,85 @@ class RangeIndexProviderTest extends IndexProviderTests {
         }
     }
 
+    @Test
+    void shouldCreateRangeIndexWithPrefixCompressedKeysAndReopenIt() throws IOException, IndexEntryConflictException {
+        // given
+        var compressing =
+                factory(Config.defaults(GraphDatabaseInternalSettings.range_index_prefix_compressed_keys, true));
+        var values = new ArrayList<Value>();
+        for (int i = 0; i < 5_000; i++) {
+            values.add(Values.stringValue(String.format("a-long-prefix-shared-by-all-keys-%05d", i)));
+        }
+
+        // when
+        provider = newProvider(compressing);
+        IndexDescriptor compressed = descriptor();
+        writeAndClose(compressed, values);
+        provider = newProvider();
+        IndexDescriptor uncompressed = otherDescriptor();
+        writeAndClose(uncompressed, values);
+
+        // then
+        assertThat(indexFileSize(compressed)).isLessThan(indexFileSize(uncompressed));
+        provider = newProvider(compressing);
+        assertThat(readAll(compressed)).containsExactlyInAnyOrderElementsOf(values);
+        assertThat(readAll(uncompressed)).containsExactlyInAnyOrderElementsOf(values);
+        // Existing trees keep their format when the setting changes
+        provider = newProvider();
+        assertThat(readAll(compressed)).containsExactlyInAnyOrderElementsOf(values);
+    }
+
+    private void writeAndClose(IndexDescriptor descriptor, List<Value> values)
+            throws IOException, IndexEntryConflictException {
+        IndexPopulator populator = provider.getPopulator(
+                descriptor,
+                samplingConfig(),
+                heapBufferFactory(1024),
+                INSTANCE,
+                tokenNameLookup,
+                Sets.immutable.empty(),
+                StorageEngineIndexingBehaviour.EMPTY);
+        populator.create();
+        populator.close(true, NULL_CONTEXT);
+        try (IndexAccessor accessor = provider.getOnlineAccessor(
+                descriptor,
+                samplingConfig(),
+                tokenNameLookup,
+                Sets.immutable.empty(),
+                StorageEngineIndexingBehaviour.EMPTY)) {
+            try (IndexUpdater indexUpdater = accessor.newUpdater(IndexUpdateMode.ONLINE, NULL_CONTEXT, false)) {
+                long entityId = 0;
+                for (Value value : values) {
+                    indexUpdater.process(IndexEntryUpdate.add(entityId++, descriptor, value));
+                }
+            }
+            accessor.force(FileFlushEvent.NULL, NULL_CONTEXT);
+        }
+    }
+
+    private List<Value> readAll(IndexDescriptor descriptor) throws IOException, IndexNotApplicableKernelException {
+        try (IndexAccessor accessor = provider.getOnlineAccessor(
+                        descriptor,
+                        samplingConfig(),
+                        tokenNameLookup,
+                        Sets.immutable.empty(),
+                        StorageEngineIndexingBehaviour.EMPTY);
+                var reader = accessor.newValueReader(NO_USAGE_TRACKER)) {
+            var client = new SimpleEntityValueClient();
+            reader.query(
+                    client, QueryContext.NULL_CONTEXT, AccessMode.Static.READ, unorderedValues(), exists(propId));
+            var result = new ArrayList<Value>();
+            while (client.next()) {
+                result.add(client.values[0]);
+            }
+            return result;
+        }
+    }
+
+    private long indexFileSize(IndexDescriptor descriptor) throws IOException {
+        return fs.getFileSize(new IndexFiles(fs, provider.directoryStructure(), descriptor.getId()).getStoreFile());
+    }
+
     private IndexDescriptor descriptorUnique() {
         return completeConfiguration(uniqueForSchema(forLabel(labelId, propId), PROVIDER_DESCRIPTOR)
                 .withIndexType(IndexType.RANGE)
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+@PageCacheExtension
+class PageCacheWarmerTest {
+    private static final int PAGES = 100;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private PageCache pageCache;
+
+    private ThreadPoolJobScheduler scheduler;
+    private Path databaseDirectory;
+    private Path storeFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scheduler = new ThreadPoolJobScheduler();
+        databaseDirectory = directory.directory("database");
+        storeFile = databaseDirectory.resolve("store");
+        try (PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j");
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < PAGES; i++) {
+                assertThat(cursor.next()).isTrue();
+                cursor.putInt(i);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void warmupMustLoadPagesFromProfile() throws IOException {
+        Set<Long> residentPages = Set.of(3L, 4L, 10L, 11L, 12L, 13L, 63L, 64L, 65L, 99L);
+        Config config = Config.newBuilder()
+                .set(pagecache_warmup_blocking, true)
+                .set(pagecache_warmup_profiling_interval, Duration.ofHours(1))
+                .build();
+
+        try (PagedFile pagedFile = map()) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                for (long pageId : residentPages) {
+                    assertThat(cursor.next(pageId)).isTrue();
+                }
+            }
+            var warmer = warmer(config);
+            warmer.start();
+            warmer.profile();
+            warmer.stop();
+            assertThat(fs.fileExists(databaseDirectory.resolve("profiles/store" + PageCacheWarmer.PROFILE_SUFFIX)))
+                    .isTrue();
+        }
+
+        try (PagedFile pagedFile = map()) {
+            assertThat(residentPages(pagedFile)).isEmpty();
+
+            var warmer = warmer(config);
+            warmer.start();
+            assertThat(warmer.pagesToLoad()).isEqualTo(residentPages.size());
+            assertThat(warmer.pagesLoaded()).isEqualTo(residentPages.size());
+            assertThat(residentPages(pagedFile)).containsExactlyInAnyOrderElementsOf(residentPages);
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void preloadMustLoadAllPagesOfAllowlistedFiles() throws IOException {
+        Config config = Config.newBuilder()
+                .set(pagecache_warmup_blocking, true)
+                .set(pagecache_warmup_prefetch, true)
+                .set(pagecache_warmup_prefetch_allowlist, "sto.*")
+                .build();
+
+        try (PagedFile pagedFile = map()) {
+            var warmer = warmer(config);
+            warmer.start();
+            assertThat(warmer.pagesLoaded()).isEqualTo(PAGES);
+            assertThat(residentPages(pagedFile)).hasSize(PAGES);
+            warmer.stop();
+        }
+        assertThat(fs.fileExists(databaseDirectory.resolve("profiles"))).isFalse();
+    }
+
+    @Test
+    void preloadMustSkipFilesNotInAllowlist() throws IOException {
+        Config config = Config.newBuilder()
+                .set(pagecache_warmup_blocking, true)
+                .set(pagecache_warmup_prefetch, true)
+                .set(pagecache_warmup_prefetch_allowlist, "other.*")
+                .build();
+
+        try (PagedFile pagedFile = map()) {
+            var warmer = warmer(config);
+            warmer.start();
+            assertThat(warmer.pagesLoaded()).isZero();
+            assertThat(residentPages(pagedFile)).isEmpty();
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void profileMustSurviveRoundTripAndIgnorePagesBeyondFileSize() throws IOException {
+        var profile = new PageProfile(200);
+        profile.set(0);
+        profile.set(64);
+        profile.set(130);
+        profile.set(199);
+        var out = new ByteArrayOutputStream();
+        profile.writeTo(out);
+
+        var read = PageProfile.readFrom(new ByteArrayInputStream(out.toByteArray()), 200);
+        assertThat(read.pageCount()).isEqualTo(200);
+        assertThat(read.cardinality()).isEqualTo(4);
+        assertThat(read.nextSetPage(1)).isEqualTo(64);
+        assertThat(read.nextSetPage(131)).isEqualTo(199);
+
+        var truncated = PageProfile.readFrom(new ByteArrayInputStream(out.toByteArray()), 131);
+        assertThat(truncated.pageCount()).isEqualTo(131);
+        assertThat(truncated.cardinality()).isEqualTo(3);
+        assertThat(truncated.get(199)).isFalse();
+        assertThat(truncated.nextSetPage(131)).isEqualTo(-1);
+    }
+
+    private PagedFile map() throws IOException {
+        return pageCache.map(storeFile, pageCache.pageSize(), "neo4j");
+    }
+
+    private PageCacheWarmer warmer(Config config) {
+        return new PageCacheWarmer(
+                fs,
+                pageCache,
+                scheduler,
+                databaseDirectory,
+                config,
+                IOController.DISABLED,
+                NULL_CONTEXT_FACTORY,
+                NullLog.getInstance(),
+                new PageCacheWarmerMonitor() {
+                    @Override
+                    public void warmupStarted(long pagesToLoad) {}
+
+                    @Override
+                    public void pagesLoaded(long pagesLoaded) {}
+
+                    @Override
+                    public void warmupCompleted(long pagesLoaded, long elapsedMillis) {}
+
+                    @Override
+                    public void profileCompleted(long profiledPages) {}
+                },
+                "neo4j");
+    }
+
+    private static Set<Long> residentPages(PagedFile pagedFile) throws IOException {
+        Set<Long> resident = new TreeSet<>();
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL_CONTEXT)) {
+            for (long pageId = 0; pageId < PAGES; pageId++) {
+                assertThat(cursor.next(pageId)).isTrue();
+                if (cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID) {
+                    resident.add(pageId);
+                }
+            }
+        }
+        return resident;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction;
+
+import static java.lang.Math.toIntExact;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.io.ByteUnit.KibiByte;
+import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.test.LatestVersions.LATEST_LOG_FORMAT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.function.LongPredicate;
+import java.util.zip.Checksum;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.helpers.collection.Visitor;
+import org.neo4j.io.fs.ChecksumMismatchException;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.files.LogFileChannelNativeAccessor;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+class MappedLogChannelTest {
+    private static final LongPredicate ALL_SEALED = version -> true;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory directory;
+
+    private final LogFileChannelNativeAccessor nativeChannelAccessor = mock(LogFileChannelNativeAccessor.class);
+    private final DatabaseTracer databaseTracer = DatabaseTracer.NULL;
+
+    @Test
+    void shouldReadFromSingleChannel() throws Exception {
+        // GIVEN
+        final byte byteValue = (byte) 5;
+        final short shortValue = (short) 56;
+        final int intValue = 32145;
+        final long longValue = 5689456895869L;
+        final float floatValue = 12.12345f;
+        final double doubleValue = 3548.45748D;
+        final byte[] byteArrayValue = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        writeSomeData(file(0), element -> {
+            element.put(byteValue);
+            element.putShort(shortValue);
+            element.putInt(intValue);
+            element.putLong(longValue);
+            element.putFloat(floatValue);
+            element.putDouble(doubleValue);
+            element.put(byteArrayValue);
+            return true;
+        });
+
+        try (MappedLogChannel channel = mappedChannel(0, LogVersionBridge.NO_MORE_CHANNELS, ALL_SEALED)) {
+            // THEN
+            assertEquals(byteValue, channel.get());
+            assertEquals(shortValue, channel.getShort());
+            assertEquals(intValue, channel.getInt());
+            assertEquals(longValue, channel.getLong());
+            assertEquals(floatValue, channel.getFloat(), 0.1f);
+            assertEquals(doubleValue, channel.getDouble(), 0.1d);
+
+            byte[] bytes = new byte[byteArrayValue.length];
+            channel.get(bytes, byteArrayValue.length);
+            assertArrayEquals(byteArrayValue, bytes);
+
+            assertThrows(ReadPastEndException.class, channel::get);
+        }
+    }
+
+    @Test
+    void shouldRepositionWithinMapping() throws Exception {
+        // GIVEN
+        writeSomeData(file(0), element -> {
+            for (int i = 0; i < 100; i++) {
+                element.putLong(i);
+            }
+            return true;
+        });
+
+        try (MappedLogChannel channel = mappedChannel(0, LogVersionBridge.NO_MORE_CHANNELS, ALL_SEALED)) {
+            // WHEN/THEN reading backwards
+            for (int i = 99; i >= 0; i--) {
+                channel.position((long) i * Long.BYTES);
+                assertEquals(i, channel.getLong());
+                assertEquals(new LogPosition(0, (long) (i + 1) * Long.BYTES), channel.getCurrentLogPosition());
+            }
+        }
+    }
+
+    @Test
+    void shouldValidateChecksums() throws Exception {
+        // GIVEN
+        writeSomeData(file(0), element -> {
+            element.putLong(1);
+            element.putLong(2);
+            element.putInt(checksumOf(element, 0, 2 * Long.BYTES));
+            element.putLong(3);
+            element.putInt(checksumOf(element, 20, Long.BYTES) + 1);
+            return true;
+        });
+
+        try (MappedLogChannel channel = mappedChannel(0, LogVersionBridge.NO_MORE_CHANNELS, ALL_SEALED)) {
+            // THEN
+            channel.beginChecksum();
+            assertEquals(1, channel.getLong());
+            assertEquals(2, channel.getLong());
+            channel.endChecksumAndValidate();
+
+            assertEquals(3, channel.getLong());
+            assertThrows(ChecksumMismatchException.class, channel::endChecksumAndValidate);
+        }
+    }
+
+    @Test
+    void shouldReadFromMultipleMappedChannels() throws Exception {
+        // GIVEN
+        writeLongs(file(0), 0, 10);
+        writeLongs(file(1), 10, 20);
+
+        try (MappedLogChannel channel = mappedChannel(0, new RollingLogVersionBridge(1), ALL_SEALED)) {
+            // THEN
+            for (long i = 0; i < 20; i++) {
+                assertEquals(i, channel.getLong());
+            }
+            assertEquals(1, channel.getLogVersion());
+        }
+    }
+
+    @Test
+    void shouldContinueReadingChannelsThatAreNotSealed() throws Exception {
+        // GIVEN
+        writeLongs(file(0), 0, 10);
+        writeLongs(file(1), 10, 20);
+
+        try (MappedLogChannel channel = mappedChannel(0, new RollingLogVersionBridge(1), version -> version < 1)) {
+            // THEN
+            for (long i = 0; i < 20; i++) {
+                assertEquals(i, channel.getLong());
+            }
+            assertEquals(new LogPosition(1, 10 * Long.BYTES), channel.getCurrentLogPosition());
+            assertThrows(ReadPastEndException.class, channel::getLong);
+        }
+    }
+
+    @Test
+    void markAndGetShouldReturnTheStartOfTheLogFileAndNotTheEndOfThePrevious() throws Exception {
+        // GIVEN
+        final var byteValue = (byte) 42;
+        final var channelSize1 = writeLongs(file(0), 0, 10);
+        writeSomeData(file(1), buffer -> {
+            buffer.put(byteValue);
+            return true;
+        });
+
+        try (var channel = mappedChannel(0, new RollingLogVersionBridge(1), ALL_SEALED)) {
+            for (var i = 0; i < 10; i++) {
+                assertEquals(i, channel.getLong());
+            }
+
+            final var marker = new LogPositionMarker();
+            channel.getCurrentLogPosition(marker);
+            assertEquals(new LogPosition(0, channelSize1), marker.newPosition());
+
+            // THEN
+            assertEquals(byteValue, channel.markAndGetVersion(marker));
+            assertEquals(new LogPosition(1, 0), marker.newPosition());
+        }
+    }
+
+    @Test
+    void shouldNotMapChannelsOfFileSystemsWithoutMappingSupport() throws IOException {
+        var channel = mock(LogVersionedStoreChannel.class);
+
+        assertThat(MappedLogChannel.map(channel)).isNull();
+    }
+
+    private MappedLogChannel mappedChannel(long version, LogVersionBridge bridge, LongPredicate sealed)
+            throws IOException {
+        Path file = file(toIntExact(version));
+        PhysicalLogVersionedStoreChannel versionedStoreChannel = new PhysicalLogVersionedStoreChannel(
+                fileSystem.read(file), version, LATEST_LOG_FORMAT, file, nativeChannelAccessor, databaseTracer);
+        ByteBuffer mapping = MappedLogChannel.map(versionedStoreChannel);
+        assertThat(mapping).isNotNull();
+        return new MappedLogChannel(versionedStoreChannel, mapping, bridge, sealed, INSTANCE, false);
+    }
+
+    private static int checksumOf(ByteBuffer buffer, int offset, int length) {
+        Checksum checksum = CHECKSUM_FACTORY.get();
+        checksum.update(buffer.slice(offset, length));
+        return (int) checksum.getValue();
+    }
+
+    private long writeLongs(Path file, long from, long to) throws IOException {
+        return writeSomeData(file, element -> {
+            for (long i = from; i < to; i++) {
+                element.putLong(i);
+            }
+            return true;
+        });
+    }
+
+    private long writeSomeData(Path file, Visitor<ByteBuffer, IOException> visitor) throws IOException {
+        try (StoreChannel channel = fileSystem.write(file)) {
+            ByteBuffer buffer =
+                    ByteBuffers.allocate(toIntExact(KibiByte.toBytes(1)), ByteOrder.LITTLE_ENDIAN, INSTANCE);
+            visitor.visit(buffer);
+            buffer.flip();
+            channel.writeAll(buffer);
+            return channel.size();
+        }
+    }
+
+    private Path file(int index) {
+        return directory.homePath().resolve("" + index);
+    }
+
+    private class RollingLogVersionBridge implements LogVersionBridge {
+        private final long version;
+        private boolean returned;
+
+        private RollingLogVersionBridge(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public LogVersionedStoreChannel next(LogVersionedStoreChannel channel, boolean raw) throws IOException {
+            if (!returned) {
+                returned = true;
+                channel.close();
+                return new PhysicalLogVersionedStoreChannel(
+                        fileSystem.read(file(1)),
+                        version,
+                        LATEST_LOG_FORMAT,
+                        file(1),
+                        nativeChannelAccessor,
+                        databaseTracer);
+            }
+            return channel;
+        }
+    }
+}
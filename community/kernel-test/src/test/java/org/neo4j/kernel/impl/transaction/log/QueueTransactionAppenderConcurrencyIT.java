@@ -32,10 +32,14 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -129,6 +133,46 @@ class QueueTransactionAppenderConcurrencyIT {
         assertEquals(transactionIdStore.getLastCommittedTransactionId(), initialCommittedTxId + numberOfTransactions);
     }
 
+    @ParameterizedTest(name = "committers={0}, parallelSerialization={1}")
+    @MethodSource("committersAndSerialization")
+    void commitThroughVaryingNumberOfCommitters(int committers, boolean parallelSerialization)
+            throws IOException, ExecutionException {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+
+        QueueTransactionAppender transactionAppender = createAppender(logFiles, parallelSerialization);
+        life.add(transactionAppender);
+
+        int transactionsPerCommitter = 5_000;
+        long initialCommittedTxId = transactionIdStore.getLastCommittedTransactionId();
+
+        ExecutorService committerExecutor = Executors.newFixedThreadPool(committers);
+        try {
+            var results = new ArrayList<Future<?>>(committers);
+            for (int i = 0; i < committers; i++) {
+                results.add(committerExecutor.submit(() -> {
+                    for (int tx = 0; tx < transactionsPerCommitter; tx++) {
+                        transactionAppender.append(createTransaction(), LogAppendEvent.NULL);
+                    }
+                    return null;
+                }));
+            }
+            Futures.getAll(results);
+        } finally {
+            committerExecutor.shutdown();
+        }
+
+        assertEquals(
+                initialCommittedTxId + (long) committers * transactionsPerCommitter,
+                transactionIdStore.getLastCommittedTransactionId());
+    }
+
+    private static Stream<Arguments> committersAndSerialization() {
+        return Stream.of(1, 2, 4, 8, 16)
+                .flatMap(committers ->
+                        Stream.of(Arguments.of(committers, false), Arguments.of(committers, true)));
+    }
+
     @Test
     void multiThreadedTransactionWithStop() throws IOException {
         LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
@@ -196,6 +240,12 @@ class QueueTransactionAppenderConcurrencyIT {
         return new QueueTransactionAppender(logQueue);
     }
 
+    private QueueTransactionAppender createAppender(LogFiles logFiles, boolean parallelSerialization) {
+        TransactionLogQueue logQueue = new TransactionLogQueue(
+                logFiles, transactionIdStore, databaseHealth, jobScheduler, logProvider, parallelSerialization);
+        return new QueueTransactionAppender(logQueue);
+    }
+
     private TransactionToApply createTransaction() {
         CompleteTransaction tx = new CompleteTransaction(
                 List.of(new TestCommand()),
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,6 +28,8 @@ import static org.neo4j.monitoring.HealthEventGenerator.NO_OP;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.AfterEach;
@@ -49,14 +52,19 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.storageengine.api.enrichment.WriteEnrichmentChannel;
 import org.neo4j.test.LatestVersions;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
 import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
 
 @Neo4jLayoutExtension
 @ExtendWith(LifeExtension.class)
@@ -70,6 +78,9 @@ class TransactionLogQueueIT {
     @Inject
     private DatabaseLayout databaseLayout;
 
+    @Inject
+    private TestDirectory testDirectory;
+
     private ThreadPoolJobScheduler jobScheduler;
     private SimpleLogVersionRepository logVersionRepository;
     private SimpleTransactionIdStore transactionIdStore;
@@ -146,7 +157,60 @@ class TransactionLogQueueIT {
                 () -> logQueue.submit(createTransaction(), LogAppendEvent.NULL).getCommittedTxId());
     }
 
+    @Test
+    void parallelSerializationWritesSameLogAsWriterThreadSerialization() throws IOException {
+        byte[] serialLog = appendTransactions(databaseLayout, false);
+        byte[] parallelLog = appendTransactions(DatabaseLayout.ofFlat(testDirectory.directory("parallel")), true);
+
+        assertThat(parallelLog).isEqualTo(serialLog);
+    }
+
+    @Test
+    void chargeSerializedCommandsToTransactionMemoryTrackerUntilAppended() throws IOException {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+
+        TransactionLogQueue logQueue = createLogQueue(logFiles);
+        life.add(logQueue);
+
+        var memoryTracker = new LocalMemoryTracker();
+        logQueue.submit(createTransaction(transactionIdStore, memoryTracker), LogAppendEvent.NULL).getCommittedTxId();
+
+        assertThat(memoryTracker.heapHighWaterMark()).isGreaterThanOrEqualTo(WriteEnrichmentChannel.CHUNK_SIZE);
+        assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+    }
+
+    private byte[] appendTransactions(DatabaseLayout layout, boolean parallelSerialization) throws IOException {
+        var txIdStore = new SimpleTransactionIdStore();
+        LogFiles logFiles = buildLogFiles(layout, new SimpleLogVersionRepository(), txIdStore);
+        var queueLife = new LifeSupport();
+        queueLife.add(logFiles);
+        TransactionLogQueue logQueue = queueLife.add(new TransactionLogQueue(
+                logFiles, txIdStore, databaseHealth, jobScheduler, logProvider, parallelSerialization));
+        queueLife.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                logQueue.submit(createTransaction(txIdStore), LogAppendEvent.NULL).getCommittedTxId();
+            }
+        } finally {
+            queueLife.shutdown();
+        }
+        Path logFile = logFiles.getLogFile().getLogFileForVersion(0);
+        try (InputStream in = fileSystem.openAsInputStream(logFile)) {
+            return in.readAllBytes();
+        }
+    }
+
     private TransactionToApply createTransaction() {
+        return createTransaction(transactionIdStore);
+    }
+
+    private TransactionToApply createTransaction(SimpleTransactionIdStore transactionIdStore) {
+        return createTransaction(transactionIdStore, EmptyMemoryTracker.INSTANCE);
+    }
+
+    private TransactionToApply createTransaction(
+            SimpleTransactionIdStore transactionIdStore, MemoryTracker memoryTracker) {
         CompleteTransaction tx = new CompleteTransaction(
                 List.of(new TestCommand()),
                 UNKNOWN_CONSENSUS_INDEX,
@@ -162,7 +226,8 @@ class TransactionLogQueueIT {
                 CursorContext.NULL_CONTEXT,
                 StoreCursors.NULL,
                 transactionCommitment,
-                new IdStoreTransactionIdGenerator(transactionIdStore));
+                new IdStoreTransactionIdGenerator(transactionIdStore),
+                memoryTracker);
     }
 
     private TransactionLogQueue createLogQueue(LogFiles logFiles) {
@@ -172,8 +237,16 @@ class TransactionLogQueueIT {
     private LogFiles buildLogFiles(
             SimpleLogVersionRepository logVersionRepository, SimpleTransactionIdStore transactionIdStore)
             throws IOException {
+        return buildLogFiles(databaseLayout, logVersionRepository, transactionIdStore);
+    }
+
+    private LogFiles buildLogFiles(
+            DatabaseLayout layout,
+            SimpleLogVersionRepository logVersionRepository,
+            SimpleTransactionIdStore transactionIdStore)
+            throws IOException {
         var storeId = new StoreId(1, 2, "engine-1", "format-1", 3, 4);
-        return LogFilesBuilder.builder(databaseLayout, fileSystem, LatestVersions.LATEST_KERNEL_VERSION_PROVIDER)
+        return LogFilesBuilder.builder(layout, fileSystem, LatestVersions.LATEST_KERNEL_VERSION_PROVIDER)
                 .withLogVersionRepository(logVersionRepository)
                 .withRotationThreshold(ByteUnit.mebiBytes(1))
                 .withTransactionIdStore(transactionIdStore)
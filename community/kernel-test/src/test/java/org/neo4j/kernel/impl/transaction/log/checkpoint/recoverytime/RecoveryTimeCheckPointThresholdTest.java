@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.collection.Dependencies;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThresholdTestSupport;
+
+class RecoveryTimeCheckPointThresholdTest extends CheckPointThresholdTestSupport {
+    private static final long LOG_FILE_SIZE = mebiBytes(16);
+
+    @BeforeEach
+    void setUpPolicy() {
+        withPolicy("recovery_time");
+        // 10 seconds of recovery at 1 MiB/s means check-pointing every 5 MiB of transaction logs
+        config.set(GraphDatabaseSettings.check_point_target_recovery_time, Duration.ofSeconds(10));
+        config.set(GraphDatabaseInternalSettings.check_point_recovery_replay_rate, mebiBytes(1));
+        config.set(GraphDatabaseSettings.logical_log_rotation_threshold, LOG_FILE_SIZE);
+    }
+
+    @Test
+    void shouldNotTriggerBeforeHalfOfTargetRecoveryTimeWorthOfLogs() {
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize(1, new LogPosition(0, 0));
+
+        assertFalse(threshold.isCheckPointingNeeded(2, new LogPosition(0, mebiBytes(5) - 1), notTriggered));
+    }
+
+    @Test
+    void shouldTriggerAtHalfOfTargetRecoveryTimeWorthOfLogs() {
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize(1, new LogPosition(0, 0));
+
+        assertTrue(threshold.isCheckPointingNeeded(2, new LogPosition(0, mebiBytes(5)), triggered));
+        verifyTriggered("recovery time target of 10 seconds");
+        verifyNoMoreTriggers();
+    }
+
+    @Test
+    void shouldCountLogsAcrossRotatedFiles() {
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize(1, new LogPosition(3, LOG_FILE_SIZE - mebiBytes(2)));
+
+        assertFalse(threshold.isCheckPointingNeeded(2, new LogPosition(4, mebiBytes(2)), notTriggered));
+        assertTrue(threshold.isCheckPointingNeeded(3, new LogPosition(4, mebiBytes(3)), triggered));
+        verifyTriggered("recovery time target");
+    }
+
+    @Test
+    void shouldMeasureFromLatestCheckPoint() {
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize(1, new LogPosition(0, 0));
+        assertTrue(threshold.isCheckPointingNeeded(2, new LogPosition(0, mebiBytes(6)), triggered));
+
+        threshold.checkPointHappened(2, new LogPosition(0, mebiBytes(6)));
+
+        assertFalse(threshold.isCheckPointingNeeded(3, new LogPosition(0, mebiBytes(10)), notTriggered));
+        assertTrue(threshold.isCheckPointingNeeded(4, new LogPosition(0, mebiBytes(11)), triggered));
+    }
+
+    @Test
+    void shouldUseReplayRateMeasuredByRecovery() {
+        // Recovery replayed 32 MiB in 8 seconds, so 10 seconds of recovery means check-pointing every 20 MiB
+        var replayRate = new RecoveryReplayRate(LOG_FILE_SIZE);
+        replayRate.logsReplayed(new LogPosition(1, 0), new LogPosition(3, 0), 8_000);
+        var dependencies = new Dependencies();
+        dependencies.satisfyDependency(replayRate);
+
+        CheckPointThreshold threshold =
+                CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider, dependencies);
+        threshold.initialize(1, new LogPosition(0, 0));
+
+        assertFalse(threshold.isCheckPointingNeeded(2, new LogPosition(1, mebiBytes(4) - 1), notTriggered));
+        assertTrue(threshold.isCheckPointingNeeded(3, new LogPosition(1, mebiBytes(4)), triggered));
+        verifyTriggered("recovery time target");
+    }
+
+    @Test
+    void shouldUseConfiguredReplayRateUntilRecoveryHasMeasuredIt() {
+        var replayRate = new RecoveryReplayRate(LOG_FILE_SIZE);
+        // Too short to be a meaningful measurement
+        replayRate.logsReplayed(new LogPosition(1, 0), new LogPosition(3, 0), 10);
+        var dependencies = new Dependencies();
+        dependencies.satisfyDependency(replayRate);
+
+        CheckPointThreshold threshold =
+                CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider, dependencies);
+        threshold.initialize(1, new LogPosition(0, 0));
+
+        assertTrue(threshold.isCheckPointingNeeded(2, new LogPosition(0, mebiBytes(5)), triggered));
+        verifyTriggered("recovery time target");
+    }
+
+    @Test
+    void shouldCheckOftenEnoughForShortTargets() {
+        config.set(GraphDatabaseSettings.check_point_target_recovery_time, Duration.ofSeconds(2));
+
+        assertThat(createThreshold().checkFrequencyMillis()).isEqualTo(200);
+    }
+}
@@ -193,6 +193,39 @@ class ParallelRecoveryVisitorTest {
         assertThat(applyOrder[applyOrder.length - 1]).isEqualTo(5);
     }
 
+    @Test
+    void shouldApplyAfterAllBatchesTouchingSameEntities() throws Exception {
+        // given
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
+            @Override
+            public void apply(CommandBatchToApply batch, TransactionApplicationMode mode) throws Exception {
+                if (idOf(batch) < 4) {
+                    // Just make it very likely that, if the dependencies wouldn't be tracked as expected, then the
+                    // test will fail, but the test will not be flaky if the visitor works as expected.
+                    Thread.sleep(50);
+                }
+                super.apply(batch, mode);
+            }
+        };
+
+        // when
+        try (ParallelRecoveryVisitor visitor =
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 4)) {
+            visitor.visit(tx(2, commandsRelatedToNode(99)));
+            visitor.visit(tx(3, commandsRelatedToNode(999)));
+            List<StorageCommand> commands = commandsRelatedToNode(99);
+            commands.addAll(commandsRelatedToNode(999));
+            visitor.visit(tx(4, commands));
+            visitor.visit(tx(5, commandsRelatedToNode(9999)));
+        }
+
+        // then
+        long[] applyOrder = storageEngine.applyOrder();
+        assertThat(applyOrder).hasSize(4);
+        assertThat(applyOrder[0]).isEqualTo(5);
+        assertThat(applyOrder[3]).isEqualTo(4);
+    }
+
     @Test
     void shouldPropagateApplyFailureOnVisit() {
         // given
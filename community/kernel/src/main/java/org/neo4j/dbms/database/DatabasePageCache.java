@@ -306,6 +306,11 @@ public class DatabasePageCache implements PageCache {
             return delegate.touch(pageId, count, cursorContext);
         }
 
+        @Override
+        public void prefetch(long[] pageIds, CursorContext cursorContext) {
+            delegate.prefetch(pageIds, cursorContext);
+        }
+
         @Override
         public boolean preAllocateSupported() {
             return delegate.preAllocateSupported();
@@ -131,6 +131,8 @@ import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
 import org.neo4j.kernel.impl.pagecache.VersionStorageFactory;
+import org.neo4j.kernel.impl.pagecache.warmup.PageCacheWarmer;
+import org.neo4j.kernel.impl.pagecache.warmup.PageCacheWarmerMonitor;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.TransactionExecutionMonitor;
@@ -150,6 +152,7 @@ import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckpointerLifecycle;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime.RecoveryReplayRate;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.DetachedLogTailScanner;
@@ -215,6 +218,7 @@ public class Database extends AbstractDatabase {
     private final FileSystemAbstraction fs;
     private final DatabaseTransactionStats transactionStats;
     private final DatabaseIndexStats indexStats;
+    private final RecoveryReplayRate recoveryReplayRate;
     private final CommitProcessFactory commitProcessFactory;
     private final ConstraintSemantics constraintSemantics;
     private final GlobalProcedures globalProcedures;
@@ -286,6 +290,8 @@ public class Database extends AbstractDatabase {
         this.fs = context.getFs();
         this.transactionStats = context.getTransactionStats();
         this.indexStats = context.getIndexStats();
+        this.recoveryReplayRate =
+                new RecoveryReplayRate(databaseConfig.get(GraphDatabaseSettings.logical_log_rotation_threshold));
         this.constraintSemantics = context.getConstraintSemantics();
         this.globalProcedures = context.getGlobalProcedures();
         this.ioControllerService = context.getIoControllerService();
@@ -362,6 +368,7 @@ public class Database extends AbstractDatabase {
         databaseDependencies.satisfyDependency(storeCopyCheckPointMutex);
         databaseDependencies.satisfyDependency(transactionStats);
         databaseDependencies.satisfyDependency(indexStats);
+        databaseDependencies.satisfyDependency(recoveryReplayRate);
         databaseDependencies.satisfyDependency(databaseLockManager);
         databaseDependencies.satisfyDependency(databaseAvailability);
         databaseDependencies.satisfyDependency(idGeneratorFactory);
@@ -408,6 +415,7 @@ public class Database extends AbstractDatabase {
         databaseMonitors.addMonitorListener(new ReverseTransactionCursorLoggingMonitor(
                 internalLogProvider.getLog(ReversedSingleFileCommandBatchCursor.class)));
         databaseMonitors.addMonitorListener(indexStats);
+        databaseMonitors.addMonitorListener(recoveryReplayRate);
 
         // Upgrade the store before we begin
         upgradeStore(databaseConfig, databasePageCache, otherDatabaseMemoryTracker);
@@ -582,6 +590,22 @@ public class Database extends AbstractDatabase {
         this.executionEngine = QueryEngineProvider.initialize(
                 databaseDependencies, databaseFacade, engineProvider, isSystem(), providerSpi);
 
+        if (databaseConfig.get(GraphDatabaseInternalSettings.pagecache_warmer_enabled)) {
+            var pageCacheWarmer = new PageCacheWarmer(
+                    fs,
+                    databasePageCache,
+                    scheduler,
+                    databaseLayout.databaseDirectory(),
+                    databaseConfig,
+                    ioController,
+                    cursorContextFactory,
+                    internalLogProvider.getLog(PageCacheWarmer.class),
+                    databaseMonitors.newMonitor(PageCacheWarmerMonitor.class),
+                    namedDatabaseId.name());
+            life.add(pageCacheWarmer);
+            databaseDependencies.satisfyDependency(pageCacheWarmer);
+        }
+
         this.checkpointerLifecycle = new CheckpointerLifecycle(transactionLogModule.checkPointer(), databaseHealth);
 
         life.add(idController);
@@ -916,7 +940,8 @@ public class Database extends AbstractDatabase {
         final LogicalTransactionStore logicalTransactionStore = new PhysicalLogicalTransactionStore(
                 logFiles, transactionMetadataCache, commandReaderFactory, monitors, true, config);
 
-        CheckPointThreshold threshold = CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider);
+        CheckPointThreshold threshold =
+                CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider, databaseDependencies);
 
         var checkpointAppender = logFiles.getCheckpointFile().getCheckpointAppender();
         final CheckPointerImpl checkPointer = new CheckPointerImpl(
@@ -141,6 +141,7 @@ import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionWriteEvent;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
+import org.neo4j.kernel.impl.util.collection.OffHeapCollectionsFactory;
 import org.neo4j.kernel.internal.event.DatabaseTransactionEventListeners;
 import org.neo4j.kernel.internal.event.TransactionListenersState;
 import org.neo4j.lock.ActiveLock;
@@ -193,6 +194,10 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     }
 
     private final CollectionsFactory collectionsFactory;
+    private final CollectionsFactorySupplier collectionsFactorySupplier;
+    // Created on the first request for off-heap state, unless the default factory is already off-heap
+    private CollectionsFactory offHeapCollectionsFactory;
+    private boolean offHeapTransactionState;
 
     // Logic
     private final DatabaseTransactionEventListeners eventListeners;
@@ -419,6 +424,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         initializationTrace = NONE;
         transactionHeapBytesLimit = config.get(memory_transaction_max_size);
         this.collectionsFactory = collectionsFactorySupplier.create();
+        this.collectionsFactorySupplier = collectionsFactorySupplier;
         this.kernelTransactions = kernelTransactions;
         this.transactionValidator = transactionValidatorFactory.createTransactionValidator(memoryTracker);
         this.committer = createCommitter(commitmentFactory, multiVersioned);
@@ -756,6 +762,15 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         return Objects.toString(details, EMPTY);
     }
 
+    @Override
+    public void useOffHeapTransactionState() {
+        assertOpen();
+        if (txState != null) {
+            throw new IllegalStateException("Transaction state has already been created");
+        }
+        this.offHeapTransactionState = true;
+    }
+
     @Override
     public KernelStatement acquireStatement() {
         assertOpen();
@@ -817,7 +832,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                     startTimeMillis,
                     lastTransactionIdWhenStarted);
             txState = new TxState(
-                    collectionsFactory,
+                    offHeapTransactionState ? offHeapCollectionsFactory() : collectionsFactory,
                     memoryTracker,
                     () -> enrichmentStrategy.check() != EnrichmentMode.OFF
                             || storageEngine.transactionStateBehaviour().keepMetaDataForDeletedRelationship(),
@@ -828,6 +843,15 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         return txState;
     }
 
+    private CollectionsFactory offHeapCollectionsFactory() {
+        if (offHeapCollectionsFactory == null) {
+            offHeapCollectionsFactory = collectionsFactory instanceof OffHeapCollectionsFactory
+                    ? collectionsFactory
+                    : collectionsFactorySupplier.createOffHeap();
+        }
+        return offHeapCollectionsFactory;
+    }
+
     private boolean hasTxState() {
         return txState != null;
     }
@@ -1279,6 +1303,14 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             } catch (RuntimeException | Error e) {
                 error = Exceptions.chain(error, e);
             }
+            if (offHeapCollectionsFactory != null && offHeapCollectionsFactory != collectionsFactory) {
+                try {
+                    offHeapCollectionsFactory.release();
+                } catch (RuntimeException | Error e) {
+                    error = Exceptions.chain(error, e);
+                }
+            }
+            offHeapTransactionState = false;
             userMetaData = emptyMap();
             statusDetails = EMPTY;
             clientInfo = null;
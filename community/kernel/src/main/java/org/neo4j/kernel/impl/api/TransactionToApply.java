@@ -31,6 +31,8 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.api.txid.TransactionIdGenerator;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.CommandBatch;
 import org.neo4j.storageengine.api.CommandBatchToApply;
 import org.neo4j.storageengine.api.Commitment;
@@ -56,6 +58,7 @@ public class TransactionToApply implements CommandBatchToApply {
     private final CursorContext cursorContext;
     private final StoreCursors storeCursors;
     private final TransactionIdGenerator transactionIdGenerator;
+    private final MemoryTracker memoryTracker;
     private CommandBatchToApply next;
 
     // These fields are provided by commit process, storage engine, or recovery process
@@ -83,11 +86,28 @@ public class TransactionToApply implements CommandBatchToApply {
             StoreCursors storeCursors,
             Commitment commitment,
             TransactionIdGenerator transactionIdGenerator) {
+        this(
+                commandBatch,
+                cursorContext,
+                storeCursors,
+                commitment,
+                transactionIdGenerator,
+                EmptyMemoryTracker.INSTANCE);
+    }
+
+    public TransactionToApply(
+            CommandBatch commandBatch,
+            CursorContext cursorContext,
+            StoreCursors storeCursors,
+            Commitment commitment,
+            TransactionIdGenerator transactionIdGenerator,
+            MemoryTracker memoryTracker) {
         this.commandBatch = commandBatch;
         this.cursorContext = cursorContext;
         this.storeCursors = storeCursors;
         this.commitment = commitment;
         this.transactionIdGenerator = transactionIdGenerator;
+        this.memoryTracker = memoryTracker;
     }
 
     // These methods are called by the user when building a batch
@@ -131,6 +151,11 @@ public class TransactionToApply implements CommandBatchToApply {
         return cursorContext;
     }
 
+    @Override
+    public MemoryTracker memoryTracker() {
+        return memoryTracker;
+    }
+
     @Override
     public StoreCursors storeCursors() {
         return storeCursors;
@@ -113,7 +113,8 @@ public final class DefaultCommitter implements TransactionCommitter {
                         cursorContext,
                         transactionalCursors,
                         commitmentFactory.newCommitment(),
-                        transactionIdGenerator);
+                        transactionIdGenerator,
+                        memoryTracker);
 
                 kernelTransactionMonitor.beforeApply();
                 return commitProcess.commit(batch, transactionWriteEvent, INTERNAL);
@@ -20,7 +20,6 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
-import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_KEEP_ALL_LEFT;
 import static org.neo4j.internal.helpers.collection.Iterables.first;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
@@ -105,6 +104,10 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
      * i.e. the number of blocks shrinks by a factor {@link #mergeFactor} every pass, until one block is left.
      */
     private final int mergeFactor;
+    /**
+     * How full to make each leaf when bulk loading the sorted scan updates into the tree.
+     */
+    private final double fillFactor;
 
     private final Monitor monitor;
     // written to in a synchronized method when creating new thread-local instances, read from when population completes
@@ -140,6 +143,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         this.archiveFailedIndex = archiveFailedIndex;
         this.memoryTracker = memoryTracker;
         this.mergeFactor = config.get(GraphDatabaseInternalSettings.index_populator_merge_factor);
+        this.fillFactor = config.get(GraphDatabaseInternalSettings.index_populator_fill_factor);
         this.monitor = monitor;
         this.scanUpdates = ThreadLocal.withInitial(this::newThreadLocalBlockStorage);
         this.bufferFactory = bufferFactory;
@@ -399,7 +403,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         }
 
         // Merge the (sorted) scan updates from all the different threads in pairs until only one stream remain,
-        // and direct that stream towards the tree writer (which itself is only single threaded)
+        // and direct that stream towards the tree bulk loader (which itself is only single threaded)
         try (var readBuffers = new CompositeBuffer();
                 var singleBlockScopedBuffer = allocator.allocate((int) kibiBytes(8), memoryTracker)) {
             // Get the initial list of parts
@@ -426,7 +430,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                             cancellation,
                             PartMerger.DEFAULT_BATCH_SIZE);
                     var allEntries = merger.startMerge();
-                    var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
+                    var writer = tree.bulkLoader(fillFactor, cursorContext)) {
                 while (allEntries.next() && !cancellation.cancelled()) {
                     writeToTree(writer, recordingConflictDetector, allEntries.key());
                     numberOfAppliedScanUpdates.incrementAndGet();
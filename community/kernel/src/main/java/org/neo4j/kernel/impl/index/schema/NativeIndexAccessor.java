@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.index.internal.gbptree.DataTree.W_SPLIT_APPEND_KEEP_ALL_LEFT;
 import static org.neo4j.internal.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.internal.helpers.collection.Iterators.iterator;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
@@ -104,9 +105,10 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
                                 indexUpdateIgnoreStrategy(),
                                 new ThrowingConflictDetector<>(
                                         true, descriptor.schema().entityType()))
-                        .initialize(tree.writer(cursorContext));
+                        .initialize(tree.writer(W_SPLIT_APPEND_KEEP_ALL_LEFT, cursorContext));
             } else {
-                return singleUpdater.initialize(tree.writer(W_BATCHED_SINGLE_THREADED, cursorContext));
+                return singleUpdater.initialize(
+                        tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_APPEND_KEEP_ALL_LEFT, cursorContext));
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -60,6 +60,12 @@ class RangeLayout extends IndexLayout<RangeKey> {
         into.get(cursor, keySize);
     }
 
+    @Override
+    public int prefixCompressionOffset() {
+        // Entity id is written first, the values that keys are sorted on come after it
+        return NativeIndexKey.ENTITY_ID_SIZE;
+    }
+
     @Override
     public void minimalSplitter(RangeKey left, RangeKey right, RangeKey into) {
         right.minimalSplitter(left, right, into);
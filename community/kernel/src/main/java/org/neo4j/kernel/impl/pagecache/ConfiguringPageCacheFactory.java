@@ -25,19 +25,26 @@ import static org.neo4j.configuration.SettingValueParsers.BYTES;
 import static org.neo4j.io.mem.MemoryAllocator.createAllocator;
 import static org.neo4j.memory.MemoryGroup.PAGE_CACHE;
 
+import java.util.List;
 import java.util.function.Function;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
+import org.neo4j.internal.nativeimpl.HugePages;
+import org.neo4j.internal.nativeimpl.Numa;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePageMode;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.CompressedPageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.ResidencyQuota;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.memory.MachineMemory;
@@ -110,10 +117,12 @@ public class ConfiguringPageCacheFactory {
         long pageCacheMaxMemory = getPageCacheMaxMemory(config);
         var memoryPool = memoryPools.pool(PAGE_CACHE, pageCacheMaxMemory, false, null);
         var memoryTracker = memoryPool.getPoolMemoryTracker();
-        var swapperFactory = createAndConfigureSwapperFactory(fs, pageCacheTracer, memoryTracker, log);
+        var swapperFactory = createAndConfigureSwapperFactory(fs, config, pageCacheTracer, memoryTracker, log);
+        HugePageMode hugePages = config.get(GraphDatabaseInternalSettings.page_cache_huge_pages);
         MemoryAllocator memoryAllocator = buildMemoryAllocator(
                 pageCacheMaxMemory,
                 config.get(GraphDatabaseInternalSettings.page_cache_allocation_grab_size),
+                hugePages,
                 memoryTracker);
         var bufferFactory = new ConfigurableIOBufferFactory(config, memoryTracker);
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(memoryAllocator)
@@ -123,14 +132,57 @@ public class ConfiguringPageCacheFactory {
                 .preallocateStoreFiles(config.get(preallocate_store_files))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer)
-                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown));
+                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown))
+                .evictionPolicy(config.get(GraphDatabaseInternalSettings.page_cache_eviction_policy))
+                .residencyQuotas(config.get(GraphDatabaseInternalSettings.page_cache_residency_quotas).stream()
+                        .map(ResidencyQuota::parse)
+                        .toList())
+                .pagePartitions(numaPartitions());
+        Double backgroundFlushDirtyRatio =
+                config.get(GraphDatabaseInternalSettings.page_cache_background_flush_dirty_ratio);
+        if (backgroundFlushDirtyRatio != null) {
+            configuration = configuration.backgroundFlushDirtyRatio(backgroundFlushDirtyRatio);
+        }
         configuration = pageCacheConfigurator.apply(configuration);
-        return new MuninnPageCache(swapperFactory, scheduler, configuration);
+        MuninnPageCache muninnPageCache = new MuninnPageCache(swapperFactory, scheduler, configuration);
+        reportHugePages(hugePages, memoryAllocator);
+        return muninnPageCache;
+    }
+
+    private void reportHugePages(HugePageMode hugePages, MemoryAllocator memoryAllocator) {
+        if (hugePages == HugePageMode.OFF) {
+            return;
+        }
+        // The page cache has allocated its page metadata by now, so the first grab tells if huge pages are obtainable.
+        long hugePageMemory = memoryAllocator.hugePageMemory();
+        if (hugePageMemory == 0) {
+            log.warn("Huge pages (" + hugePages + ") were requested for the page cache, but could not be obtained, "
+                    + "or are larger than the page cache memory, using regular pages. " + HugePages.describe());
+        } else if (hugePages == HugePageMode.TRANSPARENT) {
+            // The kernel is only advised to back the memory with huge pages, it may or may not do so
+            log.info("Page cache memory was advised to be backed by transparent huge pages, "
+                    + ByteUnit.bytesToString(hugePageMemory) + " advised so far. " + HugePages.describe());
+        } else {
+            log.info("Page cache memory is backed by " + hugePages + " huge pages, "
+                    + ByteUnit.bytesToString(hugePageMemory) + " obtained so far. " + HugePages.describe());
+        }
+    }
+
+    private int numaPartitions() {
+        if (!config.get(GraphDatabaseInternalSettings.page_cache_numa_partitioning)) {
+            return 1;
+        }
+        if (!Numa.isAvailable()) {
+            log.warn("NUMA partitioning was requested for the page cache, but is not available. " + Numa.describe());
+            return 1;
+        }
+        log.info(Numa.describe());
+        return Numa.nodeCount();
     }
 
     private static MemoryAllocator buildMemoryAllocator(
-            long pageCacheMaxMemory, Long grabSize, MemoryTracker memoryTracker) {
-        return createAllocator(pageCacheMaxMemory, grabSize, memoryTracker);
+            long pageCacheMaxMemory, Long grabSize, HugePageMode hugePages, MemoryTracker memoryTracker) {
+        return createAllocator(pageCacheMaxMemory, grabSize, hugePages, memoryTracker);
     }
 
     private long getPageCacheMaxMemory(Config config) {
@@ -204,12 +256,37 @@ public class ConfiguringPageCacheFactory {
     }
 
     private static PageSwapperFactory createAndConfigureSwapperFactory(
-            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, InternalLog log) {
+            FileSystemAbstraction fs,
+            Config config,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            InternalLog log) {
         if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             log.warn("Reflection access to java.nio.DirectByteBuffer is not available, using fallback mode. "
                     + "This could have negative impact on performance and memory usage. "
                     + "Consider adding --add-opens=java.base/java.nio=ALL-UNNAMED to VM options.");
         }
-        return new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker);
+        PageSwapperFactory swapperFactory;
+        if (config.get(GraphDatabaseInternalSettings.page_cache_io_uring)) {
+            var ioUringSwapperFactory = new IoUringPageSwapperFactory(fs, pageCacheTracer, memoryTracker);
+            if (!ioUringSwapperFactory.isIoUringAvailable()) {
+                log.warn("io_uring was requested for the page cache, but is not available, using file channel IO. "
+                        + ioUringSwapperFactory.describeIoUring());
+            }
+            swapperFactory = ioUringSwapperFactory;
+        } else {
+            swapperFactory = new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker);
+        }
+        List<String> compressedFiles = config.get(GraphDatabaseInternalSettings.page_cache_compressed_files);
+        if (!compressedFiles.isEmpty()) {
+            swapperFactory = new CompressedPageSwapperFactory(
+                    swapperFactory,
+                    fs,
+                    pageCacheTracer,
+                    compressedFiles,
+                    config.get(GraphDatabaseInternalSettings.page_cache_compression_level),
+                    memoryTracker);
+        }
+        return swapperFactory;
     }
 }
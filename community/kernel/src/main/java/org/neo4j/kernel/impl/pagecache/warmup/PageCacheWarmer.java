@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache.warmup;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Shortens the time it takes for a database to reach its steady state page cache hit ratio after a restart.
+ * <p>
+ * While the database is running, a profile of which pages of each of its mapped files are resident in the page cache
+ * is periodically written to the {@value #PROFILES_DIRECTORY} directory of the database. When the database starts
+ * again, those pages are loaded back in by a number of parallel workers. Each file is split into segments that are
+ * loaded in file offset order, where consecutive pages are read with a single vectored read. The rate of the warmup
+ * reads is bounded by the {@link IOController} of the database, so that it can be kept from competing too much with
+ * the actual workload.
+ * <p>
+ * Alternatively, when {@link org.neo4j.configuration.GraphDatabaseSettings#pagecache_warmup_prefetch} is enabled,
+ * all pages of the files matching the allowlist are loaded instead, and no profiles are written.
+ * <p>
+ * Progress of the warmup is reported to the {@link PageCacheWarmerMonitor}, and can be polled through
+ * {@link #pagesLoaded()} and {@link #pagesToLoad()}.
+ */
+public class PageCacheWarmer extends LifecycleAdapter {
+    public static final String PROFILES_DIRECTORY = "profiles";
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String TRACER_TAG = "pageCacheWarmer";
+
+    /**
+     * Maximum number of consecutive pages loaded with a single vectored read.
+     */
+    private static final int MAX_PAGES_PER_READ = getInteger(PageCacheWarmer.class, "maxPagesPerRead", 64);
+    /**
+     * Number of pages in each unit of work handed to the warmup workers.
+     */
+    private static final int SEGMENT_SIZE = getInteger(PageCacheWarmer.class, "segmentSize", 16 * 1024);
+    private static final int NUMBER_OF_WORKERS = getInteger(
+            PageCacheWarmer.class, "numberOfWorkers", Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final Config config;
+    private final IOController ioController;
+    private final CursorContextFactory contextFactory;
+    private final InternalLog log;
+    private final PageCacheWarmerMonitor monitor;
+    private final String databaseName;
+    private final AtomicLong pagesLoaded = new AtomicLong();
+    private final AtomicLong pagesToLoad = new AtomicLong();
+
+    private volatile boolean stopped;
+    private volatile boolean warmupCompleted;
+    private JobHandle<?> warmupJob;
+    private JobHandle<?> profileJob;
+
+    public PageCacheWarmer(
+            FileSystemAbstraction fs,
+            PageCache pageCache,
+            JobScheduler scheduler,
+            Path databaseDirectory,
+            Config config,
+            IOController ioController,
+            CursorContextFactory contextFactory,
+            InternalLog log,
+            PageCacheWarmerMonitor monitor,
+            String databaseName) {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = databaseDirectory.resolve(PROFILES_DIRECTORY);
+        this.config = config;
+        this.ioController = ioController;
+        this.contextFactory = contextFactory;
+        this.log = log;
+        this.monitor = monitor;
+        this.databaseName = databaseName;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!config.get(pagecache_warmup_enabled)) {
+            return;
+        }
+        stopped = false;
+        warmupCompleted = false;
+        if (config.get(pagecache_warmup_blocking)) {
+            warmupSafely();
+        } else {
+            warmupJob = scheduler.schedule(
+                    Group.PAGE_CACHE_WARMER,
+                    systemJob(databaseName, "Page cache warmup"),
+                    this::warmupSafely);
+        }
+        if (!config.get(pagecache_warmup_prefetch)) {
+            long interval = config.get(pagecache_warmup_profiling_interval).toMillis();
+            profileJob = scheduler.scheduleRecurring(
+                    Group.PAGE_CACHE_WARMER,
+                    systemJob(databaseName, "Profiling of the page cache"),
+                    this::profileSafely,
+                    interval,
+                    interval,
+                    MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!config.get(pagecache_warmup_enabled)) {
+            return;
+        }
+        stopped = true;
+        if (profileJob != null) {
+            profileJob.cancel();
+            profileJob = null;
+        }
+        if (warmupJob != null) {
+            try {
+                warmupJob.waitTermination();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("Page cache warmup failed", e);
+            }
+            warmupJob = null;
+        }
+        // Take a last profile on the way down, so the next start gets the most recent picture of the page cache.
+        if (warmupCompleted && !config.get(pagecache_warmup_prefetch)) {
+            profileSafely();
+        }
+    }
+
+    /**
+     * @return number of pages loaded by the warmup so far.
+     */
+    public long pagesLoaded() {
+        return pagesLoaded.get();
+    }
+
+    /**
+     * @return number of pages the warmup is set to load, or {@code 0} if it has not started yet.
+     */
+    public long pagesToLoad() {
+        return pagesToLoad.get();
+    }
+
+    private void warmupSafely() {
+        try {
+            warmup();
+        } catch (Exception e) {
+            log.warn("Page cache warmup failed", e);
+        } finally {
+            // A warmup that got cut short by stopping leaves the existing profiles be, rather than overwriting them
+            // with the partial picture.
+            warmupCompleted = !stopped;
+        }
+    }
+
+    void warmup() throws IOException {
+        long startTime = System.nanoTime();
+        var segments = new ConcurrentLinkedQueue<Segment>();
+        long toLoad = planWarmup(segments);
+        if (toLoad == 0) {
+            return;
+        }
+        pagesToLoad.set(toLoad);
+        monitor.warmupStarted(toLoad);
+        log.info("Page cache warmup started, loading %d pages", toLoad);
+
+        int workers = Math.max(1, Math.min(NUMBER_OF_WORKERS, segments.size()));
+        List<JobHandle<?>> handles = new ArrayList<>(workers - 1);
+        for (int i = 1; i < workers; i++) {
+            handles.add(scheduler.schedule(
+                    Group.PAGE_CACHE_WARMER,
+                    systemJob(databaseName, "Page cache warmup worker"),
+                    () -> loadSegments(segments)));
+        }
+        loadSegments(segments);
+        for (JobHandle<?> handle : handles) {
+            try {
+                handle.waitTermination();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            } catch (ExecutionException e) {
+                log.warn("Page cache warmup worker failed", e);
+            }
+        }
+
+        long elapsedMillis = NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        monitor.warmupCompleted(pagesLoaded.get(), elapsedMillis);
+        log.info("Page cache warmup completed, %d pages loaded in %d ms", pagesLoaded.get(), elapsedMillis);
+    }
+
+    /**
+     * Collects the segments of all files to load, in file offset order, and no more pages than fit in the page cache.
+     *
+     * @return the number of pages to load.
+     */
+    private long planWarmup(ConcurrentLinkedQueue<Segment> segments) throws IOException {
+        boolean preload = config.get(pagecache_warmup_prefetch);
+        Pattern allowlist = Pattern.compile(config.get(pagecache_warmup_prefetch_allowlist));
+        long budget = pageCache.maxCachedPages();
+        long planned = 0;
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            long pageCount = pagedFile.getLastPageId() + 1;
+            if (pageCount <= 0) {
+                continue;
+            }
+            PageProfile profile;
+            if (preload) {
+                if (!allowlist.matcher(pagedFile.path().getFileName().toString()).matches()) {
+                    continue;
+                }
+                profile = new PageProfile(pageCount);
+                for (long pageId = 0; pageId < pageCount; pageId++) {
+                    profile.set(pageId);
+                }
+            } else {
+                profile = readProfile(pagedFile, pageCount);
+                if (profile == null) {
+                    continue;
+                }
+            }
+            for (long start = 0; start < profile.pageCount() && planned < budget; start += SEGMENT_SIZE) {
+                var segment = new Segment(pagedFile, profile, start, Math.min(start + SEGMENT_SIZE, profile.pageCount()));
+                long pages = segment.cardinality();
+                if (pages > 0) {
+                    segments.add(segment);
+                    planned += pages;
+                }
+            }
+        }
+        return planned;
+    }
+
+    private PageProfile readProfile(PagedFile pagedFile, long pageCount) {
+        Path profileFile = profileFile(pagedFile);
+        if (profileFile == null || !fs.fileExists(profileFile)) {
+            return null;
+        }
+        try (var in = fs.openAsInputStream(profileFile)) {
+            return PageProfile.readFrom(in, pageCount);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable page cache profile " + profileFile, e);
+            return null;
+        }
+    }
+
+    private void loadSegments(ConcurrentLinkedQueue<Segment> segments) {
+        try (var cursorContext = contextFactory.create(TRACER_TAG)) {
+            Segment segment;
+            while (!stopped && (segment = segments.poll()) != null) {
+                try {
+                    long loaded = segment.load(cursorContext);
+                    pagesLoaded.addAndGet(loaded);
+                    monitor.pagesLoaded(loaded);
+                } catch (FileIsNotMappedException e) {
+                    // The file got unmapped while warming up, e.g. an index being dropped; nothing to load there.
+                } catch (CacheLiveLockException e) {
+                    // The page cache is full of pages that we or others are loading, no point in going any further.
+                    log.warn("Stopping page cache warmup, since the page cache is full", e);
+                    segments.clear();
+                } catch (IOException e) {
+                    log.warn("Failed to load pages of " + segment.pagedFile.path() + " during page cache warmup", e);
+                }
+            }
+        }
+    }
+
+    private void profileSafely() {
+        try {
+            profile();
+        } catch (Exception e) {
+            log.warn("Page cache profiling failed", e);
+        }
+    }
+
+    /**
+     * Writes a profile of the resident pages of each mapped file. Profiling only starts once warmup has completed,
+     * since profiles from before that point would only capture parts of the previous profiles.
+     */
+    synchronized void profile() throws IOException {
+        if (!warmupCompleted) {
+            return;
+        }
+        long profiledPages = 0;
+        try (var cursorContext = contextFactory.create(TRACER_TAG)) {
+            for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+                Path profileFile = profileFile(pagedFile);
+                if (profileFile == null) {
+                    continue;
+                }
+                try {
+                    profiledPages += profile(pagedFile, profileFile, cursorContext);
+                } catch (FileIsNotMappedException e) {
+                    // The file got unmapped while profiling, nothing to profile there.
+                }
+            }
+        }
+        monitor.profileCompleted(profiledPages);
+    }
+
+    private long profile(PagedFile pagedFile, Path profileFile, CursorContext cursorContext) throws IOException {
+        long pageCount = pagedFile.getLastPageId() + 1;
+        var profile = new PageProfile(Math.max(pageCount, 0));
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, cursorContext)) {
+            for (long pageId = 0; pageId < pageCount && cursor.next(pageId); pageId++) {
+                if (cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID) {
+                    profile.set(pageId);
+                }
+            }
+        }
+
+        fs.mkdirs(profileFile.getParent());
+        Path temporaryFile = profileFile.resolveSibling(profileFile.getFileName() + TEMPORARY_SUFFIX);
+        try (var out = fs.openAsOutputStream(temporaryFile, false)) {
+            profile.writeTo(out);
+        }
+        fs.renameFile(temporaryFile, profileFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        return profile.cardinality();
+    }
+
+    /**
+     * @return where the profile of the given file is kept, or {@code null} if the file is not part of this database.
+     */
+    private Path profileFile(PagedFile pagedFile) {
+        Path path = pagedFile.path().toAbsolutePath();
+        if (!path.startsWith(databaseDirectory.toAbsolutePath())) {
+            return null;
+        }
+        Path relativePath = databaseDirectory.toAbsolutePath().relativize(path);
+        return profilesDirectory.resolve(relativePath + PROFILE_SUFFIX);
+    }
+
+    private final class Segment {
+        private final PagedFile pagedFile;
+        private final PageProfile profile;
+        private final long fromPageId;
+        private final long toPageId;
+
+        Segment(PagedFile pagedFile, PageProfile profile, long fromPageId, long toPageId) {
+            this.pagedFile = pagedFile;
+            this.profile = profile;
+            this.fromPageId = fromPageId;
+            this.toPageId = toPageId;
+        }
+
+        long cardinality() {
+            long count = 0;
+            for (long pageId = profile.nextSetPage(fromPageId);
+                    pageId != -1 && pageId < toPageId;
+                    pageId = profile.nextSetPage(pageId + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Loads the pages of this segment in file offset order, using a vectored read for each run of consecutive
+         * pages, and letting the {@link IOController} pace the reads.
+         */
+        long load(CursorContext cursorContext) throws IOException {
+            long loaded = 0;
+            long pageId = profile.nextSetPage(fromPageId);
+            while (!stopped && pageId != -1 && pageId < toPageId) {
+                int count = 1;
+                while (count < MAX_PAGES_PER_READ && pageId + count < toPageId && profile.get(pageId + count)) {
+                    count++;
+                }
+                loaded += pagedFile.touch(pageId, count, cursorContext);
+                ioController.maybeLimitIO(1, FileFlushEvent.NULL);
+                pageId = profile.nextSetPage(pageId + count);
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache.warmup;
+
+/**
+ * Monitor for the progress of the {@link PageCacheWarmer}.
+ */
+public interface PageCacheWarmerMonitor {
+
+    /**
+     * Warmup of the page cache has started.
+     *
+     * @param pagesToLoad number of pages the warmup is going to load.
+     */
+    void warmupStarted(long pagesToLoad);
+
+    /**
+     * Some pages have been loaded as part of the warmup.
+     *
+     * @param pagesLoaded number of pages loaded since last report.
+     */
+    void pagesLoaded(long pagesLoaded);
+
+    /**
+     * Warmup of the page cache has completed, either because all pages were loaded, or because it was stopped.
+     *
+     * @param pagesLoaded total number of pages loaded by the warmup.
+     * @param elapsedMillis time the warmup took.
+     */
+    void warmupCompleted(long pagesLoaded, long elapsedMillis);
+
+    /**
+     * A profile of the resident pages has been written.
+     *
+     * @param profiledPages total number of resident pages in the profile.
+     */
+    void profileCompleted(long profiledPages);
+}
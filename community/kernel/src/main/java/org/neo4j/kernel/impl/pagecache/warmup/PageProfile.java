@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache.warmup;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The set of pages of a single file that were resident in the page cache at the time of profiling, kept as a bitmap
+ * over the page ids of the file. Profiles are stored compressed, which makes them compact for both sparsely and densely
+ * cached files.
+ */
+final class PageProfile {
+    private static final int FORMAT_VERSION = 1;
+
+    private final long pageCount;
+    private final long[] words;
+
+    PageProfile(long pageCount) {
+        this(pageCount, new long[wordsFor(pageCount)]);
+    }
+
+    private PageProfile(long pageCount, long[] words) {
+        this.pageCount = pageCount;
+        this.words = words;
+    }
+
+    long pageCount() {
+        return pageCount;
+    }
+
+    void set(long pageId) {
+        words[(int) (pageId >>> 6)] |= 1L << pageId;
+    }
+
+    boolean get(long pageId) {
+        return pageId >= 0 && pageId < pageCount && (words[(int) (pageId >>> 6)] & (1L << pageId)) != 0;
+    }
+
+    /**
+     * @return the first page id at or after the given one that is in this profile, or {@code -1} if there is none.
+     */
+    long nextSetPage(long fromPageId) {
+        if (fromPageId >= pageCount) {
+            return -1;
+        }
+        int wordIndex = (int) (fromPageId >>> 6);
+        long word = words[wordIndex] & (-1L << fromPageId);
+        while (word == 0) {
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        long pageId = ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        return pageId < pageCount ? pageId : -1;
+    }
+
+    long cardinality() {
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        try (var data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(FORMAT_VERSION);
+            data.writeLong(pageCount);
+            for (long word : words) {
+                data.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Reads a profile, ignoring any pages at or beyond {@code maxPageCount}, which is typically the current size of
+     * the file, since the file may have shrunk since it was profiled.
+     */
+    static PageProfile readFrom(InputStream in, long maxPageCount) throws IOException {
+        try (var data = new DataInputStream(new GZIPInputStream(in))) {
+            int version = data.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported page cache profile format version " + version);
+            }
+            long storedPageCount = data.readLong();
+            if (storedPageCount < 0) {
+                throw new IOException("Corrupt page cache profile with page count " + storedPageCount);
+            }
+            var profile = new PageProfile(Math.min(storedPageCount, maxPageCount));
+            long[] words = profile.words;
+            for (int i = 0; i < words.length; i++) {
+                words[i] = data.readLong();
+            }
+            if (words.length > 0) {
+                // Clear any bits beyond the end of the profile, in case it got truncated.
+                int tailBits = (int) (profile.pageCount & 63);
+                if (tailBits != 0) {
+                    words[words.length - 1] &= (1L << tailBits) - 1;
+                }
+            }
+            return profile;
+        }
+    }
+
+    private static int wordsFor(long pageCount) {
+        return (int) Math.min(Integer.MAX_VALUE, (pageCount + 63) >>> 6);
+    }
+}
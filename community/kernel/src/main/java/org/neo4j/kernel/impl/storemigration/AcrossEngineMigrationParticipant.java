@@ -48,6 +48,7 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.impl.pagecache.warmup.PageCacheWarmer;
 import org.neo4j.kernel.impl.transaction.log.LogTailMetadata;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogInitializer;
 import org.neo4j.logging.internal.LogService;
@@ -191,7 +192,7 @@ public class AcrossEngineMigrationParticipant extends AbstractStoreMigrationPart
         while (!toplevelIndexFolder.getParent().equals(dir.databaseDirectory())) {
             toplevelIndexFolder = toplevelIndexFolder.getParent();
         }
-        Path profiles = dir.databaseDirectory().resolve("profiles");
+        Path profiles = dir.databaseDirectory().resolve(PageCacheWarmer.PROFILES_DIRECTORY);
         Set<Path> storeFiles = Sets.mutable.of(dir.storeFiles().toArray(new Path[] {}));
         Set<Path> idFiles = dir.idFiles();
         storeFiles.addAll(idFiles);
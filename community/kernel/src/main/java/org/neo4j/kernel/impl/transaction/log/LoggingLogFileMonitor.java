@@ -32,6 +32,7 @@ import org.neo4j.kernel.recovery.RecoveryMonitor;
 import org.neo4j.kernel.recovery.RecoveryPredicate;
 import org.neo4j.kernel.recovery.RecoveryStartInformationProvider;
 import org.neo4j.logging.InternalLog;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 public class LoggingLogFileMonitor
         implements RecoveryMonitor, RecoveryStartInformationProvider.Monitor, LogRotationMonitor {
@@ -66,6 +67,17 @@ public class LoggingLogFileMonitor
                 duration(recoveryTimeInMilliseconds)));
     }
 
+    @Override
+    public void recoveryPhaseCompleted(
+            TransactionApplicationMode phase, long appliedBatches, long phaseTimeInMilliseconds) {
+        log.info(format(
+                "%s phase of recovery applied %d command batches in %s (%d batches/s).",
+                phase == TransactionApplicationMode.REVERSE_RECOVERY ? "Reverse" : "Forward",
+                appliedBatches,
+                duration(phaseTimeInMilliseconds),
+                appliedBatches * 1000 / Math.max(1, phaseTimeInMilliseconds)));
+    }
+
     @Override
     public void failToRecoverTransactionsAfterCommit(
             Throwable t, CommittedCommandBatch.BatchInformation commandBatch, LogPosition recoveryToPosition) {
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.toIntExact;
+import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.function.LongPredicate;
+import java.util.zip.Checksum;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.ChecksumMismatchException;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A {@link ReadableLogChannel} reading sealed log files, i.e. files that are no longer appended to, straight from
+ * read-only memory mappings of them. Contrary to {@link ReadAheadLogChannel} no data is copied into an intermediate
+ * buffer and moving to any position within a file is free, which makes it well suited for scanning logs in reverse.
+ * <p>
+ * When a file is exhausted the {@link LogVersionBridge} is asked for the next one, which gets mapped as well if it is
+ * sealed. The first file that is not sealed, typically the one currently appended to, is handed over to a
+ * {@link ReadAheadLogChannel} which all further reads go through. Log entries never span multiple log files,
+ * so reads are never split between two files.
+ */
+public class MappedLogChannel implements ReadableLogChannel {
+    private final LogVersionBridge bridge;
+    private final LongPredicate sealed;
+    private final MemoryTracker memoryTracker;
+    private final boolean raw;
+    private final Checksum checksum = CHECKSUM_FACTORY.get();
+
+    private LogVersionedStoreChannel channel;
+    private ByteBuffer mapping;
+    private int checksumStart;
+    private ReadAheadLogChannel tail;
+
+    /**
+     * @param channel channel of a sealed log file, positioned where reading should start.
+     * @param mapping read-only mapping of the whole file of {@code channel}, see {@link #map(LogVersionedStoreChannel)}.
+     * @param bridge bridge to the log files following the one of {@code channel}.
+     * @param sealed tells whether the log file of a given version is sealed and can be mapped.
+     * @param memoryTracker tracker of the read-ahead buffer if reading continues into a file that is not sealed.
+     * @param raw whether channels of following log files should be opened in raw mode.
+     */
+    public MappedLogChannel(
+            LogVersionedStoreChannel channel,
+            ByteBuffer mapping,
+            LogVersionBridge bridge,
+            LongPredicate sealed,
+            MemoryTracker memoryTracker,
+            boolean raw)
+            throws IOException {
+        this.channel = channel;
+        this.mapping = mapping;
+        this.bridge = bridge;
+        this.sealed = sealed;
+        this.memoryTracker = memoryTracker;
+        this.raw = raw;
+        mapping.position(toIntExact(channel.position()));
+        beginChecksum();
+    }
+
+    /**
+     * @return read-only mapping of the whole log file of the given channel, or {@code null} if it can not be mapped.
+     */
+    public static ByteBuffer map(LogVersionedStoreChannel channel) {
+        return channel instanceof PhysicalLogVersionedStoreChannel physicalChannel
+                ? physicalChannel.mapReadOnly()
+                : null;
+    }
+
+    @Override
+    public byte get() throws IOException {
+        return ensureMapped(Byte.BYTES) ? mapping.get() : tail.get();
+    }
+
+    @Override
+    public short getShort() throws IOException {
+        return ensureMapped(Short.BYTES) ? mapping.getShort() : tail.getShort();
+    }
+
+    @Override
+    public int getInt() throws IOException {
+        return ensureMapped(Integer.BYTES) ? mapping.getInt() : tail.getInt();
+    }
+
+    @Override
+    public long getLong() throws IOException {
+        return ensureMapped(Long.BYTES) ? mapping.getLong() : tail.getLong();
+    }
+
+    @Override
+    public float getFloat() throws IOException {
+        return ensureMapped(Float.BYTES) ? mapping.getFloat() : tail.getFloat();
+    }
+
+    @Override
+    public double getDouble() throws IOException {
+        return ensureMapped(Double.BYTES) ? mapping.getDouble() : tail.getDouble();
+    }
+
+    @Override
+    public void get(byte[] bytes, int length) throws IOException {
+        assert length <= bytes.length;
+        if (ensureMapped(length)) {
+            mapping.get(bytes, 0, length);
+        } else {
+            tail.get(bytes, length);
+        }
+    }
+
+    @Override
+    public byte getVersion() throws IOException {
+        return get();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int length = dst.remaining();
+        if (!ensureMapped(length)) {
+            return tail.read(dst);
+        }
+        dst.put(dst.position(), mapping, mapping.position(), length);
+        mapping.position(mapping.position() + length);
+        dst.position(dst.position() + length);
+        return length;
+    }
+
+    @Override
+    public byte markAndGetVersion(LogPositionMarker marker) throws IOException {
+        if (tail != null) {
+            return tail.markAndGetVersion(marker);
+        }
+        getCurrentLogPosition(marker);
+        byte version = getVersion();
+        if (!marker.isMarkerInLog(getLogVersion())) {
+            // reading the byte moved us over to the next log - let's re-mark at the correct location
+            marker.mark(getLogVersion(), position() - Byte.BYTES);
+        }
+        return version;
+    }
+
+    @Override
+    public LogPositionMarker getCurrentLogPosition(LogPositionMarker positionMarker) throws IOException {
+        positionMarker.mark(getLogVersion(), position());
+        return positionMarker;
+    }
+
+    @Override
+    public LogPosition getCurrentLogPosition() throws IOException {
+        return new LogPosition(getLogVersion(), position());
+    }
+
+    @Override
+    public void setLogPosition(LogPositionMarker positionMarker) throws IOException {
+        if (positionMarker.getLogVersion() != getLogVersion()) {
+            throw new IllegalArgumentException("Log position points log version %d but the current one is %d"
+                    .formatted(positionMarker.getLogVersion(), getLogVersion()));
+        }
+        position(positionMarker.getByteOffset());
+    }
+
+    @Override
+    public long position() throws IOException {
+        return tail != null ? tail.position() : mapping.position();
+    }
+
+    @Override
+    public void position(long byteOffset) throws IOException {
+        if (tail != null) {
+            tail.position(byteOffset);
+            return;
+        }
+        mapping.position(toIntExact(byteOffset));
+        // After repositioning we need to reset checksum calculations
+        beginChecksum();
+    }
+
+    @Override
+    public long getLogVersion() {
+        return tail != null ? tail.getLogVersion() : channel.getLogVersion();
+    }
+
+    @Override
+    public LogFormat getLogFormatVersion() {
+        return tail != null ? tail.getLogFormatVersion() : channel.getLogFormatVersion();
+    }
+
+    @Override
+    public void beginChecksum() {
+        if (tail != null) {
+            tail.beginChecksum();
+            return;
+        }
+        checksum.reset();
+        checksumStart = mapping.position();
+    }
+
+    @Override
+    public int getChecksum() {
+        if (tail != null) {
+            return tail.getChecksum();
+        }
+        updateChecksum();
+        return (int) checksum.getValue();
+    }
+
+    @Override
+    public int endChecksumAndValidate() throws IOException {
+        if (!ensureMapped(Integer.BYTES)) {
+            return tail.endChecksumAndValidate();
+        }
+        updateChecksum();
+        int calculatedChecksum = (int) checksum.getValue();
+        int storedChecksum = mapping.getInt();
+        if (calculatedChecksum != storedChecksum) {
+            throw new ChecksumMismatchException(storedChecksum, calculatedChecksum);
+        }
+        beginChecksum();
+        return calculatedChecksum;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return tail != null ? tail.isOpen() : channel != null && channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (tail != null) {
+            tail.close();
+            tail = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        unmap();
+    }
+
+    /**
+     * Makes sure that the requested number of bytes can be read from the current mapping, moving over to the next
+     * log file when the current one is exhausted.
+     *
+     * @return {@code true} if the bytes can be read from {@link #mapping}, or {@code false} if reading has been handed
+     * over to {@link #tail}.
+     */
+    private boolean ensureMapped(int requestedNumberOfBytes) throws IOException {
+        while (tail == null) {
+            if (channel == null || !channel.isOpen()) {
+                throw new ClosedChannelException();
+            }
+            int remaining = mapping.remaining();
+            if (remaining >= requestedNumberOfBytes) {
+                return true;
+            }
+            if (remaining > 0) {
+                // Entries never span log files, so the rest of this file can not satisfy the request
+                throw ReadPastEndException.INSTANCE;
+            }
+            nextChannel();
+        }
+        return false;
+    }
+
+    private void nextChannel() throws IOException {
+        LogVersionedStoreChannel nextChannel = bridge.next(channel, raw);
+        if (nextChannel == channel) {
+            throw ReadPastEndException.INSTANCE;
+        }
+        updateChecksum();
+        unmap();
+
+        ByteBuffer nextMapping = sealed.test(nextChannel.getLogVersion()) ? map(nextChannel) : null;
+        if (nextMapping == null) {
+            // The file we moved into may still be appended to, or can not be mapped
+            tail = new ReadAheadLogChannel(nextChannel, bridge, memoryTracker, raw);
+            channel = null;
+            return;
+        }
+        channel = nextChannel;
+        mapping = nextMapping;
+        mapping.position(toIntExact(nextChannel.position()));
+        checksumStart = mapping.position();
+    }
+
+    private void updateChecksum() {
+        int position = mapping.position();
+        if (position > checksumStart) {
+            checksum.update(mapping.slice(checksumStart, position - checksumStart));
+        }
+        checksumStart = position;
+    }
+
+    private void unmap() {
+        if (mapping != null) {
+            // Release the mapping eagerly instead of waiting for it to be garbage collected
+            UnsafeUtil.invokeCleaner(mapping);
+            mapping = null;
+        }
+    }
+}
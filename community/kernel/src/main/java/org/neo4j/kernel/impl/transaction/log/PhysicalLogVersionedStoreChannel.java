@@ -19,11 +19,15 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Path;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
 import org.neo4j.kernel.impl.transaction.log.files.ChannelNativeAccessor;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
@@ -145,6 +149,27 @@ public class PhysicalLogVersionedStoreChannel extends DelegatingStoreChannel<Sto
         return advance(super.read(dsts));
     }
 
+    /**
+     * Maps the whole log file read-only into memory. Only meant for files that are no longer appended to.
+     *
+     * @return buffer over the file contents, or {@code null} if the underlying channel can not be memory mapped.
+     */
+    public ByteBuffer mapReadOnly() {
+        if (!(delegate instanceof StoreFileChannel fileChannel)) {
+            return null;
+        }
+        try {
+            long size = fileChannel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            return fileChannel.map(READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. file systems that do not support mapping, readers will fall back to regular reads
+            return null;
+        }
+    }
+
     @Override
     public long getLogVersion() {
         return version;
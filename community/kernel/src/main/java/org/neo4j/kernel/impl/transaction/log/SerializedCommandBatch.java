@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.CommandBatch;
+import org.neo4j.storageengine.api.enrichment.WriteEnrichmentChannel;
+
+/**
+ * Command entries of a {@link CommandBatch}, serialized ahead of time into a heap channel so that they can be
+ * copied into the transaction log as is. Produced by
+ * {@link TransactionLogWriter#serializeCommands(CommandBatch, MemoryTracker)}, and must be closed to release the heap
+ * channel from the memory tracker it was allocated on.
+ *
+ * @param kernelVersion version the command entries were serialized with.
+ * @param commands flipped channel holding the serialized command entries.
+ */
+public record SerializedCommandBatch(KernelVersion kernelVersion, WriteEnrichmentChannel commands)
+        implements AutoCloseable {
+    @Override
+    public void close() {
+        commands.close();
+    }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender_parallel_serialization;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
@@ -39,7 +40,13 @@ public class TransactionAppenderFactory {
             InternalLogProvider logProvider) {
         if (config.get(dedicated_transaction_appender)
                 || "multiversion".equals(config.get(GraphDatabaseSettings.db_format))) {
-            var queue = new TransactionLogQueue(logFiles, transactionIdStore, databasePanic, scheduler, logProvider);
+            var queue = new TransactionLogQueue(
+                    logFiles,
+                    transactionIdStore,
+                    databasePanic,
+                    scheduler,
+                    logProvider,
+                    config.get(dedicated_transaction_appender_parallel_serialization));
             return new QueueTransactionAppender(queue);
         }
 
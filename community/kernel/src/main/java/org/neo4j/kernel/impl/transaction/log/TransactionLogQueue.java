@@ -56,6 +56,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private final MpscUnboundedXaddArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
     private final InternalLog log;
+    private final boolean parallelSerialization;
+    private volatile TransactionLogWriter transactionLogWriter;
     private TransactionWriter transactionWriter;
     private Thread logAppender;
     private volatile boolean stopped;
@@ -66,6 +68,20 @@ public class TransactionLogQueue extends LifecycleAdapter {
             Panic databasePanic,
             JobScheduler jobScheduler,
             InternalLogProvider logProvider) {
+        this(logFiles, transactionIdStore, databasePanic, jobScheduler, logProvider, true);
+    }
+
+    /**
+     * @param parallelSerialization whether committing threads should serialize their own commands when submitting them,
+     * leaving only ordering, checksumming and forcing of the log to the single writer thread.
+     */
+    public TransactionLogQueue(
+            LogFiles logFiles,
+            TransactionIdStore transactionIdStore,
+            Panic databasePanic,
+            JobScheduler jobScheduler,
+            InternalLogProvider logProvider,
+            boolean parallelSerialization) {
         this.logFiles = logFiles;
         this.logRotation = logFiles.getLogFile().getLogRotation();
         this.transactionIdStore = transactionIdStore;
@@ -74,15 +90,17 @@ public class TransactionLogQueue extends LifecycleAdapter {
         this.jobScheduler = jobScheduler;
         this.stopped = true;
         this.log = logProvider.getLog(getClass());
+        this.parallelSerialization = parallelSerialization;
     }
 
     public TxQueueElement submit(CommandBatchToApply batch, LogAppendEvent logAppendEvent) throws IOException {
         if (stopped) {
             throw new DatabaseShutdownException();
         }
-        TxQueueElement txQueueElement = new TxQueueElement(batch, logAppendEvent);
+        TxQueueElement txQueueElement = new TxQueueElement(batch, serializeCommands(batch), logAppendEvent);
         while (!txAppendQueue.offer(txQueueElement)) {
             if (stopped) {
+                releaseSerializedCommands(txQueueElement.serializedBatches);
                 throw new DatabaseShutdownException();
             }
         }
@@ -90,8 +108,49 @@ public class TransactionLogQueue extends LifecycleAdapter {
         return txQueueElement;
     }
 
+    /**
+     * Serializes the commands of all batches in the chain in the calling thread, so that many committing threads
+     * can do this work in parallel instead of the single writer thread doing it for all of them. The serialized
+     * commands are charged to the memory tracker of their transaction until the transaction has been appended.
+     */
+    private SerializedCommandBatch[] serializeCommands(CommandBatchToApply batch) throws IOException {
+        TransactionLogWriter writer = transactionLogWriter;
+        if (!parallelSerialization || writer == null) {
+            return null;
+        }
+        int batches = 0;
+        for (CommandBatchToApply commands = batch; commands != null; commands = commands.next()) {
+            batches++;
+        }
+        var serializedBatches = new SerializedCommandBatch[batches];
+        int i = 0;
+        try {
+            for (CommandBatchToApply commands = batch; commands != null; commands = commands.next(), i++) {
+                CommandBatch commandBatch = commands.commandBatch();
+                if (!commandBatch.isRollback()) {
+                    serializedBatches[i] = writer.serializeCommands(commandBatch, commands.memoryTracker());
+                }
+            }
+        } catch (Throwable t) {
+            releaseSerializedCommands(serializedBatches);
+            throw t;
+        }
+        return serializedBatches;
+    }
+
+    private static void releaseSerializedCommands(SerializedCommandBatch[] serializedBatches) {
+        if (serializedBatches != null) {
+            for (SerializedCommandBatch serializedBatch : serializedBatches) {
+                if (serializedBatch != null) {
+                    serializedBatch.close();
+                }
+            }
+        }
+    }
+
     @Override
     public synchronized void start() {
+        transactionLogWriter = logFiles.getLogFile().getTransactionLogWriter();
         transactionWriter = new TransactionWriter(
                 txAppendQueue, logFiles.getLogFile(), transactionIdStore, databasePanic, logRotation, log);
         logAppender = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(transactionWriter);
@@ -117,6 +176,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private static final long PARK_TIME = MILLISECONDS.toNanos(100);
 
         private final CommandBatchToApply batch;
+        private final SerializedCommandBatch[] serializedBatches;
         private final LogAppendEvent logAppendEvent;
         private final Thread executor;
         private Throwable throwable;
@@ -124,8 +184,10 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private volatile long[] txIds;
         private volatile long txId;
 
-        TxQueueElement(CommandBatchToApply batch, LogAppendEvent logAppendEvent) {
+        TxQueueElement(
+                CommandBatchToApply batch, SerializedCommandBatch[] serializedBatches, LogAppendEvent logAppendEvent) {
             this.batch = batch;
+            this.serializedBatches = serializedBatches;
             this.logAppendEvent = logAppendEvent;
             this.executor = Thread.currentThread();
         }
@@ -134,6 +196,9 @@ public class TransactionLogQueue extends LifecycleAdapter {
             while (txId == 0 && txIds == null) {
                 LockSupport.parkNanos(PARK_TIME);
             }
+            // The writer thread is done with this element, so release the serialized commands in the thread that
+            // owns the memory tracker they are charged to
+            releaseSerializedCommands(serializedBatches);
             var elements = this.elementsToNotify;
             if (elements != null) {
                 long[] ids = txIds;
@@ -255,9 +320,13 @@ public class TransactionLogQueue extends LifecycleAdapter {
                     long lastTransactionId = TransactionIdStore.BASE_TX_ID;
                     try (var appendEvent = logAppendEvent.beginAppendTransaction(drainedElements)) {
                         CommandBatchToApply commands = txQueueElement.batch;
+                        SerializedCommandBatch[] serializedBatches = txQueueElement.serializedBatches;
+                        int batchIndex = 0;
                         while (commands != null) {
                             long transactionId = commands.transactionId();
-                            appendToLog(commands, transactionId, logAppendEvent);
+                            SerializedCommandBatch serializedCommands =
+                                    serializedBatches != null ? serializedBatches[batchIndex++] : null;
+                            appendToLog(commands, serializedCommands, transactionId, logAppendEvent);
                             commands = commands.next();
                             lastTransactionId = transactionId;
                         }
@@ -270,12 +339,16 @@ public class TransactionLogQueue extends LifecycleAdapter {
             }
 
             private void appendToLog(
-                    CommandBatchToApply commandBatchToApply, long transactionId, LogAppendEvent logAppendEvent)
+                    CommandBatchToApply commandBatchToApply,
+                    SerializedCommandBatch serializedCommands,
+                    long transactionId,
+                    LogAppendEvent logAppendEvent)
                     throws IOException {
                 var logPositionBeforeCommit = transactionLogWriter.getCurrentPosition();
                 CommandBatch commandBatch = commandBatchToApply.commandBatch();
                 this.checksum = transactionLogWriter.append(
                         commandBatch,
+                        serializedCommands,
                         transactionId,
                         commandBatchToApply.chunkId(),
                         checksum,
@@ -28,7 +28,9 @@ import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.KernelVersionProvider;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.CommandBatch;
+import org.neo4j.storageengine.api.enrichment.WriteEnrichmentChannel;
 import org.neo4j.util.VisibleForTesting;
 
 public class TransactionLogWriter {
@@ -73,10 +75,23 @@ public class TransactionLogWriter {
             int previousChecksum,
             LogPosition previousBatchPosition)
             throws IOException {
-        KernelVersion kernelVersion = batch.kernelVersion();
-        if (kernelVersion == null) {
-            kernelVersion = versionProvider.kernelVersion();
-        }
+        return append(batch, null, transactionId, chunkId, previousChecksum, previousBatchPosition);
+    }
+
+    /**
+     * Same as {@link #append(CommandBatch, long, long, int, LogPosition)}, but copies the command entries from
+     * {@code serializedCommands}, if present and serialized with the kernel version this batch ends up being
+     * written with, instead of serializing the commands again.
+     */
+    public int append(
+            CommandBatch batch,
+            SerializedCommandBatch serializedCommands,
+            long transactionId,
+            long chunkId,
+            int previousChecksum,
+            LogPosition previousBatchPosition)
+            throws IOException {
+        KernelVersion kernelVersion = kernelVersion(batch);
         if (batch.isRollback()) {
             return writer.writeRollbackEntry(kernelVersion, transactionId, batch.getTimeCommitted());
         }
@@ -93,7 +108,11 @@ public class TransactionLogWriter {
         }
 
         // Write all the commands to the log channel
-        writer.serialize(batch, kernelVersion);
+        if (serializedCommands != null && serializedCommands.kernelVersion() == kernelVersion) {
+            serializedCommands.commands().serialize(channel);
+        } else {
+            writer.serialize(batch, kernelVersion);
+        }
 
         if (batch.isLast()) {
             return writer.writeCommitEntry(kernelVersion, transactionId, batch.getTimeCommitted());
@@ -102,6 +121,26 @@ public class TransactionLogWriter {
         }
     }
 
+    /**
+     * Serializes the command entries of the given batch into a heap channel, exactly as {@link #append(CommandBatch,
+     * long, long, int, LogPosition)} would have written them to the log channel. The log channel is not touched,
+     * so this can be called by any thread, concurrently with appends.
+     *
+     * @param memoryTracker tracker the heap channel is allocated on, released when the returned batch is closed.
+     */
+    public SerializedCommandBatch serializeCommands(CommandBatch batch, MemoryTracker memoryTracker)
+            throws IOException {
+        KernelVersion kernelVersion = kernelVersion(batch);
+        var commands = new WriteEnrichmentChannel(memoryTracker);
+        try {
+            new LogEntryWriter<>(commands, writer.binarySupportedKernelVersions()).serialize(batch, kernelVersion);
+        } catch (Throwable t) {
+            commands.close();
+            throw t;
+        }
+        return new SerializedCommandBatch(kernelVersion, commands.flip());
+    }
+
     public int append(CommittedCommandBatch commandBatch) throws IOException {
         return commandBatch.serialize(writer);
     }
@@ -127,4 +166,9 @@ public class TransactionLogWriter {
     public LogEntryWriter<FlushableLogPositionAwareChannel> getWriter() {
         return writer;
     }
+
+    private KernelVersion kernelVersion(CommandBatch batch) {
+        KernelVersion kernelVersion = batch.kernelVersion();
+        return kernelVersion != null ? kernelVersion : versionProvider.kernelVersion();
+    }
 }
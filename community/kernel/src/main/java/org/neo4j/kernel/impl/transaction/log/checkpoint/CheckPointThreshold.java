@@ -26,6 +26,8 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
+import org.neo4j.collection.Dependencies;
+import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
@@ -80,6 +82,19 @@ public interface CheckPointThreshold {
      */
     static CheckPointThreshold createThreshold(
             Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider) {
+        return createThreshold(config, clock, logPruning, logProvider, new Dependencies());
+    }
+
+    /**
+     * Create and configure a {@link CheckPointThreshold} based on the given configurations, letting the policy look up
+     * database components, like the replay rate measured by recovery, in the given dependencies.
+     */
+    static CheckPointThreshold createThreshold(
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DependencyResolver dependencies) {
         String policyName = config.get(check_point_policy).name().toLowerCase(Locale.ROOT);
         CheckPointThresholdPolicy policy;
         try {
@@ -93,7 +108,7 @@ public interface CheckPointThreshold {
                             e);
             policy = new PeriodicThresholdPolicy();
         }
-        return policy.createThreshold(config, clock, logPruning, logProvider);
+        return policy.createThreshold(config, clock, logPruning, logProvider, dependencies);
     }
 
     /**
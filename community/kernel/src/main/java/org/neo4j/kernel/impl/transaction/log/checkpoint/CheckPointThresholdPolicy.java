@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import java.util.NoSuchElementException;
 import org.neo4j.annotations.service.Service;
+import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
@@ -35,7 +36,7 @@ import org.neo4j.time.SystemNanoClock;
  *
  * The is determined by the {@link GraphDatabaseSettings#check_point_policy} setting, and
  * based on this, the concrete policies are loaded and used to
- * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, InternalLogProvider) create} the final and fully
+ * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, InternalLogProvider, DependencyResolver) create} the final and fully
  * configured check point thresholds.
  */
 @Service
@@ -54,4 +55,17 @@ public interface CheckPointThresholdPolicy extends NamedService {
      */
     CheckPointThreshold createThreshold(
             Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider);
+
+    /**
+     * Create a {@link CheckPointThreshold} instance based on this policy, the given configurations and the database
+     * components available in the given dependencies.
+     */
+    default CheckPointThreshold createThreshold(
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DependencyResolver dependencies) {
+        return createThreshold(config, clock, logPruning, logProvider);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import static java.lang.Math.max;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+
+/**
+ * Measures the rate at which recovery replays transaction logs, in bytes per second. The rate of the last recovery
+ * that ran for long enough to give a meaningful measurement is kept for the lifetime of the database, and used by
+ * {@link RecoveryTimeThresholdPolicy} in place of the configured estimate.
+ */
+public class RecoveryReplayRate implements RecoveryMonitor {
+    static final long MIN_MEASURED_REPLAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final long fileSizeBytes;
+    private volatile long bytesPerSecond;
+
+    public RecoveryReplayRate(long fileSizeBytes) {
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    @Override
+    public void logsReplayed(LogPosition fromPosition, LogPosition toPosition, long replayTimeInMilliseconds) {
+        long bytes = bytesBetween(fromPosition, toPosition, fileSizeBytes);
+        if (replayTimeInMilliseconds >= MIN_MEASURED_REPLAY_MILLIS && bytes > 0) {
+            bytesPerSecond = max(1, TimeUnit.SECONDS.toMillis(bytes) / replayTimeInMilliseconds);
+        }
+    }
+
+    /**
+     * @return the replay rate measured by the last recovery, or empty if no recovery has measured it yet.
+     */
+    public OptionalLong measuredBytesPerSecond() {
+        long rate = bytesPerSecond;
+        return rate > 0 ? OptionalLong.of(rate) : OptionalLong.empty();
+    }
+
+    /**
+     * @return approximate number of transaction log bytes between two positions, assuming log files of the given size.
+     */
+    static long bytesBetween(LogPosition fromPosition, LogPosition toPosition, long fileSizeBytes) {
+        long files = toPosition.getLogVersion() - fromPosition.getLogVersion();
+        long offset = toPosition.getByteOffset() - fromPosition.getByteOffset();
+        return max(0, files * fileSizeBytes + offset);
+    }
+}
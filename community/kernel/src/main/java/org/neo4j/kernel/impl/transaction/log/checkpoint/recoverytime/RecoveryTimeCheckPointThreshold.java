@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.TimeUnit;
+import org.neo4j.internal.helpers.Format;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.AbstractCheckPointThreshold;
+
+/**
+ * Check-points often enough to keep the time recovery needs to replay the transaction logs after a crash within a
+ * target. The replay time is estimated from the volume of transaction logs appended since the last check-point and
+ * a replay rate, which is the rate measured by the last recovery of the database when there is one. A check-point is
+ * triggered once the estimate reaches half of the target, leaving the other half for the transactions committed while
+ * the check-point is running, since recovery starts from the position where that check-point began.
+ * <p>
+ * This threshold only decides when to trigger a check-point. The check-point it triggers is a regular one, which
+ * flushes and forces all dirty pages of the database. Nothing is flushed incrementally in between.
+ */
+public class RecoveryTimeCheckPointThreshold extends AbstractCheckPointThreshold {
+    private final long targetRecoveryMillis;
+    private final long replayBytesPerSecond;
+    private final long fileSizeBytes;
+    private volatile LogPosition checkpointLogPosition;
+
+    public RecoveryTimeCheckPointThreshold(long targetRecoveryMillis, long replayBytesPerSecond, long fileSizeBytes) {
+        super("recovery time target of " + formatDuration(targetRecoveryMillis) + ".");
+        this.targetRecoveryMillis = targetRecoveryMillis;
+        this.replayBytesPerSecond = replayBytesPerSecond;
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    private static String formatDuration(long millis) {
+        return Format.duration(millis, TimeUnit.DAYS, TimeUnit.MILLISECONDS, unit -> ' ' + unit.name().toLowerCase());
+    }
+
+    @Override
+    protected boolean thresholdReached(long lastCommittedTransactionId, LogPosition logPosition) {
+        return estimatedRecoveryMillis(logPosition) * 2 >= targetRecoveryMillis;
+    }
+
+    /**
+     * @return estimated time recovery would need to replay the transaction logs from the last check-point up to the
+     * given position.
+     */
+    long estimatedRecoveryMillis(LogPosition logPosition) {
+        long bytesDiff = RecoveryReplayRate.bytesBetween(checkpointLogPosition, logPosition, fileSizeBytes);
+        return TimeUnit.SECONDS.toMillis(bytesDiff) / replayBytesPerSecond;
+    }
+
+    @Override
+    public void initialize(long transactionId, LogPosition logPosition) {
+        checkpointLogPosition = logPosition;
+    }
+
+    @Override
+    public void checkPointHappened(long transactionId, LogPosition logPosition) {
+        checkpointLogPosition = logPosition;
+    }
+
+    @Override
+    public long checkFrequencyMillis() {
+        // Check often enough for short targets to not be overshot between two checks
+        return min(TimeUnit.SECONDS.toMillis(1), max(1, targetRecoveryMillis / 10));
+    }
+}
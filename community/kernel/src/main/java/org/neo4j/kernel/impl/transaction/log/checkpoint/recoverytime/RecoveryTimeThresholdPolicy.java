@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThresholdPolicy;
+import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * The {@code recovery_time} check point threshold policy uses
+ * {@link GraphDatabaseSettings#check_point_target_recovery_time} to decide when check point processes should be
+ * started. It is a trigger policy only, the started check points are regular ones that flush and force all dirty pages.
+ */
+@ServiceProvider
+public class RecoveryTimeThresholdPolicy implements CheckPointThresholdPolicy {
+    @Override
+    public String getName() {
+        return "recovery_time";
+    }
+
+    @Override
+    public CheckPointThreshold createThreshold(
+            Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider) {
+        return createThreshold(
+                config, config.get(GraphDatabaseInternalSettings.check_point_recovery_replay_rate), logProvider);
+    }
+
+    @Override
+    public CheckPointThreshold createThreshold(
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DependencyResolver dependencies) {
+        long replayBytesPerSecond = config.get(GraphDatabaseInternalSettings.check_point_recovery_replay_rate);
+        if (dependencies.containsDependency(RecoveryReplayRate.class)) {
+            var measuredRate = dependencies.resolveDependency(RecoveryReplayRate.class).measuredBytesPerSecond();
+            if (measuredRate.isPresent()) {
+                replayBytesPerSecond = measuredRate.getAsLong();
+            }
+        }
+        return createThreshold(config, replayBytesPerSecond, logProvider);
+    }
+
+    private static CheckPointThreshold createThreshold(
+            Config config, long replayBytesPerSecond, InternalLogProvider logProvider) {
+        long targetRecoveryMillis =
+                config.get(GraphDatabaseSettings.check_point_target_recovery_time).toMillis();
+        long logFileSize = config.get(GraphDatabaseSettings.logical_log_rotation_threshold);
+        logProvider
+                .getLog(RecoveryTimeCheckPointThreshold.class)
+                .info(
+                        "Estimating recovery time from a replay rate of %s/s.",
+                        ByteUnit.bytesToString(replayBytesPerSecond));
+        return new RecoveryTimeCheckPointThreshold(targetRecoveryMillis, replayBytesPerSecond, logFileSize);
+    }
+}
@@ -129,6 +129,10 @@ public class LogEntryWriter<T extends WritableChannel> {
         command.serialize(channel);
     }
 
+    public BinarySupportedKernelVersions binarySupportedKernelVersions() {
+        return binarySupportedKernelVersions;
+    }
+
     @VisibleForTesting
     public T getChannel() {
         return channel;
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_memory_mapped_readers;
 import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_buffer_size;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
@@ -58,6 +59,7 @@ import org.neo4j.kernel.impl.transaction.log.LogHeaderCache;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableLogPositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
@@ -97,6 +99,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     private final LogFiles logFiles;
     private final String baseName;
     private final LogRotation logRotation;
+    private final boolean memoryMappedReaders;
 
     private volatile PhysicalLogVersionedStoreChannel channel;
     private PhysicalFlushableLogPositionAwareChannel writer;
@@ -125,6 +128,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         this.logRotation = transactionLogRotation(
                 this, context.getClock(), databaseHealth, context.getMonitors().newMonitor(LogRotationMonitor.class));
         this.memoryTracker = context.getMemoryTracker();
+        this.memoryMappedReaders = context.getConfig().get(tx_log_memory_mapped_readers);
         this.logger = context.getLogProvider().getLog(TransactionLogFile.class);
     }
 
@@ -312,9 +316,24 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
             throws IOException {
         PhysicalLogVersionedStoreChannel logChannel = openForVersion(position.getLogVersion(), raw);
         logChannel.position(position.getByteOffset());
+        if (memoryMappedReaders && isSealed(position.getLogVersion())) {
+            ByteBuffer mapping = MappedLogChannel.map(logChannel);
+            if (mapping != null) {
+                return new MappedLogChannel(logChannel, mapping, logVersionBridge, this::isSealed, memoryTracker, raw);
+            }
+        }
         return new ReadAheadLogChannel(logChannel, logVersionBridge, memoryTracker, raw);
     }
 
+    /**
+     * Sealed log files are the ones preceding the file currently appended to. They will not change anymore.
+     */
+    private boolean isSealed(long version) {
+        PhysicalLogVersionedStoreChannel currentChannel = channel;
+        long currentVersion = currentChannel != null ? currentChannel.getLogVersion() : getHighestLogVersion();
+        return version < currentVersion;
+    }
+
     @Override
     public void accept(LogFileVisitor visitor, LogPosition startingFromPosition) throws IOException {
         try (ReadableLogChannel reader = getReader(startingFromPosition)) {
@@ -29,7 +29,9 @@ import org.neo4j.kernel.impl.transaction.log.CommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.CommittedCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.SketchingCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.UnsupportedLogVersionException;
@@ -42,7 +44,10 @@ import org.neo4j.kernel.impl.transaction.log.entry.UnsupportedLogVersionExceptio
  * per chunk "move". This is all internal, so from the outside it simply reverses a transaction log.
  * The memory overhead compared to reading a log in the natural order is almost negligible.
  *
- * This cursor currently only works for a single log file, such that the given {@link ReadAheadLogChannel} should not be
+ * When given a {@link MappedLogChannel} there is no read-ahead window to take advantage of, moving anywhere in the
+ * mapped file is free, so batches are instead read one at a time straight from the mapping.
+ *
+ * This cursor currently only works for a single log file, such that the given channel should not be
  * instantiated with a {@link LogVersionBridge} moving it over to other versions when exhausted. For reversing a whole
  * log stream consisting of multiple log files have a look at {@link ReversedMultiFileCommandBatchCursor}.
  *
@@ -64,7 +69,8 @@ public class ReversedSingleFileCommandBatchCursor implements CommandBatchCursor
     // Should this be passed in or extracted from the read-ahead channel instead?
     private static final int CHUNK_SIZE = ReadAheadChannel.DEFAULT_READ_AHEAD_SIZE;
 
-    private final ReadAheadLogChannel channel;
+    private final ReadableLogChannel channel;
+    private final int chunkSize;
     private final boolean failOnCorruptedLogFiles;
     private final ReversedTransactionCursorMonitor monitor;
     private final CommandBatchCursor commandBatchCursor;
@@ -80,12 +86,13 @@ public class ReversedSingleFileCommandBatchCursor implements CommandBatchCursor
     private long totalSize;
 
     ReversedSingleFileCommandBatchCursor(
-            ReadAheadLogChannel channel,
+            ReadableLogChannel channel,
             LogEntryReader logEntryReader,
             boolean failOnCorruptedLogFiles,
             ReversedTransactionCursorMonitor monitor)
             throws IOException {
         this.channel = channel;
+        this.chunkSize = channel instanceof MappedLogChannel ? 0 : CHUNK_SIZE;
         this.failOnCorruptedLogFiles = failOnCorruptedLogFiles;
         this.monitor = monitor;
         // There's an assumption here: that the underlying channel can move in between calls and that the
@@ -153,7 +160,7 @@ public class ReversedSingleFileCommandBatchCursor implements CommandBatchCursor
         while (newLowOffsetIndex > 0) {
             long deltaOffset = highOffset - offsets[--newLowOffsetIndex];
             if (deltaOffset
-                    > CHUNK_SIZE) { // We've now read more than the read-ahead size, let's call this the end of this
+                    > chunkSize) { // We've now read more than the read-ahead size, let's call this the end of this
                 // chunk
                 break;
             }
@@ -27,4 +27,13 @@ public interface CollectionsFactorySupplier {
     CollectionsFactorySupplier ON_HEAP = () -> OnHeapCollectionsFactory.INSTANCE;
 
     CollectionsFactory create();
+
+    /**
+     * @return factory for transactions that have asked for their state to be kept off-heap, see
+     * {@link org.neo4j.kernel.api.KernelTransaction#useOffHeapTransactionState()}. Same as {@link #create()} where
+     * off-heap allocation is not available.
+     */
+    default CollectionsFactory createOffHeap() {
+        return create();
+    }
 }
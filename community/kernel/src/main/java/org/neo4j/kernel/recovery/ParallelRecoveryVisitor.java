@@ -20,35 +20,59 @@
 package org.neo4j.kernel.recovery;
 
 import static java.lang.Integer.max;
-import static org.neo4j.util.Preconditions.checkState;
+import static org.neo4j.lock.LockService.NO_LOCK;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
+import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
-import org.neo4j.lock.ReentrantLockService;
+import org.neo4j.lock.LockType;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
+/**
+ * Applies recovered command batches in parallel. The entities that each batch touches are gathered, in the order
+ * the batches are visited, through {@link StorageEngine#lockRecoveryCommands(org.neo4j.storageengine.api.CommandStream,
+ * LockService, LockGroup, TransactionApplicationMode)} with a {@link LockService} that records the requested
+ * resources instead of locking them. Those resources form a dependency graph where a batch depends on the batches
+ * visited before it that touched any of the same resources. Batches without unfinished dependencies are handed to
+ * the appliers straight away, while the others are handed over by the last of their dependencies to complete.
+ * This way batches touching disjoint sets of entities are applied freely in parallel and batches touching the same
+ * entities are applied in visit order, without taking any locks while applying.
+ */
 final class ParallelRecoveryVisitor implements RecoveryApplier {
-    private final AtomicLong prevLockedTxId = new AtomicLong(-1);
+    // Number of visited, but not yet applied, batches per applier before visiting blocks
+    private static final int MAX_PENDING_BATCHES_PER_APPLIER = 64;
+
     private final StorageEngine storageEngine;
-    private final LockService lockService = new ReentrantLockService();
     private final TransactionApplicationMode mode;
     private final CursorContextFactory contextFactory;
     private final String tracerTag;
     private final ExecutorService appliers;
     private final AtomicReference<Throwable> failure = new AtomicReference<>();
-    private final int stride;
+    private final int maxPendingBatches;
+    private final Semaphore pendingBatches;
+    // Last visited task touching each resource, cleared by the task itself when it completes
+    private final Map<Resource, RecoveryTask> lastTaskByResource = new ConcurrentHashMap<>();
 
     ParallelRecoveryVisitor(
             StorageEngine storageEngine,
@@ -73,48 +97,53 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
         this.mode = mode;
         this.contextFactory = contextFactory;
         this.tracerTag = tracerTag;
+        // The number of pending batches is bounded by the semaphore below, so the queue of ready batches doesn't
+        // have to be, which also means that an applier handing over to a dependent batch never blocks.
         this.appliers = new ThreadPoolExecutor(
-                numAppliers,
-                numAppliers,
-                1,
-                TimeUnit.HOURS,
-                new LinkedBlockingQueue<>(numAppliers),
-                new ThreadPoolExecutor.CallerRunsPolicy());
-        this.stride = mode.isReverseStep() ? -1 : 1;
+                numAppliers, numAppliers, 1, TimeUnit.HOURS, new LinkedBlockingQueue<>());
+        this.maxPendingBatches = numAppliers * MAX_PENDING_BATCHES_PER_APPLIER;
+        this.pendingBatches = new Semaphore(maxPendingBatches);
     }
 
     @Override
     public boolean visit(CommittedCommandBatch commandBatch) throws Exception {
         checkFailure();
 
-        // We need to know the starting point for the "is it my turn yet?" check below that each thread needs to do
-        // before acquiring the locks
-        prevLockedTxId.compareAndSet(-1, commandBatch.txId() - stride);
-
         // TODO Also consider the memory usage of all active commandBatch instances and apply back-pressure if
         // surpassing it
-        appliers.submit(() -> {
-            long txId = commandBatch.txId();
-            while (prevLockedTxId.get() != txId - stride) {
-                Thread.onSpinWait();
-                checkFailure();
+        while (!pendingBatches.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+
+        RecoveryTask task = new RecoveryTask(commandBatch, touchedResources(commandBatch));
+        Set<RecoveryTask> dependencies = null;
+        for (Resource resource : task.resources) {
+            RecoveryTask previous = lastTaskByResource.put(resource, task);
+            if (previous != null) {
+                if (dependencies == null) {
+                    dependencies = newSetFromIdentityMap();
+                }
+                dependencies.add(previous);
             }
-            try (LockGroup locks = new LockGroup()) {
-                storageEngine.lockRecoveryCommands(commandBatch.commandBatch(), lockService, locks, mode);
-                boolean myTurn = prevLockedTxId.compareAndSet(txId - stride, txId);
-                checkState(
-                        myTurn,
-                        "Something wrong with the algorithm, I thought it was my turn, but apparently it wasn't %d",
-                        txId);
-                apply(commandBatch);
-            } catch (Throwable e) {
-                failure.compareAndSet(null, e);
+        }
+        if (dependencies != null) {
+            for (RecoveryTask dependency : dependencies) {
+                dependency.addDependent(task);
             }
-            return null;
-        });
+        }
+        // Release the guard that kept the task from being scheduled while its dependencies were registered
+        task.dependencyResolved();
         return false;
     }
 
+    private Set<Resource> touchedResources(CommittedCommandBatch commandBatch) throws Exception {
+        ResourceRecorder recorder = new ResourceRecorder();
+        try (LockGroup locks = new LockGroup()) {
+            storageEngine.lockRecoveryCommands(commandBatch.commandBatch(), recorder, locks, mode);
+        }
+        return recorder.resources;
+    }
+
     private void checkFailure() throws Exception {
         Throwable failure = this.failure.get();
         if (failure != null) {
@@ -133,6 +162,15 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
 
     @Override
     public void close() throws Exception {
+        try {
+            // Batches waiting for dependencies are scheduled by the appliers, so wait for all of them to complete
+            // before shutting the appliers down. After a failure the remaining batches complete without being applied.
+            if (!pendingBatches.tryAcquire(maxPendingBatches, 1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("Recovery couldn't gracefully await remaining appliers");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         appliers.shutdown();
         try {
             if (!appliers.awaitTermination(1, TimeUnit.HOURS)) {
@@ -143,4 +181,101 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
         }
         checkFailure();
     }
+
+    private static Set<RecoveryTask> newSetFromIdentityMap() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * A visited command batch and the batches depending on it. The task is scheduled once all the batches it depends
+     * on have completed, which is tracked by {@link #unresolvedDependencies}. It starts out at one to keep the task
+     * from being scheduled while its dependencies are still being registered.
+     */
+    private final class RecoveryTask implements Runnable {
+        private final CommittedCommandBatch commandBatch;
+        private final Set<Resource> resources;
+        private final AtomicInteger unresolvedDependencies = new AtomicInteger(1);
+        // Guarded by this
+        private List<RecoveryTask> dependents = new ArrayList<>();
+
+        RecoveryTask(CommittedCommandBatch commandBatch, Set<Resource> resources) {
+            this.commandBatch = commandBatch;
+            this.resources = resources;
+        }
+
+        synchronized void addDependent(RecoveryTask dependent) {
+            if (dependents != null) {
+                dependent.unresolvedDependencies.incrementAndGet();
+                dependents.add(dependent);
+            }
+            // else this task has already completed and there's nothing to wait for
+        }
+
+        void dependencyResolved() {
+            if (unresolvedDependencies.decrementAndGet() == 0) {
+                appliers.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Once something has failed the remaining batches are only passed through to not block others
+                if (failure.get() == null) {
+                    apply(commandBatch);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                complete();
+            }
+        }
+
+        private void complete() {
+            for (Resource resource : resources) {
+                lastTaskByResource.remove(resource, this);
+            }
+            List<RecoveryTask> completedDependents;
+            synchronized (this) {
+                completedDependents = dependents;
+                dependents = null;
+            }
+            pendingBatches.release();
+            for (RecoveryTask dependent : completedDependents) {
+                dependent.dependencyResolved();
+            }
+        }
+    }
+
+    private record Resource(int type, long id) {}
+
+    /**
+     * Records the resources that the storage engine would lock for a batch, without locking anything.
+     */
+    private static final class ResourceRecorder implements LockService {
+        private static final int NODE = -1;
+        private static final int RELATIONSHIP = -2;
+
+        private final Set<Resource> resources = new HashSet<>();
+
+        @Override
+        public Lock acquireNodeLock(long nodeId, LockType type) {
+            return record(NODE, nodeId);
+        }
+
+        @Override
+        public Lock acquireRelationshipLock(long relationshipId, LockType type) {
+            return record(RELATIONSHIP, relationshipId);
+        }
+
+        @Override
+        public Lock acquireCustomLock(int resourceType, long id, LockType type) {
+            return record(resourceType, id);
+        }
+
+        private Lock record(int type, long id) {
+            resources.add(new Resource(type, id));
+            return NO_LOCK;
+        }
+    }
 }
@@ -21,6 +21,7 @@ package org.neo4j.kernel.recovery;
 
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 public interface RecoveryMonitor {
     default void recoveryRequired(LogPosition recoveryPosition) {
@@ -39,6 +40,30 @@ public interface RecoveryMonitor {
         // noop
     }
 
+    /**
+     * Called when a phase of recovery, applying command batches in either reverse or forward order, has completed,
+     * including waiting for all batches to be applied.
+     *
+     * @param phase {@link TransactionApplicationMode#REVERSE_RECOVERY} or {@link TransactionApplicationMode#RECOVERY}.
+     * @param appliedBatches number of command batches applied during the phase.
+     * @param phaseTimeInMilliseconds time spent in the phase.
+     */
+    default void recoveryPhaseCompleted(
+            TransactionApplicationMode phase, long appliedBatches, long phaseTimeInMilliseconds) {
+        // noop
+    }
+
+    /**
+     * Called when recovery has replayed the transaction logs between two positions, in both reverse and forward order.
+     *
+     * @param fromPosition position recovery started replaying from.
+     * @param toPosition position recovery replayed up to.
+     * @param replayTimeInMilliseconds time spent replaying, including waiting for all batches to be applied.
+     */
+    default void logsReplayed(LogPosition fromPosition, LogPosition toPosition, long replayTimeInMilliseconds) {
+        // noop
+    }
+
     default void failToRecoverTransactionsAfterCommit(
             Throwable t, CommittedCommandBatch.BatchInformation commandBatch, LogPosition recoveryToPosition) {
         // noop
@@ -102,6 +102,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
         CommittedCommandBatch.BatchInformation lastCommandBatch = null;
         if (!recoveryStartInformation.isMissingLogs()) {
             try {
+                Stopwatch replayStartTime = Stopwatch.start();
                 reverseRecovery(recoveryStartInformation, transactionIdTracker, recoveryStartPosition);
 
                 // We cannot initialise the schema (tokens, schema cache, indexing service, etc.) until we have returned
@@ -112,6 +113,8 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
                 schemaLife.init();
 
                 boolean fullRecovery = true;
+                Stopwatch phaseStartTime = Stopwatch.start();
+                long appliedBatches = 0;
                 try (var transactionsToRecover = recoveryService.getCommandBatches(recoveryStartPosition);
                         var recoveryVisitor =
                                 recoveryService.getRecoveryApplier(RECOVERY, contextFactory, RECOVERY_TAG)) {
@@ -170,6 +173,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
                             recoveryStartupChecker.checkIfCanceled();
                             if (transactionIdTracker.replayTransaction(nextCommandBatch.txId())) {
                                 recoveryVisitor.visit(nextCommandBatch);
+                                appliedBatches++;
                                 monitor.batchRecovered(nextCommandBatch);
                             } else {
                                 monitor.batchApplySkipped(nextCommandBatch);
@@ -184,6 +188,8 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
                     }
                     recoveryToPosition = fullRecovery ? transactionsToRecover.position() : lastTransactionPosition;
                 }
+                monitor.recoveryPhaseCompleted(RECOVERY, appliedBatches, phaseStartTime.elapsed(MILLISECONDS));
+                monitor.logsReplayed(recoveryStartPosition, recoveryToPosition, replayStartTime.elapsed(MILLISECONDS));
             } catch (Error
                     | ClosedByInterruptException
                     | DatabaseStartAbortedException
@@ -233,6 +239,8 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
             return;
         }
         CommittedCommandBatch lastReversedCommandBatch = null;
+        Stopwatch phaseStartTime = Stopwatch.start();
+        long appliedBatches = 0;
         long lowestRecoveredTxId = recoveryStartInformation.getFirstTxIdAfterLastCheckPoint();
         try (var transactionsToRecover = recoveryService.getCommandBatchesInReverseOrder(recoveryStartPosition);
                 var recoveryVisitor =
@@ -245,11 +253,13 @@ public class TransactionLogsRecovery extends LifecycleAdapter {
                     initProgressReporter(recoveryStartInformation, lastReversedCommandBatch, mode);
                 }
                 recoveryVisitor.visit(commandBatch);
+                appliedBatches++;
                 transactionIdTracker.trackBatch(commandBatch);
                 lowestRecoveredTxId = commandBatch.txId();
                 reportProgress();
             }
         }
+        monitor.recoveryPhaseCompleted(REVERSE_RECOVERY, appliedBatches, phaseStartTime.elapsed(MILLISECONDS));
         monitor.reverseStoreRecoveryCompleted(lowestRecoveredTxId);
     }
 
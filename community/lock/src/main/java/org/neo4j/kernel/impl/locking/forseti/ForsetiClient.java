@@ -1125,7 +1125,7 @@ public class ForsetiClient implements LockManager.Client {
      * causing race condition with the passed in memory tracker. This object is intended to be owned by the client,
      * where we have control over the allocations.
      */
-    private static class DeferredScopedMemoryTracker extends DefaultScopedMemoryTracker {
+    static class DeferredScopedMemoryTracker extends DefaultScopedMemoryTracker {
         private boolean stopped;
 
         DeferredScopedMemoryTracker(MemoryTracker delegate) {
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.lang.String.format;
+
+import org.eclipse.collections.api.collection.primitive.MutableIntCollection;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.ResourceType;
+
+/**
+ * The table of all locks of a {@link PartitionedForsetiLockManager}. Locks of all resource types are kept in one
+ * pre-allocated open addressing hash table, split into partitions which are guarded by their own monitor.
+ * Holding a partition only ever involves looking up a single slot, so with enough partitions they are rarely contended.
+ * <p>
+ * The state of a lock is encoded into a single lock word:
+ * <pre>
+ * bits  0-30: number of clients holding the lock shared
+ * bit     31: update flag, set by a shared holder upgrading to exclusive, blocks new shared holders
+ * bit     32: exclusive flag
+ * bits 33-62: number of the single holder, i.e. the exclusive holder or the only shared holder
+ * </pre>
+ * An empty slot has a lock word of {@code 0}. Only when a lock is shared by more than one client are its holders kept
+ * in a separate set, so neither acquiring nor releasing an uncontended lock allocates anything.
+ * <p>
+ * Holders are identified by numbers handed out by the lock manager, starting at {@code 1}. The table doesn't keep
+ * track of reentrancy, that is left to the clients.
+ */
+class LockTable {
+    static final int BLOCKED = 0;
+    static final int ACQUIRED = 1;
+    static final int UPGRADING = 2;
+
+    static final int MAX_HOLDER = (1 << 30) - 1;
+
+    private static final long SHARED_COUNT_MASK = (1L << 31) - 1;
+    private static final long UPDATE_FLAG = 1L << 31;
+    private static final long EXCLUSIVE_FLAG = 1L << 32;
+    private static final int HOLDER_SHIFT = 33;
+    private static final long HOLDER_MASK = ((long) MAX_HOLDER) << HOLDER_SHIFT;
+
+    private final Partition[] partitions;
+    private final int partitionMask;
+
+    /**
+     * @param partitions number of partitions, must be a power of two.
+     * @param initialPartitionCapacity number of slots to pre-allocate in each partition, must be a power of two.
+     */
+    LockTable(int partitions, int initialPartitionCapacity) {
+        if (Integer.bitCount(partitions) != 1 || Integer.bitCount(initialPartitionCapacity) != 1) {
+            throw new IllegalArgumentException(format(
+                    "Number of partitions %d and their capacity %d must be powers of two",
+                    partitions, initialPartitionCapacity));
+        }
+        this.partitions = new Partition[partitions];
+        this.partitionMask = partitions - 1;
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition(initialPartitionCapacity);
+        }
+    }
+
+    /**
+     * Acquires a shared lock for a holder not already holding it.
+     * @return {@code true} if acquired, or {@code false} if the lock is held exclusively or being upgraded.
+     */
+    boolean tryAcquireShared(int typeId, long resourceId, int holder) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            if (slot < 0) {
+                partition.insert(typeId, resourceId, (int) hash, sharedWord(1, holder));
+                return true;
+            }
+            long word = partition.words[slot];
+            if ((word & (EXCLUSIVE_FLAG | UPDATE_FLAG)) != 0) {
+                return false;
+            }
+            partition.addHolder(slot, holder);
+            return true;
+        }
+    }
+
+    /**
+     * Acquires an exclusive lock for a holder not holding it at all, only if no one else holds it.
+     * @return {@code true} if acquired, otherwise {@code false}.
+     */
+    boolean tryAcquireExclusive(int typeId, long resourceId, int holder) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            if (slot >= 0) {
+                return false;
+            }
+            partition.insert(typeId, resourceId, (int) hash, exclusiveWord(holder));
+            return true;
+        }
+    }
+
+    /**
+     * Acquires an exclusive lock for a holder not holding it at all. If the lock is held shared, and not already being
+     * upgraded, the holder joins the shared holders and starts upgrading it, to be ahead of new shared holders.
+     * @return {@link #ACQUIRED} if acquired, {@link #UPGRADING} if the holder now holds the lock shared and has set
+     * the update flag, or {@link #BLOCKED} if the lock is held by someone else.
+     */
+    int tryAcquireExclusiveOrUpgrade(int typeId, long resourceId, int holder) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            if (slot < 0) {
+                partition.insert(typeId, resourceId, (int) hash, exclusiveWord(holder));
+                return ACQUIRED;
+            }
+            long word = partition.words[slot];
+            if ((word & (EXCLUSIVE_FLAG | UPDATE_FLAG)) != 0) {
+                return BLOCKED;
+            }
+            partition.addHolder(slot, holder);
+            partition.words[slot] |= UPDATE_FLAG;
+            return UPGRADING;
+        }
+    }
+
+    /**
+     * Sets the update flag of a lock held shared by the caller, which blocks new shared holders.
+     * @return {@code true} if the flag was set, or {@code false} if someone else is already upgrading the lock.
+     */
+    boolean tryAcquireUpdate(int typeId, long resourceId) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.slotOf(typeId, resourceId, (int) hash);
+            long word = partition.words[slot];
+            if ((word & (EXCLUSIVE_FLAG | UPDATE_FLAG)) != 0) {
+                return false;
+            }
+            partition.words[slot] = word | UPDATE_FLAG;
+            return true;
+        }
+    }
+
+    void releaseUpdate(int typeId, long resourceId) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.slotOf(typeId, resourceId, (int) hash);
+            partition.words[slot] &= ~UPDATE_FLAG;
+        }
+    }
+
+    /**
+     * @return the number of shared holders of the given lock, {@code 0} if held exclusively or not held at all.
+     */
+    int numberOfSharedHolders(int typeId, long resourceId) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            return slot < 0 ? 0 : sharedCount(partition.words[slot]);
+        }
+    }
+
+    void releaseShared(int typeId, long resourceId, int holder) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.slotOf(typeId, resourceId, (int) hash);
+            if ((partition.words[slot] & EXCLUSIVE_FLAG) != 0) {
+                throw new IllegalStateException(format(
+                        "Holder %d can not release shared lock on %s, it is held exclusively",
+                        holder, lockString(typeId, resourceId)));
+            }
+            partition.removeHolder(slot, holder);
+        }
+    }
+
+    /**
+     * Releases an exclusive lock, either acquired as such or upgraded from a shared lock.
+     * @param keepShared whether the holder should keep holding the lock shared.
+     */
+    void releaseExclusive(int typeId, long resourceId, int holder, boolean keepShared) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.slotOf(typeId, resourceId, (int) hash);
+            long word = partition.words[slot];
+            if ((word & EXCLUSIVE_FLAG) != 0) {
+                if (holder(word) != holder) {
+                    throw new IllegalStateException(format(
+                            "Holder %d can not release exclusive lock on %s held by %d",
+                            holder, lockString(typeId, resourceId), holder(word)));
+                }
+                if (keepShared) {
+                    partition.words[slot] = sharedWord(1, holder);
+                } else {
+                    partition.remove(slot);
+                }
+            } else if ((word & UPDATE_FLAG) != 0) {
+                partition.words[slot] = word & ~UPDATE_FLAG;
+                if (!keepShared) {
+                    partition.removeHolder(slot, holder);
+                }
+            } else {
+                throw new IllegalStateException(format(
+                        "Incorrect state of exclusive lock on %s, it should be upgraded to exclusive before "
+                                + "attempting to release it",
+                        lockString(typeId, resourceId)));
+            }
+        }
+    }
+
+    /**
+     * @return the type of the given lock if held by the given holder, otherwise {@code null}.
+     */
+    LockType lockTypeHeldBy(int typeId, long resourceId, int holder) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            return slot >= 0 && partition.isHeldBy(slot, holder) ? lockType(partition.words[slot]) : null;
+        }
+    }
+
+    /**
+     * Adds the current holders of the given lock to the given collection.
+     */
+    void collectHolders(int typeId, long resourceId, MutableIntCollection holders) {
+        long hash = hash(typeId, resourceId);
+        Partition partition = partition(hash);
+        synchronized (partition) {
+            int slot = partition.find(typeId, resourceId, (int) hash);
+            if (slot >= 0) {
+                partition.collectHolders(slot, holders);
+            }
+        }
+    }
+
+    /**
+     * Visits all locks, one partition at a time. The visitor is called with no partition held.
+     */
+    void accept(Visitor visitor) {
+        for (Partition partition : partitions) {
+            int[] types;
+            long[] resourceIds;
+            long[] words;
+            int[][] holders;
+            synchronized (partition) {
+                types = new int[partition.size];
+                resourceIds = new long[partition.size];
+                words = new long[partition.size];
+                holders = new int[partition.size][];
+                for (int slot = 0, i = 0; slot < partition.words.length; slot++) {
+                    if (partition.words[slot] != 0) {
+                        types[i] = partition.types[slot];
+                        resourceIds[i] = partition.resourceIds[slot];
+                        words[i] = partition.words[slot];
+                        IntHashSet slotHolders = new IntHashSet();
+                        partition.collectHolders(slot, slotHolders);
+                        holders[i++] = slotHolders.toArray();
+                    }
+                }
+            }
+            for (int i = 0; i < words.length; i++) {
+                visitor.visit(types[i], resourceIds[i], lockType(words[i]), holders[i]);
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(int typeId, long resourceId, LockType lockType, int[] holders);
+    }
+
+    private Partition partition(long hash) {
+        return partitions[(int) (hash >>> 32) & partitionMask];
+    }
+
+    private static long hash(int typeId, long resourceId) {
+        // The finalizer of SplitMix64, both partition and slot should be picked from well distributed bits
+        long hash = resourceId + typeId * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long sharedWord(int count, int holder) {
+        return count | ((long) holder << HOLDER_SHIFT);
+    }
+
+    private static long exclusiveWord(int holder) {
+        return EXCLUSIVE_FLAG | ((long) holder << HOLDER_SHIFT);
+    }
+
+    private static int sharedCount(long word) {
+        return (int) (word & SHARED_COUNT_MASK);
+    }
+
+    private static int holder(long word) {
+        return (int) ((word & HOLDER_MASK) >>> HOLDER_SHIFT);
+    }
+
+    private static LockType lockType(long word) {
+        if ((word & EXCLUSIVE_FLAG) != 0 || ((word & UPDATE_FLAG) != 0 && sharedCount(word) <= 1)) {
+            return LockType.EXCLUSIVE;
+        }
+        return LockType.SHARED;
+    }
+
+    private static String lockString(int typeId, long resourceId) {
+        return ForsetiClient.lockString(ResourceType.fromId(typeId), resourceId);
+    }
+
+    /**
+     * One partition of the table, using linear probing and backward shift deletion so that there are no tombstones.
+     * All access must be made holding the monitor of the partition.
+     */
+    private static class Partition {
+        private int[] types;
+        private long[] resourceIds;
+        private long[] words;
+        private MutableIntSet[] holders;
+        private int size;
+
+        Partition(int capacity) {
+            allocate(capacity);
+        }
+
+        /**
+         * @return slot of the given lock, or if it doesn't exist a negative value, the complement of the free slot
+         * where it would be inserted.
+         */
+        int find(int typeId, long resourceId, int hash) {
+            int mask = words.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                if (words[slot] == 0) {
+                    return ~slot;
+                }
+                if (resourceIds[slot] == resourceId && types[slot] == typeId) {
+                    return slot;
+                }
+            }
+        }
+
+        int slotOf(int typeId, long resourceId, int hash) {
+            int slot = find(typeId, resourceId, hash);
+            if (slot < 0) {
+                throw new IllegalStateException("There is no lock on " + lockString(typeId, resourceId));
+            }
+            return slot;
+        }
+
+        void insert(int typeId, long resourceId, int hash, long word) {
+            if (size + 1 > words.length - (words.length >>> 2)) {
+                grow();
+            }
+            int slot = ~find(typeId, resourceId, hash);
+            types[slot] = typeId;
+            resourceIds[slot] = resourceId;
+            words[slot] = word;
+            size++;
+        }
+
+        void addHolder(int slot, int holder) {
+            long word = words[slot];
+            int count = sharedCount(word);
+            if (count == 1) {
+                // Second holder, move holders from the lock word to a set
+                MutableIntSet slotHolders = new IntHashSet(4);
+                slotHolders.add(holder(word));
+                holders[slot] = slotHolders;
+                word &= ~HOLDER_MASK;
+            }
+            if (!holders[slot].add(holder)) {
+                throw new IllegalStateException(format(
+                        "Holder %d already holds %s", holder, lockString(types[slot], resourceIds[slot])));
+            }
+            words[slot] = word + 1;
+        }
+
+        void removeHolder(int slot, int holder) {
+            long word = words[slot];
+            MutableIntSet slotHolders = holders[slot];
+            if (slotHolders == null) {
+                if (holder(word) != holder) {
+                    throw new IllegalStateException(format(
+                            "Holder %d asked to be removed from holder list, but it does not hold %s",
+                            holder, lockString(types[slot], resourceIds[slot])));
+                }
+                remove(slot);
+                return;
+            }
+            if (!slotHolders.remove(holder)) {
+                throw new IllegalStateException(format(
+                        "Holder %d asked to be removed from holder list, but it does not hold %s",
+                        holder, lockString(types[slot], resourceIds[slot])));
+            }
+            word--;
+            if (sharedCount(word) == 1) {
+                // Back to a single holder, move it back into the lock word
+                word |= (long) slotHolders.intIterator().next() << HOLDER_SHIFT;
+                holders[slot] = null;
+            }
+            words[slot] = word;
+        }
+
+        boolean isHeldBy(int slot, int holder) {
+            MutableIntSet slotHolders = holders[slot];
+            return slotHolders != null ? slotHolders.contains(holder) : holder(words[slot]) == holder;
+        }
+
+        void collectHolders(int slot, MutableIntCollection into) {
+            MutableIntSet slotHolders = holders[slot];
+            if (slotHolders != null) {
+                into.addAll(slotHolders);
+            } else {
+                into.add(holder(words[slot]));
+            }
+        }
+
+        void remove(int slot) {
+            int mask = words.length - 1;
+            int hole = slot;
+            for (int next = (slot + 1) & mask; words[next] != 0; next = (next + 1) & mask) {
+                int home = (int) hash(types[next], resourceIds[next]) & mask;
+                // Move the entry into the hole unless its home slot lies between the hole and where it is
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    move(next, hole);
+                    hole = next;
+                }
+            }
+            types[hole] = 0;
+            resourceIds[hole] = 0;
+            words[hole] = 0;
+            holders[hole] = null;
+            size--;
+        }
+
+        private void move(int from, int to) {
+            types[to] = types[from];
+            resourceIds[to] = resourceIds[from];
+            words[to] = words[from];
+            holders[to] = holders[from];
+        }
+
+        private void grow() {
+            int[] oldTypes = types;
+            long[] oldResourceIds = resourceIds;
+            long[] oldWords = words;
+            MutableIntSet[] oldHolders = holders;
+            allocate(oldWords.length << 1);
+            for (int oldSlot = 0; oldSlot < oldWords.length; oldSlot++) {
+                if (oldWords[oldSlot] != 0) {
+                    int typeId = oldTypes[oldSlot];
+                    long resourceId = oldResourceIds[oldSlot];
+                    int slot = ~find(typeId, resourceId, (int) hash(typeId, resourceId));
+                    types[slot] = typeId;
+                    resourceIds[slot] = resourceId;
+                    words[slot] = oldWords[oldSlot];
+                    holders[slot] = oldHolders[oldSlot];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            types = new int[capacity];
+            resourceIds = new long[capacity];
+            words = new long[capacity];
+            holders = new MutableIntSet[capacity];
+        }
+    }
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.neo4j.kernel.impl.locking.forseti.ForsetiClient.incrementalBackoffWait;
+import static org.neo4j.kernel.impl.locking.forseti.ForsetiClient.lockString;
+import static org.neo4j.lock.LockType.EXCLUSIVE;
+import static org.neo4j.lock.LockType.SHARED;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.neo4j.collection.trackable.HeapTrackingCollections;
+import org.neo4j.collection.trackable.HeapTrackingLongIntHashMap;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.api.LeaseClient;
+import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
+import org.neo4j.kernel.impl.locking.LockClientStateHolder;
+import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.AcquireLockTimeoutException;
+import org.neo4j.lock.ActiveLock;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * Client of a {@link PartitionedForsetiLockManager}. Like {@link ForsetiClient} it tracks which locks it already holds
+ * and how many times, and only goes to the global {@link LockTable} when first acquiring or finally releasing a lock.
+ * <p/>
+ * Deadlocks are detected the same way as well: a waiting client copies the wait lists of the holders of the lock it
+ * waits for into its own wait list and a deadlock is suspected when a holder is found waiting for this client.
+ * Suspected deadlocks are verified by traversing the graph of lock owners and the locks they wait for.
+ */
+public class PartitionedForsetiClient implements LockManager.Client {
+    private static final int NOT_HELD = -1;
+    private static final int NO_DEADLOCK_DEPTH = -1;
+    private static final int UNREGISTERED = 0;
+
+    private final LockTable lockTable;
+    private final PartitionedForsetiLockManager manager;
+    private final SystemNanoClock clock;
+
+    /**
+     * The number identifying this client in the {@link LockTable}, or {@link #UNREGISTERED} while closed. The number
+     * is given back to the manager when the client is closed and a new one is taken when it is initialized again.
+     */
+    private volatile int number = UNREGISTERED;
+
+    /**
+     * The client uses this to track which locks it holds, so that it only needs to go to the lock table when it
+     * first acquires, or finally releases, a lock.
+     * <p/>
+     * The data structure looks like:
+     * Array[ resourceType -> Map( resourceId -> num locks ) ]
+     */
+    private final HeapTrackingLongIntHashMap[] sharedLockCounts;
+
+    /** @see #sharedLockCounts */
+    private final HeapTrackingLongIntHashMap[] exclusiveLockCounts;
+
+    private final AtomicLong activeLockCount = new AtomicLong();
+
+    /** List of other clients this client is waiting for. */
+    private final Set<PartitionedForsetiClient> waitList = ConcurrentHashMap.newKeySet();
+
+    private final LockClientStateHolder stateHolder = new LockClientStateHolder();
+
+    /**
+     * Time within which any particular lock should be acquired.
+     *
+     * @see GraphDatabaseSettings#lock_acquisition_timeout
+     */
+    private long lockAcquisitionTimeoutNano;
+
+    private volatile boolean hasLocks;
+
+    /**
+     * The lock this client currently waits for, used when verifying deadlocks. {@code null} when not waiting.
+     */
+    private volatile ResourceType waitingForResourceType;
+
+    private volatile long waitingForResourceId;
+    private volatile long transactionId;
+    private volatile ForsetiClient.DeferredScopedMemoryTracker memoryTracker;
+    private volatile long prepareThreadId;
+
+    PartitionedForsetiClient(
+            LockTable lockTable,
+            PartitionedForsetiLockManager manager,
+            int numberOfResourceTypes,
+            SystemNanoClock clock) {
+        this.lockTable = lockTable;
+        this.manager = manager;
+        this.sharedLockCounts = new HeapTrackingLongIntHashMap[numberOfResourceTypes];
+        this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[numberOfResourceTypes];
+        this.clock = clock;
+    }
+
+    void register() {
+        if (number == UNREGISTERED) {
+            number = manager.register(this);
+        }
+    }
+
+    @Override
+    public void initialize(LeaseClient leaseClient, long transactionId, MemoryTracker memoryTracker, Config config) {
+        // Clients are reused for multiple transactions, closed in between
+        register();
+        prepareThreadId = -1;
+        stateHolder.reset();
+        this.transactionId = transactionId;
+        this.memoryTracker = new ForsetiClient.DeferredScopedMemoryTracker(requireNonNull(memoryTracker));
+        this.lockAcquisitionTimeoutNano =
+                config.get(GraphDatabaseSettings.lock_acquisition_timeout).toNanos();
+    }
+
+    @Override
+    public void acquireShared(LockTracer tracer, ResourceType resourceType, long... resourceIds)
+            throws AcquireLockTimeoutException {
+        hasLocks = true;
+        stateHolder.incrementActiveClients(this);
+        LockWaitEvent waitEvent = null;
+
+        try {
+            int typeId = resourceType.typeId();
+            HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
+            HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount(resourceType);
+
+            for (long resourceId : resourceIds) {
+                int heldCount = heldShareLocks.getIfAbsent(resourceId, NOT_HELD);
+                if (heldCount != NOT_HELD) {
+                    heldShareLocks.put(resourceId, Math.incrementExact(heldCount));
+                    continue;
+                }
+
+                if (heldExclusiveLocks.containsKey(resourceId)) {
+                    // The exclusive lock will be downgraded to this shared lock when released
+                    heldShareLocks.put(resourceId, 1);
+                    continue;
+                }
+
+                int tries = 0;
+                long waitStartNano = clock.nanos();
+                while (true) {
+                    assertValid(waitStartNano, resourceType, resourceId);
+                    if (lockTable.tryAcquireShared(typeId, resourceId, number)) {
+                        break;
+                    }
+
+                    if (waitEvent == null) {
+                        waitEvent = tracer.waitForLock(SHARED, resourceType, transactionId, resourceId);
+                    }
+                    waitFor(resourceType, resourceId, SHARED, tries++);
+                }
+
+                activeLockCount.incrementAndGet();
+                heldShareLocks.put(resourceId, 1);
+            }
+        } finally {
+            if (waitEvent != null) {
+                waitEvent.close();
+                clearWaitState();
+            }
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public void acquireExclusive(LockTracer tracer, ResourceType resourceType, long... resourceIds)
+            throws AcquireLockTimeoutException {
+        hasLocks = true;
+        stateHolder.incrementActiveClients(this);
+        LockWaitEvent waitEvent = null;
+
+        try {
+            int typeId = resourceType.typeId();
+            HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
+            HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
+
+            for (long resourceId : resourceIds) {
+                int heldCount = heldLocks.getIfAbsent(resourceId, NOT_HELD);
+                if (heldCount != NOT_HELD) {
+                    heldLocks.put(resourceId, Math.incrementExact(heldCount));
+                    continue;
+                }
+
+                boolean holdsSharedLock = heldShareLocks.containsKey(resourceId);
+                int tries = 0;
+                long waitStartNano = clock.nanos();
+                while (true) {
+                    assertValid(waitStartNano, resourceType, resourceId);
+                    if (holdsSharedLock) {
+                        if (lockTable.tryAcquireUpdate(typeId, resourceId)) {
+                            awaitUpgrade(tracer, waitEvent, resourceType, resourceId, tries, waitStartNano);
+                            break;
+                        }
+                    } else {
+                        int result = lockTable.tryAcquireExclusiveOrUpgrade(typeId, resourceId, number);
+                        if (result != LockTable.BLOCKED) {
+                            activeLockCount.incrementAndGet();
+                            if (result == LockTable.UPGRADING) {
+                                awaitUpgradeOfJoinedLock(
+                                        tracer, waitEvent, resourceType, resourceId, tries, waitStartNano);
+                            }
+                            break;
+                        }
+                    }
+
+                    if (waitEvent == null) {
+                        waitEvent = tracer.waitForLock(EXCLUSIVE, resourceType, transactionId, resourceId);
+                    }
+                    waitFor(resourceType, resourceId, EXCLUSIVE, tries++);
+                }
+                heldLocks.put(resourceId, 1);
+            }
+        } finally {
+            if (waitEvent != null) {
+                waitEvent.close();
+                clearWaitState();
+            }
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public boolean tryExclusiveLock(ResourceType resourceType, long resourceId) {
+        hasLocks = true;
+        stateHolder.incrementActiveClients(this);
+
+        try {
+            int typeId = resourceType.typeId();
+            HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
+            int heldCount = heldLocks.getIfAbsent(resourceId, NOT_HELD);
+            if (heldCount != NOT_HELD) {
+                heldLocks.put(resourceId, Math.incrementExact(heldCount));
+                return true;
+            }
+
+            if (getSharedLockCount(resourceType).containsKey(resourceId)) {
+                // Upgrade our shared lock, but only if no one else holds it
+                if (lockTable.tryAcquireUpdate(typeId, resourceId)) {
+                    if (lockTable.numberOfSharedHolders(typeId, resourceId) == 1) {
+                        heldLocks.put(resourceId, 1);
+                        return true;
+                    }
+                    lockTable.releaseUpdate(typeId, resourceId);
+                }
+                return false;
+            }
+
+            if (lockTable.tryAcquireExclusive(typeId, resourceId, number)) {
+                activeLockCount.incrementAndGet();
+                heldLocks.put(resourceId, 1);
+                return true;
+            }
+            return false;
+        } finally {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public boolean trySharedLock(ResourceType resourceType, long resourceId) {
+        hasLocks = true;
+        stateHolder.incrementActiveClients(this);
+
+        try {
+            HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
+            int heldCount = heldShareLocks.getIfAbsent(resourceId, NOT_HELD);
+            if (heldCount != NOT_HELD) {
+                heldShareLocks.put(resourceId, Math.incrementExact(heldCount));
+                return true;
+            }
+
+            if (getExclusiveLockCount(resourceType).containsKey(resourceId)) {
+                // The exclusive lock will be downgraded to this shared lock when released
+                heldShareLocks.put(resourceId, 1);
+                return true;
+            }
+
+            assertNotStopped();
+            if (lockTable.tryAcquireShared(resourceType.typeId(), resourceId, number)) {
+                activeLockCount.incrementAndGet();
+                heldShareLocks.put(resourceId, 1);
+                return true;
+            }
+            return false;
+        } finally {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public void releaseShared(ResourceType resourceType, long... resourceIds) {
+        stateHolder.incrementActiveClients(this);
+
+        try {
+            int typeId = resourceType.typeId();
+            HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
+            HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
+            for (long resourceId : resourceIds) {
+                if (releaseLocalLock(resourceType, resourceId, sharedLocks)) {
+                    continue;
+                }
+                // Only release if we were not holding an exclusive lock as well
+                if (!exclusiveLocks.containsKey(resourceId)) {
+                    lockTable.releaseShared(typeId, resourceId, number);
+                    activeLockCount.decrementAndGet();
+                }
+            }
+        } finally {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public void releaseExclusive(ResourceType resourceType, long... resourceIds) {
+        stateHolder.incrementActiveClients(this);
+
+        try {
+            int typeId = resourceType.typeId();
+            HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
+            HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
+            for (long resourceId : resourceIds) {
+                if (releaseLocalLock(resourceType, resourceId, exclusiveLocks)) {
+                    continue;
+                }
+                // If we still hold a shared lock the exclusive lock is downgraded to it
+                boolean keepShared = sharedLocks.containsKey(resourceId);
+                lockTable.releaseExclusive(typeId, resourceId, number, keepShared);
+                if (!keepShared) {
+                    activeLockCount.decrementAndGet();
+                }
+            }
+        } finally {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    private void releaseAllClientLocks() {
+        for (int typeId = 0; typeId < exclusiveLockCounts.length; typeId++) {
+            HeapTrackingLongIntHashMap exclusiveLocks = exclusiveLockCounts[typeId];
+            HeapTrackingLongIntHashMap sharedLocks = sharedLockCounts[typeId];
+            int resourceTypeId = typeId;
+
+            // Release exclusive locks first, any shared lock held on the same resource goes with it
+            if (exclusiveLocks != null) {
+                exclusiveLocks.forEachKey(resourceId -> {
+                    lockTable.releaseExclusive(resourceTypeId, resourceId, number, false);
+                    if (sharedLocks != null) {
+                        sharedLocks.remove(resourceId);
+                    }
+                });
+                exclusiveLockCounts[typeId] = null;
+                exclusiveLocks.close();
+            }
+
+            if (sharedLocks != null) {
+                sharedLocks.forEachKey(resourceId -> lockTable.releaseShared(resourceTypeId, resourceId, number));
+                sharedLockCounts[typeId] = null;
+                sharedLocks.close();
+            }
+        }
+        activeLockCount.set(0);
+    }
+
+    @Override
+    public void prepareForCommit() {
+        prepareThreadId = Thread.currentThread().getId();
+        stateHolder.prepare(this);
+    }
+
+    @Override
+    public void stop() {
+        stateHolder.incrementActiveClients(this);
+        try {
+            if (stateHolder.stopClient()) {
+                // Wait for all other operations to complete before releasing the locks
+                while (!stateHolder.isSingleClient()) {
+                    parkNanos(MILLISECONDS.toNanos(10));
+                }
+                // Defer releasing memory until closed, the tracker is not thread safe
+                memoryTracker.stop();
+                releaseAllLocks();
+            }
+        } finally {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    @Override
+    public void close() {
+        stateHolder.closeClient();
+        while (stateHolder.hasActiveClients()) {
+            parkNanos(MILLISECONDS.toNanos(10));
+        }
+        releaseAllLocks();
+        transactionId = INVALID_TRANSACTION_ID;
+        memoryTracker.close();
+        if (number != UNREGISTERED) {
+            // No locks are held anymore, so the number isn't in the lock table and can be given to another client
+            manager.unregister(number);
+            number = UNREGISTERED;
+        }
+    }
+
+    private void releaseAllLocks() {
+        if (hasLocks) {
+            releaseAllClientLocks();
+            waitList.clear();
+            hasLocks = false;
+        }
+    }
+
+    @Override
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public Collection<ActiveLock> activeLocks() {
+        // We're going through the lock table instead of the client local maps because this can be called from
+        // separate threads
+        List<ActiveLock> locks = new ArrayList<>();
+        long txId = transactionId;
+        lockTable.accept((typeId, resourceId, lockType, holders) -> {
+            for (int holder : holders) {
+                if (holder == number) {
+                    locks.add(new ActiveLock(ResourceType.fromId(typeId), lockType, txId, resourceId));
+                    return;
+                }
+            }
+        });
+        locks.sort(Comparator.comparingInt((ActiveLock lock) -> lock.resourceType().typeId())
+                .thenComparingLong(ActiveLock::resourceId));
+        return locks;
+    }
+
+    @Override
+    public boolean holdsLock(long id, ResourceType resource, LockType lockType) {
+        LockType type = lockTable.lockTypeHeldBy(resource.typeId(), id, number);
+        // If we are looking for shared a lock and have the exclusive its fine because exclusive is more strict
+        return type == lockType || type == EXCLUSIVE;
+    }
+
+    @Override
+    public long activeLockCount() {
+        return activeLockCount.get();
+    }
+
+    int number() {
+        return number;
+    }
+
+    void copyWaitListTo(Set<PartitionedForsetiClient> other) {
+        other.add(this);
+        other.addAll(waitList);
+    }
+
+    boolean isWaitingFor(PartitionedForsetiClient client) {
+        return client.getTransactionId() != getTransactionId() && waitList.contains(client);
+    }
+
+    @Override
+    public String toString() {
+        return format("PartitionedForsetiClient[transactionId=%d, number=%d]", transactionId, number);
+    }
+
+    /**
+     * Waits for the other shared holders of a lock we hold and have set the update flag of to release it.
+     */
+    private void awaitUpgrade(
+            LockTracer tracer,
+            LockWaitEvent priorEvent,
+            ResourceType resourceType,
+            long resourceId,
+            int tries,
+            long waitStartNano) {
+        int typeId = resourceType.typeId();
+        LockWaitEvent waitEvent = null;
+        try {
+            while (lockTable.numberOfSharedHolders(typeId, resourceId) > 1) {
+                assertValid(waitStartNano, resourceType, resourceId);
+                if (waitEvent == null && priorEvent == null) {
+                    waitEvent = tracer.waitForLock(EXCLUSIVE, resourceType, transactionId, resourceId);
+                }
+                waitFor(resourceType, resourceId, EXCLUSIVE, tries++);
+            }
+        } catch (Throwable e) {
+            lockTable.releaseUpdate(typeId, resourceId);
+            if (e instanceof DeadlockDetectedException || e instanceof LockClientStoppedException) {
+                throw (RuntimeException) e;
+            }
+            var status = (e instanceof Status.HasStatus se) ? se.status() : Status.Database.Unknown;
+            throw new TransactionFailureException(
+                    "Failed to upgrade shared lock to exclusive: " + lockString(resourceType, resourceId), e, status);
+        } finally {
+            if (waitEvent != null) {
+                waitEvent.close();
+                clearWaitState();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #awaitUpgrade(LockTracer, LockWaitEvent, ResourceType, long, int, long)}, for a shared lock that
+     * we joined only to upgrade it, which we leave again if the upgrade fails.
+     */
+    private void awaitUpgradeOfJoinedLock(
+            LockTracer tracer,
+            LockWaitEvent priorEvent,
+            ResourceType resourceType,
+            long resourceId,
+            int tries,
+            long waitStartNano) {
+        try {
+            awaitUpgrade(tracer, priorEvent, resourceType, resourceId, tries, waitStartNano);
+        } catch (RuntimeException e) {
+            lockTable.releaseShared(resourceType.typeId(), resourceId, number);
+            activeLockCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void waitFor(ResourceType resourceType, long resourceId, LockType lockType, int tries) {
+        clearAndCopyWaitList(resourceType, resourceId);
+        waitingForResourceId = resourceId;
+        waitingForResourceType = resourceType;
+        incrementalBackoffWait(tries);
+
+        PartitionedForsetiClient deadlockedWith = detectDeadlock(resourceType, resourceId);
+        if (deadlockedWith != null && shouldAbort(deadlockedWith)) {
+            // Verify the deadlock by traversing the lock owners and the locks they wait for, but only after having
+            // seen it several times since that traversal is inherently racy
+            if (tries > 100 && isDeadlockReal(resourceType, resourceId)) {
+                throw new DeadlockDetectedException(format(
+                        "%s can't acquire %s on %s because holders of that lock are waiting for %s.%n Wait list:%s",
+                        this,
+                        lockType,
+                        lockString(resourceType, resourceId),
+                        this,
+                        describeWaitList(resourceType, resourceId)));
+            }
+            Thread.yield();
+        } else if ((tries & 8191) == 8191) // Each try sleeps for up to 1ms, so 8k tries will be every ~8s
+        {
+            for (PartitionedForsetiClient client : waitList) {
+                if (clientCommittingByCurrentThread(client) && isDeadlockReal(resourceType, resourceId)) {
+                    throw new DeadlockDetectedException(format(
+                            "%s can't acquire %s on %s, because we are waiting for %s that is committing on the same "
+                                    + "thread",
+                            this, lockType, lockString(resourceType, resourceId), client));
+                }
+            }
+        }
+    }
+
+    private void clearWaitState() {
+        waitList.clear();
+        waitingForResourceType = null;
+        waitingForResourceId = -1;
+    }
+
+    private void clearAndCopyWaitList(ResourceType resourceType, long resourceId) {
+        waitList.clear();
+        for (PartitionedForsetiClient holder : holders(resourceType, resourceId)) {
+            holder.copyWaitListTo(waitList);
+        }
+    }
+
+    /**
+     * @return a holder of the given lock that is waiting for this client, or {@code null} if there is none.
+     */
+    private PartitionedForsetiClient detectDeadlock(ResourceType resourceType, long resourceId) {
+        for (PartitionedForsetiClient holder : holders(resourceType, resourceId)) {
+            if (holder.isWaitingFor(this)) {
+                return holder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * When a deadlock occurs the client with the fewest number of held locks is aborted, or if both hold the same
+     * number of locks the one with the highest transaction id, same as for {@link ForsetiClient}.
+     */
+    private boolean shouldAbort(PartitionedForsetiClient clientWereDeadlockedWith) {
+        if (getTransactionId() == clientWereDeadlockedWith.getTransactionId()) {
+            return true;
+        }
+
+        long ourCount = activeLockCount();
+        long otherCount = clientWereDeadlockedWith.activeLockCount();
+        if (ourCount != otherCount) {
+            return otherCount > ourCount;
+        }
+        return getTransactionId() > clientWereDeadlockedWith.getTransactionId();
+    }
+
+    private boolean clientCommittingByCurrentThread(PartitionedForsetiClient otherClient) {
+        return otherClient != this
+                && otherClient.stateHolder.isPrepared()
+                && Thread.currentThread().getId() == otherClient.prepareThreadId;
+    }
+
+    private boolean isDeadlockReal(ResourceType resourceType, long resourceId) {
+        if (isDeadlockRealInternal(resourceType, resourceId) != NO_DEADLOCK_DEPTH) {
+            parkNanos(MILLISECONDS.toNanos(10));
+            return isDeadlockRealInternal(resourceType, resourceId) != NO_DEADLOCK_DEPTH;
+        }
+        return false;
+    }
+
+    /**
+     * Collects the owners of the lock we wait for, then the locks those owners wait for and their owners and so on,
+     * until either finding ourselves amongst the owners or running out of locks being waited upon.
+     */
+    private int isDeadlockRealInternal(ResourceType resourceType, long resourceId) {
+        Set<WaitedUponLock> waitedUpon = new HashSet<>();
+        Set<WaitedUponLock> nextWaitedUpon = new HashSet<>();
+        Set<PartitionedForsetiClient> owners = new HashSet<>(holders(resourceType, resourceId));
+        Set<PartitionedForsetiClient> nextOwners = new HashSet<>();
+
+        int depth = 1;
+        do {
+            depth++;
+            waitedUpon.addAll(nextWaitedUpon);
+            nextWaitedUpon.clear();
+            for (PartitionedForsetiClient owner : owners) {
+                if (clientCommittingByCurrentThread(owner)) {
+                    return depth;
+                }
+                ResourceType ownerWaitingForResourceType = owner.waitingForResourceType;
+                long ownerWaitingForResourceId = owner.waitingForResourceId;
+                if (ownerWaitingForResourceType != null) {
+                    WaitedUponLock lock = new WaitedUponLock(ownerWaitingForResourceType, ownerWaitingForResourceId);
+                    if (!waitedUpon.contains(lock)) {
+                        nextWaitedUpon.add(lock);
+                    }
+                }
+            }
+            for (WaitedUponLock lock : nextWaitedUpon) {
+                nextOwners.addAll(holders(lock.resourceType(), lock.resourceId()));
+            }
+            if (nextOwners.contains(this) && detectDeadlock(resourceType, resourceId) != null) {
+                return depth;
+            }
+            owners.clear();
+            Set<PartitionedForsetiClient> ownersTmp = owners;
+            owners = nextOwners;
+            nextOwners = ownersTmp;
+        } while (!nextWaitedUpon.isEmpty());
+        return NO_DEADLOCK_DEPTH;
+    }
+
+    private List<PartitionedForsetiClient> holders(ResourceType resourceType, long resourceId) {
+        MutableIntSet holderNumbers = new IntHashSet();
+        lockTable.collectHolders(resourceType.typeId(), resourceId, holderNumbers);
+        List<PartitionedForsetiClient> holders = new ArrayList<>(holderNumbers.size());
+        holderNumbers.forEach(holder -> {
+            var client = manager.client(holder);
+            if (client != null) {
+                holders.add(client);
+            }
+        });
+        return holders;
+    }
+
+    private String describeWaitList(ResourceType resourceType, long resourceId) {
+        StringBuilder sb = new StringBuilder();
+        for (PartitionedForsetiClient holder : holders(resourceType, resourceId)) {
+            sb.append(holder.describeWaitList());
+        }
+        return sb.toString();
+    }
+
+    String describeWaitList() {
+        StringBuilder sb = new StringBuilder(format("%nClient[%d] waits for [", getTransactionId()));
+        boolean first = true;
+        for (PartitionedForsetiClient next : waitList) {
+            if (next.getTransactionId() == getTransactionId()) {
+                // Skip our own id from the wait list, that's an implementation detail
+                continue;
+            }
+            sb.append(!first ? "," : "").append(next);
+            first = false;
+        }
+        return sb.append("]").toString();
+    }
+
+    private HeapTrackingLongIntHashMap getSharedLockCount(ResourceType resourceType) {
+        HeapTrackingLongIntHashMap sharedLockCount = sharedLockCounts[resourceType.typeId()];
+        if (sharedLockCount == null) {
+            sharedLockCount = HeapTrackingCollections.newLongIntMap(memoryTracker);
+            sharedLockCounts[resourceType.typeId()] = sharedLockCount;
+        }
+        return sharedLockCount;
+    }
+
+    private HeapTrackingLongIntHashMap getExclusiveLockCount(ResourceType resourceType) {
+        HeapTrackingLongIntHashMap exclusiveLockCount = exclusiveLockCounts[resourceType.typeId()];
+        if (exclusiveLockCount == null) {
+            exclusiveLockCount = HeapTrackingCollections.newLongIntMap(memoryTracker);
+            exclusiveLockCounts[resourceType.typeId()] = exclusiveLockCount;
+        }
+        return exclusiveLockCount;
+    }
+
+    /** Release a lock locally, and return true if we still hold more references to that lock. */
+    private boolean releaseLocalLock(ResourceType type, long resourceId, HeapTrackingLongIntHashMap localLocks) {
+        int lockCount = localLocks.removeKeyIfAbsent(resourceId, NOT_HELD);
+        if (lockCount == NOT_HELD) {
+            throw new IllegalStateException(
+                    this + " cannot release lock that it does not hold: " + type + "[" + resourceId + "].");
+        }
+
+        if (lockCount > 1) {
+            localLocks.put(resourceId, lockCount - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private void assertValid(long waitStartNano, ResourceType resourceType, long resourceId) {
+        assertNotStopped();
+        long timeoutNano = this.lockAcquisitionTimeoutNano;
+        if (timeoutNano > 0 && (clock.nanos() - waitStartNano) > timeoutNano) {
+            throw new LockAcquisitionTimeoutException(resourceType, resourceId, timeoutNano);
+        }
+    }
+
+    private void assertNotStopped() {
+        if (stateHolder.isStopped()) {
+            throw new LockClientStoppedException(this);
+        }
+    }
+
+    private record WaitedUponLock(ResourceType resourceType, long resourceId) {}
+}
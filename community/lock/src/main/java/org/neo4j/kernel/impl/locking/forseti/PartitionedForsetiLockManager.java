@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_partitions;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import org.eclipse.collections.api.stack.primitive.MutableIntStack;
+import org.eclipse.collections.impl.stack.mutable.primitive.IntArrayStack;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * A variant of {@link ForsetiLockManager} which keeps all locks in a pre-allocated {@link LockTable} instead of one
+ * concurrent map of lock objects per resource type. The table is split into partitions guarded by their own monitors
+ * and encodes the state of each lock, i.e. its shared holder count and holders, into a single lock word. This way
+ * acquiring and releasing uncontended locks doesn't allocate, neither lock objects nor map entries.
+ * <p/>
+ * Deadlocks are detected using the same dreadlocks algorithm as {@link ForsetiLockManager}, with the holders of a lock
+ * looked up in the table by the waiting client.
+ */
+public class PartitionedForsetiLockManager implements LockManager {
+    private static final int INITIAL_PARTITION_CAPACITY = 32;
+
+    private final LockTable lockTable;
+
+    /** Reverse lookup resource types by id, used for introspection */
+    private final ResourceType[] resourceTypes;
+
+    private final SystemNanoClock clock;
+
+    /**
+     * All open clients by their number, which is used to identify them in the lock table. Number 0 is never used.
+     * Numbers of closed clients are recycled, so that the size of this array follows the number of concurrently open
+     * clients rather than the number of clients ever created.
+     */
+    private volatile PartitionedForsetiClient[] clients = new PartitionedForsetiClient[16];
+
+    /** Numbers of closed clients, to hand out to new clients before increasing {@link #highestClientNumber}. */
+    private final MutableIntStack freeClientNumbers = new IntArrayStack();
+
+    private int highestClientNumber;
+    private volatile boolean closed;
+
+    public PartitionedForsetiLockManager(Config config, SystemNanoClock clock, ResourceType... resourceTypes) {
+        int maxResourceId = 0;
+        for (ResourceType type : resourceTypes) {
+            maxResourceId = Math.max(type.typeId() + 1, maxResourceId);
+        }
+        this.resourceTypes = new ResourceType[maxResourceId];
+        for (ResourceType type : resourceTypes) {
+            this.resourceTypes[type.typeId()] = type;
+        }
+        this.lockTable = new LockTable(numberOfPartitions(config), INITIAL_PARTITION_CAPACITY);
+        this.clock = clock;
+    }
+
+    /**
+     * Create a new client to use to grab and release locks.
+     */
+    @Override
+    public synchronized Client newClient() {
+        if (closed) {
+            throw new IllegalStateException(this + " already closed");
+        }
+        var client = new PartitionedForsetiClient(lockTable, this, resourceTypes.length, clock);
+        client.register();
+        return client;
+    }
+
+    /**
+     * Gives a client a number, either a recycled one or a new one.
+     * @return the number now identifying the client in the lock table.
+     */
+    synchronized int register(PartitionedForsetiClient client) {
+        int number;
+        if (freeClientNumbers.notEmpty()) {
+            number = freeClientNumbers.pop();
+        } else {
+            if (highestClientNumber == LockTable.MAX_HOLDER) {
+                throw new IllegalStateException(
+                        this + " can not have more than " + LockTable.MAX_HOLDER + " open clients");
+            }
+            number = ++highestClientNumber;
+        }
+        PartitionedForsetiClient[] current = clients;
+        if (number >= current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[number] = client;
+        clients = current;
+        return number;
+    }
+
+    /**
+     * Makes the number of a closed client available to other clients. The client must not hold any locks.
+     */
+    synchronized void unregister(int number) {
+        PartitionedForsetiClient[] current = clients;
+        current[number] = null;
+        clients = current;
+        freeClientNumbers.push(number);
+    }
+
+    /**
+     * @return the client with the given number, or {@code null} if the client has been closed since.
+     */
+    PartitionedForsetiClient client(int number) {
+        return clients[number];
+    }
+
+    @Override
+    public void accept(Visitor out) {
+        lockTable.accept((typeId, resourceId, lockType, holders) -> {
+            var resourceType = resourceTypes[typeId];
+            var description = describeWaitList(lockType, holders);
+            int lockIdentityHashCode = 31 * typeId + Long.hashCode(resourceId);
+            for (int holder : holders) {
+                var client = client(holder);
+                if (client == null) {
+                    // Closed right after the lock table was visited
+                    continue;
+                }
+                out.visit(
+                        lockType,
+                        resourceType,
+                        client.getTransactionId(),
+                        resourceId,
+                        description,
+                        0,
+                        lockIdentityHashCode);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private String describeWaitList(LockType lockType, int[] holders) {
+        var description = new StringJoiner(", ", lockType == LockType.EXCLUSIVE ? "ExclusiveLock[" : "SharedLock[", "]");
+        for (int holder : holders) {
+            var client = client(holder);
+            if (client != null) {
+                description.add(client.describeWaitList());
+            }
+        }
+        return description.toString();
+    }
+
+    private static int numberOfPartitions(Config config) {
+        int partitions = config.get(lock_manager_partitions);
+        if (partitions == 0) {
+            // Enough partitions for threads on all cores to rarely contend on the same one
+            partitions = Runtime.getRuntime().availableProcessors() * 4;
+        }
+        // Round up to a power of two
+        return Integer.bitCount(partitions) == 1 ? partitions : Integer.highestOneBit(partitions) << 1;
+    }
+}
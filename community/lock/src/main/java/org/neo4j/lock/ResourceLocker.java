@@ -71,6 +71,31 @@ public interface ResourceLocker {
      */
     void releaseShared(ResourceType resourceType, long... resourceIds);
 
+    /**
+     * Exclusively locks all the given resources in a single call, for callers that lock many resources of the same
+     * type at once, e.g. when preparing a large transaction for commit. Locks are acquired in ascending id order,
+     * which is the order all callers of this method agree on, and an id occurring multiple times is only locked once.
+     *
+     * @param tracer lock tracer
+     * @param resourceType type of resources to lock.
+     * @param sortedResourceIds ids of resources to lock, sorted in ascending order.
+     *
+     * @throws AcquireLockTimeoutException in case of timeout
+     */
+    default void acquireExclusiveSorted(LockTracer tracer, ResourceType resourceType, long[] sortedResourceIds) {
+        acquireExclusive(tracer, resourceType, distinct(sortedResourceIds));
+    }
+
+    /**
+     * Releases exclusive locks previously {@link #acquireExclusiveSorted(LockTracer, ResourceType, long[]) acquired}
+     * in a single call.
+     * @param resourceType type of resources to unlock.
+     * @param sortedResourceIds ids of resources to unlock, sorted in ascending order.
+     */
+    default void releaseExclusiveSorted(ResourceType resourceType, long[] sortedResourceIds) {
+        releaseExclusive(resourceType, distinct(sortedResourceIds));
+    }
+
     /**
      * @return all locks that are "active", i.e. either locked or being awaited to be locked.
      */
@@ -157,4 +182,28 @@ public interface ResourceLocker {
             return false;
         }
     };
+
+    /**
+     * @return the given sorted ids without duplicates, or the array itself if it has no duplicates.
+     */
+    private static long[] distinct(long[] sortedIds) {
+        int unique = sortedIds.length > 0 ? 1 : 0;
+        for (int i = 1; i < sortedIds.length; i++) {
+            assert sortedIds[i - 1] <= sortedIds[i] : "Ids are not sorted " + Arrays.toString(sortedIds);
+            if (sortedIds[i] != sortedIds[i - 1]) {
+                unique++;
+            }
+        }
+        if (unique == sortedIds.length) {
+            return sortedIds;
+        }
+        long[] distinctIds = new long[unique];
+        int cursor = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (i == 0 || sortedIds[i] != sortedIds[i - 1]) {
+                distinctIds[cursor++] = sortedIds[i];
+            }
+        }
+        return distinctIds;
+    }
 }
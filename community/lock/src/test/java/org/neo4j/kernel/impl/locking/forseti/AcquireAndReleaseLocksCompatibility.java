@@ -229,6 +229,36 @@ abstract class AcquireAndReleaseLocksCompatibility extends LockCompatibilityTest
         assertEquals(0, lockCount());
     }
 
+    @Test
+    void shouldAcquireSortedExclusiveLocksOnceEach() {
+        clientA.acquireExclusiveSorted(LockTracer.NONE, NODE, new long[] {1, 10, 10, 100, 100, 100});
+        assertEquals(3, lockCount());
+
+        assertFalse(clientB.trySharedLock(NODE, 10));
+
+        // Then a single release of each releases them
+        clientA.releaseExclusiveSorted(NODE, new long[] {1, 10, 10, 100});
+        assertEquals(0, lockCount());
+        assertTrue(clientB.tryExclusiveLock(NODE, 10));
+    }
+
+    @Test
+    void sortedExclusiveLocksShouldWaitForShared() {
+        // When
+        clientA.acquireShared(LockTracer.NONE, NODE, 10L);
+
+        // Then
+        Future<Void> clientBLock =
+                acquireExclusiveSorted(clientB, NODE, 1L, 10L, 100L).callAndAssertWaiting();
+
+        // And when
+        clientA.releaseShared(NODE, 10L);
+
+        // Then this should not block
+        assertNotWaiting(clientBLock);
+        assertEquals(3, lockCount());
+    }
+
     @Test
     void releaseMultipleSharedLocks() {
         clientA.acquireShared(LockTracer.NONE, NODE, 10, 100, 1000);
@@ -144,6 +144,16 @@ public abstract class LockCompatibilityTestSupport {
         };
     }
 
+    protected LockCommand acquireExclusiveSorted(
+            final LockManager.Client client, final ResourceType resourceType, final long... sortedKeys) {
+        return new LockCommand(clientToThreadMap.get(client), client) {
+            @Override
+            public void doWork(LockManager.Client client) throws AcquireLockTimeoutException {
+                client.acquireExclusiveSorted(LockTracer.NONE, resourceType, sortedKeys);
+            }
+        };
+    }
+
     protected LockCommand acquireShared(
             LockManager.Client client, final LockTracer tracer, final ResourceType resourceType, final long key) {
         return new LockCommand(clientToThreadMap.get(client), client) {
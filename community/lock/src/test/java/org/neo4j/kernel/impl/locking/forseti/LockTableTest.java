@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.kernel.impl.locking.forseti.LockTable.ACQUIRED;
+import static org.neo4j.kernel.impl.locking.forseti.LockTable.BLOCKED;
+import static org.neo4j.kernel.impl.locking.forseti.LockTable.UPGRADING;
+import static org.neo4j.lock.LockType.EXCLUSIVE;
+import static org.neo4j.lock.LockType.SHARED;
+import static org.neo4j.lock.ResourceType.NODE;
+import static org.neo4j.lock.ResourceType.RELATIONSHIP;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class LockTableTest {
+    private static final int NODE_ID = NODE.typeId();
+    private static final int RELATIONSHIP_ID = RELATIONSHIP.typeId();
+
+    @Inject
+    private RandomSupport random;
+
+    private final LockTable table = new LockTable(4, 4);
+
+    @Test
+    void shouldShareSharedLocks() {
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 1)).isTrue();
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 2)).isTrue();
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 3)).isTrue();
+
+        assertThat(table.numberOfSharedHolders(NODE_ID, 1)).isEqualTo(3);
+        assertThat(holders(NODE_ID, 1)).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 4)).isFalse();
+
+        table.releaseShared(NODE_ID, 1, 2);
+        table.releaseShared(NODE_ID, 1, 1);
+        assertThat(holders(NODE_ID, 1)).containsExactly(3);
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 3)).isEqualTo(SHARED);
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 1)).isNull();
+
+        table.releaseShared(NODE_ID, 1, 3);
+        assertThat(table.numberOfSharedHolders(NODE_ID, 1)).isZero();
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 4)).isTrue();
+    }
+
+    @Test
+    void shouldKeepLocksOfDifferentResourceTypesApart() {
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 1)).isTrue();
+        assertThat(table.tryAcquireExclusive(RELATIONSHIP_ID, 1, 2)).isTrue();
+
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 1)).isEqualTo(EXCLUSIVE);
+        assertThat(table.lockTypeHeldBy(RELATIONSHIP_ID, 1, 2)).isEqualTo(EXCLUSIVE);
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 2)).isNull();
+    }
+
+    @Test
+    void shouldBlockSharedAndExclusiveLocksWhileHeldExclusively() {
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 1)).isTrue();
+
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 2)).isFalse();
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 2)).isFalse();
+        assertThat(table.tryAcquireExclusiveOrUpgrade(NODE_ID, 1, 2)).isEqualTo(BLOCKED);
+
+        table.releaseExclusive(NODE_ID, 1, 1, false);
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 2)).isTrue();
+    }
+
+    @Test
+    void shouldDowngradeExclusiveLockToShared() {
+        assertThat(table.tryAcquireExclusive(NODE_ID, 1, 1)).isTrue();
+
+        table.releaseExclusive(NODE_ID, 1, 1, true);
+
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 1)).isEqualTo(SHARED);
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 2)).isTrue();
+    }
+
+    @Test
+    void shouldBlockNewSharedHoldersWhileUpgrading() {
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 1)).isTrue();
+        assertThat(table.tryAcquireExclusiveOrUpgrade(NODE_ID, 1, 2)).isEqualTo(UPGRADING);
+
+        // Only one can upgrade and no one can join while upgrading
+        assertThat(table.tryAcquireUpdate(NODE_ID, 1)).isFalse();
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 3)).isFalse();
+        assertThat(table.numberOfSharedHolders(NODE_ID, 1)).isEqualTo(2);
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 2)).isEqualTo(SHARED);
+
+        // Once the other holder leaves the lock is exclusive
+        table.releaseShared(NODE_ID, 1, 1);
+        assertThat(table.numberOfSharedHolders(NODE_ID, 1)).isEqualTo(1);
+        assertThat(table.lockTypeHeldBy(NODE_ID, 1, 2)).isEqualTo(EXCLUSIVE);
+
+        table.releaseExclusive(NODE_ID, 1, 2, false);
+        assertThat(table.tryAcquireExclusiveOrUpgrade(NODE_ID, 1, 3)).isEqualTo(ACQUIRED);
+    }
+
+    @Test
+    void shouldReleaseUpdateFlag() {
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 1)).isTrue();
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 2)).isTrue();
+        assertThat(table.tryAcquireUpdate(NODE_ID, 1)).isTrue();
+
+        table.releaseUpdate(NODE_ID, 1);
+
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 3)).isTrue();
+    }
+
+    @Test
+    void shouldFailToReleaseLockNotHeld() {
+        assertThat(table.tryAcquireShared(NODE_ID, 1, 1)).isTrue();
+
+        assertThatThrownBy(() -> table.releaseShared(NODE_ID, 1, 2)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> table.releaseShared(NODE_ID, 2, 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> table.releaseExclusive(NODE_ID, 1, 1, false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldKeepTrackOfManyLocksThroughGrowingAndRemoving() {
+        Map<Long, Integer> expectedHolders = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long resourceId = random.nextLong(2_000);
+            Integer holder = expectedHolders.get(resourceId);
+            if (holder == null) {
+                int newHolder = random.nextInt(1, 100);
+                assertThat(table.tryAcquireExclusive(NODE_ID, resourceId, newHolder)).isTrue();
+                expectedHolders.put(resourceId, newHolder);
+            } else {
+                assertThat(table.tryAcquireExclusive(NODE_ID, resourceId, holder)).isFalse();
+                table.releaseExclusive(NODE_ID, resourceId, holder, false);
+                expectedHolders.remove(resourceId);
+            }
+        }
+
+        for (long resourceId = 0; resourceId < 2_000; resourceId++) {
+            Integer holder = expectedHolders.get(resourceId);
+            assertThat(holders(NODE_ID, resourceId))
+                    .as("holders of " + resourceId)
+                    .containsExactlyInAnyOrder(holder == null ? new int[0] : new int[] {holder});
+        }
+        Map<Long, Integer> visited = new HashMap<>();
+        table.accept((typeId, resourceId, lockType, holders) -> {
+            assertThat(lockType).isEqualTo(EXCLUSIVE);
+            visited.put(resourceId, holders[0]);
+        });
+        assertThat(visited).isEqualTo(expectedHolders);
+    }
+
+    private int[] holders(int typeId, long resourceId) {
+        MutableIntSet holders = new IntHashSet();
+        table.collectHolders(typeId, resourceId, holders);
+        return holders.toArray();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.test.Race.throwing;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.time.Clocks;
+
+/**
+ * Runs a lock heavy transaction workload with an increasing number of concurrent transactions against both
+ * {@link ForsetiLockManager} and {@link PartitionedForsetiLockManager}. Each transaction takes a shared lock on one
+ * of a few hot resources, like a label, and exclusive locks on a couple of mostly uncontended ones, like nodes.
+ */
+@ExtendWith(RandomExtension.class)
+class PartitionedForsetiLockManagerIT {
+    private static final int TRANSACTIONS_PER_THREAD = 20_000;
+    private static final int HOT_RESOURCES = 4;
+    private static final int NODES = 1_000_000;
+
+    @Inject
+    private RandomSupport random;
+
+    private final Config config = Config.defaults();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void shouldScaleWithConcurrentTransactionsOnForsetiLockManager(int numThreads) throws Throwable {
+        runTransactions(new ForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values()), numThreads);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void shouldScaleWithConcurrentTransactionsOnPartitionedForsetiLockManager(int numThreads) throws Throwable {
+        runTransactions(
+                new PartitionedForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values()), numThreads);
+    }
+
+    private void runTransactions(LockManager manager, int numThreads) throws Throwable {
+        try {
+            runTransactionsAndAssertNoLocksLeft(manager, numThreads);
+        } finally {
+            manager.close();
+        }
+    }
+
+    private void runTransactionsAndAssertNoLocksLeft(LockManager manager, int numThreads) throws Throwable {
+        // given
+        AtomicLong txIds = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+
+        // when
+        Race race = new Race();
+        race.addContestants(
+                numThreads,
+                contestant -> throwing(() -> {
+                    Random threadRandom = new Random(random.seed() + contestant);
+                    // Clients are reused between transactions, like they are by pooled kernel transactions
+                    LockManager.Client client = manager.newClient();
+                    for (int tx = 0; tx < TRANSACTIONS_PER_THREAD; tx++) {
+                        client.initialize(
+                                LeaseService.NoLeaseClient.INSTANCE,
+                                txIds.incrementAndGet(),
+                                EmptyMemoryTracker.INSTANCE,
+                                config);
+                        try {
+                            client.acquireShared(
+                                    LockTracer.NONE, ResourceType.LABEL, threadRandom.nextInt(HOT_RESOURCES));
+                            client.acquireExclusive(
+                                    LockTracer.NONE,
+                                    ResourceType.NODE,
+                                    threadRandom.nextInt(NODES),
+                                    threadRandom.nextInt(NODES));
+                            committed.incrementAndGet();
+                        } catch (DeadlockDetectedException e) {
+                            // Two transactions locking the same two nodes in opposite order, rare but fine
+                        } finally {
+                            client.close();
+                        }
+                    }
+                }));
+        race.go(10, TimeUnit.MINUTES);
+
+        // then
+        long transactions = (long) numThreads * TRANSACTIONS_PER_THREAD;
+        assertThat(committed.get()).isGreaterThan(transactions * 99 / 100);
+        manager.accept((lockType, resourceType, txId, resourceId, description, waitTime, hash) -> {
+            throw new AssertionError("Lock on " + resourceType + "(" + resourceId + ") not released");
+        });
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.test.Race.throwing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.time.Clocks;
+
+@ExtendWith(RandomExtension.class)
+class PartitionedForsetiLockManagerTest {
+    private static final int RESOURCES = 64;
+
+    @Inject
+    private RandomSupport random;
+
+    private Config config;
+    private PartitionedForsetiLockManager manager;
+
+    @BeforeEach
+    void setUp() {
+        config = Config.defaults(GraphDatabaseInternalSettings.lock_manager_partitions, 4);
+        manager = new PartitionedForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values());
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void shouldKeepLocksMutuallyExclusiveUnderContention() throws Throwable {
+        // given
+        AtomicLong txIds = new AtomicLong();
+        // positive for the number of shared holders, -1 when held exclusively
+        AtomicLongArray holders = new AtomicLongArray(RESOURCES);
+
+        // when
+        Race race = new Race();
+        race.addContestants(
+                Runtime.getRuntime().availableProcessors(),
+                contestant -> throwing(() -> {
+                    Random threadRandom = new Random(random.seed() + contestant);
+                    for (int tx = 0; tx < 1_000; tx++) {
+                        try (LockManager.Client client = manager.newClient()) {
+                            client.initialize(
+                                    LeaseService.NoLeaseClient.INSTANCE,
+                                    txIds.incrementAndGet(),
+                                    EmptyMemoryTracker.INSTANCE,
+                                    config);
+                            runTransaction(client, threadRandom, holders);
+                        } catch (DeadlockDetectedException e) {
+                            // Upgrading shared locks may deadlock, which is fine
+                        }
+                    }
+                }));
+        race.go(5, TimeUnit.MINUTES);
+
+        // then
+        for (int i = 0; i < RESOURCES; i++) {
+            assertThat(holders.get(i)).isZero();
+        }
+        manager.accept((lockType, resourceType, txId, resourceId, description, waitTime, hash) -> {
+            throw new AssertionError("Lock on " + resourceType + "(" + resourceId + ") not released");
+        });
+    }
+
+    @Test
+    void shouldNotLeaveLocksBehindAfterUncontendedTransactions() {
+        try (LockManager.Client client = manager.newClient()) {
+            for (int tx = 0; tx < 100; tx++) {
+                client.initialize(LeaseService.NoLeaseClient.INSTANCE, tx, EmptyMemoryTracker.INSTANCE, config);
+                client.acquireShared(LockTracer.NONE, ResourceType.LABEL, 1, 2, 3);
+                client.acquireExclusive(LockTracer.NONE, ResourceType.NODE, tx, tx + 1);
+                client.acquireExclusive(LockTracer.NONE, ResourceType.LABEL, 2);
+                client.releaseExclusive(ResourceType.LABEL, 2);
+                assertThat(client.activeLockCount()).isEqualTo(5);
+                client.close();
+            }
+        }
+
+        manager.accept((lockType, resourceType, txId, resourceId, description, waitTime, hash) -> {
+            throw new AssertionError("Lock on " + resourceType + "(" + resourceId + ") not released");
+        });
+    }
+
+    @Test
+    void shouldRecycleNumbersOfClosedClients() {
+        // given more concurrently open clients than the initial size of the client array
+        int numberOfClients = 100;
+        for (int round = 0; round < 3; round++) {
+            List<PartitionedForsetiClient> clients = new ArrayList<>();
+            for (int i = 0; i < numberOfClients; i++) {
+                var client = (PartitionedForsetiClient) manager.newClient();
+                client.initialize(LeaseService.NoLeaseClient.INSTANCE, i, EmptyMemoryTracker.INSTANCE, config);
+                client.acquireExclusive(LockTracer.NONE, ResourceType.NODE, i);
+                clients.add(client);
+            }
+
+            // then
+            for (var client : clients) {
+                assertThat(client.number()).isBetween(1, numberOfClients);
+                assertThat(manager.client(client.number())).isSameAs(client);
+            }
+
+            // when
+            for (var client : clients) {
+                int number = client.number();
+                client.close();
+                assertThat(manager.client(number)).isNull();
+            }
+        }
+
+        // and when opening and closing clients one at a time
+        for (int i = 0; i < 1_000; i++) {
+            try (var client = (PartitionedForsetiClient) manager.newClient()) {
+                client.initialize(LeaseService.NoLeaseClient.INSTANCE, i, EmptyMemoryTracker.INSTANCE, config);
+                client.acquireShared(LockTracer.NONE, ResourceType.NODE, i);
+                assertThat(client.number()).isBetween(1, numberOfClients);
+            }
+        }
+        manager.accept((lockType, resourceType, txId, resourceId, description, waitTime, hash) -> {
+            throw new AssertionError("Lock on " + resourceType + "(" + resourceId + ") not released");
+        });
+    }
+
+    @Test
+    void shouldTakeNewNumberWhenReinitializedAfterClose() {
+        try (var client = (PartitionedForsetiClient) manager.newClient()) {
+            client.initialize(LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, config);
+            client.close();
+            try (var other = (PartitionedForsetiClient) manager.newClient()) {
+                // The number of the closed client went to the other client
+                client.initialize(LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, config);
+                assertThat(client.number()).isNotEqualTo(other.number());
+                assertThat(manager.client(client.number())).isSameAs(client);
+            }
+        }
+    }
+
+    private static void runTransaction(LockManager.Client client, Random random, AtomicLongArray holders) {
+        // Some shared locks, then some exclusive ones, possibly upgrading some of the shared ones
+        int first = random.nextInt(RESOURCES - 8);
+        long[] shared = {first, first + 1 + random.nextInt(3)};
+        long[] exclusive = {first + 1 + random.nextInt(3), first + 4 + random.nextInt(4)};
+
+        client.acquireShared(LockTracer.NONE, ResourceType.NODE, shared);
+        for (long id : shared) {
+            assertThat(holders.getAndIncrement((int) id)).isGreaterThanOrEqualTo(0);
+        }
+        try {
+            client.acquireExclusive(LockTracer.NONE, ResourceType.NODE, exclusive);
+            for (long id : exclusive) {
+                boolean alsoShared = id == shared[0] || id == shared[1];
+                assertThat(holders.getAndSet((int) id, -1)).isEqualTo(alsoShared ? 1 : 0);
+            }
+            Thread.onSpinWait();
+            for (long id : exclusive) {
+                boolean alsoShared = id == shared[0] || id == shared[1];
+                holders.set((int) id, alsoShared ? 1 : 0);
+            }
+        } finally {
+            for (long id : shared) {
+                holders.decrementAndGet((int) id);
+            }
+        }
+    }
+}
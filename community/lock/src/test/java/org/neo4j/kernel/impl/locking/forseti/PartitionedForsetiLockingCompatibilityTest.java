@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.test.extension.actors.Actor;
+import org.neo4j.time.SystemNanoClock;
+
+/** Runs the locking compatibility tests against {@link PartitionedForsetiLockManager}. */
+class PartitionedForsetiLockingCompatibilityTest extends LockingCompatibilityTest {
+    @Override
+    protected LockManager createLockManager(Config config, SystemNanoClock clock) {
+        return new PartitionedForsetiLockManager(config, clock, ResourceType.values());
+    }
+
+    @Override
+    protected boolean isAwaitingLockAcquisition(Actor actor) throws Exception {
+        actor.untilWaitingIn(PartitionedForsetiClient.class.getDeclaredMethod(
+                "waitFor", ResourceType.class, long.class, LockType.class, int.class));
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Allocation of anonymous memory backed by huge pages on Linux.
+ * <p>
+ * Explicit huge pages are mapped with {@code MAP_HUGETLB} from the pool that the administrator has reserved through
+ * {@code vm.nr_hugepages} or the per size pools in sysfs. Since the mapping reserves its huge pages up front, a pool
+ * that is too small makes the mapping fail instead of the process getting a {@code SIGBUS} on first access.
+ * Transparent huge pages are requested with {@code madvise(MADV_HUGEPAGE)} on a mapping aligned to
+ * {@link #TRANSPARENT_HUGE_PAGE_SIZE}. The kernel may or may not back such a mapping with huge pages, depending on
+ * its configuration and on memory fragmentation.
+ * <p>
+ * All allocation methods return {@code 0} when the memory could not be obtained, so callers can fall back to regular
+ * allocations.
+ */
+public final class HugePages {
+    public static final long TRANSPARENT_HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final Path TRANSPARENT_HUGE_PAGE_MODE = Path.of("/sys/kernel/mm/transparent_hugepage/enabled");
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_PRIVATE = 0x02;
+    private static final int MAP_ANONYMOUS = 0x20;
+    private static final int MAP_HUGETLB = 0x40000;
+    private static final int MAP_HUGE_SHIFT = 26;
+    private static final int MADV_HUGEPAGE = 14;
+    private static final long MAP_FAILED = -1;
+
+    private static final LibC LIBC;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static {
+        LibC libc = null;
+        Throwable initFailure = null;
+        try {
+            if (Platform.isLinux() && Platform.is64Bit()) {
+                libc = Native.load(Platform.C_LIBRARY_NAME, LibC.class);
+            }
+        } catch (Throwable t) {
+            initFailure = t;
+        }
+        LIBC = libc;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private HugePages() {}
+
+    /**
+     * @return true if huge page mappings can be requested on this system. Whether they can actually be obtained
+     * depends on the configuration of the kernel.
+     */
+    public static boolean isAvailable() {
+        return LIBC != null;
+    }
+
+    /**
+     * Map memory backed by explicit huge pages of the given size.
+     * @param size size of the mapping in bytes, must be a multiple of the huge page size.
+     * @param hugePageSize the huge page size, a power of two supported by the kernel, e.g. 2 MiB or 1 GiB.
+     * @return the address of the mapping, or 0 if the huge pages could not be obtained.
+     */
+    public static long mapExplicit(long size, long hugePageSize) {
+        if (LIBC == null || Long.bitCount(hugePageSize) != 1 || size <= 0 || size % hugePageSize != 0) {
+            return 0;
+        }
+        int sizeFlag = Long.numberOfTrailingZeros(hugePageSize) << MAP_HUGE_SHIFT;
+        return map(size, MAP_HUGETLB | sizeFlag);
+    }
+
+    /**
+     * Map memory aligned to {@link #TRANSPARENT_HUGE_PAGE_SIZE}, and advise the kernel to back it with transparent
+     * huge pages.
+     * @param size size of the mapping in bytes, must be a multiple of {@link #TRANSPARENT_HUGE_PAGE_SIZE}.
+     * @return the address of the mapping, or 0 if the memory could not be mapped or the advice was rejected.
+     */
+    public static long mapTransparent(long size) {
+        LibC libc = LIBC;
+        if (libc == null || size <= 0 || size % TRANSPARENT_HUGE_PAGE_SIZE != 0) {
+            return 0;
+        }
+        // Over-allocate so that an aligned range can be cut out of the mapping, and give back the rest.
+        long mappedSize = size + TRANSPARENT_HUGE_PAGE_SIZE;
+        long mapped = map(mappedSize, 0);
+        if (mapped == 0) {
+            return 0;
+        }
+        long address = (mapped + TRANSPARENT_HUGE_PAGE_SIZE - 1) & -TRANSPARENT_HUGE_PAGE_SIZE;
+        long mappedEnd = mapped + mappedSize;
+        long end = address + size;
+        if (address > mapped) {
+            libc.munmap(new Pointer(mapped), address - mapped);
+        }
+        if (mappedEnd > end) {
+            libc.munmap(new Pointer(end), mappedEnd - end);
+        }
+        try {
+            libc.madvise(new Pointer(address), size, MADV_HUGEPAGE);
+            return address;
+        } catch (LastErrorException e) {
+            libc.munmap(new Pointer(address), size);
+            return 0;
+        }
+    }
+
+    /**
+     * Release memory obtained from {@link #mapExplicit(long, long)} or {@link #mapTransparent(long)}.
+     * @param address the address of the mapping.
+     * @param size the size the mapping was requested with.
+     */
+    public static void unmap(long address, long size) {
+        LibC libc = LIBC;
+        if (libc != null && address != 0) {
+            libc.munmap(new Pointer(address), size);
+        }
+    }
+
+    /**
+     * Details about huge page support
+     * @return details about huge page support
+     */
+    public static String describe() {
+        if (LIBC != null) {
+            return "Huge pages are supported, transparent huge page mode is " + transparentHugePageMode() + ".";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder("Huge pages are not supported.");
+        if (INITIALIZATION_FAILURE != null) {
+            descriptionBuilder.append(" Details: ").append(getStackTrace(INITIALIZATION_FAILURE));
+        }
+        return descriptionBuilder.toString();
+    }
+
+    private static String transparentHugePageMode() {
+        try {
+            return parseTransparentHugePageMode(Files.readString(TRANSPARENT_HUGE_PAGE_MODE));
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Parse the selected mode out of the sysfs transparent huge page setting, e.g. {@code always [madvise] never}.
+     */
+    static String parseTransparentHugePageMode(String modes) {
+        int start = modes.indexOf('[');
+        int end = modes.indexOf(']', start + 1);
+        if (start == -1 || end == -1) {
+            return "unknown";
+        }
+        return modes.substring(start + 1, end);
+    }
+
+    private static long map(long size, int extraFlags) {
+        try {
+            Pointer pointer = LIBC.mmap(
+                    Pointer.NULL, size, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS | extraFlags, -1, 0);
+            long address = Pointer.nativeValue(pointer);
+            return address == MAP_FAILED ? 0 : address;
+        } catch (LastErrorException e) {
+            return 0;
+        }
+    }
+
+    private interface LibC extends Library {
+        Pointer mmap(Pointer address, long length, int protection, int flags, int fd, long offset)
+                throws LastErrorException;
+
+        int munmap(Pointer address, long length);
+
+        int madvise(Pointer address, long length, int advice) throws LastErrorException;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A minimal Linux io_uring submission and completion queue pair, used to submit batches of positioned reads or writes
+ * with a single system call, and have the kernel execute them concurrently.
+ * <p>
+ * Every call to {@link #submitAndWait(byte, int, long[], int[], long[], int, int[])} submits a whole batch and waits for
+ * all of its completions before returning, so the rings never contain entries from more than one caller. Instances are
+ * thread safe, but callers are serialized. Requires Linux 5.6 or newer, for the {@code IORING_OP_READ} and
+ * {@code IORING_OP_WRITE} operations.
+ */
+public final class IoUring implements AutoCloseable {
+    public static final byte IORING_OP_READ = 22;
+    public static final byte IORING_OP_WRITE = 23;
+
+    // io_uring syscall numbers are the same on all architectures, since they were added after the tables were unified.
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+
+    private static final long IORING_OFF_SQ_RING = 0;
+    private static final long IORING_OFF_CQ_RING = 0x8000000L;
+    private static final long IORING_OFF_SQES = 0x10000000L;
+    private static final int IORING_FEAT_SINGLE_MMAP = 1;
+    // Introduced together with IORING_OP_READ and IORING_OP_WRITE, so we use it to detect that they are supported.
+    private static final int IORING_FEAT_RW_CUR_POS = 1 << 3;
+    private static final int IORING_ENTER_GETEVENTS = 1;
+
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_SHARED = 0x01;
+    private static final int MAP_POPULATE = 0x8000;
+
+    private static final int EINTR = 4;
+    private static final int EAGAIN = 11;
+    private static final int EBUSY = 16;
+
+    // Layout of struct io_uring_params, and the offsets structs embedded in it.
+    private static final int PARAMS_SIZE = 120;
+    private static final int PARAMS_SQ_ENTRIES = 0;
+    private static final int PARAMS_CQ_ENTRIES = 4;
+    private static final int PARAMS_FEATURES = 20;
+    private static final int PARAMS_SQ_OFF = 40;
+    private static final int PARAMS_CQ_OFF = 80;
+
+    // Layout of struct io_uring_sqe and struct io_uring_cqe.
+    private static final int SQE_SIZE = 64;
+    private static final int SQE_OPCODE = 0;
+    private static final int SQE_FD = 4;
+    private static final int SQE_OFF = 8;
+    private static final int SQE_ADDR = 16;
+    private static final int SQE_LEN = 24;
+    private static final int SQE_USER_DATA = 32;
+    private static final int CQE_SIZE = 16;
+    private static final int CQE_USER_DATA = 0;
+    private static final int CQE_RES = 8;
+
+    private static final LibC LIBC;
+    private static final boolean IO_URING_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static {
+        LibC libc = null;
+        Throwable initFailure = null;
+        try {
+            if (Platform.isLinux()) {
+                libc = Native.load(Platform.C_LIBRARY_NAME, LibC.class);
+            }
+        } catch (Throwable t) {
+            initFailure = t;
+        }
+        LIBC = libc;
+
+        boolean available = false;
+        if (libc != null) {
+            try (IoUring probe = create(2)) {
+                available = true;
+            } catch (Throwable t) {
+                initFailure = t;
+            }
+        }
+        IO_URING_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private final int ringFd;
+    private final int sqEntries;
+    private final Pointer sqRing;
+    private final long sqRingSize;
+    private final Pointer cqRing;
+    private final long cqRingSize;
+    private final Pointer sqes;
+    private final int sqHead;
+    private final int sqTail;
+    private final int sqMask;
+    private final int sqArray;
+    private final int cqHead;
+    private final int cqTail;
+    private final int cqMask;
+    private final int cqes;
+    private boolean closed;
+
+    private IoUring(int ringFd, Memory params) throws IOException {
+        this.ringFd = ringFd;
+        this.sqEntries = params.getInt(PARAMS_SQ_ENTRIES);
+        int cqEntries = params.getInt(PARAMS_CQ_ENTRIES);
+        int features = params.getInt(PARAMS_FEATURES);
+        this.sqHead = params.getInt(PARAMS_SQ_OFF);
+        this.sqTail = params.getInt(PARAMS_SQ_OFF + 4);
+        this.sqArray = params.getInt(PARAMS_SQ_OFF + 24);
+        this.cqHead = params.getInt(PARAMS_CQ_OFF);
+        this.cqTail = params.getInt(PARAMS_CQ_OFF + 4);
+        this.cqes = params.getInt(PARAMS_CQ_OFF + 20);
+        if ((features & IORING_FEAT_RW_CUR_POS) == 0) {
+            throw new IOException("io_uring does not support IORING_OP_READ and IORING_OP_WRITE, Linux 5.6 is required.");
+        }
+
+        long sqSize = sqArray + (long) sqEntries * Integer.BYTES;
+        long cqSize = cqes + (long) cqEntries * CQE_SIZE;
+        if ((features & IORING_FEAT_SINGLE_MMAP) != 0) {
+            sqSize = Math.max(sqSize, cqSize);
+            this.sqRing = map(sqSize, IORING_OFF_SQ_RING);
+            this.sqRingSize = sqSize;
+            this.cqRing = sqRing;
+            this.cqRingSize = 0;
+        } else {
+            this.sqRing = map(sqSize, IORING_OFF_SQ_RING);
+            this.sqRingSize = sqSize;
+            this.cqRing = map(cqSize, IORING_OFF_CQ_RING);
+            this.cqRingSize = cqSize;
+        }
+        this.sqes = map((long) sqEntries * SQE_SIZE, IORING_OFF_SQES);
+        // The params only tell us where the ring masks are, the masks themselves live in the rings.
+        this.sqMask = sqRing.getInt(params.getInt(PARAMS_SQ_OFF + 8));
+        this.cqMask = cqRing.getInt(params.getInt(PARAMS_CQ_OFF + 8));
+    }
+
+    /**
+     * @return true if io_uring can be used on this system.
+     */
+    public static boolean isAvailable() {
+        return IO_URING_AVAILABLE;
+    }
+
+    /**
+     * Details about io_uring availability
+     * @return details about io_uring availability
+     */
+    public static String describe() {
+        if (IO_URING_AVAILABLE) {
+            return "Linux io_uring is available.";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder("Linux io_uring is not available.");
+        if (INITIALIZATION_FAILURE != null) {
+            descriptionBuilder.append(" Details: ").append(getStackTrace(INITIALIZATION_FAILURE));
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * Create a new io_uring instance.
+     * @param entries requested number of submission queue entries, rounded up to a power of two by the kernel.
+     * @return the new io_uring instance
+     * @throws IOException if io_uring is not available or could not be set up.
+     */
+    public static IoUring create(int entries) throws IOException {
+        LibC libc = LIBC;
+        if (libc == null) {
+            throw new IOException("Linux io_uring is not available on this platform.");
+        }
+        Memory params = new Memory(PARAMS_SIZE);
+        params.clear();
+        int ringFd;
+        try {
+            ringFd = (int) libc.syscall(SYS_IO_URING_SETUP, (long) entries, params);
+        } catch (LastErrorException e) {
+            throw new IOException("Failed to set up io_uring: " + e.getMessage(), e);
+        }
+        try {
+            return new IoUring(ringFd, params);
+        } catch (IOException | RuntimeException e) {
+            libc.close(ringFd);
+            throw e;
+        }
+    }
+
+    /**
+     * Submit {@code count} positioned reads or writes on the given file descriptor, and wait for all of them to complete.
+     *
+     * @param opcode either {@link #IORING_OP_READ} or {@link #IORING_OP_WRITE}.
+     * @param fd file descriptor to read from or write to.
+     * @param addresses native memory addresses of the buffers.
+     * @param lengths length in bytes of every buffer.
+     * @param fileOffsets file offset of every buffer.
+     * @param count number of operations.
+     * @param results receives the result of every operation: the number of bytes transferred, or a negated error number.
+     * @throws IOException if the operations could not be submitted.
+     */
+    public synchronized void submitAndWait(
+            byte opcode, int fd, long[] addresses, int[] lengths, long[] fileOffsets, int count, int[] results)
+            throws IOException {
+        if (closed) {
+            throw new IOException("io_uring instance is closed.");
+        }
+        for (int batchStart = 0; batchStart < count; batchStart += sqEntries) {
+            int batchSize = Math.min(sqEntries, count - batchStart);
+            int tail = sqRing.getInt(sqTail);
+            for (int i = 0; i < batchSize; i++) {
+                int index = (tail + i) & sqMask;
+                long sqe = (long) index * SQE_SIZE;
+                int operation = batchStart + i;
+                sqes.setMemory(sqe, SQE_SIZE, (byte) 0);
+                sqes.setByte(sqe + SQE_OPCODE, opcode);
+                sqes.setInt(sqe + SQE_FD, fd);
+                sqes.setLong(sqe + SQE_OFF, fileOffsets[operation]);
+                sqes.setLong(sqe + SQE_ADDR, addresses[operation]);
+                sqes.setInt(sqe + SQE_LEN, lengths[operation]);
+                sqes.setLong(sqe + SQE_USER_DATA, operation);
+                sqRing.setInt(sqArray + (long) index * Integer.BYTES, index);
+            }
+            // The entries must be visible to the kernel before it can observe the new tail.
+            VarHandle.releaseFence();
+            sqRing.setInt(sqTail, tail + batchSize);
+
+            int submitted = 0;
+            int completed = 0;
+            while (completed < batchSize) {
+                int toSubmit = batchSize - submitted;
+                submitted += enter(toSubmit, batchSize - completed);
+                completed += reapCompletions(results);
+            }
+        }
+    }
+
+    private int enter(int toSubmit, int minComplete) throws IOException {
+        try {
+            return (int) LIBC.syscall(
+                    SYS_IO_URING_ENTER,
+                    (long) ringFd,
+                    (long) toSubmit,
+                    (long) minComplete,
+                    (long) IORING_ENTER_GETEVENTS,
+                    Pointer.NULL,
+                    0L);
+        } catch (LastErrorException e) {
+            int errorCode = e.getErrorCode();
+            if (errorCode == EINTR || errorCode == EAGAIN || errorCode == EBUSY) {
+                // Nothing was submitted; reap what has completed, and try again.
+                return 0;
+            }
+            throw new IOException("Failed to submit to io_uring: " + e.getMessage(), e);
+        }
+    }
+
+    private int reapCompletions(int[] results) {
+        int head = cqRing.getInt(cqHead);
+        int tail = cqRing.getInt(cqTail);
+        // Reads of the completions must not be reordered before the read of the tail.
+        VarHandle.acquireFence();
+        int reaped = 0;
+        while (head != tail) {
+            long cqe = cqes + (long) (head & cqMask) * CQE_SIZE;
+            int operation = (int) cqRing.getLong(cqe + CQE_USER_DATA);
+            results[operation] = cqRing.getInt(cqe + CQE_RES);
+            head++;
+            reaped++;
+        }
+        VarHandle.releaseFence();
+        cqRing.setInt(cqHead, head);
+        return reaped;
+    }
+
+    private Pointer map(long size, long offset) throws IOException {
+        try {
+            Pointer pointer =
+                    LIBC.mmap(Pointer.NULL, size, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, ringFd, offset);
+            if (Pointer.nativeValue(pointer) == -1) {
+                throw new IOException("Failed to map io_uring rings.");
+            }
+            return pointer;
+        } catch (LastErrorException e) {
+            throw new IOException("Failed to map io_uring rings: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LibC libc = LIBC;
+        libc.munmap(sqes, (long) sqEntries * SQE_SIZE);
+        libc.munmap(sqRing, sqRingSize);
+        if (cqRing != sqRing) {
+            libc.munmap(cqRing, cqRingSize);
+        }
+        libc.close(ringFd);
+    }
+
+    private interface LibC extends Library {
+        long syscall(long number, Object... args) throws LastErrorException;
+
+        Pointer mmap(Pointer address, long length, int protection, int flags, int fd, long offset)
+                throws LastErrorException;
+
+        int munmap(Pointer address, long length);
+
+        int close(int fd);
+    }
+}
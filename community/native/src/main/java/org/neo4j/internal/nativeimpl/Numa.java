@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Minimal access to the Linux NUMA topology and memory policies, without depending on libnuma.
+ * <p>
+ * The node topology is read from sysfs, the node of the calling thread is queried with {@code getcpu}, and memory is
+ * placed with {@code mbind}. Only x86_64 and aarch64 are supported, since the system call numbers differ between
+ * architectures. On any other system, {@link #isAvailable()} returns {@code false} and the system is treated as a
+ * single node.
+ */
+public final class Numa {
+    private static final Path ONLINE_NODES = Path.of("/sys/devices/system/node/online");
+    private static final long MPOL_PREFERRED = 1;
+    // The kernel expects the number of bits in the node mask plus one.
+    private static final long MAX_NODE = Long.SIZE + 1;
+
+    private static final LibC LIBC;
+    private static final long SYS_GETCPU;
+    private static final long SYS_MBIND;
+    private static final int NODE_COUNT;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static {
+        LibC libc = null;
+        long getcpu = -1;
+        long mbind = -1;
+        int nodeCount = 1;
+        Throwable initFailure = null;
+        try {
+            if (Platform.isLinux() && Platform.is64Bit()) {
+                if (Platform.isIntel()) {
+                    getcpu = 309;
+                    mbind = 237;
+                } else if (Platform.isARM()) {
+                    getcpu = 168;
+                    mbind = 235;
+                }
+                if (getcpu != -1) {
+                    nodeCount = parseNodeCount(Files.readString(ONLINE_NODES));
+                    libc = Native.load(Platform.C_LIBRARY_NAME, LibC.class);
+                    IntByReference node = new IntByReference();
+                    libc.syscall(getcpu, null, node, null);
+                }
+            }
+        } catch (Throwable t) {
+            libc = null;
+            nodeCount = 1;
+            initFailure = t;
+        }
+        LIBC = libc;
+        SYS_GETCPU = getcpu;
+        SYS_MBIND = mbind;
+        NODE_COUNT = nodeCount;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private Numa() {}
+
+    /**
+     * @return true if the NUMA topology and memory policies can be used on this system.
+     */
+    public static boolean isAvailable() {
+        return LIBC != null;
+    }
+
+    /**
+     * @return the number of NUMA nodes of this system, or 1 if NUMA support is not available.
+     */
+    public static int nodeCount() {
+        return NODE_COUNT;
+    }
+
+    /**
+     * @return the NUMA node of the CPU the calling thread is currently running on, or 0 if NUMA support is not
+     * available. The thread can be migrated to another node at any time, so the result is only a hint.
+     */
+    public static int currentNode() {
+        LibC libc = LIBC;
+        if (libc == null) {
+            return 0;
+        }
+        try {
+            IntByReference node = new IntByReference();
+            libc.syscall(SYS_GETCPU, null, node, null);
+            return node.getValue();
+        } catch (LastErrorException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Ask the kernel to place the not yet touched pages of the given memory range on the given node, falling back to
+     * other nodes if the preferred node runs out of memory.
+     * @param address start of the memory range, must be aligned to the OS page size.
+     * @param length length of the memory range in bytes.
+     * @param node the preferred NUMA node.
+     * @return true if the policy was applied, false otherwise.
+     */
+    public static boolean preferNode(long address, long length, int node) {
+        LibC libc = LIBC;
+        if (libc == null || node < 0 || node >= Long.SIZE) {
+            return false;
+        }
+        Memory nodeMask = new Memory(2 * Long.BYTES);
+        nodeMask.clear();
+        nodeMask.setLong(0, 1L << node);
+        try {
+            libc.syscall(SYS_MBIND, new Pointer(address), length, MPOL_PREFERRED, nodeMask, MAX_NODE, 0L);
+            return true;
+        } catch (LastErrorException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Details about NUMA support
+     * @return details about NUMA support
+     */
+    public static String describe() {
+        if (LIBC != null) {
+            return "NUMA support is available, with " + NODE_COUNT + (NODE_COUNT == 1 ? " node." : " nodes.");
+        }
+        StringBuilder descriptionBuilder = new StringBuilder("NUMA support is not available.");
+        if (INITIALIZATION_FAILURE != null) {
+            descriptionBuilder.append(" Details: ").append(getStackTrace(INITIALIZATION_FAILURE));
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * Parse a sysfs node list, e.g. {@code 0-1,3}, into the number of nodes needed to address all of them.
+     */
+    static int parseNodeCount(String nodeList) throws IOException {
+        int maxNode = -1;
+        for (String range : nodeList.trim().split(",")) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            try {
+                int last = Integer.parseInt(dash == -1 ? range : range.substring(dash + 1));
+                maxNode = Math.max(maxNode, last);
+            } catch (NumberFormatException e) {
+                throw new IOException("Unexpected NUMA node list: " + nodeList, e);
+            }
+        }
+        return Math.max(1, maxNode + 1);
+    }
+
+    private interface LibC extends Library {
+        long syscall(long number, Object... args) throws LastErrorException;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.internal.nativeimpl.HugePages.TRANSPARENT_HUGE_PAGE_SIZE;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+class HugePagesTest {
+    @Test
+    void parseTransparentHugePageModes() {
+        assertThat(HugePages.parseTransparentHugePageMode("always [madvise] never\n"))
+                .isEqualTo("madvise");
+        assertThat(HugePages.parseTransparentHugePageMode("[always] madvise never"))
+                .isEqualTo("always");
+        assertThat(HugePages.parseTransparentHugePageMode("")).isEqualTo("unknown");
+    }
+
+    @Test
+    @DisabledOnOs(OS.LINUX)
+    void notAvailableOnNonLinux() {
+        assertThat(HugePages.isAvailable()).isFalse();
+        assertThat(HugePages.mapTransparent(TRANSPARENT_HUGE_PAGE_SIZE)).isZero();
+    }
+
+    @Test
+    void rejectSizesThatAreNotHugePageMultiples() {
+        assertThat(HugePages.mapTransparent(4096)).isZero();
+        assertThat(HugePages.mapExplicit(4096, TRANSPARENT_HUGE_PAGE_SIZE)).isZero();
+        assertThat(HugePages.mapExplicit(TRANSPARENT_HUGE_PAGE_SIZE, 3 * 1024 * 1024))
+                .isZero();
+    }
+
+    @Test
+    void transparentHugePageMappingMustBeAlignedAndUsable() {
+        assumeTrue(HugePages.isAvailable(), HugePages::describe);
+        long size = 2 * TRANSPARENT_HUGE_PAGE_SIZE;
+        long address = HugePages.mapTransparent(size);
+        assumeTrue(address != 0, HugePages::describe);
+        try {
+            assertThat(address % TRANSPARENT_HUGE_PAGE_SIZE).isZero();
+            Pointer pointer = new Pointer(address);
+            pointer.setLong(0, 42);
+            pointer.setLong(size - Long.BYTES, 43);
+            assertThat(pointer.getLong(0)).isEqualTo(42);
+            assertThat(pointer.getLong(size - Long.BYTES)).isEqualTo(43);
+        } finally {
+            HugePages.unmap(address, size);
+        }
+    }
+}
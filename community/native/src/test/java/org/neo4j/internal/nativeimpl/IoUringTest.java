@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.getDeclaredField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.internal.nativeimpl.IoUring.IORING_OP_READ;
+import static org.neo4j.internal.nativeimpl.IoUring.IORING_OP_WRITE;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class IoUringTest {
+    private static final int BLOCK = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisabledOnOs(OS.LINUX)
+    void notAvailableOnNonLinux() {
+        assertThat(IoUring.isAvailable()).isFalse();
+        assertThatThrownBy(() -> IoUring.create(8)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readBatchLargerThanTheRing() throws Exception {
+        assumeTrue(IoUring.isAvailable(), IoUring::describe);
+        Path file = directory.resolve("file");
+        byte[] data = new byte[3 * BLOCK + 100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(file, data);
+
+        int count = 5;
+        Memory[] buffers = new Memory[count];
+        long[] addresses = new long[count];
+        int[] lengths = new int[count];
+        long[] offsets = new long[count];
+        int[] results = new int[count];
+        for (int i = 0; i < count; i++) {
+            buffers[i] = new Memory(BLOCK);
+            addresses[i] = Pointer.nativeValue(buffers[i]);
+            lengths[i] = BLOCK;
+            offsets[i] = (long) i * BLOCK;
+        }
+
+        try (var channel = new RandomAccessFile(file.toFile(), "r");
+                var ring = IoUring.create(2)) {
+            ring.submitAndWait(IORING_OP_READ, fd(channel.getFD()), addresses, lengths, offsets, count, results);
+        }
+
+        assertThat(results).containsExactly(BLOCK, BLOCK, BLOCK, 100, 0);
+        for (int i = 0; i < data.length; i++) {
+            assertThat(buffers[i / BLOCK].getByte(i % BLOCK)).isEqualTo(data[i]);
+        }
+    }
+
+    @Test
+    void writeAndReportErrorsPerOperation() throws Exception {
+        assumeTrue(IoUring.isAvailable(), IoUring::describe);
+        Path file = directory.resolve("file");
+        Memory buffer = new Memory(BLOCK);
+        buffer.setMemory(0, BLOCK, (byte) 7);
+        long[] addresses = {Pointer.nativeValue(buffer)};
+        int[] lengths = {BLOCK};
+        long[] offsets = {BLOCK};
+        int[] results = new int[1];
+
+        try (var channel = new RandomAccessFile(file.toFile(), "rw");
+                var ring = IoUring.create(8)) {
+            ring.submitAndWait(IORING_OP_WRITE, fd(channel.getFD()), addresses, lengths, offsets, 1, results);
+            assertThat(results[0]).isEqualTo(BLOCK);
+            assertThat(Files.size(file)).isEqualTo(2 * BLOCK);
+
+            ring.submitAndWait(IORING_OP_READ, -1, addresses, lengths, offsets, 1, results);
+            assertThat(results[0]).isNegative();
+        }
+    }
+
+    private static int fd(FileDescriptor descriptor) throws IllegalAccessException {
+        return getDeclaredField(FileDescriptor.class, "fd", true).getInt(descriptor);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+class NumaTest {
+    @Test
+    void parseNodeLists() throws IOException {
+        assertThat(Numa.parseNodeCount("0\n")).isEqualTo(1);
+        assertThat(Numa.parseNodeCount("0-1\n")).isEqualTo(2);
+        assertThat(Numa.parseNodeCount("0-1,3")).isEqualTo(4);
+        assertThat(Numa.parseNodeCount("")).isEqualTo(1);
+        assertThatThrownBy(() -> Numa.parseNodeCount("zero")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisabledOnOs(OS.LINUX)
+    void notAvailableOnNonLinux() {
+        assertThat(Numa.isAvailable()).isFalse();
+        assertThat(Numa.nodeCount()).isEqualTo(1);
+        assertThat(Numa.currentNode()).isZero();
+    }
+
+    @Test
+    void currentNodeMustBeOneOfTheNodes() {
+        assumeTrue(Numa.isAvailable(), Numa::describe);
+        assertThat(Numa.currentNode()).isBetween(0, Numa.nodeCount() - 1);
+    }
+
+    @Test
+    void rejectNodesOutsideOfTheNodeMask() {
+        assertThat(Numa.preferNode(0, 4096, -1)).isFalse();
+        assertThat(Numa.preferNode(0, 4096, Long.SIZE)).isFalse();
+    }
+}
@@ -38,6 +38,8 @@ import java.util.function.Supplier;
 import org.neo4j.capabilities.CapabilitiesService;
 import org.neo4j.capabilities.DBMSCapabilities;
 import org.neo4j.collection.Dependencies;
+import org.neo4j.collection.factory.CollectionsFactory;
+import org.neo4j.collection.factory.OnHeapCollectionsFactory;
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
@@ -393,21 +395,33 @@ public class GlobalModule {
     private static CollectionsFactorySupplier createCollectionsFactorySupplier(
             Config config, LifeSupport life, LogService logService) {
         final TransactionStateMemoryAllocation allocation = config.get(tx_state_memory_allocation);
-        if (allocation == TransactionStateMemoryAllocation.OFF_HEAP) {
-            if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
+        if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
+            if (allocation == TransactionStateMemoryAllocation.OFF_HEAP) {
                 var log = logService.getInternalLog(GlobalModule.class);
                 log.warn(tx_state_memory_allocation.name() + " is set to " + TransactionStateMemoryAllocation.OFF_HEAP
                         + " but unsafe access to java.nio.DirectByteBuffer is not available. Defaulting to "
                         + TransactionStateMemoryAllocation.ON_HEAP + ".");
-                return CollectionsFactorySupplier.ON_HEAP;
             }
-
-            return createOffHeapCollectionsFactory(config, life);
+            return CollectionsFactorySupplier.ON_HEAP;
         }
-        return CollectionsFactorySupplier.ON_HEAP;
+
+        // Transactions can ask for off-heap state regardless of the configured default allocation
+        final OffHeapBlockAllocator sharedBlockAllocator = createOffHeapBlockAllocator(config, life);
+        final boolean offHeapByDefault = allocation == TransactionStateMemoryAllocation.OFF_HEAP;
+        return new CollectionsFactorySupplier() {
+            @Override
+            public CollectionsFactory create() {
+                return offHeapByDefault ? createOffHeap() : OnHeapCollectionsFactory.INSTANCE;
+            }
+
+            @Override
+            public CollectionsFactory createOffHeap() {
+                return new OffHeapCollectionsFactory(sharedBlockAllocator);
+            }
+        };
     }
 
-    private static CollectionsFactorySupplier createOffHeapCollectionsFactory(Config config, LifeSupport life) {
+    private static OffHeapBlockAllocator createOffHeapBlockAllocator(Config config, LifeSupport life) {
         final CachingOffHeapBlockAllocator allocator = new CachingOffHeapBlockAllocator(
                 config.get(tx_state_off_heap_max_cacheable_block_size), config.get(tx_state_off_heap_block_cache_size));
         final OffHeapBlockAllocator sharedBlockAllocator;
@@ -418,7 +432,7 @@ public class GlobalModule {
             sharedBlockAllocator = allocator;
         }
         life.add(onShutdown(sharedBlockAllocator::release));
-        return () -> new OffHeapCollectionsFactory(sharedBlockAllocator);
+        return sharedBlockAllocator;
     }
 
     private CapabilitiesService loadCapabilities() {
@@ -33,9 +33,15 @@ import org.neo4j.storageengine.api.ReadTracer;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.util.FeatureToggles;
 
 class RecordRelationshipTraversalCursor extends RecordRelationshipCursor implements StorageRelationshipTraversalCursor {
+    private static final boolean PREFETCH_CHAIN =
+            FeatureToggles.flag(RecordRelationshipTraversalCursor.class, "prefetchChain", false);
+
     private final StoreCursors storeCursors;
+    private final CursorContext cursorContext;
+    private final long[] prefetchIds = {-1};
     private ReadTracer tracer;
 
     private enum GroupState {
@@ -61,6 +67,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             StoreCursors storeCursors) {
         super(relationshipStore, cursorContext);
         this.storeCursors = storeCursors;
+        this.cursorContext = cursorContext;
         this.group = new RecordRelationshipGroupCursor(
                 relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext, storeCursors);
     }
@@ -154,6 +161,10 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
 
             relationshipFull(this, next, pageCursor);
             computeNext();
+            if (PREFETCH_CHAIN && next != NO_ID) {
+                // Get the page of the next relationship in the chain loading while this one is being looked at
+                relationshipStore.prefetchRecord(next, pageCursor, prefetchIds, cursorContext);
+            }
             if (tracer != null) {
                 tracer.onRelationship(entityReference());
             }
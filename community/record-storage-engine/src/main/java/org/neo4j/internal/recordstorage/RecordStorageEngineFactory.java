@@ -22,6 +22,7 @@ package org.neo4j.internal.recordstorage;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_partitioned;
 import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.internal.recordstorage.RecordCursorTypes.DYNAMIC_LABEL_TOKEN_CURSOR;
@@ -104,6 +105,7 @@ import org.neo4j.kernel.api.index.IndexProvidersAccess;
 import org.neo4j.kernel.impl.api.index.IndexProviderMap;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.locking.forseti.ForsetiLockManager;
+import org.neo4j.kernel.impl.locking.forseti.PartitionedForsetiLockManager;
 import org.neo4j.kernel.impl.store.AbstractDynamicStore;
 import org.neo4j.kernel.impl.store.DynamicAllocatorProvider;
 import org.neo4j.kernel.impl.store.DynamicAllocatorProviders;
@@ -815,6 +817,9 @@ public class RecordStorageEngineFactory implements StorageEngineFactory {
 
     @Override
     public LockManager createLockManager(Config config, SystemNanoClock clock) {
+        if (config.get(lock_manager_partitioned)) {
+            return new PartitionedForsetiLockManager(config, clock, ResourceType.values());
+        }
         return new ForsetiLockManager(config, clock, ResourceType.values());
     }
 
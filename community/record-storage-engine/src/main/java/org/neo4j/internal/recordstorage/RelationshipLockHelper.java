@@ -180,14 +180,18 @@ final class RelationshipLockHelper {
                 lockList.add(END_PREV.get(relationship));
             });
 
-            // Then we start traversing and locking
+            // Then we start traversing and locking. Ids are collected and locked in one call up to and including
+            // the next relationship we're deleting, since that is where the optimistic read must be verified
+            scopedMemoryTracker.allocateHeap(sizeOfLongArray(upperLimitOfLocks));
+            MutableLongList batch = LongLists.mutable.withInitialCapacity(upperLimitOfLocks);
             while (lockList.nextUnique()) {
                 long id = lockList.currentHighestLockedId();
                 // This could be either a relationship we're deleting, a neighbour or the first-in-chain. They all needs
                 // to be locked
-                locks.acquireExclusive(NONE, RELATIONSHIP, id);
+                batch.add(id);
                 RelationshipRecord old = optimistic.get(id);
                 if (old != null) {
+                    lockBatch(locks, batch);
                     // This is a relationship we we're deleting
                     // No when it is locked we can check if the optimistic read is stable
                     RelationshipRecord actual = relRecords.getOrLoad(id, null).forReadingLinkage();
@@ -198,6 +202,14 @@ final class RelationshipLockHelper {
                     }
                 }
             }
+            lockBatch(locks, batch);
+        }
+    }
+
+    private static void lockBatch(ResourceLocker locks, MutableLongList batch) {
+        if (!batch.isEmpty()) {
+            locks.acquireExclusiveSorted(NONE, RELATIONSHIP, batch.toArray());
+            batch.clear();
         }
     }
 
@@ -274,7 +286,8 @@ final class RelationshipLockHelper {
             neighbours[5] = END_PREV.get(optimistic);
             // Lock them sorted
             Arrays.sort(neighbours);
-            lockRelationshipsExclusively(locks, neighbours);
+            long[] ids = withoutNullReferences(neighbours);
+            locks.acquireExclusiveSorted(NONE, RELATIONSHIP, ids);
 
             RelationshipRecord actual = relRecords.getOrLoad(relId, null).forReadingLinkage();
             assert actual.inUse();
@@ -282,7 +295,7 @@ final class RelationshipLockHelper {
                 // Our optimistic read has changed
                 retry = true;
                 // we need to unlock everything we locked
-                unlockRelationshipsExclusively(locks, neighbours);
+                locks.releaseExclusiveSorted(RELATIONSHIP, ids);
                 // and try again until we get a stable read
                 optimistic = actual;
             }
@@ -301,24 +314,16 @@ final class RelationshipLockHelper {
         return connection.get(old) != connection.get(actual);
     }
 
-    private static void lockRelationshipsExclusively(ResourceLocker locker, long[] ids) {
-        long lastId = NULL_REFERENCE.longValue();
-        for (long id : ids) {
-            if (id != lastId) {
-                locker.acquireExclusive(NONE, RELATIONSHIP, id);
-            }
-            lastId = id;
-        }
-    }
-
-    private static void unlockRelationshipsExclusively(ResourceLocker locker, long[] ids) {
-        long lastId = NULL_REFERENCE.longValue();
-        for (long id : ids) {
-            if (id != lastId) {
-                locker.releaseExclusive(RELATIONSHIP, id);
-            }
-            lastId = id;
+    /**
+     * @param sortedIds sorted ids, where {@link Record#NULL_REFERENCE} sorts before any actual id.
+     * @return the given ids without any leading {@link Record#NULL_REFERENCE}.
+     */
+    private static long[] withoutNullReferences(long[] sortedIds) {
+        int firstId = 0;
+        while (firstId < sortedIds.length && isNull(sortedIds[firstId])) {
+            firstId++;
         }
+        return firstId == 0 ? sortedIds : Arrays.copyOfRange(sortedIds, firstId, sortedIds.length);
     }
 
     /**
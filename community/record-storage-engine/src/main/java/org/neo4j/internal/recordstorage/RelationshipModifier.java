@@ -489,7 +489,7 @@ public class RelationshipModifier {
                             relRecords.getOrLoad(nextRel, null).forReadingData().getNextRel(nodeId);
                 } while (!isNull(nextRel));
 
-                locks.acquireExclusive(lockTracer, RELATIONSHIP, ids.toSortedArray());
+                locks.acquireExclusiveSorted(lockTracer, RELATIONSHIP, ids.toSortedArray());
                 return true;
             }
         }
@@ -398,6 +398,25 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         recordsEndOffset = recordsPerPage * recordSize; // Truncated file page size to whole multiples of record size.
     }
 
+    /**
+     * Hints the page cache to load the page of the record with the given id in the background, unless the given
+     * cursor is already at that page. Meant for chain traversals which know the id of the next record to read
+     * before they are done with the current one.
+     *
+     * @param id the id of the record that is expected to be read soon.
+     * @param cursor the cursor that is going to read the record.
+     * @param prefetchIds reusable single-element array to pass the page id in. It keeps the id of the page prefetched
+     * last, so that records on the same page do not prefetch it again. Should start out as {@code -1}.
+     * @param cursorContext underlying page cache cursor context.
+     */
+    public void prefetchRecord(long id, PageCursor cursor, long[] prefetchIds, CursorContext cursorContext) {
+        long pageId = pageIdForRecord(id);
+        if (pageId != cursor.getCurrentPageId() && pageId != prefetchIds[0]) {
+            prefetchIds[0] = pageId;
+            pagedFile.prefetch(prefetchIds, cursorContext);
+        }
+    }
+
     public boolean isInUse(long id, PageCursor cursor) {
         long pageId = pageIdForRecord(id);
         int offset = offsetForId(id);
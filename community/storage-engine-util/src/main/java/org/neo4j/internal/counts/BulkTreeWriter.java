@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.neo4j.function.ThrowingSupplier;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.memory.NativeScopedBuffer;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * Gathers absolute counts and writes them in sorted order into an empty tree, using a bulk loading {@link Writer}, when closed.
+ * This is useful when rebuilding counts from scratch, where the counts are produced in no particular order.
+ * <p>
+ * Counts are gathered off-heap, in fixed size chunks allocated on the given {@link MemoryTracker}. Each chunk is
+ * sorted in place when full, and the sorted chunks are merged into the tree when closed, so heap usage does not grow
+ * with the number of counts. If the same key is written more than once the last count written for it wins.
+ */
+class BulkTreeWriter implements CountUpdater.CountWriter {
+    // Entry layout: type, second, first, count and a sequence number telling writes of the same key apart
+    private static final int TYPE_OFFSET = 0;
+    private static final int SECOND_OFFSET = TYPE_OFFSET + Integer.BYTES;
+    private static final int FIRST_OFFSET = SECOND_OFFSET + Integer.BYTES;
+    private static final int COUNT_OFFSET = FIRST_OFFSET + Long.BYTES;
+    private static final int SEQUENCE_OFFSET = COUNT_OFFSET + Long.BYTES;
+    private static final int ENTRY_SIZE = SEQUENCE_OFFSET + Long.BYTES;
+    private static final int DEFAULT_ENTRIES_PER_CHUNK = (int) (ByteUnit.mebiBytes(8) / ENTRY_SIZE);
+
+    private final ThrowingSupplier<Writer<CountsKey, CountsValue>, IOException> bulkLoader;
+    private final Comparator<CountsKey> comparator;
+    private final InternalLogProvider userLogProvider;
+    private final MemoryTracker memoryTracker;
+    private final int entriesPerChunk;
+    private final List<NativeScopedBuffer> chunks = new ArrayList<>();
+    private final CountsKey compareKey = new CountsKey();
+    private final CountsKey otherCompareKey = new CountsKey();
+    private ByteBuffer currentChunk;
+    private int currentChunkEntries;
+    private long nextSequence;
+
+    BulkTreeWriter(
+            ThrowingSupplier<Writer<CountsKey, CountsValue>, IOException> bulkLoader,
+            Comparator<CountsKey> comparator,
+            InternalLogProvider userLogProvider,
+            MemoryTracker memoryTracker) {
+        this(bulkLoader, comparator, userLogProvider, memoryTracker, DEFAULT_ENTRIES_PER_CHUNK);
+    }
+
+    BulkTreeWriter(
+            ThrowingSupplier<Writer<CountsKey, CountsValue>, IOException> bulkLoader,
+            Comparator<CountsKey> comparator,
+            InternalLogProvider userLogProvider,
+            MemoryTracker memoryTracker,
+            int entriesPerChunk) {
+        this.bulkLoader = bulkLoader;
+        this.comparator = comparator;
+        this.userLogProvider = userLogProvider;
+        this.memoryTracker = memoryTracker;
+        this.entriesPerChunk = entriesPerChunk;
+    }
+
+    /**
+     * @return always {@code true}, since the tree is empty and the previous count of the key is not looked up.
+     */
+    @Override
+    public boolean write(CountsKey key, long count) {
+        if (currentChunk == null || currentChunkEntries == entriesPerChunk) {
+            newChunk();
+        }
+        int offset = currentChunkEntries++ * ENTRY_SIZE;
+        currentChunk
+                .putInt(offset + TYPE_OFFSET, key.type)
+                .putInt(offset + SECOND_OFFSET, key.second)
+                .putLong(offset + FIRST_OFFSET, key.first)
+                .putLong(offset + COUNT_OFFSET, count)
+                .putLong(offset + SEQUENCE_OFFSET, nextSequence++);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (currentChunk != null) {
+                sort(currentChunk, currentChunkEntries);
+            }
+            try (TreeWriter writer = new TreeWriter(bulkLoader.get(), userLogProvider)) {
+                mergeInto(writer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeAllUnchecked(chunks);
+            chunks.clear();
+            currentChunk = null;
+        }
+    }
+
+    private void newChunk() {
+        if (currentChunk != null) {
+            sort(currentChunk, currentChunkEntries);
+        }
+        NativeScopedBuffer chunk = new NativeScopedBuffer(entriesPerChunk * ENTRY_SIZE, LITTLE_ENDIAN, memoryTracker);
+        chunks.add(chunk);
+        currentChunk = chunk.getBuffer();
+        currentChunkEntries = 0;
+    }
+
+    /**
+     * Merges the sorted chunks and writes the last count of each key, unless it is zero. A zero count is the same as
+     * no count, and removals are not supported by the bulk loader.
+     */
+    private void mergeInto(TreeWriter writer) {
+        PriorityQueue<ChunkCursor> cursors = new PriorityQueue<>(
+                Math.max(1, chunks.size()), (c1, c2) -> compare(c1.chunk, c1.entry, c2.chunk, c2.entry));
+        for (int i = 0; i < chunks.size(); i++) {
+            int entries = i == chunks.size() - 1 ? currentChunkEntries : entriesPerChunk;
+            if (entries > 0) {
+                cursors.add(new ChunkCursor(chunks.get(i).getBuffer(), entries));
+            }
+        }
+
+        CountsKey key = new CountsKey();
+        CountsKey pendingKey = new CountsKey();
+        long pendingCount = 0;
+        boolean hasPending = false;
+        while (!cursors.isEmpty()) {
+            ChunkCursor cursor = cursors.poll();
+            readKey(cursor.chunk, cursor.entry, key);
+            if (hasPending && comparator.compare(pendingKey, key) != 0 && pendingCount != 0) {
+                writer.write(pendingKey, pendingCount);
+            }
+            pendingKey.initialize(key.type, key.first, key.second);
+            pendingCount = cursor.chunk.getLong(cursor.entry * ENTRY_SIZE + COUNT_OFFSET);
+            hasPending = true;
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+        if (hasPending && pendingCount != 0) {
+            writer.write(pendingKey, pendingCount);
+        }
+    }
+
+    /**
+     * In-place heap sort of the entries in a chunk, which needs no memory besides the chunk itself.
+     */
+    private void sort(ByteBuffer chunk, int entries) {
+        for (int i = entries / 2 - 1; i >= 0; i--) {
+            siftDown(chunk, i, entries);
+        }
+        for (int end = entries - 1; end > 0; end--) {
+            swap(chunk, 0, end);
+            siftDown(chunk, 0, end);
+        }
+    }
+
+    private void siftDown(ByteBuffer chunk, int root, int entries) {
+        int child;
+        while ((child = 2 * root + 1) < entries) {
+            if (child + 1 < entries && compare(chunk, child, chunk, child + 1) < 0) {
+                child++;
+            }
+            if (compare(chunk, root, chunk, child) >= 0) {
+                return;
+            }
+            swap(chunk, root, child);
+            root = child;
+        }
+    }
+
+    private int compare(ByteBuffer chunk, int entry, ByteBuffer otherChunk, int otherEntry) {
+        readKey(chunk, entry, compareKey);
+        readKey(otherChunk, otherEntry, otherCompareKey);
+        int keyCompare = comparator.compare(compareKey, otherCompareKey);
+        if (keyCompare != 0) {
+            return keyCompare;
+        }
+        return Long.compare(
+                chunk.getLong(entry * ENTRY_SIZE + SEQUENCE_OFFSET),
+                otherChunk.getLong(otherEntry * ENTRY_SIZE + SEQUENCE_OFFSET));
+    }
+
+    private static void readKey(ByteBuffer chunk, int entry, CountsKey into) {
+        int offset = entry * ENTRY_SIZE;
+        into.initialize(
+                (byte) chunk.getInt(offset + TYPE_OFFSET),
+                chunk.getLong(offset + FIRST_OFFSET),
+                chunk.getInt(offset + SECOND_OFFSET));
+    }
+
+    private static void swap(ByteBuffer chunk, int entry, int otherEntry) {
+        int offset = entry * ENTRY_SIZE;
+        int otherOffset = otherEntry * ENTRY_SIZE;
+        for (int i = 0; i < ENTRY_SIZE; i += Long.BYTES) {
+            long value = chunk.getLong(offset + i);
+            chunk.putLong(offset + i, chunk.getLong(otherOffset + i));
+            chunk.putLong(otherOffset + i, value);
+        }
+    }
+
+    private static class ChunkCursor {
+        private final ByteBuffer chunk;
+        private final int entries;
+        private int entry;
+
+        ChunkCursor(ByteBuffer chunk, int entries) {
+            this.chunk = chunk;
+            this.entries = entries;
+        }
+
+        boolean next() {
+            return ++entry < entries;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import org.neo4j.util.Preconditions;
 
 public abstract class CountsChanges {
@@ -126,6 +127,31 @@ public abstract class CountsChanges {
         return ABSENT;
     }
 
+    /**
+     * @param key {@link CountsKey} to get count for.
+     * @param storedCount where to read the absolute count from the backing tree, if needed.
+     * @return the absolute count for the given key, combining changes in this instance (and the "old" instance)
+     * with the stored count.
+     */
+    long read(CountsKey key, ToLongFunction<CountsKey> storedCount) {
+        long changedCount = get(key);
+        return changedCount != ABSENT ? changedCount : storedCount.applyAsLong(key);
+    }
+
+    /**
+     * @param comparator {@link Comparator} to sort the changed keys with.
+     * @param storedCount where to read the absolute count from the backing tree, if needed.
+     * @return the absolute counts of all keys changed in this instance, sorted using the given comparator.
+     */
+    Iterable<Map.Entry<CountsKey, AtomicLong>> sortedCounts(
+            Comparator<CountsKey> comparator, ToLongFunction<CountsKey> storedCount) {
+        return sortedChanges(comparator);
+    }
+
+    boolean isFrozen() {
+        return frozen;
+    }
+
     int size() {
         return changes.size();
     }
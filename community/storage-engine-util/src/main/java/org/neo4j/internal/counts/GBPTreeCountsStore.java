@@ -121,6 +121,12 @@ public class GBPTreeCountsStore extends GBPTreeGenericCountsStore implements Cou
                 openOptions);
     }
 
+    @Override
+    protected CountsChanges createCountChanges() {
+        // Updaters don't care whether counts go to or from zero, so changes don't need to read the stored counts
+        return new StripedCountsChanges();
+    }
+
     @Override
     public CountsUpdater updater(long txId, boolean isLast, CursorContext cursorContext) {
         CountUpdater updater = updaterImpl(txId, isLast, cursorContext);
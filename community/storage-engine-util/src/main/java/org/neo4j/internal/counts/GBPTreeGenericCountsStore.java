@@ -21,7 +21,6 @@ package org.neo4j.internal.counts;
 
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
-import static org.neo4j.internal.counts.CountsChanges.ABSENT;
 import static org.neo4j.internal.counts.CountsKey.MAX_STRAY_TX_ID;
 import static org.neo4j.internal.counts.CountsKey.MIN_STRAY_TX_ID;
 import static org.neo4j.internal.counts.CountsKey.strayTxId;
@@ -242,7 +241,7 @@ public class GBPTreeGenericCountsStore implements AutoCloseable, ConsistencyChec
             checkState(
                     !readOnly,
                     "Counts store needs rebuilding (most likely this database needs to be recovered), but is read-only.");
-            try (CountUpdater updater = createDirectUpdater(false, cursorContext)) {
+            try (CountUpdater updater = createRebuildUpdater(cursorContext, memoryTracker)) {
                 rebuilder.rebuild(updater, cursorContext, memoryTracker);
             } finally {
                 idSequence.set(rebuilder.lastCommittedTxId(), EMPTY_LONG_ARRAY);
@@ -325,6 +324,33 @@ public class GBPTreeGenericCountsStore implements AutoCloseable, ConsistencyChec
         }
     }
 
+    /**
+     * Opens a {@link CountUpdater} for rebuilding all counts. If the tree is empty the counts are gathered off-heap, on the given
+     * memory tracker, and bulk loaded into the tree when the updater is closed, otherwise they are written directly into the tree,
+     * see {@link #createDirectUpdater(boolean, CursorContext)}.
+     */
+    private CountUpdater createRebuildUpdater(CursorContext cursorContext, MemoryTracker memoryTracker)
+            throws IOException {
+        if (!isTreeEmpty(cursorContext)) {
+            return createDirectUpdater(false, cursorContext);
+        }
+        Lock lock = this.lock.writeLock();
+        lock.lock();
+        return new CountUpdater(
+                new BulkTreeWriter(() -> tree.bulkLoader(1.0, cursorContext), layout, userLogProvider, memoryTracker),
+                lock);
+    }
+
+    private boolean isTreeEmpty(CursorContext cursorContext) throws IOException {
+        CountsKey lowest = layout.newKey();
+        CountsKey highest = layout.newKey();
+        layout.initializeAsLowest(lowest);
+        layout.initializeAsHighest(highest);
+        try (Seeker<CountsKey, CountsValue> seek = tree.seek(lowest, highest, cursorContext)) {
+            return !seek.next();
+        }
+    }
+
     public void checkpoint(FileFlushEvent flushEvent, CursorContext cursorContext) throws IOException {
         // Do an explicit read-only check here because in this store checkpoint implies also writing
         if (readOnly) {
@@ -412,6 +438,9 @@ public class GBPTreeGenericCountsStore implements AutoCloseable, ConsistencyChec
     private void writeCountsChanges(
             CountsChanges changes, OutOfOrderSequence.Snapshot snapshot, CursorContext cursorContext)
             throws IOException {
+        // Sort the entries in the natural tree order to get more performance in the writer
+        Iterable<Map.Entry<CountsKey, AtomicLong>> sortedCounts =
+                changes.sortedCounts(layout, key -> readCountFromTree(key, cursorContext));
         try (Writer<CountsKey, CountsValue> writer = tree.writer(W_BATCHED_SINGLE_THREADED, cursorContext)) {
             TreeWriter treeWriter = new TreeWriter(writer, userLogProvider);
             if (snapshot != null) {
@@ -420,10 +449,7 @@ public class GBPTreeGenericCountsStore implements AutoCloseable, ConsistencyChec
                 // In GBPTree the bump in generation always drains & blocks writers
                 updateTxIdInformationInTree(writer, snapshot, cursorContext);
             }
-            // Sort the entries in the natural tree order to get more performance in the writer
-            changes.sortedChanges(layout)
-                    .forEach(entry ->
-                            treeWriter.write(entry.getKey(), entry.getValue().get()));
+            sortedCounts.forEach(entry -> treeWriter.write(entry.getKey(), entry.getValue().get()));
         }
     }
 
@@ -466,13 +492,13 @@ public class GBPTreeGenericCountsStore implements AutoCloseable, ConsistencyChec
     }
 
     protected long read(CountsKey key, CursorContext cursorContext) {
-        long changedCount = changes.get(key);
-        return changedCount != ABSENT ? changedCount : readCountFromTree(key, cursorContext);
+        return changes.read(key, k -> readCountFromTree(k, cursorContext));
     }
 
     public void visitAllCounts(CountVisitor visitor, CursorContext cursorContext) {
         // First visit the changes that we haven't check-pointed yet
-        for (Map.Entry<CountsKey, AtomicLong> changedEntry : changes.sortedChanges(layout)) {
+        for (Map.Entry<CountsKey, AtomicLong> changedEntry :
+                changes.sortedCounts(layout, key -> readCountFromTree(key, cursorContext))) {
             // Our simplistic approach to the changes map makes it contain 0 counts at times, we don't remove entries
             // from it
             if (changedEntry.getValue().get() != 0) {
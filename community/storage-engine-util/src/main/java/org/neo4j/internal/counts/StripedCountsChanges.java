@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.neo4j.counts.InvalidCountException;
+import org.neo4j.util.Preconditions;
+
+/**
+ * Changes to counts, kept as deltas in striped {@link LongAdder} cells rather than as absolute counts. Contrary to
+ * {@link MapCountsChanges} making a change never reads the stored count and concurrent changes to the same key,
+ * e.g. the count of all nodes, don't contend on a single counter.
+ * <p>
+ * Absolute counts are only resolved when needed: reads combine the stored count with the deltas and when this instance
+ * is frozen and its changes written to the backing tree all of its deltas are resolved into absolute counts,
+ * before any of them is written. Reads from then on use the resolved counts instead of the stored ones, which
+ * may or may not include the deltas of this instance while the tree is being written to.
+ * <p>
+ * As a consequence {@link #add(CountsKey, long, Function)} doesn't know whether the absolute count went to or from
+ * zero and always returns {@code false}, so this is only used for counts whose updaters don't care about that.
+ */
+class StripedCountsChanges extends CountsChanges {
+    private final ConcurrentMap<CountsKey, LongAdder> deltas = new ConcurrentHashMap<>();
+    private volatile StripedCountsChanges previous;
+
+    StripedCountsChanges() {
+        // Resolved absolute counts go into the map of the super class
+        super(new ConcurrentHashMap<>());
+    }
+
+    private StripedCountsChanges(StripedCountsChanges previous) {
+        this();
+        this.previous = previous;
+    }
+
+    @Override
+    protected CountsChanges fork() {
+        return new StripedCountsChanges(this);
+    }
+
+    @Override
+    void clearPreviousChanges() {
+        super.clearPreviousChanges();
+        previous = null;
+    }
+
+    @Override
+    boolean add(CountsKey key, long delta, Function<CountsKey, AtomicLong> defaultToStoredCount) {
+        Preconditions.checkState(!isFrozen(), "Can't make changes in a frozen state");
+        LongAdder counter = deltas.get(key);
+        if (counter == null) {
+            // Only lock on the first change to a key, all others are lock-free
+            counter = deltas.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.add(delta);
+        return false;
+    }
+
+    @Override
+    boolean containsChange(CountsKey key) {
+        if (deltas.containsKey(key)) {
+            return true;
+        }
+        StripedCountsChanges prev = previous;
+        return prev != null && prev.deltas.containsKey(key);
+    }
+
+    /**
+     * Deltas can't be turned into absolute counts without the stored counts, use {@link #read(CountsKey, ToLongFunction)}.
+     * @return the resolved absolute count of the given key if this instance has been written, otherwise {@link #ABSENT}.
+     */
+    @Override
+    long get(CountsKey key) {
+        AtomicLong resolvedCount = changes.get(key);
+        return resolvedCount != null ? resolvedCount.get() : ABSENT;
+    }
+
+    @Override
+    long read(CountsKey key, ToLongFunction<CountsKey> storedCount) {
+        StripedCountsChanges prev = previous;
+        long resolvedCount = resolvedCount(key, prev);
+        if (resolvedCount != ABSENT) {
+            return resolvedCount;
+        }
+        long count = storedCount.applyAsLong(key);
+        // The stored count may have been written from the "old" instance after we checked it. All its counts are
+        // resolved before any of them is written so checking again tells whether the stored count includes its deltas
+        resolvedCount = resolvedCount(key, prev);
+        if (resolvedCount != ABSENT) {
+            return resolvedCount;
+        }
+        if (prev != null) {
+            count += prev.delta(key);
+        }
+        return count + delta(key);
+    }
+
+    /**
+     * @return the absolute count of the given key as resolved when writing this instance, or the "old" instance,
+     * or {@link #ABSENT} if none of them has resolved it.
+     */
+    private long resolvedCount(CountsKey key, StripedCountsChanges prev) {
+        long count = get(key);
+        if (count != ABSENT) {
+            return count;
+        }
+        if (prev != null) {
+            long previousCount = prev.get(key);
+            if (previousCount != ABSENT) {
+                return previousCount + delta(key);
+            }
+        }
+        return ABSENT;
+    }
+
+    private long delta(CountsKey key) {
+        LongAdder delta = deltas.get(key);
+        return delta != null ? delta.sum() : 0;
+    }
+
+    /**
+     * For a frozen instance this also resolves the absolute counts of all its changes, making them visible to
+     * {@link #read(CountsKey, ToLongFunction)} before returning them to be written. Keys with invalid stored
+     * counts are left out, i.e. updates to them are ignored.
+     */
+    @Override
+    Iterable<Map.Entry<CountsKey, AtomicLong>> sortedCounts(
+            Comparator<CountsKey> comparator, ToLongFunction<CountsKey> storedCount) {
+        boolean resolve = isFrozen();
+        List<Map.Entry<CountsKey, AtomicLong>> sortedCounts = new ArrayList<>(deltas.size());
+        for (CountsKey key : deltas.keySet()) {
+            long count;
+            try {
+                count = read(key, storedCount);
+            } catch (InvalidCountException e) {
+                continue;
+            }
+            AtomicLong absoluteCount = new AtomicLong(count);
+            if (resolve) {
+                changes.put(key, absoluteCount);
+            }
+            sortedCounts.add(Map.entry(key, absoluteCount));
+        }
+        sortedCounts.sort((e1, e2) -> comparator.compare(e1.getKey(), e2.getKey()));
+        return sortedCounts;
+    }
+
+    @Override
+    Iterable<Map.Entry<CountsKey, AtomicLong>> sortedChanges(Comparator<CountsKey> comparator) {
+        return sortedCounts(comparator, key -> {
+            throw new IllegalStateException("Absolute count of " + key + " is unknown without its stored count");
+        });
+    }
+
+    @Override
+    int size() {
+        return deltas.size();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.internal.counts.GBPTreeCountsStore.nodeKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class BulkTreeWriterTest {
+    private static final int ENTRIES_PER_CHUNK = 16;
+
+    @Inject
+    private RandomSupport random;
+
+    private final CountsLayout layout = new CountsLayout();
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+    private final List<Map.Entry<CountsKey, Long>> written = new ArrayList<>();
+
+    @Test
+    void shouldWriteCountsInKeyOrderAcrossChunks() {
+        // given
+        var keys = new ArrayList<CountsKey>();
+        for (int labelId = 0; labelId < ENTRIES_PER_CHUNK * 10 + 3; labelId++) {
+            keys.add(nodeKey(labelId));
+        }
+        Collections.shuffle(keys, random.random());
+
+        // when
+        var writer = bulkTreeWriter();
+        for (CountsKey key : keys) {
+            writer.write(key, key.first() + 1);
+        }
+        assertThat(memoryTracker.usedNativeMemory()).isPositive();
+        writer.close();
+
+        // then
+        keys.sort(layout);
+        assertThat(written).extracting(Map.Entry::getKey).containsExactlyElementsOf(keys);
+        assertThat(written).allMatch(entry -> entry.getValue() == entry.getKey().first() + 1);
+        assertThat(memoryTracker.usedNativeMemory()).isZero();
+    }
+
+    @Test
+    void shouldWriteLastCountOfRepeatedKeysAndSkipZeroCounts() {
+        // given
+        var writer = bulkTreeWriter();
+        for (int i = 0; i < ENTRIES_PER_CHUNK * 5; i++) {
+            writer.write(nodeKey(i % 5), i);
+        }
+        writer.write(nodeKey(4), 0);
+
+        // when
+        writer.close();
+
+        // then
+        int lastRound = ENTRIES_PER_CHUNK * 5 - 5;
+        assertThat(written)
+                .containsExactly(
+                        Map.entry(nodeKey(0), (long) lastRound),
+                        Map.entry(nodeKey(1), (long) lastRound + 1),
+                        Map.entry(nodeKey(2), (long) lastRound + 2),
+                        Map.entry(nodeKey(3), (long) lastRound + 3));
+        assertThat(memoryTracker.usedNativeMemory()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BulkTreeWriter bulkTreeWriter() {
+        Writer<CountsKey, CountsValue> treeWriter = mock(Writer.class);
+        doAnswer(invocation -> {
+                    CountsKey key = invocation.getArgument(0);
+                    CountsValue value = invocation.getArgument(1);
+                    written.add(Map.entry(new CountsKey((byte) key.type(), key.first(), key.second()), value.count()));
+                    return null;
+                })
+                .when(treeWriter)
+                .merge(any(), any(), any());
+        return new BulkTreeWriter(
+                () -> treeWriter, layout, NullLogProvider.getInstance(), memoryTracker, ENTRIES_PER_CHUNK);
+    }
+}
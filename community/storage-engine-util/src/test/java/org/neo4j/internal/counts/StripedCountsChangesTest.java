@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.internal.counts.GBPTreeCountsStore.nodeKey;
+import static org.neo4j.internal.counts.GBPTreeCountsStore.relationshipKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.counts.InvalidCountException;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class StripedCountsChangesTest {
+    @Inject
+    private RandomSupport random;
+
+    private static final Function<CountsKey, AtomicLong> NOT_READ = key -> {
+        throw new AssertionError("Should not read stored count of " + key);
+    };
+
+    @Test
+    void shouldNotReadStoredCountWhenAdding() {
+        // given
+        CountsChanges changes = new StripedCountsChanges();
+        CountsKey key = nodeKey(1);
+
+        // when
+        changes.add(key, 5, NOT_READ);
+        changes.add(key, -2, NOT_READ);
+
+        // then
+        assertThat(changes.containsChange(key)).isTrue();
+        assertThat(changes.read(key, stored(10))).isEqualTo(13);
+        assertThat(changes.read(nodeKey(2), stored(10))).isEqualTo(10);
+    }
+
+    @Test
+    void shouldNotAcceptChangesWhenFrozen() {
+        // given
+        CountsChanges changes = new StripedCountsChanges();
+        CountsKey key = nodeKey(1);
+        changes.add(key, 1, NOT_READ);
+
+        // when
+        changes.freezeAndFork();
+
+        // then
+        assertThatThrownBy(() -> changes.add(key, 1, NOT_READ)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldCombineStoredCountWithOldAndNewDeltas() {
+        // given
+        CountsChanges oldChanges = new StripedCountsChanges();
+        CountsKey key = relationshipKey(4, 99, 21);
+        oldChanges.add(key, 10, NOT_READ);
+
+        // when
+        CountsChanges newChanges = oldChanges.freezeAndFork();
+        newChanges.add(key, 3, NOT_READ);
+
+        // then
+        assertThat(newChanges.containsChange(key)).isTrue();
+        assertThat(newChanges.read(key, stored(100))).isEqualTo(113);
+    }
+
+    @Test
+    void shouldReadResolvedCountsWhileWritingOldChanges() {
+        // given
+        InMemoryCountsStore store = new InMemoryCountsStore();
+        CountsKey key = nodeKey(7);
+        store.store(key, 100);
+        CountsChanges oldChanges = new StripedCountsChanges();
+        oldChanges.add(key, 10, NOT_READ);
+        CountsChanges newChanges = oldChanges.freezeAndFork();
+        newChanges.add(key, 1, NOT_READ);
+
+        // when resolving the old changes
+        List<Map.Entry<CountsKey, AtomicLong>> counts = new ArrayList<>();
+        oldChanges.sortedCounts(new CountsLayout(), store).forEach(counts::add);
+
+        // then reads are the same before and after the resolved counts are written
+        assertThat(counts).hasSize(1);
+        assertThat(counts.get(0).getValue().get()).isEqualTo(110);
+        assertThat(newChanges.read(key, store)).isEqualTo(111);
+        store.store(key, counts.get(0).getValue().get());
+        assertThat(newChanges.read(key, store)).isEqualTo(111);
+        newChanges.clearPreviousChanges();
+        assertThat(newChanges.read(key, store)).isEqualTo(111);
+    }
+
+    @Test
+    void shouldSkipInvalidStoredCountsWhenResolving() {
+        // given
+        CountsChanges changes = new StripedCountsChanges();
+        CountsKey invalidKey = nodeKey(1);
+        CountsKey validKey = nodeKey(2);
+        changes.add(invalidKey, 1, NOT_READ);
+        changes.add(validKey, 1, NOT_READ);
+        changes.freezeAndFork();
+
+        // when
+        List<Map.Entry<CountsKey, AtomicLong>> counts = new ArrayList<>();
+        changes.sortedCounts(new CountsLayout(), key -> {
+                    if (key.equals(invalidKey)) {
+                        throw new InvalidCountException(key.toString());
+                    }
+                    return 5;
+                })
+                .forEach(counts::add);
+
+        // then
+        assertThat(counts).hasSize(1);
+        assertThat(counts.get(0).getKey()).isEqualTo(validKey);
+        assertThat(counts.get(0).getValue().get()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldUpdateConcurrently() {
+        // given
+        CountsChanges changes = new StripedCountsChanges();
+        InMemoryCountsStore store = new InMemoryCountsStore();
+        for (int i = 0; i < 50; i++) {
+            store.store(randomKey(random.random()), random.nextLong(100));
+        }
+
+        // when
+        Race race = new Race();
+        List<Map<CountsKey, MutableLong>> allThreadChanges = new CopyOnWriteArrayList<>();
+        race.addContestants(4, r -> () -> {
+            Random threadRandom = new Random(random.seed() + r);
+            Map<CountsKey, MutableLong> threadChanges = new HashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                CountsKey key = randomKey(threadRandom);
+                long delta = threadRandom.nextInt(12) - 2;
+                changes.add(key, delta, NOT_READ);
+                threadChanges.computeIfAbsent(key, k -> new MutableLong()).add(delta);
+            }
+            allThreadChanges.add(threadChanges);
+        });
+        race.goUnchecked();
+
+        // then
+        Map<CountsKey, MutableLong> expectedCounts = new HashMap<>();
+        store.counts.forEach((key, count) -> expectedCounts.put(key, new MutableLong(count.longValue())));
+        for (Map<CountsKey, MutableLong> threadChanges : allThreadChanges) {
+            threadChanges.forEach((key, delta) ->
+                    expectedCounts.computeIfAbsent(key, k -> new MutableLong()).add(delta.longValue()));
+        }
+        expectedCounts.forEach((key, expectedCount) ->
+                assertThat(changes.read(key, store)).as(key.toString()).isEqualTo(expectedCount.longValue()));
+    }
+
+    private static CountsKey randomKey(Random random) {
+        return random.nextBoolean()
+                ? nodeKey(random.nextInt(20))
+                : relationshipKey(random.nextInt(20), random.nextInt(20), random.nextInt(20));
+    }
+
+    private static ToLongFunction<CountsKey> stored(long count) {
+        return key -> count;
+    }
+
+    private static class InMemoryCountsStore implements ToLongFunction<CountsKey> {
+        private final ConcurrentHashMap<CountsKey, Long> counts = new ConcurrentHashMap<>();
+
+        void store(CountsKey key, long count) {
+            counts.put(key, count);
+        }
+
+        @Override
+        public long applyAsLong(CountsKey key) {
+            return counts.getOrDefault(key, 0L);
+        }
+    }
+}
@@ -93,6 +93,11 @@ public class AdversarialPagedFile extends DelegatingPagedFile {
         return delegate.touch(pageId, count, cursorContext);
     }
 
+    @Override
+    public void prefetch(long[] pageIds, CursorContext cursorContext) {
+        delegate.prefetch(pageIds, cursorContext);
+    }
+
     @Override
     public String toString() {
         return "AdversarialPagedFile{" + "delegate=" + delegate + '}';
@@ -118,6 +118,11 @@ public class DelegatingPagedFile implements PagedFile {
         return delegate.touch(pageId, count, cursorContext);
     }
 
+    @Override
+    public void prefetch(long[] pageIds, CursorContext cursorContext) {
+        delegate.prefetch(pageIds, cursorContext);
+    }
+
     @Override
     public boolean preAllocateSupported() {
         return delegate.preAllocateSupported();
@@ -126,6 +126,9 @@ public class StubPagedFile implements PagedFile {
         return 0;
     }
 
+    @Override
+    public void prefetch(long[] pageIds, CursorContext cursorContext) {}
+
     @Override
     public boolean preAllocateSupported() {
         return false;